@@ -0,0 +1,105 @@
+package com.kingsten.recurrences.generator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/// <summary>
+/// Benchmarks for the RecurrenceHelper entry points over each pattern type, for series that
+/// started recently or long ago and with anything from 10 to 9999 occurrences.
+/// Run with: mvn -P benchmark verify -DskipTests (see the benchmark profile in pom.xml).
+/// </summary>
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecurrenceHelperBenchmark {
+
+    // The date the series are read at, so results don't depend on when the benchmark runs.
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    @Param({"Daily", "Weekly", "Monthly", "Yearly"})
+    public String patternType;
+
+    /// <summary>
+    /// Short series start a year before NOW, long ones a hundred years before.
+    /// </summary>
+    @Param({"Short", "Long"})
+    public String seriesAge;
+
+    /// <summary>
+    /// The Series Info holds the number of occurrences in four digits, so 9999 is the most it can have.
+    /// </summary>
+    @Param({"10", "1000", "9999"})
+    public int occurrences;
+
+    private String seriesInfo;
+
+    @Setup
+    public void setup() throws Exception {
+        LocalDateTime startDate = "Long".equals(seriesAge) ? NOW.minusYears(100) : NOW.minusYears(1);
+        seriesInfo = getSeriesInfo(patternType, startDate, occurrences);
+    }
+
+    @Benchmark
+    public RecurrenceValues getRecurrenceValues() throws Exception {
+        return RecurrenceHelper.getRecurrenceValues(seriesInfo);
+    }
+
+    @Benchmark
+    public LocalDateTime getNextDate() throws Exception {
+        return RecurrenceHelper.getNextDate(NOW, seriesInfo);
+    }
+
+    @Benchmark
+    public RecurrenceValues getPostRecurrenceValues() throws Exception {
+        return RecurrenceHelper.getPostRecurrenceValues(seriesInfo, 10);
+    }
+
+    @Benchmark
+    public RecurrenceInfo getFriendlyRecurrenceInfo() {
+        return RecurrenceHelper.getFriendlySeriesInfo(seriesInfo);
+    }
+
+    static String getSeriesInfo(String patternType, LocalDateTime startDate, int occurrences) throws Exception {
+        switch (patternType) {
+            case "Daily":
+                return new DailyRecurrenceSettings(startDate, occurrences).getValues(2).getSeriesInfo();
+
+            case "Weekly":
+                WeeklyRecurrenceSettings.SelectedDayOfWeekValues selectedDays = new WeeklyRecurrenceSettings.SelectedDayOfWeekValues();
+                selectedDays.Monday = true;
+                selectedDays.Wednesday = true;
+                selectedDays.Friday = true;
+                return new WeeklyRecurrenceSettings(startDate, occurrences).getValues(2, selectedDays).getSeriesInfo();
+
+            case "Monthly":
+                return new MonthlyRecurrenceSettings(startDate, occurrences)
+                        .getValues(MonthlyRecurrenceSettings.MonthlySpecificDatePartOne.Last,
+                                MonthlyRecurrenceSettings.MonthlySpecificDatePartTwo.Weekday, 1)
+                        .getSeriesInfo();
+
+            case "Yearly":
+                // Keep the series, and the 10 dates read past its end, within year 9999
+                // as later years can't be written to a Series Info.
+                occurrences = Math.min(occurrences, 9999 - startDate.getYear() - 10);
+                return new YearlyRecurrenceSettings(startDate, occurrences).getValues(29, 2).getSeriesInfo();
+
+            default:
+                throw new IllegalArgumentException("Invalid patternType: " + patternType);
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.kingsten.recurrences.generator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/// <summary>
+/// The days a business is open: every day but the weekend days and the holidays. Each year
+/// from the first year to the last year of the calendar is held as one bit a day, with the
+/// number of business days before every 64 days, so the business days before a date (rank)
+/// and the date of the nth business day (select) are found without going through the days.
+/// Outside those years only the weekend days are closed.
+/// Calendars are immutable and can be shared between threads and rules, see
+/// RecurrenceRule.withBusinessCalendar. They're loaded from text files such as:
+///     # UK bank holidays
+///     weekend SATURDAY SUNDAY
+///     years 2021 2030
+///     2021-01-01 New Year's Day
+///     2021-04-02 Good Friday
+/// The weekend line is optional and defaults to Saturday and Sunday. The years default to
+/// the years of the holidays.
+/// </summary>
+public final class BusinessCalendar {
+
+    public static final BusinessCalendar WEEKENDS_ONLY = of(EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY), Collections.emptySet());
+
+    // 4 Jan 1970 is a Sunday, weeks are counted from there with Sunday as bit 0.
+    private static final long FIRST_SUNDAY = 3;
+    private static final int MAX_YEARS = 10000;
+
+    private final int openMask;
+    private final int openPerWeek;
+    private final int holidayCount;
+    private final int firstYear;
+    private final int lastYear;
+    private final long firstDay;
+    private final long endDay;
+    private final long[] words;
+    private final int[] ranks;
+    private final int total;
+    private final long openBeforeFirstDay;
+    private final long openBeforeEndDay;
+
+    private BusinessCalendar(int openMask, long[] holidays, int firstYear, int lastYear) {
+        this.openMask = openMask;
+        this.openPerWeek = Integer.bitCount(openMask);
+        this.holidayCount = holidays.length;
+        this.firstYear = firstYear;
+        this.lastYear = lastYear;
+        this.firstDay = lastYear < firstYear ? 0 : LocalDate.of(firstYear, 1, 1).toEpochDay();
+        this.endDay = lastYear < firstYear ? 0 : LocalDate.of(lastYear + 1, 1, 1).toEpochDay();
+
+        int days = (int) (endDay - firstDay);
+        words = new long[(days + 63) >>> 6];
+        for (int i = 0; i < days; i++)
+            if (isOpen(firstDay + i))
+                words[i >>> 6] |= 1L << i;
+        for (long holiday : holidays) {
+            int i = (int) (holiday - firstDay);
+            words[i >>> 6] &= ~(1L << i);
+        }
+
+        ranks = new int[words.length];
+        int count = 0;
+        for (int i = 0; i < words.length; i++) {
+            ranks[i] = count;
+            count += Long.bitCount(words[i]);
+        }
+        total = count;
+        openBeforeFirstDay = openBefore(firstDay);
+        openBeforeEndDay = openBefore(endDay);
+    }
+
+    /// <summary>
+    /// Calendar covering the years of the holidays.
+    /// </summary>
+    /// <param name="weekend">Days of the week that are never business days.</param>
+    /// <param name="holidays"></param>
+    /// <returns></returns>
+    public static BusinessCalendar of(Collection<DayOfWeek> weekend, Collection<LocalDate> holidays) {
+        int firstYear = Integer.MAX_VALUE;
+        int lastYear = Integer.MIN_VALUE;
+        for (LocalDate holiday : holidays) {
+            firstYear = Math.min(firstYear, holiday.getYear());
+            lastYear = Math.max(lastYear, holiday.getYear());
+        }
+        return of(weekend, holidays, firstYear, lastYear);
+    }
+
+    /// <summary>
+    /// Calendar covering the years from firstYear to lastYear, stretched to any holidays
+    /// outside them.
+    /// </summary>
+    /// <param name="weekend">Days of the week that are never business days.</param>
+    /// <param name="holidays"></param>
+    /// <param name="firstYear"></param>
+    /// <param name="lastYear"></param>
+    /// <returns></returns>
+    public static BusinessCalendar of(Collection<DayOfWeek> weekend, Collection<LocalDate> holidays, int firstYear, int lastYear) {
+        int openMask = 0x7F;
+        for (DayOfWeek day : weekend)
+            openMask &= ~(1 << day.getValue() % 7);
+        if (openMask == 0)
+            throw new IllegalArgumentException("A business calendar needs at least one business day in the week.");
+
+        long[] days = new long[holidays.size()];
+        int i = 0;
+        for (LocalDate holiday : holidays) {
+            firstYear = Math.min(firstYear, holiday.getYear());
+            lastYear = Math.max(lastYear, holiday.getYear());
+            days[i++] = holiday.toEpochDay();
+        }
+        days = Arrays.stream(days).sorted().distinct().toArray();
+        if (lastYear >= firstYear && (long) lastYear - firstYear >= MAX_YEARS)
+            throw new IllegalArgumentException("A business calendar can't cover more than " + MAX_YEARS + " years: " + firstYear + " to " + lastYear);
+        return new BusinessCalendar(openMask, days, firstYear, lastYear);
+    }
+
+    /// <summary>
+    /// Load a calendar from a UTF-8 text file, see the class comment for the format.
+    /// </summary>
+    /// <param name="file"></param>
+    /// <returns></returns>
+    public static BusinessCalendar load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return load(reader);
+        }
+    }
+
+    /// <summary>
+    /// Load a calendar, see the class comment for the format. Anything after the date
+    /// on a holiday line is a description and is ignored.
+    /// </summary>
+    /// <param name="reader">Read to the end but not closed.</param>
+    /// <returns></returns>
+    public static BusinessCalendar load(Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        Set<DayOfWeek> weekend = EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+        Set<LocalDate> holidays = new HashSet<>();
+        int firstYear = Integer.MAX_VALUE;
+        int lastYear = Integer.MIN_VALUE;
+        int lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+            String[] parts = line.split("\\s+");
+            try {
+                switch (parts[0].toLowerCase()) {
+                    case "weekend":
+                        weekend = EnumSet.noneOf(DayOfWeek.class);
+                        for (int i = 1; i < parts.length; i++)
+                            weekend.add(DayOfWeek.valueOf(parts[i].toUpperCase()));
+                        break;
+
+                    case "years":
+                        if (parts.length != 3)
+                            throw new IllegalArgumentException("expected the first and last year");
+                        firstYear = Integer.parseInt(parts[1]);
+                        lastYear = Integer.parseInt(parts[2]);
+                        break;
+
+                    default:
+                        holidays.add(LocalDate.parse(parts[0]));
+                        break;
+                }
+            } catch (IllegalArgumentException | DateTimeException e) {
+                throw new IllegalArgumentException("Invalid business calendar line " + lineNumber + ": " + line, e);
+            }
+        }
+        return of(weekend, holidays, firstYear, lastYear);
+    }
+
+    public Set<DayOfWeek> getWeekend() {
+        Set<DayOfWeek> weekend = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values())
+            if ((openMask & 1 << day.getValue() % 7) == 0)
+                weekend.add(day);
+        return weekend;
+    }
+
+    public boolean isBusinessDay(LocalDate date) {
+        return isBusinessDay(date.toEpochDay());
+    }
+
+    /// <summary>
+    /// Number of business days from the from date up to but not including the to date.
+    /// </summary>
+    /// <param name="from"></param>
+    /// <param name="to"></param>
+    /// <returns>Negative if the to date is before the from date.</returns>
+    public long countBusinessDays(LocalDate from, LocalDate to) {
+        return rank(to.toEpochDay()) - rank(from.toEpochDay());
+    }
+
+    /// <summary>
+    /// Get the date a number of business days after the date, or before it when the number
+    /// is negative. The date itself doesn't need to be a business day.
+    /// </summary>
+    /// <param name="date"></param>
+    /// <param name="businessDays"></param>
+    /// <returns></returns>
+    public LocalDate addBusinessDays(LocalDate date, long businessDays) {
+        if (businessDays == 0)
+            return date;
+        long epochDay = date.toEpochDay();
+        if (businessDays > 0)
+            return LocalDate.ofEpochDay(select(rank(epochDay + 1) + businessDays - 1));
+        return LocalDate.ofEpochDay(select(rank(epochDay) + businessDays));
+    }
+
+    /// <summary>
+    /// The date if it's a business day, otherwise the first business day after it.
+    /// </summary>
+    public LocalDate rollForward(LocalDate date) {
+        return LocalDate.ofEpochDay(rollForward(date.toEpochDay()));
+    }
+
+    /// <summary>
+    /// The date if it's a business day, otherwise the last business day before it.
+    /// </summary>
+    public LocalDate rollBack(LocalDate date) {
+        return LocalDate.ofEpochDay(rollBack(date.toEpochDay()));
+    }
+
+    /// <summary>
+    /// Get the nth business day of the month, or null if the month doesn't have that many.
+    /// </summary>
+    /// <param name="year"></param>
+    /// <param name="month">1 to 12</param>
+    /// <param name="n">1 for the first business day.</param>
+    /// <returns></returns>
+    public LocalDate getBusinessDay(int year, int month, int n) {
+        if (n < 1)
+            throw new IllegalArgumentException("Invalid business day of the month: " + n);
+        LocalDate first = LocalDate.of(year, month, 1);
+        LocalDate date = LocalDate.ofEpochDay(select(rank(first.toEpochDay()) + n - 1));
+        return date.getMonthValue() == month && date.getYear() == year ? date : null;
+    }
+
+    /// <summary>
+    /// Get the last business day of the month, or null if the month doesn't have one.
+    /// </summary>
+    /// <param name="year"></param>
+    /// <param name="month">1 to 12</param>
+    /// <returns></returns>
+    public LocalDate getLastBusinessDay(int year, int month) {
+        LocalDate last = LocalDate.of(year, month, GregorianMonths.lengthOfMonth(year, month));
+        LocalDate date = rollBack(last);
+        return date.getMonthValue() == month && date.getYear() == year ? date : null;
+    }
+
+    /// <summary>
+    /// Day of the month of the nth business day, or of the last one when n is 0. A month
+    /// with fewer business days than that gets its last business day, and a month with
+    /// none gets its last day, so there's always a day for the generators to use.
+    /// </summary>
+    int getDayOfMonth(int year, int month, int n) {
+        LocalDate date = n > 0 ? getBusinessDay(year, month, n) : null;
+        if (date == null)
+            date = getLastBusinessDay(year, month);
+        return date == null ? GregorianMonths.lengthOfMonth(year, month) : date.getDayOfMonth();
+    }
+
+    boolean isBusinessDay(long epochDay) {
+        if (epochDay < firstDay || epochDay >= endDay)
+            return isOpen(epochDay);
+        int offset = (int) (epochDay - firstDay);
+        return (words[offset >>> 6] & 1L << offset) != 0;
+    }
+
+    long rollForward(long epochDay) {
+        return select(rank(epochDay));
+    }
+
+    long rollBack(long epochDay) {
+        return select(rank(epochDay + 1) - 1);
+    }
+
+    /// <summary>
+    /// Number of business days before the date, counted from 4 Jan 1970 so that dates
+    /// before then have a negative rank.
+    /// </summary>
+    long rank(long epochDay) {
+        if (epochDay <= firstDay)
+            return openBefore(epochDay);
+        if (epochDay >= endDay)
+            return openBeforeFirstDay + total + openBefore(epochDay) - openBeforeEndDay;
+        int offset = (int) (epochDay - firstDay);
+        int word = offset >>> 6;
+        return openBeforeFirstDay + ranks[word] + Long.bitCount(words[word] & (1L << offset) - 1);
+    }
+
+    /// <summary>
+    /// Epoch day of the business day with the given rank. Within the years of the calendar
+    /// the 64 days holding it are found by a binary search of the counts.
+    /// </summary>
+    long select(long rank) {
+        if (rank < openBeforeFirstDay)
+            return selectOpen(rank);
+        long inTable = rank - openBeforeFirstDay;
+        if (inTable >= total)
+            return selectOpen(inTable - total + openBeforeEndDay);
+
+        // Last word with no more than inTable business days before it.
+        int low = 0;
+        int high = ranks.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (ranks[middle] <= inTable)
+                low = middle;
+            else
+                high = middle - 1;
+        }
+        long bits = words[low];
+        for (long n = inTable - ranks[low]; n > 0; n--)
+            bits &= bits - 1;
+        return firstDay + low * 64L + Long.numberOfTrailingZeros(bits);
+    }
+
+    private boolean isOpen(long epochDay) {
+        return (openMask & 1 << Math.floorMod(epochDay - FIRST_SUNDAY, 7)) != 0;
+    }
+
+    /// <summary>
+    /// Number of days before the date that aren't weekend days.
+    /// </summary>
+    private long openBefore(long epochDay) {
+        long days = epochDay - FIRST_SUNDAY;
+        long weeks = Math.floorDiv(days, 7);
+        int daysBefore = (1 << (int) (days - weeks * 7)) - 1;
+        return weeks * openPerWeek + Integer.bitCount(openMask & daysBefore);
+    }
+
+    private long selectOpen(long rank) {
+        long weeks = Math.floorDiv(rank, openPerWeek);
+        int n = (int) (rank - weeks * openPerWeek);
+        return FIRST_SUNDAY + weeks * 7 + RecurrenceSequence.EveryXWeeks.nthDay(openMask, n);
+    }
+
+    @Override
+    public String toString() {
+        String years = lastYear < firstYear ? "none" : firstYear + "-" + lastYear;
+        return "BusinessCalendar(weekend=" + getWeekend() + ", years=" + years + ", holidays=" + holidayCount + ")";
+    }
+
+    /// <summary>
+    /// How the dates of a series are moved when they don't fall on a business day.
+    /// </summary>
+    public enum BusinessDayAdjustment {
+        None, RollForward, RollBack
+    }
+}
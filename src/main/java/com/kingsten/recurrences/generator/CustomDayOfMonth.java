@@ -0,0 +1,95 @@
+package com.kingsten.recurrences.generator;
+
+/// <summary>
+/// Works out the custom days of a month, such as the Second Tuesday or the Last WeekendDay,
+/// from the day of the week the month starts on and the length of the month rather than
+/// stepping through the month a day at a time. Days of the week are numbered as in
+/// java.time.DayOfWeek, Monday = 1 to Sunday = 7, and days of the month from 1.
+/// When there is no such day the day after the end of the month is returned, as the custom
+/// date generators have always ended up on the first of the next month in that case.
+/// </summary>
+final class CustomDayOfMonth {
+
+    private static final int SATURDAY = 6;
+    private static final int SUNDAY = 7;
+
+    private CustomDayOfMonth() {
+    }
+
+    /// <summary>
+    /// Day of the nth (from 1) given day of the week in the month.
+    /// </summary>
+    static int getNthDayOfWeek(int firstDayOfWeek, int daysOfMonth, int dayOfWeek, int nth) {
+        if (nth < 1)
+            return daysOfMonth + 1;
+        int day = getFirstDayOfWeek(firstDayOfWeek, dayOfWeek) + (nth - 1) * 7;
+        return Math.min(day, daysOfMonth + 1);
+    }
+
+    /// <summary>
+    /// Day of the last given day of the week in the month.
+    /// </summary>
+    static int getLastDayOfWeek(int firstDayOfWeek, int daysOfMonth, int dayOfWeek) {
+        int first = getFirstDayOfWeek(firstDayOfWeek, dayOfWeek);
+        return first + (daysOfMonth - first) / 7 * 7;
+    }
+
+    /// <summary>
+    /// Day of the nth (from 1) Monday to Friday in the month.
+    /// </summary>
+    static int getNthWeekday(int firstDayOfWeek, int daysOfMonth, int nth) {
+        if (nth < 1)
+            return daysOfMonth + 1;
+        int day = 1;
+        int dayOfWeek = firstDayOfWeek;
+        // A month starting on the weekend has its first weekday on the Monday.
+        if (dayOfWeek >= SATURDAY) {
+            day += 8 - dayOfWeek;
+            dayOfWeek = 1;
+        }
+        int remaining = nth - 1;
+        day += remaining / 5 * 7;
+        remaining %= 5;
+        // Step over the weekend if the remaining weekdays run past Friday.
+        day += remaining + (dayOfWeek + remaining > 5 ? 2 : 0);
+        return Math.min(day, daysOfMonth + 1);
+    }
+
+    /// <summary>
+    /// Day of the last Monday to Friday in the month.
+    /// </summary>
+    static int getLastWeekday(int firstDayOfWeek, int daysOfMonth) {
+        int lastDayOfWeek = (firstDayOfWeek + daysOfMonth - 2) % 7 + 1;
+        if (lastDayOfWeek == SATURDAY)
+            return daysOfMonth - 1;
+        if (lastDayOfWeek == SUNDAY)
+            return daysOfMonth - 2;
+        return daysOfMonth;
+    }
+
+    /// <summary>
+    /// Day of the nth (from 1) Saturday or Sunday in the month.
+    /// </summary>
+    static int getNthWeekendDay(int firstDayOfWeek, int daysOfMonth, int nth) {
+        if (nth < 1)
+            return daysOfMonth + 1;
+        int saturday = getFirstDayOfWeek(firstDayOfWeek, SATURDAY);
+        int sunday = getFirstDayOfWeek(firstDayOfWeek, SUNDAY);
+        // Weekend days alternate between the earlier and later of the two.
+        int index = nth - 1;
+        int day = (index % 2 == 0 ? Math.min(saturday, sunday) : Math.max(saturday, sunday)) + index / 2 * 7;
+        return Math.min(day, daysOfMonth + 1);
+    }
+
+    /// <summary>
+    /// Day of the last Saturday or Sunday in the month.
+    /// </summary>
+    static int getLastWeekendDay(int firstDayOfWeek, int daysOfMonth) {
+        return Math.max(getLastDayOfWeek(firstDayOfWeek, daysOfMonth, SATURDAY),
+                getLastDayOfWeek(firstDayOfWeek, daysOfMonth, SUNDAY));
+    }
+
+    private static int getFirstDayOfWeek(int firstDayOfWeek, int dayOfWeek) {
+        return 1 + Math.floorMod(dayOfWeek - firstDayOfWeek, 7);
+    }
+}
@@ -5,9 +5,7 @@ import lombok.NoArgsConstructor;
 import lombok.ToString;
 
 import java.time.DayOfWeek;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.Objects;
 
 import static com.kingsten.recurrences.generator.RecurrenceException.GENERIC_EXCEPTION_CODE;
@@ -19,9 +17,6 @@ public class DailyRecurrenceSettings extends RecurrenceSettings {
 
     private DailyRegenType regenType = DailyRegenType.ON_EVERY_WEEKDAY;
     private int regenEveryXDays = 1;
-    private boolean getNextDateValue;
-    private LocalDateTime nextDateValue;
-    private LocalDateTime finalNextDateValue;
 
     /// <summary>
     /// Get dates by Start date only. This is for no ending date values.
@@ -69,87 +64,11 @@ public class DailyRecurrenceSettings extends RecurrenceSettings {
     }
 
     static RecurrenceInfo getFriendlyRecurrenceInfo(String seriesInfo) {
-        RecurrenceInfo info = new RecurrenceInfo();
-        LocalDateTime endDateValue = LocalDateTime.MIN;
-        int noOccurrences;
-
         // Exit if not a Daily seriesInfo type
         if (!seriesInfo.startsWith("D"))
             return null;
 
-        info.setRecurrenceType(RecurrenceInfo.RecurrenceType.Daily);
-        info.setSeriesInfo(seriesInfo);
-        // FORMATTING DEFINITIONS
-        //  D = Daily Designator
-        //  |       0 = Start Date (8 chars)
-        //  |       |        1 = End Date (8 chars)
-        //  |       |        |        2 = Number of occurrences (4 chars)
-        //  |       |        |        |      3 = Regeneration Type (1 char)
-        //  |       |        |        |      |    4 = End date type (1 char)
-        //  |       |        |        |      |    |      5 = Regen Every x weeks
-        //  |       |        |        |      |    |      |
-        //  |       |        |        |      |    |      |
-        // [0]    [1-8]    [9-16]  [17-20]  [21] [22] [23-25]
-        //  D   20071231  20171231   0000    1     1    000
-        String startDate = seriesInfo.substring(1, 9);
-
-        LocalDate date = LocalDate.parse(startDate, DateTimeFormatter.BASIC_ISO_DATE);
-        LocalDateTime dtStartDate = date.atStartOfDay();
-
-        String endDate = seriesInfo.substring(9, 17);
-        String occurrences = seriesInfo.substring(17, 21);
-        String dailyRegenType = seriesInfo.substring(21, 22);
-        String endDateType = seriesInfo.substring(22, 23);
-        int regenXDays = Integer.parseInt(seriesInfo.substring(23, 26));
-        EndDateType endType = EndDateType.fromValue(endDateType);
-        noOccurrences = Integer.parseInt(occurrences);
-
-        // Get the EndDate before any modifications on it are performed
-        if (endType == EndDateType.SpecificDate) {
-            date = LocalDate.parse(endDate, DateTimeFormatter.BASIC_ISO_DATE);
-            endDateValue = date.atStartOfDay();
-        }
-
-        info.setEndDateType(endType);
-        // Determine the Constructor by the type of End Date.
-        // All constructors start with a Start date at a minimum.
-        switch (endType) {
-            case NumberOfOccurrences:
-                info.setStartDate(dtStartDate);
-                info.setNumberOfOccurrences(noOccurrences);
-                break;
-
-            case SpecificDate:
-                info.setStartDate(dtStartDate);
-                info.setEndDate(endDateValue);
-                break;
-
-            case NoEndDate:
-                info.setStartDate(dtStartDate);
-                break;
-            default:
-                break;
-        }
-
-        info.setDailyRegenType(DailyRegenType.fromValue(dailyRegenType));
-        // Determine the Type of dates to get, specific, custom, etc.
-        switch (info.dailyRegenType) {
-            case ON_EVERY_X_DAYS:
-                info.setDailyRegenEveryXDays(regenXDays);
-                break;
-
-            case ON_EVERY_WEEKDAY:
-                // This is default. Nothing to set
-                break;
-
-            case NOTSET:
-
-                break;
-        }
-
-        return info;
-
-
+        return SeriesInfoCodec.decode(seriesInfo);
     }
 
     static DailyRecurrenceSettings getRecurrenceSettings(String seriesInfo) throws RecurrenceException {
@@ -176,7 +95,7 @@ public class DailyRecurrenceSettings extends RecurrenceSettings {
         RecurrenceInfo info = DailyRecurrenceSettings.getFriendlyRecurrenceInfo(seriesInfo);
         if (Objects.isNull(info))
             throw new RecurrenceException(GENERIC_EXCEPTION_CODE, "failed to parse recurrence info");
-        return getRecurrenceSettings(seriesInfo, modifiedOccurrencesValue, info.startDate, modifiedEndDate);
+        return getRecurrenceSettings(info, modifiedOccurrencesValue, info.startDate, modifiedEndDate);
     }
 
     static DailyRecurrenceSettings getRecurrenceSettings(String seriesInfo, LocalDateTime modifiedStartDate, LocalDateTime modifiedEndDate) throws RecurrenceException {
@@ -184,10 +103,19 @@ public class DailyRecurrenceSettings extends RecurrenceSettings {
     }
 
     static DailyRecurrenceSettings getRecurrenceSettings(String seriesInfo, int modifiedOccurrencesValue, LocalDateTime modifiedStartDate, LocalDateTime modifiedEndDate) throws RecurrenceException {
-        DailyRecurrenceSettings settings = null;
+        // Get the Recurrence Info object. This makes it easy to work with existing series of date patterns.
         RecurrenceInfo info = DailyRecurrenceSettings.getFriendlyRecurrenceInfo(seriesInfo);
         if (Objects.isNull(info))
             throw new RecurrenceException(GENERIC_EXCEPTION_CODE, "failed to parse recurrence info");
+        return getRecurrenceSettings(info, modifiedOccurrencesValue, modifiedStartDate, modifiedEndDate);
+    }
+
+    /// <summary>
+    /// Get the settings from Series Info that has already been parsed. The info is updated
+    /// with any modified values, so pass in a copy of info that is being kept.
+    /// </summary>
+    static DailyRecurrenceSettings getRecurrenceSettings(RecurrenceInfo info, int modifiedOccurrencesValue, LocalDateTime modifiedStartDate, LocalDateTime modifiedEndDate) throws RecurrenceException {
+        DailyRecurrenceSettings settings = null;
         // Check to see if this is to modify the SeriesInfo and run as endtype for occurrences
         if (modifiedOccurrencesValue != -1) {
             info.setEndDateType(EndDateType.NumberOfOccurrences);
@@ -269,17 +197,38 @@ public class DailyRecurrenceSettings extends RecurrenceSettings {
     }
 
     @Override
-    LocalDateTime getNextDate(LocalDateTime currentDate) throws Exception {
-        getNextDateValue = true;
-        nextDateValue = currentDate;
-        // Run the date processing to set the last date value.
-        getValues();
-        return finalNextDateValue;
+    RecurrenceSequence getSequence() throws RecurrenceException {
+        switch (regenType) {
+            case ON_EVERY_X_DAYS:
+                return RecurrenceSequence.everyXDays(startDate, regenEveryXDays);
+
+            case ON_EVERY_WEEKDAY:
+                return RecurrenceSequence.everyWeekday(startDate);
+            default:
+                throw new RecurrenceException(GENERIC_EXCEPTION_CODE, "unknown regenType");
+        }
+    }
+
+    /// <summary>
+    /// Daily patterns on a business calendar count business days: every weekday is every
+    /// business day and every x-days is every x-th business day.
+    /// </summary>
+    @Override
+    RecurrenceSequence getSequence(BusinessCalendar calendar) throws RecurrenceException {
+        switch (regenType) {
+            case ON_EVERY_X_DAYS:
+                return RecurrenceSequence.everyXBusinessDays(startDate, calendar, regenEveryXDays);
+
+            case ON_EVERY_WEEKDAY:
+                return RecurrenceSequence.everyXBusinessDays(startDate, calendar, 1);
+            default:
+                throw new RecurrenceException(GENERIC_EXCEPTION_CODE, "unknown regenType");
+        }
     }
 
     @Override
     RecurrenceValues getValues() throws Exception {
-        return getRecurrenceValues();
+        return measureValues("DailyRecurrenceSettings.getValues", RecurrenceInfo.RecurrenceType.Daily, this::getRecurrenceValues);
     }
 
     void setValues(int regenEveryXDays) {
@@ -287,28 +236,6 @@ public class DailyRecurrenceSettings extends RecurrenceSettings {
         regenType = DailyRegenType.ON_EVERY_X_DAYS;
     }
 
-    @Override
-    RecurrenceValues getValues(LocalDateTime startDate, int numberOfOccurrences) throws Exception {
-        this.numberOfOccurrences = numberOfOccurrences;
-        this.startDate = startDate;
-        // Change the end type to number of occurrences.
-        // This must be set because the original starting Series Info may
-        // be set to have an End Date type.
-        this.endDateType = EndDateType.NumberOfOccurrences;
-
-        return getRecurrenceValues();
-    }
-
-    @Override
-    RecurrenceValues getValues(LocalDateTime startDate, LocalDateTime endDate) throws Exception {
-        this.startDate = startDate;
-        this.endDate = endDate;
-        // Change the end type to End Date as this original series info
-        // may have been set to number of occurrences.
-        this.endDateType = EndDateType.SpecificDate;
-        return getRecurrenceValues();
-    }
-
     /// <summary>
     /// Get the Series information that's used to get dates at a later
     /// date. This is passed into the RecurrenceHelper to get date values.
@@ -316,37 +243,8 @@ public class DailyRecurrenceSettings extends RecurrenceSettings {
     /// </summary>
     /// <returns></returns>
     String getSeriesInfo() {
-        String info = "";
-        String endDate = "ZZZZZZZZ"; // Default for no ending date.
-        String occurrences = String.format("%04d", this.numberOfOccurrences);
-        String dailyRegenType = this.regenType.toString();
-        String endDateType = this.endDateType.toString();
-        String regenXDays = String.format("%03d", regenEveryXDays);
-
-        // End Date may be null if no ending date.
-        if (this.hasEndDate())
-            endDate = DateTimeFormatter.BASIC_ISO_DATE.format(this.endDate);
-
-        // FORMATTING DEFINITIONS
-        //  D = Daily Designator
-        //  |       0 = Start Date (8 chars)
-        //  |       |        1 = End Date (8 chars)
-        //  |       |        |        2 = Number of occurrences (4 chars)
-        //  |       |        |        |      3 = Regeneration Type (1 char)
-        //  |       |        |        |      |    4 = End date type (1 char)
-        //  |       |        |        |      |    |      5 = Regen Every x weeks
-        //  |       |        |        |      |    |      |
-        //  |       |        |        |      |    |      |
-        //  |       |        |        |      |    |      |
-        //  |       |        |        |      |    |      |
-        //  |       |        |        |      |    |      |
-        //  |       |        |        |      |    |      |
-        //  |       |        |        |      |    |      |
-        //  |       |        |        |      |    |      |
-        // [0]    [1-8]    [9-16]  [17-20]  [21] [22] [23-25]
-        //  D   20071231  20171231   0000    1     1    000
-        info = String.format("D%s%s%s%s%s%s", DateTimeFormatter.BASIC_ISO_DATE.format(this.startDate), endDate, occurrences, dailyRegenType, endDateType, regenXDays);
-        return info;
+        // FORMATTING DEFINITIONS are in SeriesInfoCodec
+        return SeriesInfoCodec.encode(this);
     }
 
     RecurrenceValues getRecurrenceValues() throws RecurrenceException {
@@ -362,20 +260,16 @@ public class DailyRecurrenceSettings extends RecurrenceSettings {
             default:
                 throw new RecurrenceException(GENERIC_EXCEPTION_CODE, "unknown regenType");
         }
-        // Values will be null if just getting next date in series. No need
-        // to fill the RecurrenceValues collection if all we need is the last date.
-        if (values != null) {
-            if (!values.values.isEmpty()) {
-                values.setStartDate(values.values.get(0));
-
-                // Get the end date if not open-ended
-                if (this.endDateType != EndDateType.NoEndDate)
-                    values.setEndDate(values.values.get(values.values.size() - 1));
-            }
-            // Set the Series information that's used to get the next date
-            // values for no ending dates.
-            values.setSeriesInfo(getSeriesInfo());
+        if (!values.values.isEmpty()) {
+            values.setStartDate(values.values.get(0));
+
+            // Get the end date if not open-ended
+            if (this.endDateType != EndDateType.NoEndDate)
+                values.setEndDate(values.values.get(values.values.size() - 1));
         }
+        // Set the Series information that's used to get the next date
+        // values for no ending dates.
+        values.setSeriesInfo(getSeriesInfo());
 
         return values;
 
@@ -392,40 +286,30 @@ public class DailyRecurrenceSettings extends RecurrenceSettings {
         if (dt.getDayOfWeek() == DayOfWeek.SATURDAY || dt.getDayOfWeek() == DayOfWeek.SUNDAY)
             dt = getNextWeekday(dt);
 
-        if (getNextDateValue) {
-            do {
-                finalNextDateValue = dt;
-                if (finalNextDateValue.compareTo(nextDateValue) > 0)
-                    break;
-                dt = getNextWeekday(dt);
-            } while (dt.compareTo(nextDateValue.plusDays(3)) <= 0);  // Make sure it's past what may possibly be the next weekday.
-            return null;
-        } else {
-            values = new RecurrenceValues();
-            switch (this.endDateType) {
-                case NoEndDate:
-                    throw new RecurrenceException(GENERIC_EXCEPTION_CODE, "The ability to create recurring dates with no End date is not currently available.");
-
-                case NumberOfOccurrences:
-
-                    for (int i = 0; i < this.numberOfOccurrences; i++) {
-                        values.AddDateValue(dt);
-                        dt = getNextWeekday(dt);
-                    }
-                    break;
-
-                case SpecificDate:
-                    do {
-                        values.AddDateValue(dt);
-                        dt = getNextWeekday(dt);
-                    } while (dt.compareTo(this.endDate) <= 0);
-                    break;
-
-                default:
-                    throw new IllegalArgumentException("The TypeOfEndDate property has not been set.");
-            }
-            return values;
+        values = new RecurrenceValues();
+        switch (this.endDateType) {
+            case NoEndDate:
+                throw new RecurrenceException(GENERIC_EXCEPTION_CODE, "The ability to create recurring dates with no End date is not currently available.");
+
+            case NumberOfOccurrences:
+
+                for (int i = 0; i < this.numberOfOccurrences; i++) {
+                    values.AddDateValue(dt);
+                    dt = getNextWeekday(dt);
+                }
+                break;
+
+            case SpecificDate:
+                do {
+                    values.AddDateValue(dt);
+                    dt = getNextWeekday(dt);
+                } while (dt.compareTo(this.endDate) <= 0);
+                break;
+
+            default:
+                throw new IllegalArgumentException("The TypeOfEndDate property has not been set.");
         }
+        return values;
     }
 
     /// <summary>
@@ -449,40 +333,30 @@ public class DailyRecurrenceSettings extends RecurrenceSettings {
         RecurrenceValues values;
         LocalDateTime dt = this.startDate;
 
-        if (getNextDateValue) {
-            do {
-                finalNextDateValue = dt;
-                if (finalNextDateValue.compareTo(nextDateValue) > 0)
-                    break;
-                dt = dt.plusDays(regenEveryXDays);
-            } while (dt.compareTo(nextDateValue.plusDays(Long.valueOf(regenEveryXDays) + 3)) <= 0); // Make sure it's past what may possibly be the next weekday.
-            return null;
-        } else {
-            values = new RecurrenceValues();
-            switch (this.endDateType) {
-                case NoEndDate:
-                    throw new RecurrenceException(GENERIC_EXCEPTION_CODE, "The ability to create recurring dates with no End date is not currently available.");
-
-                case NumberOfOccurrences:
-
-                    for (int i = 0; i < this.numberOfOccurrences; i++) {
-                        values.AddDateValue(dt);
-                        dt = dt.plusDays(regenEveryXDays);
-                    }
-                    break;
-
-                case SpecificDate:
-                    do {
-                        values.AddDateValue(dt);
-                        dt = dt.plusDays(regenEveryXDays);
-                    } while (dt.compareTo(this.endDate) <= 0);
-                    break;
-
-                default:
-                    throw new IllegalArgumentException("The TypeOfEndDate property has not been set.");
-            }
-            return values;
+        values = new RecurrenceValues();
+        switch (this.endDateType) {
+            case NoEndDate:
+                throw new RecurrenceException(GENERIC_EXCEPTION_CODE, "The ability to create recurring dates with no End date is not currently available.");
+
+            case NumberOfOccurrences:
+
+                for (int i = 0; i < this.numberOfOccurrences; i++) {
+                    values.AddDateValue(dt);
+                    dt = dt.plusDays(regenEveryXDays);
+                }
+                break;
+
+            case SpecificDate:
+                do {
+                    values.AddDateValue(dt);
+                    dt = dt.plusDays(regenEveryXDays);
+                } while (dt.compareTo(this.endDate) <= 0);
+                break;
+
+            default:
+                throw new IllegalArgumentException("The TypeOfEndDate property has not been set.");
         }
+        return values;
     }
 
     public enum DailyRegenType {
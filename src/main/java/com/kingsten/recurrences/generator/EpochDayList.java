@@ -0,0 +1,137 @@
+package com.kingsten.recurrences.generator;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/// <summary>
+/// List of recurrence dates stored as epoch days in an int[] rather than as LocalDateTime
+/// objects. The dates of a series all have the time of day of its start date, so the time
+/// is held once; only if dates with different times are added is a time kept per date.
+/// Dates are turned back into LocalDateTime values as they are read.
+/// </summary>
+public class EpochDayList extends AbstractList<LocalDateTime> implements RandomAccess {
+
+    private static final int[] EMPTY_DAYS = {};
+
+    private int[] epochDays = EMPTY_DAYS;
+    // Time of day of each date, only used once the dates stop sharing timeOfDay.
+    private long[] nanosOfDay;
+    private LocalTime timeOfDay;
+    private int size;
+
+    public EpochDayList() {
+    }
+
+    public EpochDayList(int initialCapacity) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Invalid initialCapacity: " + initialCapacity);
+        epochDays = new int[initialCapacity];
+    }
+
+    @Override
+    public LocalDateTime get(int index) {
+        checkIndex(index);
+        LocalTime time = nanosOfDay == null ? timeOfDay : LocalTime.ofNanoOfDay(nanosOfDay[index]);
+        return LocalDateTime.of(LocalDate.ofEpochDay(epochDays[index]), time);
+    }
+
+    /// <summary>
+    /// Get the day of the date at the index without creating a LocalDateTime for it.
+    /// </summary>
+    /// <param name="index"></param>
+    /// <returns></returns>
+    public long getEpochDay(int index) {
+        checkIndex(index);
+        return epochDays[index];
+    }
+
+    /// <summary>
+    /// Get a copy of the days of all the dates in the list.
+    /// </summary>
+    /// <returns></returns>
+    public int[] toEpochDays() {
+        return Arrays.copyOf(epochDays, size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public LocalDateTime set(int index, LocalDateTime element) {
+        LocalDateTime previous = get(index);
+        store(index, element);
+        return previous;
+    }
+
+    @Override
+    public void add(int index, LocalDateTime element) {
+        if (index < 0 || index > size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        Objects.requireNonNull(element);
+
+        if (size == epochDays.length) {
+            int capacity = Math.max(10, size + (size >> 1));
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            if (nanosOfDay != null)
+                nanosOfDay = Arrays.copyOf(nanosOfDay, capacity);
+        }
+        System.arraycopy(epochDays, index, epochDays, index + 1, size - index);
+        if (nanosOfDay != null)
+            System.arraycopy(nanosOfDay, index, nanosOfDay, index + 1, size - index);
+        size++;
+        modCount++;
+        store(index, element);
+    }
+
+    @Override
+    public LocalDateTime remove(int index) {
+        LocalDateTime previous = get(index);
+        System.arraycopy(epochDays, index + 1, epochDays, index, size - index - 1);
+        if (nanosOfDay != null)
+            System.arraycopy(nanosOfDay, index + 1, nanosOfDay, index, size - index - 1);
+        size--;
+        modCount++;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        nanosOfDay = null;
+        timeOfDay = null;
+        modCount++;
+    }
+
+    private void store(int index, LocalDateTime element) {
+        long epochDay = element.toLocalDate().toEpochDay();
+        if (epochDay < Integer.MIN_VALUE || epochDay > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Date out of range: " + element);
+        epochDays[index] = (int) epochDay;
+
+        LocalTime time = element.toLocalTime();
+        if (nanosOfDay == null) {
+            if (timeOfDay == null) {
+                timeOfDay = time;
+                return;
+            }
+            if (timeOfDay.equals(time))
+                return;
+            // The dates no longer share a time of day, so keep one for each date.
+            nanosOfDay = new long[epochDays.length];
+            Arrays.fill(nanosOfDay, 0, size, timeOfDay.toNanoOfDay());
+        }
+        nanosOfDay[index] = time.toNanoOfDay();
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+}
@@ -0,0 +1,61 @@
+package com.kingsten.recurrences.generator;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/// <summary>
+/// Length and first day of the week of every month in the 400 year Gregorian cycle, after
+/// which the calendar repeats itself. The month based generators look months up here
+/// instead of creating a YearMonth or LocalDate each time.
+/// </summary>
+final class GregorianMonths {
+
+    static final int YEARS_PER_CYCLE = 400;
+    static final int MONTHS_PER_CYCLE = YEARS_PER_CYCLE * 12;
+
+    private static final int LENGTH_MASK = 0x1F;
+    private static final int DAY_OF_WEEK_SHIFT = 5;
+
+    // One byte a month: the length in the low five bits and the day of the week of
+    // the first (Monday = 1 to Sunday = 7) in the top three.
+    private static final byte[] MONTHS = getMonths();
+
+    private GregorianMonths() {
+    }
+
+    /// <summary>
+    /// Number of days in the month.
+    /// </summary>
+    /// <param name="year"></param>
+    /// <param name="month">1 to 12</param>
+    /// <returns></returns>
+    static int lengthOfMonth(int year, int month) {
+        return MONTHS[getMonthOfCycle(year, month)] & LENGTH_MASK;
+    }
+
+    /// <summary>
+    /// Day of the week of the first of the month, numbered as in java.time.DayOfWeek.
+    /// </summary>
+    /// <param name="year"></param>
+    /// <param name="month">1 to 12</param>
+    /// <returns></returns>
+    static int firstDayOfWeek(int year, int month) {
+        return (MONTHS[getMonthOfCycle(year, month)] & 0xFF) >>> DAY_OF_WEEK_SHIFT;
+    }
+
+    private static int getMonthOfCycle(int year, int month) {
+        if (month < 1 || month > 12)
+            throw new DateTimeException("Invalid value for MonthOfYear (valid values 1 - 12): " + month);
+        return Math.floorMod(year, YEARS_PER_CYCLE) * 12 + month - 1;
+    }
+
+    private static byte[] getMonths() {
+        byte[] months = new byte[MONTHS_PER_CYCLE];
+        LocalDate first = LocalDate.of(0, 1, 1);
+        for (int i = 0; i < MONTHS_PER_CYCLE; i++) {
+            months[i] = (byte) (first.lengthOfMonth() | first.getDayOfWeek().getValue() << DAY_OF_WEEK_SHIFT);
+            first = first.plusMonths(1);
+        }
+        return months;
+    }
+}
@@ -7,8 +7,7 @@ import lombok.ToString;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 
 
 @NoArgsConstructor
@@ -22,8 +21,6 @@ public class MonthlyRecurrenceSettings extends RecurrenceSettings {
 
     private int adjustmentValue;
 
-    private boolean getNextDateValue;
-    private LocalDateTime nextDateValue;
     private MonthlyRegenType regenType = MonthlyRegenType.NotSet;
     private MonthlySpecificDatePartOne specificDatePartOne = MonthlySpecificDatePartOne.NotSet;
     private MonthlySpecificDatePartTwo specificDatePartTwo = MonthlySpecificDatePartTwo.NotSet;
@@ -66,105 +63,11 @@ public class MonthlyRecurrenceSettings extends RecurrenceSettings {
     ///     A RecurrenceGenerator.RecurrenceInfo value...
     /// </returns>
     static RecurrenceInfo getFriendlyRecurrenceInfo(String seriesInfo) {
-        RecurrenceInfo info = new RecurrenceInfo();
-        EndDateType endType = EndDateType.NotDefined;
-        LocalDateTime endDateValue = LocalDateTime.MIN;
-        int noOccurrences;
-
         // Exit if not a Monthly seriesInfo type
-        if (!seriesInfo.startsWith("M")) return null;
-
-        info.setSeriesInfo(seriesInfo);
-        info.setRecurrenceType(RecurrenceInfo.RecurrenceType.Monthly);
-        // FORMATTING DEFINITIONS
-        //  Y = Yearly Designator
-        //  |       0 = Start Date (8 chars)
-        //  |       |        1 = End Date (8 chars)
-        //  |       |        |        2 = Number of occurrences (4 chars)
-        //  |       |        |        |      3 = Regeneration Type (1 char)
-        //  |       |        |        |      |    4 = End date type (1 char)
-        //  |       |        |        |      |    |      5 = Regenerate on specific date DAY value (2 chars)
-        //  |       |        |        |      |    |      |       6 = Custom Date Part One (1 char)
-        //  |       |        |        |      |    |      |       |       7 = Custom Date Part Two (1 char)
-        //  |       |        |        |      |    |      |       |       |       8 = Adjustment Value (3 chars)
-        //  |       |        |        |      |    |      |       |       |       |     9  Regen Every x months
-        //  |       |        |        |      |    |      |       |       |       |     |
-        // [0]    [1-8]    [9-16]  [17-20]  [21] [22] [23-24]  [25]    [26]    [27-29] [30-32]
-        //  M   01082007  20171231   0000    1     1     00      A      A       000    000
-        String startDate = seriesInfo.substring(1, 9);
-
-        LocalDate date = LocalDate.parse(startDate, DateTimeFormatter.BASIC_ISO_DATE);
-        LocalDateTime dtStartDate = date.atStartOfDay();
-        String endDate = seriesInfo.substring(9, 17);
-
-        String occurrences = seriesInfo.substring(17, 21);
-        String monthlyRegenType = seriesInfo.substring(21, 22);
-        String endDateType = seriesInfo.substring(22, 23);
-        String regenOnSpecificDateDayValue = seriesInfo.substring(23, 25);
-        String specDatePartOne = seriesInfo.substring(25, 26);
-        String specDatePartTwo = seriesInfo.substring(26, 27);
-        String adjustValue = seriesInfo.substring(27, 30);
-        int regenXMonths = Integer.valueOf(seriesInfo.substring(30, 33));
-        endType = EndDateType.fromValue(endDateType);
-        noOccurrences = Integer.valueOf(occurrences);
-
-        MonthlySpecificDatePartOne partOne = MonthlySpecificDatePartOne.NotSet;
-        MonthlySpecificDatePartTwo partTwo = MonthlySpecificDatePartTwo.NotSet;
-
-        if (specDatePartOne == "Z") partOne = MonthlySpecificDatePartOne.NotSet;
-        else partOne = MonthlySpecificDatePartOne.fromValue(specDatePartOne.charAt(0) - 65);
-
-        if (specDatePartTwo == "Z") partTwo = MonthlySpecificDatePartTwo.NotSet;
-        else partTwo = MonthlySpecificDatePartTwo.fromValue(specDatePartTwo.charAt(0) - 65);
-
-        // Get the EndDate before any modifications on it are performed
-        if (endType == EndDateType.SpecificDate) {
-            date = LocalDate.parse(endDate, DateTimeFormatter.BASIC_ISO_DATE);
-            endDateValue = date.atStartOfDay();
-        }
-
-        info.setEndDateType(endType);
-        // Determine the Constructor by the type of End Date.
-        // All constructors start with a Start date at a minimum.
-        switch (endType) {
-            case NumberOfOccurrences:
-                info.setStartDate(dtStartDate);
-                info.setNumberOfOccurrences(noOccurrences);
-                break;
-
-            case SpecificDate:
-                info.setStartDate(dtStartDate);
-                info.setEndDate(endDateValue);
-                break;
-
-            case NoEndDate:
-                info.setStartDate(dtStartDate);
-                break;
-        }
-
-        // Set the adjusted values
-        info.setAdjustmentValue(Integer.valueOf(adjustValue));
-        info.setMonthlyRegenType(MonthlyRegenType.fromValue(Integer.valueOf(monthlyRegenType)));
-
-        // Determine the Type of dates to get, specific, custom, etc.
-        switch (info.monthlyRegenType) {
-            case OnSpecificDayOfMonth:
-                info.setMonthlyRegenerateOnSpecificDateDayValue(Integer.valueOf(regenOnSpecificDateDayValue));
-                info.setRegenEveryXMonths(regenXMonths);
-                break;
-
-            case OnCustomDateFormat:
-                info.setMonthlySpecificDatePartOne(partOne);
-                info.setMonthlySpecificDatePartTwo(partTwo);
-                info.setRegenEveryXMonths(regenXMonths);
-                break;
-
-            case AfterOccurrenceCompleted:
-
-                break;
-        }
+        if (!seriesInfo.startsWith("M"))
+            return null;
 
-        return info;
+        return SeriesInfoCodec.decode(seriesInfo);
     }
 
     //#region  Procedures
@@ -219,6 +122,14 @@ public class MonthlyRecurrenceSettings extends RecurrenceSettings {
     static MonthlyRecurrenceSettings getRecurrenceSettings(String seriesInfo, int modifiedOccurrencesValue, LocalDateTime modifiedStartDate, LocalDateTime modifiedEndDate) {
         // Get the Recurrence Info object. This makes it easy to work with existing series of date patterns.
         RecurrenceInfo info = MonthlyRecurrenceSettings.getFriendlyRecurrenceInfo(seriesInfo);
+        return getRecurrenceSettings(info, modifiedOccurrencesValue, modifiedStartDate, modifiedEndDate);
+    }
+
+    /// <summary>
+    /// Get the settings from Series Info that has already been parsed. The info is updated
+    /// with any modified values, so pass in a copy of info that is being kept.
+    /// </summary>
+    static MonthlyRecurrenceSettings getRecurrenceSettings(RecurrenceInfo info, int modifiedOccurrencesValue, LocalDateTime modifiedStartDate, LocalDateTime modifiedEndDate) {
         MonthlyRecurrenceSettings settings = null;
 
         // Check to see if this is to modify the SeriesInfo and run as endtype for occurrences
@@ -272,7 +183,7 @@ public class MonthlyRecurrenceSettings extends RecurrenceSettings {
     static MonthlyRecurrenceSettings getRecurrenceSettings(String seriesInfo, int modifiedOccurrencesValue, LocalDateTime modifiedEndDate) {
         // Get the Recurrence Info object. This makes it easy to work with existing series of date patterns.
         RecurrenceInfo info = MonthlyRecurrenceSettings.getFriendlyRecurrenceInfo(seriesInfo);
-        return getRecurrenceSettings(seriesInfo, modifiedOccurrencesValue, info.startDate, modifiedEndDate);
+        return getRecurrenceSettings(info, modifiedOccurrencesValue, info.startDate, modifiedEndDate);
     }
 
     /// <summary>
@@ -282,45 +193,8 @@ public class MonthlyRecurrenceSettings extends RecurrenceSettings {
     /// </summary>
     /// <returns></returns>
     String getSeriesInfo() {
-        String info;
-        String endDate = "ZZZZZZZZ"; // Default for no ending date.
-        String occurrences = String.format("%04d", this.numberOfOccurrences);
-        String monthlyRegenType = this.regenType.toString();
-        String endDateType = this.endDateType.toString();
-        String regenOnSpecificDateDayValue = String.format("%02d", this.regenerateOnSpecificDateDayValue);
-        String specDatePartOne = "Z";
-        String specDatePartTwo = "Z";
-        String regenXMonths = String.format("%03d", this.regenEveryXMonths);
-
-        if (specificDatePartOne != MonthlySpecificDatePartOne.NotSet) specDatePartOne = specificDatePartOne.toString();
-
-        if (specificDatePartTwo != MonthlySpecificDatePartTwo.NotSet) specDatePartTwo = specificDatePartTwo.toString();
-
-        String adjustValue = String.format("%03d", this.adjustmentValue);
-
-        // If the Adjustment value is less than Zero then account for the "-"
-        if (adjustmentValue < 0) adjustValue = String.format("%02d", this.adjustmentValue);
-
-        // End Date may be null if no ending date.
-        if (this.hasEndDate()) endDate = DateTimeFormatter.BASIC_ISO_DATE.format(this.endDate);
-
-        // FORMATTING DEFINITIONS
-        //  Y = Monthly Designator
-        //  |       0 = Start Date (8 chars)
-        //  |       |        1 = End Date (8 chars)
-        //  |       |        |        2 = Number of occurrences (4 chars)
-        //  |       |        |        |      3 = Regeneration Type (1 char)
-        //  |       |        |        |      |    4 = End date type (1 char)
-        //  |       |        |        |      |    |      5 = Regenerate on specific date DAY value (2 chars)
-        //  |       |        |        |      |    |      |       6 = Custom Date Part One (1 char)
-        //  |       |        |        |      |    |      |       |       7 = Custom Date Part Two (1 char)
-        //  |       |        |        |      |    |      |       |       |       8 = Adjustment Value (3 chars)
-        //  |       |        |        |      |    |      |       |       |       |     9  Regen Every x months
-        //  |       |        |        |      |    |      |       |       |       |     |
-        // [0]    [1-8]    [9-16]  [17-20]  [21] [22] [23-24]  [25]    [26]    [27-29] [30-32]
-        //  M   20071231  20171231   0000    1     1     00      A      A       000    000
-        info = String.format("M%s%s%s%s%s%s%s%s%s%s", DateTimeFormatter.BASIC_ISO_DATE.format(this.startDate), endDate, occurrences, monthlyRegenType, endDateType, regenOnSpecificDateDayValue, specDatePartOne, specDatePartTwo, adjustValue, regenXMonths);
-        return info;
+        // FORMATTING DEFINITIONS are in SeriesInfoCodec
+        return SeriesInfoCodec.encode(this);
     }
 
     /// <summary>
@@ -329,9 +203,44 @@ public class MonthlyRecurrenceSettings extends RecurrenceSettings {
     /// <returns></returns>
     RecurrenceValues getSpecificDayOfMonthDates() throws Exception {
         RecurrenceValues values = new RecurrenceValues();
+        LocalDateTime dt = getFirstSpecificDayOfMonthDate();
+
+        switch (this.endDateType) {
+            case NoEndDate:
+                throw new Exception("The ability to create recurring dates with no End date is not currently available.");
+
+            case NumberOfOccurrences:
+
+                for (int i = 0; i < this.numberOfOccurrences; i++) {
+                    values.AddDateValue(dt, adjustmentValue);
+                    dt = dt.plusMonths(regenEveryXMonths);
+                    dt = getCorrectedDate(dt);
+                }
+                break;
+
+            case SpecificDate:
+                do {
+                    values.AddDateValue(dt, adjustmentValue);
+                    dt = dt.plusMonths(regenEveryXMonths);
+                    dt = getCorrectedDate(dt);
+                } while (dt.compareTo(this.endDate) <= 0);
+                break;
+
+            default:
+                throw new IllegalArgumentException("The TypeOfEndDate property has not been set.");
+        }
+
+        return values;
+    }
+
+    /// <summary>
+    /// Get the first specific day of the month that isn't before the start date.
+    /// </summary>
+    /// <returns></returns>
+    LocalDateTime getFirstSpecificDayOfMonthDate() {
         LocalDateTime dt = this.startDate;
         int dayValue = regenerateOnSpecificDateDayValue;
-        int daysOfMonth = YearMonth.of(dt.getYear(), dt.getMonth()).lengthOfMonth();
+        int daysOfMonth = GregorianMonths.lengthOfMonth(dt.getYear(), dt.getMonthValue());
         // Get the max days of the month and make sure it's not
         // less than the specified day value trying to be set.
         if (daysOfMonth < regenerateOnSpecificDateDayValue) dayValue = daysOfMonth;
@@ -343,44 +252,7 @@ public class MonthlyRecurrenceSettings extends RecurrenceSettings {
         // then make the specific date next month.
         if (newDate.compareTo(dt) < 0) dt = newDate.plusMonths(1);
         else dt = newDate;
-
-
-        if (getNextDateValue) {
-            do {
-                values.AddDateValue(dt, adjustmentValue);
-                if (values.values.get(values.values.size() - 1).compareTo(nextDateValue) > 0) break;
-
-                dt = dt.plusMonths(regenEveryXMonths);
-                dt = getCorrectedDate(dt);
-            } while (dt.compareTo(nextDateValue.plusMonths(regenEveryXMonths + 1)) <= 0); // Ensure the last date if greater than what's needed for the next date in the cycle
-        } else {
-            switch (this.endDateType) {
-                case NoEndDate:
-                    throw new Exception("The ability to create recurring dates with no End date is not currently available.");
-
-                case NumberOfOccurrences:
-
-                    for (int i = 0; i < this.numberOfOccurrences; i++) {
-                        values.AddDateValue(dt, adjustmentValue);
-                        dt = dt.plusMonths(regenEveryXMonths);
-                        dt = getCorrectedDate(dt);
-                    }
-                    break;
-
-                case SpecificDate:
-                    do {
-                        values.AddDateValue(dt, adjustmentValue);
-                        dt = dt.plusMonths(regenEveryXMonths);
-                        dt = getCorrectedDate(dt);
-                    } while (dt.compareTo(this.endDate) <= 0);
-                    break;
-
-                default:
-                    throw new IllegalArgumentException("The TypeOfEndDate property has not been set.");
-            }
-        }
-
-        return values;
+        return dt;
     }
 //#endregion //Public GetValues
 
@@ -396,10 +268,11 @@ public class MonthlyRecurrenceSettings extends RecurrenceSettings {
         // Ensure the day value hasn't changed.
         // This will occurr if the month is Feb. All
         // dates after that will have the same day.
-        if (dt.getDayOfMonth() < this.regenerateOnSpecificDateDayValue && YearMonth.of(dt.getYear(), dt.getMonth()).lengthOfMonth() > dt.getDayOfMonth()) {
+        int daysOfMonth = GregorianMonths.lengthOfMonth(dt.getYear(), dt.getMonthValue());
+        if (dt.getDayOfMonth() < this.regenerateOnSpecificDateDayValue && daysOfMonth > dt.getDayOfMonth()) {
             // The Specified day is greater than the number of days in the month.
-            if (this.regenerateOnSpecificDateDayValue > YearMonth.of(dt.getYear(), dt.getMonth()).lengthOfMonth())
-                dt = LocalDateTime.of(dt.getYear(), dt.getMonth(), YearMonth.of(dt.getYear(), dt.getMonth()).lengthOfMonth(), 0, 0);
+            if (this.regenerateOnSpecificDateDayValue > daysOfMonth)
+                dt = LocalDateTime.of(dt.getYear(), dt.getMonth(), daysOfMonth, 0, 0);
             else
                 // The specified date is less than number of days in month.
                 dt = LocalDateTime.of(dt.getYear(), dt.getMonth(), this.regenerateOnSpecificDateDayValue, 0, 0);
@@ -420,58 +293,40 @@ public class MonthlyRecurrenceSettings extends RecurrenceSettings {
         RecurrenceValues values = new RecurrenceValues();
         LocalDateTime dt = this.startDate;
 
-        // Get Next Date value only
-        if (getNextDateValue) {
-            do {
-                dt = getCustomDate(dt);
-                // If the date returned is less than the start date
-                // then do it again to increment past the start date
-                if (dt.compareTo(this.startDate) < 0) {
-                    dt = dt.plusMonths(1);
+        switch (this.endDateType) {
+            case NoEndDate:
+                throw new Exception("The ability to create recurring dates with no End date is not currently available.");
+
+            case NumberOfOccurrences:
+                for (int i = 0; i < this.numberOfOccurrences; i++) {
                     dt = getCustomDate(dt);
+                    // If the date returned is less than the start date
+                    // then do it again to increment past the start date
+                    if (dt.compareTo(this.startDate) < 0) {
+                        dt = dt.plusMonths(1);
+                        dt = getCustomDate(dt);
+                    }
+                    values.AddDateValue(dt, adjustmentValue);
+                    dt = dt.plusMonths(regenEveryXMonths);
                 }
-                values.AddDateValue(dt, adjustmentValue);
-                if (values.values.get(values.values.size() - 1).compareTo(nextDateValue) > 0) break;
-
-                dt = dt.plusMonths(regenEveryXMonths);
-
-            } while (dt.compareTo(nextDateValue.plusMonths(regenEveryXMonths + 1)) <= 0); // Ensure the last date if greater than what's needed for the next date in the cycle
-        } else {
-            switch (this.endDateType) {
-                case NoEndDate:
-                    throw new Exception("The ability to create recurring dates with no End date is not currently available.");
+                break;
 
-                case NumberOfOccurrences:
-                    for (int i = 0; i < this.numberOfOccurrences; i++) {
+            case SpecificDate:
+                do {
+                    dt = getCustomDate(dt);
+                    // If the date returned is less than the start date
+                    // then do it again to increment past the start date
+                    if (dt.compareTo(this.startDate) < 0) {
+                        dt = dt.plusMonths(1);
                         dt = getCustomDate(dt);
-                        // If the date returned is less than the start date
-                        // then do it again to increment past the start date
-                        if (dt.compareTo(this.startDate) < 0) {
-                            dt = dt.plusMonths(1);
-                            dt = getCustomDate(dt);
-                        }
-                        values.AddDateValue(dt, adjustmentValue);
-                        dt = dt.plusMonths(regenEveryXMonths);
                     }
-                    break;
+                    values.AddDateValue(dt, adjustmentValue);
+                    dt = dt.plusMonths(regenEveryXMonths);
+                } while (dt.compareTo(this.endDate) <= 0);
+                break;
 
-                case SpecificDate:
-                    do {
-                        dt = getCustomDate(dt);
-                        // If the date returned is less than the start date
-                        // then do it again to increment past the start date
-                        if (dt.compareTo(this.startDate) < 0) {
-                            dt = dt.plusMonths(1);
-                            dt = getCustomDate(dt);
-                        }
-                        values.AddDateValue(dt, adjustmentValue);
-                        dt = dt.plusMonths(regenEveryXMonths);
-                    } while (dt.compareTo(this.endDate) <= 0);
-                    break;
-
-                default:
-                    throw new IllegalArgumentException("The TypeOfEndDate property has not been set.");
-            }
+            default:
+                throw new IllegalArgumentException("The TypeOfEndDate property has not been set.");
         }
         return values;
 
@@ -483,17 +338,20 @@ public class MonthlyRecurrenceSettings extends RecurrenceSettings {
     /// <param name="year"></param>
     /// <returns></returns>
     LocalDateTime getCustomDate(LocalDateTime currentDate) {
-        int year = currentDate.getYear();
-        LocalDateTime dt = LocalDateTime.of(year, currentDate.getMonth(), 1, 0, 0);
-        int day = 1;
+        return getCustomDate(currentDate.getYear(), currentDate.getMonthValue(), specificDatePartOne, specificDatePartTwo);
+    }
+
+    static LocalDateTime getCustomDate(int year, int month, MonthlySpecificDatePartOne specificDatePartOne, MonthlySpecificDatePartTwo specificDatePartTwo) {
+        LocalDateTime dt = LocalDateTime.of(year, month, 1, 0, 0);
         int firstPart = specificDatePartOne.getValue() + 1;
-        int daysOfMonth = YearMonth.of(year, dt.getMonth()).lengthOfMonth();
+        int daysOfMonth = GregorianMonths.lengthOfMonth(year, dt.getMonthValue());
+        int firstDayOfWeek = GregorianMonths.firstDayOfWeek(year, dt.getMonthValue());
 
         switch (specificDatePartTwo) {
             case Day:
                 // If only getting the Last day of the month
                 if (specificDatePartOne == MonthlySpecificDatePartOne.Last)
-                    dt = LocalDateTime.of(year, dt.getMonth(), YearMonth.of(year, dt.getMonth()).lengthOfMonth(), 0, 0);
+                    dt = LocalDateTime.of(year, dt.getMonth(), daysOfMonth, 0, 0);
                 else
                     // Get a specific day of the month such as First, Second, Third, Fourth
                     dt = LocalDateTime.of(year, dt.getMonth(), firstPart, 0, 0);
@@ -501,120 +359,55 @@ public class MonthlyRecurrenceSettings extends RecurrenceSettings {
                 break;
 
             case Weekday:
-                int weekDayCount = 0;
-                LocalDateTime lastWeekday = dt;
-                do {
-                    // Check for anything other than Saturday and Sunday
-                    if (dt.getDayOfWeek() != DayOfWeek.SATURDAY && dt.getDayOfWeek() != DayOfWeek.SUNDAY) {
-                        // Get a specific Weekday of the Month
-                        if (specificDatePartOne != MonthlySpecificDatePartOne.Last) {
-                            // Add up the weekday count
-                            weekDayCount++;
-                            // If the current weekday count matches then exit
-                            if (weekDayCount == firstPart) break;
-                        } else {
-                            // Get the last weekday of the month
-                            lastWeekday = dt;
-                        }
-                    }
-                    dt = dt.plusDays(1);
-                    day++;
-                } while (day <= daysOfMonth);
-
-                // If getting the last weekday of the month then
-                // set the returning value to the last weekday found.
-                if (specificDatePartOne == MonthlySpecificDatePartOne.Last) dt = lastWeekday;
-
+                if (specificDatePartOne == MonthlySpecificDatePartOne.Last)
+                    dt = dt.plusDays(CustomDayOfMonth.getLastWeekday(firstDayOfWeek, daysOfMonth) - 1);
+                else
+                    dt = dt.plusDays(CustomDayOfMonth.getNthWeekday(firstDayOfWeek, daysOfMonth, firstPart) - 1);
                 break;
 
             case WeekendDay:
-                int weekendDayCount = 0;
-                LocalDateTime lastWeekendday = dt;
-                do {
-                    // Check for anything other than Saturday and Sunday
-                    if (dt.getDayOfWeek() == DayOfWeek.SATURDAY || dt.getDayOfWeek() == DayOfWeek.SUNDAY) {
-                        // Get a specific Weekday of the Month
-                        if (specificDatePartOne != MonthlySpecificDatePartOne.Last) {
-                            // Add up the weekday count
-                            weekendDayCount++;
-                            // If the current weekday count matches then exit
-                            if (weekendDayCount == firstPart) break;
-                        } else {
-                            // Get the last weekday of the month
-                            lastWeekendday = dt;
-                        }
-                    }
-                    dt = dt.plusDays(1);
-                    day++;
-                } while (day <= daysOfMonth);
-
-                // If getting the last weekday of the month then
-                // set the returning value to the last weekday found.
-                if (specificDatePartOne == MonthlySpecificDatePartOne.Last) dt = lastWeekendday;
-
+                if (specificDatePartOne == MonthlySpecificDatePartOne.Last)
+                    dt = dt.plusDays(CustomDayOfMonth.getLastWeekendDay(firstDayOfWeek, daysOfMonth) - 1);
+                else
+                    dt = dt.plusDays(CustomDayOfMonth.getNthWeekendDay(firstDayOfWeek, daysOfMonth, firstPart) - 1);
                 break;
 
             case Monday:
-                dt = getCustomWeekday(dt, DayOfWeek.MONDAY, daysOfMonth, firstPart);
+                dt = getCustomWeekday(dt, DayOfWeek.MONDAY, daysOfMonth, firstPart, specificDatePartOne);
                 break;
 
             case Tuesday:
-                dt = getCustomWeekday(dt, DayOfWeek.TUESDAY, daysOfMonth, firstPart);
+                dt = getCustomWeekday(dt, DayOfWeek.TUESDAY, daysOfMonth, firstPart, specificDatePartOne);
                 break;
 
             case Wednesday:
-                dt = getCustomWeekday(dt, DayOfWeek.WEDNESDAY, daysOfMonth, firstPart);
+                dt = getCustomWeekday(dt, DayOfWeek.WEDNESDAY, daysOfMonth, firstPart, specificDatePartOne);
                 break;
 
             case Thursday:
-                dt = getCustomWeekday(dt, DayOfWeek.THURSDAY, daysOfMonth, firstPart);
+                dt = getCustomWeekday(dt, DayOfWeek.THURSDAY, daysOfMonth, firstPart, specificDatePartOne);
                 break;
 
             case Friday:
-                dt = getCustomWeekday(dt, DayOfWeek.FRIDAY, daysOfMonth, firstPart);
+                dt = getCustomWeekday(dt, DayOfWeek.FRIDAY, daysOfMonth, firstPart, specificDatePartOne);
                 break;
 
             case Saturday:
-                dt = getCustomWeekday(dt, DayOfWeek.SATURDAY, daysOfMonth, firstPart);
+                dt = getCustomWeekday(dt, DayOfWeek.SATURDAY, daysOfMonth, firstPart, specificDatePartOne);
                 break;
 
             case Sunday:
-                dt = getCustomWeekday(dt, DayOfWeek.SUNDAY, daysOfMonth, firstPart);
+                dt = getCustomWeekday(dt, DayOfWeek.SUNDAY, daysOfMonth, firstPart, specificDatePartOne);
                 break;
         }
         return dt;
     }
 
-    LocalDateTime getCustomWeekday(LocalDateTime startDate, DayOfWeek weekDay, int daysOfMonth, int firstDatePart) {
-        int day = 1;
-        int dayCount = 0;
-        LocalDateTime lastDOW = startDate;
-        LocalDateTime returnDate = startDate;
-        do {
-            // Check for day of the week
-            if (returnDate.getDayOfWeek() == weekDay) {
-                // Get a specific Weekday of the Month
-                if (specificDatePartOne != MonthlySpecificDatePartOne.Last) {
-                    // Add up the days found count
-                    dayCount++;
-                    // If the current weekday count matches then exit
-                    if (dayCount == firstDatePart) {
-                        break;
-                    }
-                } else {
-                    // Get the current date value
-                    lastDOW = returnDate;
-                }
-            }
-            returnDate = returnDate.plusDays(1);
-            day++;
-        } while (day <= daysOfMonth);
-
-        // If getting the last weekday of the month then
-        // set the returning value to the last weekday found.
-        if (specificDatePartOne == MonthlySpecificDatePartOne.Last) returnDate = lastDOW;
-
-        return returnDate;
+    static LocalDateTime getCustomWeekday(LocalDateTime startDate, DayOfWeek weekDay, int daysOfMonth, int firstDatePart, MonthlySpecificDatePartOne specificDatePartOne) {
+        int firstDayOfWeek = startDate.getDayOfWeek().getValue();
+        if (specificDatePartOne == MonthlySpecificDatePartOne.Last)
+            return startDate.plusDays(CustomDayOfMonth.getLastDayOfWeek(firstDayOfWeek, daysOfMonth, weekDay.getValue()) - 1);
+        return startDate.plusDays(CustomDayOfMonth.getNthDayOfWeek(firstDayOfWeek, daysOfMonth, weekDay.getValue(), firstDatePart) - 1);
     }
 
     //#region Public GetValues
@@ -655,26 +448,7 @@ public class MonthlyRecurrenceSettings extends RecurrenceSettings {
     ///     A RecurrenceGenerator.RecurrenceValues value...
     /// </returns>
     RecurrenceValues getValues() throws Exception {
-        return getRecurrenceValues();
-    }
-
-    RecurrenceValues getValues(LocalDateTime startDate, LocalDateTime endDate) throws Exception {
-        this.startDate = startDate;
-        this.endDate = endDate;
-        // Change the end type to End Date as this original series info
-        // may have been set to number of occurrences.
-        this.endDateType = EndDateType.SpecificDate;
-        return getRecurrenceValues();
-    }
-
-    RecurrenceValues getValues(LocalDateTime startDate, int numberOfOccurrences) throws Exception {
-        this.numberOfOccurrences = numberOfOccurrences;
-        this.startDate = startDate;
-        // Change the end type to number of occurrences.
-        // This must be set because the original starting Series Info may
-        // be set to have an End Date type.
-        this.endDateType = EndDateType.NumberOfOccurrences;
-        return getRecurrenceValues();
+        return measureValues("MonthlyRecurrenceSettings.getValues", RecurrenceInfo.RecurrenceType.Monthly, this::getRecurrenceValues);
     }
 
     RecurrenceValues getRecurrenceValues() throws Exception {
@@ -721,12 +495,76 @@ public class MonthlyRecurrenceSettings extends RecurrenceSettings {
         regenType = MonthlyRegenType.OnSpecificDayOfMonth;
     }
 
-    LocalDateTime getNextDate(LocalDateTime currentDate) throws Exception {
-        getNextDateValue = true;
-        nextDateValue = currentDate;
-        // Now get the values and return the last date found.
-        RecurrenceValues values = getValues();
-        return values.endDate;
+    @Override
+    RecurrenceSequence getSequence() throws Exception {
+        int dayValue = regenerateOnSpecificDateDayValue;
+        MonthlySpecificDatePartOne partOne = specificDatePartOne;
+        MonthlySpecificDatePartTwo partTwo = specificDatePartTwo;
+
+        switch (regenType) {
+            case OnSpecificDayOfMonth:
+                return RecurrenceSequence.everyXMonths(getFirstSpecificDayOfMonthDate().toLocalDate(), regenEveryXMonths,
+                        Arrays.asList("Day", dayValue), (year, month) -> Math.min(dayValue, GregorianMonths.lengthOfMonth(year, month)));
+
+            case OnCustomDateFormat:
+                if (partOne == MonthlySpecificDatePartOne.NotSet)
+                    throw new Exception("The First part of the custom date has not been set.");
+                if (partTwo == MonthlySpecificDatePartTwo.NotSet)
+                    throw new Exception("The Second part of the custom date has not been set.");
+
+                LocalDateTime dt = getCustomDate(this.startDate);
+                // If the date returned is less than the start date
+                // then the first date is next month's.
+                if (dt.compareTo(this.startDate) < 0)
+                    dt = getCustomDate(dt.plusMonths(1));
+                return RecurrenceSequence.everyXMonths(dt.toLocalDate(), regenEveryXMonths,
+                        Arrays.asList(partOne, partTwo), (year, month) -> getCustomDate(year, month, partOne, partTwo).getDayOfMonth());
+
+            default:
+                throw new RecurrenceException(RecurrenceException.GENERIC_EXCEPTION_CODE, "unknown regenType");
+        }
+    }
+
+    /// <summary>
+    /// On a business calendar the custom Weekday dates, such as the last weekday of the
+    /// month, are business days of the calendar.
+    /// </summary>
+    @Override
+    RecurrenceSequence getSequence(BusinessCalendar calendar) throws Exception {
+        MonthlySpecificDatePartOne partOne = specificDatePartOne;
+        if (regenType != MonthlyRegenType.OnCustomDateFormat || specificDatePartTwo != MonthlySpecificDatePartTwo.Weekday
+                || partOne == MonthlySpecificDatePartOne.NotSet)
+            return getSequence();
+
+        int n = partOne == MonthlySpecificDatePartOne.Last ? 0 : partOne.getValue() + 1;
+        LocalDate dt = LocalDate.of(startDate.getYear(), startDate.getMonthValue(), calendar.getDayOfMonth(startDate.getYear(), startDate.getMonthValue(), n));
+        // If the date is before the start date then the first date is next month's.
+        if (dt.atStartOfDay().compareTo(this.startDate) < 0) {
+            LocalDate next = dt.plusMonths(1);
+            dt = LocalDate.of(next.getYear(), next.getMonthValue(), calendar.getDayOfMonth(next.getYear(), next.getMonthValue(), n));
+        }
+        return RecurrenceSequence.everyXMonths(dt, regenEveryXMonths,
+                Arrays.asList(partOne, "BusinessDay", calendar), (year, month) -> calendar.getDayOfMonth(year, month, n));
+    }
+
+    @Override
+    long getLastIndex(RecurrenceSequence sequence) {
+        if (regenType != MonthlyRegenType.OnCustomDateFormat || endDateType != EndDateType.SpecificDate)
+            return super.getLastIndex(sequence);
+
+        // The custom dates go on while the date x-months after the last one, before it's moved
+        // to the custom day, isn't past the end date. That date is in the same month as the
+        // next custom date, so the last index is next to the count of dates up to the end date.
+        long index = Math.max(0, sequence.countAtOrBefore(endDate) - 1);
+        while (index > 0 && isPastEndDate(sequence, index - 1))
+            index--;
+        while (!isPastEndDate(sequence, index))
+            index++;
+        return index;
+    }
+
+    private boolean isPastEndDate(RecurrenceSequence sequence, long index) {
+        return sequence.dateAt(index).atTime(sequence.timeOfDay).plusMonths(regenEveryXMonths).compareTo(endDate) > 0;
     }
 
     /// <summary>
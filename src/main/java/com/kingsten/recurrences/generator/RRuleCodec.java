@@ -0,0 +1,736 @@
+package com.kingsten.recurrences.generator;
+
+import com.kingsten.recurrences.generator.DailyRecurrenceSettings.DailyRegenType;
+import com.kingsten.recurrences.generator.MonthlyRecurrenceSettings.MonthlyRegenType;
+import com.kingsten.recurrences.generator.MonthlyRecurrenceSettings.MonthlySpecificDatePartOne;
+import com.kingsten.recurrences.generator.MonthlyRecurrenceSettings.MonthlySpecificDatePartTwo;
+import com.kingsten.recurrences.generator.WeeklyRecurrenceSettings.SelectedDayOfWeekValues;
+import com.kingsten.recurrences.generator.YearlyRecurrenceSettings.YearlyRegenType;
+import com.kingsten.recurrences.generator.YearlyRecurrenceSettings.YearlySpecificDatePartOne;
+import com.kingsten.recurrences.generator.YearlyRecurrenceSettings.YearlySpecificDatePartThree;
+import com.kingsten.recurrences.generator.YearlyRecurrenceSettings.YearlySpecificDatePartTwo;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.Month;
+
+/// <summary>
+/// Reads and writes iCalendar (RFC 5545) RRULE values as the settings of the four patterns,
+/// so a partner's rule runs on the same generators as a Series Info. The value is scanned in
+/// place, without splitting it up or using regular expressions. The start date of the series
+/// is the DTSTART of the event, which isn't part of the RRULE.
+///     FREQ=DAILY;INTERVAL=3                       every 3 days
+///     FREQ=DAILY;BYDAY=MO,TU,WE,TH,FR             every weekday
+///     FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE;WKST=SU  every 2 weeks on Monday and Wednesday
+///     FREQ=MONTHLY;BYMONTHDAY=28,29,30,31;BYSETPOS=-1
+///                                                 the 31st, or the last day of shorter months
+///     FREQ=MONTHLY;BYDAY=MO,TU,WE,TH,FR;BYSETPOS=-1
+///                                                 the last weekday of the month
+///     FREQ=YEARLY;BYMONTH=7;BYDAY=2MO;COUNT=10    the second Monday of July, 10 times
+/// Rules the generators can't produce exactly, such as BYHOUR, or a BYMONTHDAY of 31 that
+/// skips the shorter months, are refused with an IllegalArgumentException naming the part
+/// rather than being run differently. UNTIL on a numbered day, such as BYDAY=1WE, is read
+/// and written as the COUNT of dates up to it, as the generators don't stop those at an end date.
+/// </summary>
+public final class RRuleCodec {
+
+    private static final String[] PART_NAMES = {"FREQ", "INTERVAL", "COUNT", "UNTIL", "BYDAY", "BYMONTHDAY", "BYMONTH", "BYSETPOS", "WKST"};
+    private static final String[] FREQUENCIES = {"DAILY", "WEEKLY", "MONTHLY", "YEARLY"};
+    private static final String[] DAY_NAMES = {"SU", "MO", "TU", "WE", "TH", "FR", "SA"};
+    // Names of the custom date parts, shared by the monthly and yearly enums.
+    private static final String[] POSITIONS = {"First", "Second", "Third", "Fourth"};
+    private static final String[] DAYS_OF_WEEK = {"Sunday", "Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday"};
+    private static final int WEEKDAYS = 0x3E;
+    private static final int WEEKEND_DAYS = 0x41;
+    private static final int ALL_DAYS = 0x7F;
+
+    private static final int DAILY = 0;
+    private static final int WEEKLY = 1;
+    private static final int MONTHLY = 2;
+    private static final int YEARLY = 3;
+
+    private RRuleCodec() {
+    }
+
+    //#region Reading
+
+    /// <summary>
+    /// Get the settings for an RRULE.
+    /// </summary>
+    /// <param name="rrule">The RRULE value, with or without "RRULE:" in front.</param>
+    /// <param name="startDate">DTSTART of the event.</param>
+    /// <returns></returns>
+    public static RecurrenceSettings toRecurrenceSettings(CharSequence rrule, LocalDateTime startDate) {
+        RRule rule = parse(rrule);
+        return rule.toRecurrenceSettings(startDate);
+    }
+
+    /// <summary>
+    /// Get the Series Info for an RRULE, see toRecurrenceSettings.
+    /// </summary>
+    /// <param name="rrule"></param>
+    /// <param name="startDate"></param>
+    /// <returns></returns>
+    public static String toSeriesInfo(CharSequence rrule, LocalDateTime startDate) {
+        return SeriesInfoCodec.encode(toRecurrenceSettings(rrule, startDate));
+    }
+
+    private static RRule parse(CharSequence rrule) {
+        RRule rule = new RRule(rrule);
+        int position = startsWith(rrule, 0, "RRULE:") ? 6 : 0;
+        while (position < rrule.length()) {
+            int end = indexOf(rrule, ';', position);
+            int equals = indexOf(rrule, '=', position);
+            if (equals >= end)
+                throw rule.invalid("expected NAME=VALUE");
+            rule.readPart(position, equals, end);
+            position = end + 1;
+        }
+        if (rule.frequency < 0)
+            throw rule.invalid("FREQ is missing");
+        if (rule.count >= 0 && rule.until != null)
+            throw rule.invalid("COUNT and UNTIL can't both be set");
+        return rule;
+    }
+
+    /// <summary>
+    /// The parts of an RRULE as they're read.
+    /// </summary>
+    private static final class RRule {
+        private final CharSequence text;
+        int frequency = -1;
+        int interval = 1;
+        int count = -1;
+        LocalDateTime until;
+        // BYDAY without ordinals as a mask, Sunday being bit 0, or one day with an ordinal.
+        int dayMask;
+        int dayOrdinal;
+        // BYMONTHDAY as a mask of days 1 to 31, with -1 kept apart.
+        long monthDayMask;
+        boolean lastMonthDay;
+        int month;
+        int setPosition;
+        int weekStart = 1;
+        int seenParts;
+
+        RRule(CharSequence text) {
+            this.text = text;
+        }
+
+        void readPart(int start, int equals, int end) {
+            int part = getPart(start, equals);
+            if ((seenParts & 1 << part) != 0)
+                throw invalid(text.subSequence(start, equals) + " is set more than once");
+            seenParts |= 1 << part;
+            int valueStart = equals + 1;
+
+            switch (part) {
+                case 0:
+                    frequency = readFrequency(valueStart, end);
+                    break;
+
+                case 1:
+                    interval = readInt(valueStart, end);
+                    if (interval < 1)
+                        throw invalid("INTERVAL must be 1 or more");
+                    break;
+
+                case 2:
+                    count = readInt(valueStart, end);
+                    break;
+
+                case 3:
+                    until = readDateTime(valueStart, end);
+                    break;
+
+                case 4:
+                    readDays(valueStart, end);
+                    break;
+
+                case 5:
+                    readMonthDays(valueStart, end);
+                    break;
+
+                case 6:
+                    if (indexOf(text, ',', valueStart) < end)
+                        throw unsupported("BYMONTH", "only one month can be set");
+                    month = readInt(valueStart, end);
+                    if (month < 1 || month > 12)
+                        throw invalid("invalid BYMONTH");
+                    break;
+
+                case 7:
+                    if (indexOf(text, ',', valueStart) < end)
+                        throw unsupported("BYSETPOS", "only one position can be set");
+                    setPosition = readSignedInt(valueStart, end);
+                    if (setPosition == 0 || setPosition < -1 || setPosition > 4)
+                        throw unsupported("BYSETPOS", "only 1 to 4 and -1 are supported");
+                    break;
+
+                case 8:
+                    weekStart = readDay(valueStart, end);
+                    break;
+
+                default:
+                    throw unsupported(text.subSequence(start, equals).toString(), "the generators have no equivalent");
+            }
+        }
+
+        private int getPart(int start, int end) {
+            for (int i = 0; i < PART_NAMES.length; i++)
+                if (end - start == PART_NAMES[i].length() && startsWith(text, start, PART_NAMES[i]))
+                    return i;
+            return PART_NAMES.length;
+        }
+
+        private int readFrequency(int start, int end) {
+            for (int i = 0; i < FREQUENCIES.length; i++)
+                if (end - start == FREQUENCIES[i].length() && startsWith(text, start, FREQUENCIES[i]))
+                    return i;
+            throw unsupported("FREQ", text.subSequence(start, end) + " isn't supported");
+        }
+
+        private void readDays(int start, int end) {
+            int position = start;
+            while (position <= end) {
+                int itemEnd = indexOf(text, ',', position);
+                if (itemEnd > end)
+                    itemEnd = end;
+                if (itemEnd - position < 2)
+                    throw invalid("invalid BYDAY");
+                int day = readDay(itemEnd - 2, itemEnd);
+                if (itemEnd - position > 2) {
+                    int ordinal = readSignedInt(position, itemEnd - 2);
+                    if (ordinal == 0 || ordinal < -1 || ordinal > 4)
+                        throw unsupported("BYDAY", "only the 1st to 4th and last (-1) days of the month are supported");
+                    if (dayOrdinal != 0 || dayMask != 0)
+                        throw unsupported("BYDAY", "a day with a number can't be combined with other days");
+                    dayOrdinal = ordinal;
+                } else if (dayOrdinal != 0) {
+                    throw unsupported("BYDAY", "a day with a number can't be combined with other days");
+                }
+                dayMask |= 1 << day;
+                position = itemEnd + 1;
+            }
+        }
+
+        private void readMonthDays(int start, int end) {
+            int position = start;
+            while (position <= end) {
+                int itemEnd = indexOf(text, ',', position);
+                if (itemEnd > end)
+                    itemEnd = end;
+                int day = readSignedInt(position, itemEnd);
+                if (day == -1)
+                    lastMonthDay = true;
+                else if (day >= 1 && day <= 31)
+                    monthDayMask |= 1L << day;
+                else
+                    throw unsupported("BYMONTHDAY", "only 1 to 31 and -1 are supported");
+                position = itemEnd + 1;
+            }
+        }
+
+        private int readDay(int start, int end) {
+            if (end - start == 2)
+                for (int i = 0; i < DAY_NAMES.length; i++)
+                    if (startsWith(text, start, DAY_NAMES[i]))
+                        return i;
+            throw invalid("invalid day " + text.subSequence(start, end));
+        }
+
+        private int readInt(int start, int end) {
+            if (start >= end || end - start > 9)
+                throw invalid("invalid number " + text.subSequence(start, end));
+            int value = 0;
+            for (int i = start; i < end; i++) {
+                char c = text.charAt(i);
+                if (c < '0' || c > '9')
+                    throw invalid("invalid number " + text.subSequence(start, end));
+                value = value * 10 + c - '0';
+            }
+            return value;
+        }
+
+        private int readSignedInt(int start, int end) {
+            if (start < end && text.charAt(start) == '-')
+                return -readInt(start + 1, end);
+            if (start < end && text.charAt(start) == '+')
+                return readInt(start + 1, end);
+            return readInt(start, end);
+        }
+
+        /// <summary>
+        /// yyyyMMdd, yyyyMMddTHHmmss or yyyyMMddTHHmmssZ. A UTC time is taken as it is,
+        /// as the Series Info only holds the date.
+        /// </summary>
+        private LocalDateTime readDateTime(int start, int end) {
+            int length = end - start;
+            if (length != 8 && length != 15 && length != 16)
+                throw invalid("invalid UNTIL");
+            try {
+                int date = readInt(start, start + 8);
+                if (length == 8)
+                    return LocalDateTime.of(date / 10000, date / 100 % 100, date % 100, 0, 0);
+                if (text.charAt(start + 8) != 'T' || length == 16 && text.charAt(start + 15) != 'Z')
+                    throw invalid("invalid UNTIL");
+                int time = readInt(start + 9, start + 15);
+                return LocalDateTime.of(date / 10000, date / 100 % 100, date % 100, time / 10000, time / 100 % 100, time % 100);
+            } catch (DateTimeException e) {
+                throw invalid("invalid UNTIL");
+            }
+        }
+
+        RecurrenceSettings toRecurrenceSettings(LocalDateTime startDate) {
+            if (startDate == null)
+                throw new IllegalArgumentException("startDate must be set.");
+            switch (frequency) {
+                case DAILY:
+                    return toDaily(startDate);
+
+                case WEEKLY:
+                    return toWeekly(startDate);
+
+                case MONTHLY:
+                    return toMonthly(startDate);
+
+                default:
+                    return toYearly(startDate);
+            }
+        }
+
+        private DailyRecurrenceSettings toDaily(LocalDateTime startDate) {
+            checkNotSet(5, "BYMONTHDAY");
+            checkNotSet(6, "BYMONTH");
+            checkNotSet(7, "BYSETPOS");
+            DailyRecurrenceSettings settings = setEnd(new DailyRecurrenceSettings(startDate));
+            if (dayMask == 0) {
+                settings.setValues(interval);
+            } else {
+                if (dayMask != WEEKDAYS || dayOrdinal != 0 || interval != 1)
+                    throw unsupported("BYDAY", "a daily rule can only be on every weekday (MO,TU,WE,TH,FR)");
+                settings.setRegenType(DailyRegenType.ON_EVERY_WEEKDAY);
+            }
+            return settings;
+        }
+
+        private WeeklyRecurrenceSettings toWeekly(LocalDateTime startDate) {
+            checkNotSet(5, "BYMONTHDAY");
+            checkNotSet(6, "BYMONTH");
+            checkNotSet(7, "BYSETPOS");
+            if (dayOrdinal != 0)
+                throw unsupported("BYDAY", "a weekly rule can't have a numbered day");
+            int mask = dayMask == 0 ? 1 << startDate.getDayOfWeek().getValue() % 7 : dayMask;
+            // The generators run weeks from Sunday, and don't skip weeks once Saturday is selected.
+            if (interval > 1 && (mask & 0x40) != 0)
+                throw unsupported("INTERVAL", "a rule every x-weeks can't include Saturday");
+            if (interval > 1 && (mask & 1) != 0 && mask != 1 && weekStart != 0)
+                throw unsupported("WKST", "a rule every x-weeks with Sunday and other days needs WKST=SU");
+
+            SelectedDayOfWeekValues days = new SelectedDayOfWeekValues();
+            days.Sunday = (mask & 1) != 0;
+            days.Monday = (mask & 1 << 1) != 0;
+            days.Tuesday = (mask & 1 << 2) != 0;
+            days.Wednesday = (mask & 1 << 3) != 0;
+            days.Thursday = (mask & 1 << 4) != 0;
+            days.Friday = (mask & 1 << 5) != 0;
+            days.Saturday = (mask & 1 << 6) != 0;
+            WeeklyRecurrenceSettings settings = setEnd(new WeeklyRecurrenceSettings(startDate));
+            settings.setValues(interval, days);
+            return settings;
+        }
+
+        private MonthlyRecurrenceSettings toMonthly(LocalDateTime startDate) {
+            checkNotSet(6, "BYMONTH");
+            MonthlyRecurrenceSettings settings = setEnd(new MonthlyRecurrenceSettings(startDate));
+            int day = getSpecificDay(startDate);
+            if (day > 0)
+                settings.setValues(day, interval);
+            else {
+                settings.setValues(MonthlySpecificDatePartOne.valueOf(getPartOne()), MonthlySpecificDatePartTwo.valueOf(getPartTwo()), interval);
+                setUntilAsCount(settings);
+            }
+            return settings;
+        }
+
+        private YearlyRecurrenceSettings toYearly(LocalDateTime startDate) {
+            if (interval != 1)
+                throw unsupported("INTERVAL", "a yearly rule is every year");
+            // Without BYMONTH the days are in every month of the year, or counted through the
+            // whole year, which the generators can't do. Only a bare rule takes the month of DTSTART.
+            if (month == 0) {
+                for (int part : new int[]{4, 5, 7})
+                    if ((seenParts & 1 << part) != 0)
+                        throw unsupported(PART_NAMES[part], "a yearly rule needs BYMONTH with it");
+            }
+            int monthValue = month == 0 ? startDate.getMonthValue() : month;
+            YearlyRecurrenceSettings settings = setEnd(new YearlyRecurrenceSettings(startDate));
+            int day = getSpecificDay(startDate);
+            if (day > 0)
+                settings.setValues(day, monthValue);
+            else {
+                settings.setValues(YearlySpecificDatePartOne.valueOf(getPartOne()), YearlySpecificDatePartTwo.valueOf(getPartTwo()),
+                        YearlySpecificDatePartThree.values()[monthValue]);
+                setUntilAsCount(settings);
+            }
+            return settings;
+        }
+
+        /// <summary>
+        /// The day of the month of a rule on a specific day, or 0 for a custom date. A day
+        /// past the 28th is cut to the length of shorter months, which is written as the
+        /// last of the days from the 28th up to it.
+        /// </summary>
+        private int getSpecificDay(LocalDateTime startDate) {
+            if (dayMask != 0) {
+                checkNotSet(5, "BYMONTHDAY");
+                return 0;
+            }
+            if (lastMonthDay) {
+                if (monthDayMask != 0 || setPosition != 0)
+                    throw unsupported("BYMONTHDAY", "-1 can't be combined with other days");
+                return 0;
+            }
+            if (monthDayMask == 0) {
+                checkNotSet(7, "BYSETPOS");
+                // The day comes from DTSTART. Months without it are skipped by an RRULE but
+                // the generators would cut the day to the end of the month.
+                int day = startDate.getDayOfMonth();
+                if (day > getShortestMonth(startDate))
+                    throw unsupported("BYMONTHDAY", "DTSTART is on day " + day + ", which some months of the rule don't have");
+                return day;
+            }
+            int first = Long.numberOfTrailingZeros(monthDayMask);
+            int last = 63 - Long.numberOfLeadingZeros(monthDayMask);
+            if (first == last && last <= 28 && setPosition == 0)
+                return last;
+            if (first == 28 && last > 28 && setPosition == -1 && monthDayMask == (1L << last + 1) - (1L << 28))
+                return last;
+            throw unsupported("BYMONTHDAY", "days past the 28th are only supported as 28,...,n;BYSETPOS=-1");
+        }
+
+        /// <summary>
+        /// The fewest days in any month the rule can be on, February being 28 days.
+        /// </summary>
+        private int getShortestMonth(LocalDateTime startDate) {
+            if (frequency == YEARLY)
+                return (month == 0 ? startDate.getMonth() : Month.of(month)).minLength();
+            int shortest = 31;
+            for (int i = 0; i < 12; i++)
+                shortest = Math.min(shortest, startDate.getMonth().plus((long) i * interval).minLength());
+            return shortest;
+        }
+
+                private String getPartOne() {
+            int position = lastMonthDay ? -1 : dayOrdinal != 0 ? dayOrdinal : setPosition;
+            if (position == 0)
+                throw unsupported("BYDAY", "days of the month without a number need BYSETPOS");
+            return position == -1 ? "Last" : POSITIONS[position - 1];
+        }
+
+        private String getPartTwo() {
+            if (lastMonthDay)
+                return "Day";
+            if (dayOrdinal != 0) {
+                checkNotSet(7, "BYSETPOS");
+                return DAYS_OF_WEEK[Integer.numberOfTrailingZeros(dayMask)];
+            }
+            switch (dayMask) {
+                case ALL_DAYS:
+                    return "Day";
+
+                case WEEKDAYS:
+                    return "Weekday";
+
+                case WEEKEND_DAYS:
+                    return "WeekendDay";
+
+                default:
+                    if (Integer.bitCount(dayMask) == 1)
+                        return DAYS_OF_WEEK[Integer.numberOfTrailingZeros(dayMask)];
+                    throw unsupported("BYDAY", "with BYSETPOS the days must be one day, every day, the weekdays or the weekend");
+            }
+        }
+
+        private <T extends RecurrenceSettings> T setEnd(T settings) {
+            if (count >= 0) {
+                settings.setNumberOfOccurrences(count);
+                settings.setEndDateType(RecurrenceSettings.EndDateType.NumberOfOccurrences);
+            } else if (until != null) {
+                settings.setEndDate(until);
+                settings.setEndDateType(RecurrenceSettings.EndDateType.SpecificDate);
+            }
+            return settings;
+        }
+
+        /// <summary>
+        /// The generators don't stop custom dates exactly at an end date, so UNTIL on a custom
+        /// date is kept as the COUNT of the dates of the pattern up to it.
+        /// </summary>
+        private void setUntilAsCount(RecurrenceSettings settings) {
+            if (until == null)
+                return;
+            long dates;
+            try {
+                dates = settings.getSequence().countAtOrBefore(until);
+            } catch (Exception e) {
+                throw new IllegalArgumentException(e.getMessage(), e);
+            }
+            settings.setNumberOfOccurrences(Math.toIntExact(dates));
+            settings.setEndDateType(RecurrenceSettings.EndDateType.NumberOfOccurrences);
+        }
+
+        private void checkNotSet(int part, String name) {
+            if ((seenParts & 1 << part) != 0)
+                throw unsupported(name, "it can't be used with FREQ=" + FREQUENCIES[frequency]);
+        }
+
+        IllegalArgumentException invalid(String reason) {
+            return new IllegalArgumentException("Invalid RRULE, " + reason + ": " + text);
+        }
+
+        IllegalArgumentException unsupported(String part, String reason) {
+            return new IllegalArgumentException("Unsupported RRULE part " + part + ", " + reason + ": " + text);
+        }
+    }
+
+    //#endregion
+
+    //#region Writing
+
+    /// <summary>
+    /// Get the RRULE of a Series Info. The start date of the series is the DTSTART.
+    /// </summary>
+    /// <param name="seriesInfo"></param>
+    /// <returns>The RRULE value, without "RRULE:" in front.</returns>
+    public static String toRRule(String seriesInfo) throws Exception {
+        return toRRule(RecurrenceHelper.getRecurrenceRule(seriesInfo).getRecurrenceSettings());
+    }
+
+    /// <summary>
+    /// Get the RRULE of the settings. Settings that an RRULE can't describe, such as a plus/minus
+    /// adjustment, are refused with an IllegalArgumentException.
+    /// </summary>
+    /// <param name="settings"></param>
+    /// <returns>The RRULE value, without "RRULE:" in front.</returns>
+    public static String toRRule(RecurrenceSettings settings) {
+        StringBuilder builder = new StringBuilder(64);
+        if (settings.getAdjustmentValue() != 0)
+            throw new IllegalArgumentException("An RRULE can't have a plus/minus adjustment: " + settings.getAdjustmentValue());
+
+        if (settings instanceof DailyRecurrenceSettings)
+            writeDaily((DailyRecurrenceSettings) settings, builder);
+        else if (settings instanceof WeeklyRecurrenceSettings)
+            writeWeekly((WeeklyRecurrenceSettings) settings, builder);
+        else if (settings instanceof MonthlyRecurrenceSettings)
+            writeMonthly((MonthlyRecurrenceSettings) settings, builder);
+        else if (settings instanceof YearlyRecurrenceSettings)
+            writeYearly((YearlyRecurrenceSettings) settings, builder);
+        else
+            throw new IllegalArgumentException("Unknown settings: " + settings.getClass().getName());
+
+        switch (settings.getEndDateType()) {
+            case NumberOfOccurrences:
+                builder.append(";COUNT=").append(Math.max(0, settings.getNumberOfOccurrences()));
+                break;
+
+            case SpecificDate:
+                if (isCustomDate(settings)) {
+                    // Written as the dates generated rather than an UNTIL they'd be read back from.
+                    builder.append(";COUNT=").append(getGeneratedCount(settings));
+                    break;
+                }
+                LocalDateTime endDate = settings.getEndDate();
+                builder.append(";UNTIL=");
+                writeDigits(endDate.getYear(), 4, builder);
+                writeDigits(endDate.getMonthValue(), 2, builder);
+                writeDigits(endDate.getDayOfMonth(), 2, builder);
+                break;
+
+            case NoEndDate:
+                break;
+
+            default:
+                throw new IllegalArgumentException("The TypeOfEndDate property has not been set.");
+        }
+        return builder.toString();
+    }
+
+    private static boolean isCustomDate(RecurrenceSettings settings) {
+        if (settings instanceof MonthlyRecurrenceSettings)
+            return ((MonthlyRecurrenceSettings) settings).getRegenType() == MonthlyRegenType.OnCustomDateFormat;
+        return settings instanceof YearlyRecurrenceSettings
+                && ((YearlyRecurrenceSettings) settings).getRegenType() == YearlyRegenType.OnCustomDateFormat;
+    }
+
+    /// <summary>
+    /// Number of dates getValues() generates for a series ending on a specific date.
+    /// </summary>
+    private static long getGeneratedCount(RecurrenceSettings settings) {
+        try {
+            return settings.getLastIndex(settings.getSequence()) + 1;
+        } catch (Exception e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    private static void writeDaily(DailyRecurrenceSettings settings, StringBuilder builder) {
+        builder.append("FREQ=DAILY");
+        if (settings.getRegenType() == DailyRegenType.ON_EVERY_WEEKDAY)
+            writeDays(WEEKDAYS, builder);
+        else if (settings.getRegenType() == DailyRegenType.ON_EVERY_X_DAYS)
+            writeInterval(settings.getRegenEveryXDays(), builder);
+        else
+            throw new IllegalArgumentException("Unsupported daily regen type: " + settings.getRegenType());
+    }
+
+    private static void writeWeekly(WeeklyRecurrenceSettings settings, StringBuilder builder) {
+        int mask = settings.getSelectedDays() == null ? 0 : settings.getSelectedDays().getDayMask();
+        if (mask == 0)
+            throw new IllegalArgumentException("No day of the week has been selected.");
+        // As the generators do, weeks aren't skipped once Saturday is selected.
+        int interval = (mask & 0x40) != 0 ? 1 : Math.max(1, settings.getRegenEveryXWeeks());
+        builder.append("FREQ=WEEKLY");
+        writeInterval(interval, builder);
+        writeDays(mask, builder);
+        if (interval > 1)
+            builder.append(";WKST=SU");
+    }
+
+    private static void writeMonthly(MonthlyRecurrenceSettings settings, StringBuilder builder) {
+        builder.append("FREQ=MONTHLY");
+        writeInterval(settings.getRegenEveryXMonths(), builder);
+        if (settings.getRegenType() == MonthlyRegenType.OnSpecificDayOfMonth)
+            writeSpecificDay(settings.getRegenerateOnSpecificDateDayValue(), builder);
+        else if (settings.getRegenType() == MonthlyRegenType.OnCustomDateFormat)
+            writeCustomDate(settings.getSpecificDatePartOne().name(), settings.getSpecificDatePartTwo().name(), builder);
+        else
+            throw new IllegalArgumentException("Unsupported monthly regen type: " + settings.getRegenType());
+    }
+
+    private static void writeYearly(YearlyRecurrenceSettings settings, StringBuilder builder) {
+        builder.append("FREQ=YEARLY");
+        if (settings.getRegenType() == YearlyRegenType.OnSpecificDayOfYear) {
+            builder.append(";BYMONTH=").append(settings.getRegenerateOnSpecificDateMonthValue());
+            writeSpecificDay(settings.getRegenerateOnSpecificDateDayValue(), builder);
+        } else if (settings.getRegenType() == YearlyRegenType.OnCustomDateFormat) {
+            if (settings.getSpecificDatePartThree() == YearlySpecificDatePartThree.NotSet)
+                throw new IllegalArgumentException("The Third part of the custom date has not been set.");
+            builder.append(";BYMONTH=").append(settings.getSpecificDatePartThree().getValue());
+            writeCustomDate(settings.getSpecificDatePartOne().name(), settings.getSpecificDatePartTwo().name(), builder);
+        } else {
+            throw new IllegalArgumentException("Unsupported yearly regen type: " + settings.getRegenType());
+        }
+    }
+
+    private static void writeSpecificDay(int day, StringBuilder builder) {
+        if (day < 1 || day > 31)
+            throw new IllegalArgumentException("Invalid day of the month: " + day);
+        builder.append(";BYMONTHDAY=");
+        if (day <= 28) {
+            builder.append(day);
+            return;
+        }
+        // The generators cut the day to the length of shorter months.
+        for (int i = 28; i <= day; i++)
+            builder.append(i).append(i < day ? "," : ";BYSETPOS=-1");
+    }
+
+    private static void writeCustomDate(String partOne, String partTwo, StringBuilder builder) {
+        int position;
+        switch (partOne) {
+            case "First":
+                position = 1;
+                break;
+
+            case "Second":
+                position = 2;
+                break;
+
+            case "Third":
+                position = 3;
+                break;
+
+            case "Fourth":
+                position = 4;
+                break;
+
+            case "Last":
+                position = -1;
+                break;
+
+            default:
+                throw new IllegalArgumentException("The First part of the custom date has not been set.");
+        }
+
+        switch (partTwo) {
+            case "Day":
+                builder.append(";BYMONTHDAY=").append(position);
+                break;
+
+            case "Weekday":
+                writeDays(WEEKDAYS, builder);
+                builder.append(";BYSETPOS=").append(position);
+                break;
+
+            case "WeekendDay":
+                writeDays(WEEKEND_DAYS, builder);
+                builder.append(";BYSETPOS=").append(position);
+                break;
+
+            case "NotSet":
+                throw new IllegalArgumentException("The Second part of the custom date has not been set.");
+
+            default:
+                // Sunday to Saturday
+                int day = 0;
+                while (!DAYS_OF_WEEK[day].equals(partTwo))
+                    day++;
+                builder.append(";BYDAY=").append(position).append(DAY_NAMES[day]);
+                break;
+        }
+    }
+
+    private static void writeInterval(int interval, StringBuilder builder) {
+        if (interval < 1)
+            throw new IllegalArgumentException("Invalid interval: " + interval);
+        if (interval > 1)
+            builder.append(";INTERVAL=").append(interval);
+    }
+
+    private static void writeDays(int mask, StringBuilder builder) {
+        builder.append(";BYDAY=");
+        boolean first = true;
+        for (int i = 0; i < DAY_NAMES.length; i++) {
+            if ((mask & 1 << i) == 0)
+                continue;
+            if (!first)
+                builder.append(',');
+            builder.append(DAY_NAMES[i]);
+            first = false;
+        }
+    }
+
+    private static void writeDigits(int value, int width, StringBuilder builder) {
+        for (int divisor = (int) Math.pow(10, width - 1); divisor > 0; divisor /= 10)
+            builder.append((char) ('0' + value / divisor % 10));
+    }
+
+    //#endregion
+
+    private static boolean startsWith(CharSequence text, int start, String prefix) {
+        if (start + prefix.length() > text.length())
+            return false;
+        for (int i = 0; i < prefix.length(); i++)
+            if (Character.toUpperCase(text.charAt(start + i)) != prefix.charAt(i))
+                return false;
+        return true;
+    }
+
+    private static int indexOf(CharSequence text, char c, int start) {
+        for (int i = start; i < text.length(); i++)
+            if (text.charAt(i) == c)
+                return i;
+        return text.length();
+    }
+}
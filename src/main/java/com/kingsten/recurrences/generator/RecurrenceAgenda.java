@@ -0,0 +1,123 @@
+package com.kingsten.recurrences.generator;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/// <summary>
+/// Merges the dates of many series into one stream in date order, such as the agenda of a
+/// user. Each series is read lazily and only its next date is held, in a heap ordered by
+/// date, so the memory used depends on the number of series and not on the number of dates.
+/// Dates on the same date and time come in the order the series were given.
+/// </summary>
+public final class RecurrenceAgenda {
+
+    private RecurrenceAgenda() {
+    }
+
+    /// <summary>
+    /// Merge the dates the query asks for of each series.
+    /// </summary>
+    /// <param name="seriesInfosById">Series Info of each series by its id, in the order ties are broken.</param>
+    /// <param name="query">The dates to get from each series, such as a window.</param>
+    /// <returns></returns>
+    public static Stream<RecurrenceAgendaEntry> stream(Map<String, String> seriesInfosById, RecurrenceQuery query) throws Exception {
+        return stream(seriesInfosById, query, Long.MAX_VALUE);
+    }
+
+    /// <summary>
+    /// Merge the dates the query asks for of each series, stopping after limit dates.
+    /// </summary>
+    /// <param name="seriesInfosById">Series Info of each series by its id, in the order ties are broken.</param>
+    /// <param name="query">The dates to get from each series, such as a window.</param>
+    /// <param name="limit">Most dates to return in total.</param>
+    /// <returns></returns>
+    public static Stream<RecurrenceAgendaEntry> stream(Map<String, String> seriesInfosById, RecurrenceQuery query, long limit) throws Exception {
+        if (Objects.isNull(seriesInfosById) || Objects.isNull(query))
+            throw new IllegalArgumentException("seriesInfosById and query must be set.");
+        if (limit < 0)
+            throw new IllegalArgumentException("Invalid limit: " + limit);
+
+        // Compile every rule up front so a bad Series Info fails here rather than part way
+        // through the stream. The dates themselves aren't read until they're needed.
+        Cursor[] cursors = new Cursor[seriesInfosById.size()];
+        int position = 0;
+        for (Map.Entry<String, String> series : seriesInfosById.entrySet()) {
+            Spliterator<LocalDateTime> dates = RecurrenceHelper.getRecurrenceRule(series.getValue()).spliterator(query);
+            cursors[position] = new Cursor(series.getKey(), position, dates);
+            position++;
+        }
+        return StreamSupport.stream(new MergeSpliterator(cursors, limit), false);
+    }
+
+    /// <summary>
+    /// The next date of one series.
+    /// </summary>
+    private static final class Cursor implements Consumer<LocalDateTime> {
+        final String seriesId;
+        final int position;
+        final Spliterator<LocalDateTime> dates;
+        LocalDateTime next;
+
+        Cursor(String seriesId, int position, Spliterator<LocalDateTime> dates) {
+            this.seriesId = seriesId;
+            this.position = position;
+            this.dates = dates;
+        }
+
+        boolean advance() {
+            return dates.tryAdvance(this);
+        }
+
+        @Override
+        public void accept(LocalDateTime date) {
+            next = date;
+        }
+    }
+
+    private static final class MergeSpliterator extends Spliterators.AbstractSpliterator<RecurrenceAgendaEntry> {
+        private static final Comparator<Cursor> ORDER = Comparator.<Cursor, LocalDateTime>comparing(cursor -> cursor.next)
+                .thenComparingInt(cursor -> cursor.position);
+
+        private final Cursor[] cursors;
+        private PriorityQueue<Cursor> heap;
+        private long remaining;
+
+        MergeSpliterator(Cursor[] cursors, long limit) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.cursors = cursors;
+            this.remaining = limit;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super RecurrenceAgendaEntry> action) {
+            if (remaining == 0)
+                return false;
+            if (heap == null) {
+                // Read the first date of each series when the stream is first used.
+                heap = new PriorityQueue<>(Math.max(1, cursors.length), ORDER);
+                for (Cursor cursor : cursors)
+                    if (cursor.advance())
+                        heap.add(cursor);
+            }
+            Cursor cursor = heap.poll();
+            if (cursor == null)
+                return false;
+
+            RecurrenceAgendaEntry entry = new RecurrenceAgendaEntry(cursor.seriesId, cursor.next);
+            remaining--;
+            // Don't read past the last date that will be returned.
+            if (remaining > 0 && cursor.advance())
+                heap.add(cursor);
+            action.accept(entry);
+            return true;
+        }
+    }
+}
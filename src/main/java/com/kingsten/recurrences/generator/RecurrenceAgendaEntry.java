@@ -0,0 +1,24 @@
+package com.kingsten.recurrences.generator;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/// <summary>
+/// One date of an agenda and the id of the series it belongs to.
+/// </summary>
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class RecurrenceAgendaEntry {
+
+    private final String seriesId;
+    private final LocalDateTime date;
+
+    RecurrenceAgendaEntry(String seriesId, LocalDateTime date) {
+        this.seriesId = seriesId;
+        this.date = date;
+    }
+}
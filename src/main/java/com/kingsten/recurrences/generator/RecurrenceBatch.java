@@ -0,0 +1,121 @@
+package com.kingsten.recurrences.generator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/// <summary>
+/// Evaluates the same query against many Series Info values at once. The values are
+/// grouped by pattern type and split into chunks that run on an executor, and the results
+/// come back in the order the values were given. A value that can't be evaluated gets a
+/// result holding its exception instead of failing the whole batch.
+/// </summary>
+public final class RecurrenceBatch {
+
+    static final int CHUNK_SIZE = 512;
+
+    // Pattern types in the order their groups are handed out, anything else goes last.
+    private static final String DESIGNATORS = "YMWD";
+
+    private RecurrenceBatch() {
+    }
+
+    /// <summary>
+    /// Evaluate the query for each Series Info on the common ForkJoinPool.
+    /// </summary>
+    /// <param name="seriesInfos"></param>
+    /// <param name="query"></param>
+    /// <returns>One result per Series Info, in the same order.</returns>
+    public static List<RecurrenceBatchResult> evaluate(Collection<String> seriesInfos, RecurrenceQuery query) {
+        return evaluate(seriesInfos, query, ForkJoinPool.commonPool());
+    }
+
+    /// <summary>
+    /// Evaluate the query for each Series Info on the given executor, such as a dedicated
+    /// ForkJoinPool. The call waits until the whole batch is done.
+    /// </summary>
+    /// <param name="seriesInfos"></param>
+    /// <param name="query"></param>
+    /// <param name="executor"></param>
+    /// <returns>One result per Series Info, in the same order.</returns>
+    public static List<RecurrenceBatchResult> evaluate(Collection<String> seriesInfos, RecurrenceQuery query, Executor executor) {
+        if (Objects.isNull(seriesInfos) || Objects.isNull(query) || Objects.isNull(executor))
+            throw new IllegalArgumentException("seriesInfos, query and executor must be set.");
+
+        String[] items = seriesInfos.toArray(new String[0]);
+        RecurrenceBatchResult[] results = new RecurrenceBatchResult[items.length];
+        int[] order = groupByDesignator(items);
+        int[] groupEnds = getGroupEnds(items, order);
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        int groupStart = 0;
+        for (int groupEnd : groupEnds) {
+            for (int start = groupStart; start < groupEnd; start += CHUNK_SIZE) {
+                int from = start;
+                int to = Math.min(start + CHUNK_SIZE, groupEnd);
+                tasks.add(CompletableFuture.runAsync(() -> evaluate(items, order, from, to, query, results), executor));
+            }
+            groupStart = groupEnd;
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).join();
+
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    private static void evaluate(String[] items, int[] order, int from, int to, RecurrenceQuery query, RecurrenceBatchResult[] results) {
+        for (int i = from; i < to; i++) {
+            int index = order[i];
+            String seriesInfo = items[index];
+            try {
+                results[index] = new RecurrenceBatchResult(seriesInfo,
+                        RecurrenceHelper.getRecurrenceRule(seriesInfo).evaluate(query), null);
+            } catch (Exception e) {
+                results[index] = new RecurrenceBatchResult(seriesInfo, null, e);
+            }
+        }
+    }
+
+    /// <summary>
+    /// Indexes of the items sorted by pattern type, keeping the input order within a type.
+    /// </summary>
+    private static int[] groupByDesignator(String[] items) {
+        int[] counts = new int[DESIGNATORS.length() + 1];
+        for (String item : items)
+            counts[getGroup(item)]++;
+
+        int[] offsets = new int[counts.length];
+        for (int i = 1; i < counts.length; i++)
+            offsets[i] = offsets[i - 1] + counts[i - 1];
+
+        int[] order = new int[items.length];
+        for (int i = 0; i < items.length; i++)
+            order[offsets[getGroup(items[i])]++] = i;
+        return order;
+    }
+
+    /// <summary>
+    /// Positions in the sorted order where each non-empty group ends.
+    /// </summary>
+    private static int[] getGroupEnds(String[] items, int[] order) {
+        int[] ends = new int[DESIGNATORS.length() + 1];
+        int count = 0;
+        for (int i = 0; i < order.length; i++) {
+            if (i + 1 == order.length || getGroup(items[order[i]]) != getGroup(items[order[i + 1]]))
+                ends[count++] = i + 1;
+        }
+        return Arrays.copyOf(ends, count);
+    }
+
+    private static int getGroup(String seriesInfo) {
+        if (Objects.isNull(seriesInfo) || seriesInfo.isEmpty())
+            return DESIGNATORS.length();
+        int group = DESIGNATORS.indexOf(seriesInfo.charAt(0));
+        return group < 0 ? DESIGNATORS.length() : group;
+    }
+}
@@ -0,0 +1,27 @@
+package com.kingsten.recurrences.generator;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/// <summary>
+/// The outcome for one Series Info of a batch: either its recurrence values or the
+/// exception that evaluating it threw.
+/// </summary>
+@Getter
+@ToString
+public final class RecurrenceBatchResult {
+
+    private final String seriesInfo;
+    private final RecurrenceValues values;
+    private final Exception exception;
+
+    RecurrenceBatchResult(String seriesInfo, RecurrenceValues values, Exception exception) {
+        this.seriesInfo = seriesInfo;
+        this.values = values;
+        this.exception = exception;
+    }
+
+    public boolean isSuccess() {
+        return exception == null;
+    }
+}
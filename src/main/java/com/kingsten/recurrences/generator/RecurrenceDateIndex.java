@@ -0,0 +1,169 @@
+package com.kingsten.recurrences.generator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/// <summary>
+/// Index of many series by the days they fall on, to find the series with an occurrence on
+/// a given day without asking each one. Series are grouped by the shape of their pattern,
+/// such as every 3 days, every 2 weeks or the Last Weekday of every month, and bucketed
+/// within the group by where in the pattern they fall: the day of an every-x-days cycle,
+/// the week and day of the week, or the month of an every-x-months cycle. A lookup reads one
+/// bucket per group and checks each series in it against its rule, so it costs the number of
+/// groups plus the number of series in the buckets, not the number of series indexed.
+/// Series that have ended stay in their buckets until removed.
+/// </summary>
+public class RecurrenceDateIndex {
+
+    // Groups of each adjustment value, as an adjusted series is looked up by its unadjusted day.
+    private final Map<Integer, Map<Object, Group>> groups = new HashMap<>();
+    // Series whose first date isn't under their keys, by adjustment value and first date.
+    private final Map<Integer, Map<Long, Set<String>>> firstDates = new HashMap<>();
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /// <summary>
+    /// Add a series to the index, replacing any series already added with the same id.
+    /// </summary>
+    /// <param name="seriesId"></param>
+    /// <param name="seriesInfo"></param>
+    public void add(String seriesId, String seriesInfo) throws Exception {
+        if (Objects.isNull(seriesId))
+            throw new IllegalArgumentException("seriesId must be set.");
+        RecurrenceRule rule = RecurrenceHelper.getRecurrenceRule(seriesInfo);
+        RecurrenceSequence sequence = rule.getSequence();
+        Entry entry = new Entry(rule, sequence, rule.getAdjustmentValue(), sequence.getIndexKeys());
+
+        synchronized (this) {
+            remove(seriesId);
+            Group group = groups.computeIfAbsent(entry.adjustmentValue, k -> new HashMap<>())
+                    .computeIfAbsent(sequence.getIndexGroup(), k -> new Group(sequence));
+            for (long key : entry.keys)
+                group.buckets.computeIfAbsent(key, k -> new HashSet<>()).add(seriesId);
+            entry.group = group;
+
+            LocalDate firstDate = sequence.dateAt(0);
+            if (!contains(entry.keys, group.shape.getIndexKey(firstDate))) {
+                entry.firstDay = firstDate.toEpochDay();
+                firstDates.computeIfAbsent(entry.adjustmentValue, k -> new HashMap<>())
+                        .computeIfAbsent(entry.firstDay, k -> new HashSet<>()).add(seriesId);
+            }
+            entries.put(seriesId, entry);
+        }
+    }
+
+    /// <summary>
+    /// Remove a series from the index.
+    /// </summary>
+    /// <param name="seriesId"></param>
+    /// <returns>True if the series was in the index.</returns>
+    public synchronized boolean remove(String seriesId) {
+        Entry entry = entries.remove(seriesId);
+        if (entry == null)
+            return false;
+
+        for (long key : entry.keys)
+            removeFrom(entry.group.buckets, key, seriesId);
+        if (entry.group.buckets.isEmpty())
+            removeGroup(entry);
+        if (entry.firstDay != null) {
+            Map<Long, Set<String>> dates = firstDates.get(entry.adjustmentValue);
+            removeFrom(dates, entry.firstDay, seriesId);
+            if (dates.isEmpty())
+                firstDates.remove(entry.adjustmentValue);
+        }
+        return true;
+    }
+
+    /// <summary>
+    /// Get the ids of the series with an occurrence on the date, at any time of the day.
+    /// </summary>
+    /// <param name="date"></param>
+    /// <returns>The ids in no particular order.</returns>
+    public synchronized List<String> getSeriesIds(LocalDate date) throws Exception {
+        List<String> seriesIds = new ArrayList<>();
+        for (Map.Entry<Integer, Map<Object, Group>> adjusted : groups.entrySet()) {
+            LocalDate unadjustedDate = date.minusDays(adjusted.getKey());
+            for (Group group : adjusted.getValue().values()) {
+                long key = group.shape.getIndexKey(unadjustedDate);
+                if (key != RecurrenceSequence.NO_INDEX_KEY)
+                    addOccurring(group.buckets.get(key), date, seriesIds);
+            }
+        }
+        for (Map.Entry<Integer, Map<Long, Set<String>>> adjusted : firstDates.entrySet())
+            addOccurring(adjusted.getValue().get(date.minusDays(adjusted.getKey()).toEpochDay()), date, seriesIds);
+        return seriesIds;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /// <summary>
+    /// Add the series in the bucket that have an occurrence on the date. Being in the bucket
+    /// only means the date fits the pattern, so the start and end of the series are checked here.
+    /// </summary>
+    private void addOccurring(Set<String> bucket, LocalDate date, List<String> seriesIds) throws Exception {
+        if (bucket == null)
+            return;
+        for (String seriesId : bucket) {
+            Entry entry = entries.get(seriesId);
+            if (entry.rule.isOccurrence(date.atTime(entry.sequence.timeOfDay)))
+                seriesIds.add(seriesId);
+        }
+    }
+
+    private void removeGroup(Entry entry) {
+        Map<Object, Group> adjusted = groups.get(entry.adjustmentValue);
+        adjusted.values().remove(entry.group);
+        if (adjusted.isEmpty())
+            groups.remove(entry.adjustmentValue);
+    }
+
+    private static void removeFrom(Map<Long, Set<String>> buckets, long key, String seriesId) {
+        Set<String> bucket = buckets.get(key);
+        bucket.remove(seriesId);
+        if (bucket.isEmpty())
+            buckets.remove(key);
+    }
+
+    private static boolean contains(long[] keys, long key) {
+        for (long k : keys)
+            if (k == key)
+                return true;
+        return false;
+    }
+
+    /// <summary>
+    /// The series of one group by index key. Any sequence of the group gives the key of a date.
+    /// </summary>
+    private static final class Group {
+        final RecurrenceSequence shape;
+        final Map<Long, Set<String>> buckets = new HashMap<>();
+
+        Group(RecurrenceSequence shape) {
+            this.shape = shape;
+        }
+    }
+
+    private static final class Entry {
+        final RecurrenceRule rule;
+        final RecurrenceSequence sequence;
+        final int adjustmentValue;
+        final long[] keys;
+        Group group;
+        Long firstDay;
+
+        Entry(RecurrenceRule rule, RecurrenceSequence sequence, int adjustmentValue, long[] keys) {
+            this.rule = rule;
+            this.sequence = sequence;
+            this.adjustmentValue = adjustmentValue;
+            this.keys = keys;
+        }
+    }
+}
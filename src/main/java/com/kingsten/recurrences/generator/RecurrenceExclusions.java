@@ -0,0 +1,251 @@
+package com.kingsten.recurrences.generator;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/// <summary>
+/// Dates taken out of a series, such as cancelled instances, held as a sorted int[] of epoch
+/// days. Excluded dates still count towards the number of occurrences, so a series ends on the
+/// same date with or without them. Exclusions are immutable; with and without return a copy.
+/// They're stored next to the Series Info as text, the dates as yyyyMMdd separated by commas:
+///     20210105,20210112
+/// </summary>
+public final class RecurrenceExclusions {
+
+    public static final RecurrenceExclusions NONE = new RecurrenceExclusions(new int[0]);
+
+    private final int[] epochDays;
+
+    private RecurrenceExclusions(int[] epochDays) {
+        this.epochDays = epochDays;
+    }
+
+    public static RecurrenceExclusions of(Collection<LocalDate> dates) {
+        int[] days = new int[dates.size()];
+        int i = 0;
+        for (LocalDate date : dates)
+            days[i++] = toEpochDay(date);
+        return ofEpochDays(days);
+    }
+
+    public static RecurrenceExclusions ofEpochDays(int... epochDays) {
+        int[] days = epochDays.clone();
+        Arrays.sort(days);
+        int size = 0;
+        for (int i = 0; i < days.length; i++)
+            if (i == 0 || days[i] != days[i - 1])
+                days[size++] = days[i];
+        return size == 0 ? NONE : new RecurrenceExclusions(Arrays.copyOf(days, size));
+    }
+
+    /// <summary>
+    /// Read exclusions written by toString().
+    /// </summary>
+    /// <param name="text">yyyyMMdd dates separated by commas, or an empty string.</param>
+    /// <returns></returns>
+    public static RecurrenceExclusions parse(CharSequence text) {
+        if (text.length() == 0)
+            return NONE;
+        if ((text.length() + 1) % 9 != 0)
+            throw new IllegalArgumentException("Invalid exclusions: " + text);
+        int[] days = new int[(text.length() + 1) / 9];
+        for (int i = 0; i < days.length; i++) {
+            int start = i * 9;
+            if (start + 8 < text.length() && text.charAt(start + 8) != ',')
+                throw new IllegalArgumentException("Invalid exclusions: " + text);
+            int value = 0;
+            for (int j = start; j < start + 8; j++) {
+                char c = text.charAt(j);
+                if (c < '0' || c > '9')
+                    throw new IllegalArgumentException("Invalid exclusions: " + text);
+                value = value * 10 + c - '0';
+            }
+            try {
+                days[i] = toEpochDay(LocalDate.of(value / 10000, value / 100 % 100, value % 100));
+            } catch (DateTimeException e) {
+                throw new IllegalArgumentException("Invalid exclusions: " + text, e);
+            }
+        }
+        return ofEpochDays(days);
+    }
+
+    /// <summary>
+    /// Get a copy with the date excluded as well.
+    /// </summary>
+    /// <param name="date"></param>
+    /// <returns></returns>
+    public RecurrenceExclusions with(LocalDate date) {
+        int day = toEpochDay(date);
+        int index = Arrays.binarySearch(epochDays, day);
+        if (index >= 0)
+            return this;
+        int position = -index - 1;
+        int[] days = new int[epochDays.length + 1];
+        System.arraycopy(epochDays, 0, days, 0, position);
+        days[position] = day;
+        System.arraycopy(epochDays, position, days, position + 1, epochDays.length - position);
+        return new RecurrenceExclusions(days);
+    }
+
+    /// <summary>
+    /// Get a copy without the date.
+    /// </summary>
+    /// <param name="date"></param>
+    /// <returns></returns>
+    public RecurrenceExclusions without(LocalDate date) {
+        int index = Arrays.binarySearch(epochDays, toEpochDay(date));
+        if (index < 0)
+            return this;
+        if (epochDays.length == 1)
+            return NONE;
+        int[] days = new int[epochDays.length - 1];
+        System.arraycopy(epochDays, 0, days, 0, index);
+        System.arraycopy(epochDays, index + 1, days, index, days.length - index);
+        return new RecurrenceExclusions(days);
+    }
+
+    public boolean contains(LocalDate date) {
+        return contains(date.toEpochDay());
+    }
+
+    boolean contains(long epochDay) {
+        return epochDay >= Integer.MIN_VALUE && epochDay <= Integer.MAX_VALUE
+                && Arrays.binarySearch(epochDays, (int) epochDay) >= 0;
+    }
+
+    /// <summary>
+    /// Number of excluded days before the given day.
+    /// </summary>
+    int countBefore(long epochDay) {
+        if (epochDay > Integer.MAX_VALUE)
+            return epochDays.length;
+        if (epochDay <= Integer.MIN_VALUE)
+            return 0;
+        int index = Arrays.binarySearch(epochDays, (int) epochDay);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    int getEpochDay(int index) {
+        return epochDays[index];
+    }
+
+    public int size() {
+        return epochDays.length;
+    }
+
+    public boolean isEmpty() {
+        return epochDays.length == 0;
+    }
+
+    public int[] toEpochDays() {
+        return epochDays.clone();
+    }
+
+    /// <summary>
+    /// Skip the excluded dates of an ordered spliterator of dates.
+    /// </summary>
+    Spliterator<LocalDateTime> filter(Spliterator<LocalDateTime> dates) {
+        return isEmpty() ? dates : new ExcludingSpliterator(dates);
+    }
+
+    private static int toEpochDay(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        if (epochDay < Integer.MIN_VALUE || epochDay > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Date out of range: " + date);
+        return (int) epochDay;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof RecurrenceExclusions && Arrays.equals(epochDays, ((RecurrenceExclusions) o).epochDays);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(epochDays);
+    }
+
+    /// <summary>
+    /// The dates as yyyyMMdd separated by commas, see parse().
+    /// </summary>
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(epochDays.length * 9);
+        for (int epochDay : epochDays) {
+            LocalDate date = LocalDate.ofEpochDay(epochDay);
+            if (builder.length() > 0)
+                builder.append(',');
+            if (date.getYear() < 0 || date.getYear() > 9999)
+                throw new DateTimeException("Year " + date.getYear() + " can't be written to exclusions");
+            int value = date.getYear() * 10000 + date.getMonthValue() * 100 + date.getDayOfMonth();
+            for (int divisor = 10000000; divisor > 0; divisor /= 10)
+                builder.append((char) ('0' + value / divisor % 10));
+        }
+        return builder.toString();
+    }
+
+    /// <summary>
+    /// As the dates come in order, the next exclusion to compare with only moves forward,
+    /// so skipping costs nothing beyond a comparison per date.
+    /// </summary>
+    private final class ExcludingSpliterator implements Spliterator<LocalDateTime>, Consumer<LocalDateTime> {
+        private final Spliterator<LocalDateTime> dates;
+        private int position = -1;
+        private LocalDateTime current;
+
+        ExcludingSpliterator(Spliterator<LocalDateTime> dates) {
+            this.dates = dates;
+        }
+
+        @Override
+        public void accept(LocalDateTime date) {
+            current = date;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super LocalDateTime> action) {
+            while (dates.tryAdvance(this)) {
+                if (!isExcluded(current.toLocalDate().toEpochDay())) {
+                    action.accept(current);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isExcluded(long epochDay) {
+            if (position < 0)
+                position = countBefore(epochDay);
+            while (position < epochDays.length && epochDays[position] < epochDay)
+                position++;
+            return position < epochDays.length && epochDays[position] == epochDay;
+        }
+
+        @Override
+        public Spliterator<LocalDateTime> trySplit() {
+            Spliterator<LocalDateTime> prefix = dates.trySplit();
+            return prefix == null ? null : new ExcludingSpliterator(prefix);
+        }
+
+        @Override
+        public long estimateSize() {
+            return dates.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return dates.characteristics() & ~(Spliterator.SIZED | Spliterator.SUBSIZED);
+        }
+
+        @Override
+        public Comparator<? super LocalDateTime> getComparator() {
+            return dates.getComparator();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.kingsten.recurrences.generator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Spliterator;
+
+/// <summary>
+/// Writes the dates of a series straight to a Writer, OutputStream or WritableByteChannel
+/// as they are produced, one line per date, as CSV or NDJSON. Nothing is collected, so the
+/// memory used doesn't depend on the number of dates. Each line is the Series Info and the
+/// date as yyyy-MM-ddTHH:mm:ss:
+///     D20210101ZZZZZZZZ002002001,2021-01-01T00:00:00
+///     {"seriesInfo":"D20210101ZZZZZZZZ002002001","date":"2021-01-01T00:00:00"}
+/// The line is laid out once per series and only the date is written into it for each
+/// value. An exporter reuses its buffers, so use one per thread.
+/// </summary>
+public final class RecurrenceExporter {
+
+    private static final int DATE_LENGTH = 19;
+    private static final int BUFFER_SIZE = 8192;
+
+    private final ExportFormat format;
+    private char[] line = new char[128];
+    private byte[] bytes;
+
+    public RecurrenceExporter(ExportFormat format) {
+        if (Objects.isNull(format))
+            throw new IllegalArgumentException("format must be set.");
+        this.format = format;
+    }
+
+    public ExportFormat getFormat() {
+        return format;
+    }
+
+    /// <summary>
+    /// Write the dates of the series asked for by the query to the writer. The writer isn't
+    /// buffered or flushed here, so pass a BufferedWriter for large exports.
+    /// </summary>
+    /// <param name="seriesInfo"></param>
+    /// <param name="query"></param>
+    /// <param name="writer"></param>
+    /// <returns>The number of dates written.</returns>
+    public long write(String seriesInfo, RecurrenceQuery query, Writer writer) throws Exception {
+        return write(seriesInfo, query, new WriterSink(writer));
+    }
+
+    /// <summary>
+    /// Write the dates of the series asked for by the query to the stream as ASCII. The lines
+    /// are buffered here and handed over when the buffer fills and at the end, the stream
+    /// isn't flushed.
+    /// </summary>
+    /// <param name="seriesInfo"></param>
+    /// <param name="query"></param>
+    /// <param name="out"></param>
+    /// <returns>The number of dates written.</returns>
+    public long write(String seriesInfo, RecurrenceQuery query, OutputStream out) throws Exception {
+        return write(seriesInfo, query, new OutputStreamSink(out));
+    }
+
+    /// <summary>
+    /// Write the dates of the series asked for by the query to the channel as ASCII. The lines
+    /// are buffered here and written when the buffer fills and at the end.
+    /// </summary>
+    /// <param name="seriesInfo"></param>
+    /// <param name="query"></param>
+    /// <param name="channel"></param>
+    /// <returns>The number of dates written.</returns>
+    public long write(String seriesInfo, RecurrenceQuery query, WritableByteChannel channel) throws Exception {
+        return write(seriesInfo, query, new ChannelSink(channel));
+    }
+
+    private long write(String seriesInfo, RecurrenceQuery query, Sink sink) throws Exception {
+        Spliterator<LocalDateTime> dates = RecurrenceHelper.getRecurrenceRule(seriesInfo).spliterator(query);
+        int dateOffset = layoutLine(seriesInfo);
+        int lineLength = dateOffset + DATE_LENGTH + getSuffix().length();
+        long[] count = {0};
+
+        try {
+            dates.forEachRemaining(date -> {
+                writeDate(date, line, dateOffset);
+                try {
+                    sink.write(line, lineLength);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+            sink.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count[0];
+    }
+
+    /// <summary>
+    /// Write everything but the date into the line buffer.
+    /// </summary>
+    /// <returns>The offset of the date in the line.</returns>
+    private int layoutLine(String seriesInfo) {
+        String prefix = format == ExportFormat.NdJson ? "{\"seriesInfo\":\"" : "";
+        String separator = format == ExportFormat.NdJson ? "\",\"date\":\"" : ",";
+        String suffix = getSuffix();
+        int length = prefix.length() + getEscapedLength(seriesInfo) + separator.length() + DATE_LENGTH + suffix.length();
+        if (line.length < length)
+            line = new char[length];
+
+        int offset = 0;
+        prefix.getChars(0, prefix.length(), line, offset);
+        offset += prefix.length();
+        for (int i = 0; i < seriesInfo.length(); i++) {
+            char c = seriesInfo.charAt(i);
+            if (format == ExportFormat.NdJson && (c == '"' || c == '\\'))
+                line[offset++] = '\\';
+            line[offset++] = c;
+        }
+        separator.getChars(0, separator.length(), line, offset);
+        offset += separator.length();
+        suffix.getChars(0, suffix.length(), line, offset + DATE_LENGTH);
+        return offset;
+    }
+
+    private int getEscapedLength(String seriesInfo) {
+        int length = seriesInfo.length();
+        if (format == ExportFormat.NdJson) {
+            for (int i = 0; i < seriesInfo.length(); i++) {
+                char c = seriesInfo.charAt(i);
+                if (c == '"' || c == '\\')
+                    length++;
+            }
+        }
+        return length;
+    }
+
+    private String getSuffix() {
+        return format == ExportFormat.NdJson ? "\"}\n" : "\n";
+    }
+
+    /// <summary>
+    /// Write the date as yyyy-MM-ddTHH:mm:ss.
+    /// </summary>
+    static void writeDate(LocalDateTime date, char[] chars, int offset) {
+        int year = date.getYear();
+        if (year < 0 || year > 9999)
+            throw new DateTimeException("Year " + year + " can't be exported");
+        writeDigits(year, 4, chars, offset);
+        chars[offset + 4] = '-';
+        writeDigits(date.getMonthValue(), 2, chars, offset + 5);
+        chars[offset + 7] = '-';
+        writeDigits(date.getDayOfMonth(), 2, chars, offset + 8);
+        chars[offset + 10] = 'T';
+        writeDigits(date.getHour(), 2, chars, offset + 11);
+        chars[offset + 13] = ':';
+        writeDigits(date.getMinute(), 2, chars, offset + 14);
+        chars[offset + 16] = ':';
+        writeDigits(date.getSecond(), 2, chars, offset + 17);
+    }
+
+    private static void writeDigits(int value, int width, char[] chars, int offset) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private byte[] getBytes() {
+        if (bytes == null)
+            bytes = new byte[BUFFER_SIZE];
+        return bytes;
+    }
+
+    public enum ExportFormat {
+        Csv, NdJson
+    }
+
+    /// <summary>
+    /// Where the lines go.
+    /// </summary>
+    private interface Sink {
+        void write(char[] line, int length) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class WriterSink implements Sink {
+        private final Writer writer;
+
+        WriterSink(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(char[] line, int length) throws IOException {
+            writer.write(line, 0, length);
+        }
+
+        @Override
+        public void finish() {
+        }
+    }
+
+    /// <summary>
+    /// Collects the lines as ASCII bytes and hands them on a buffer at a time.
+    /// </summary>
+    private abstract class ByteSink implements Sink {
+        final byte[] buffer = getBytes();
+        int position;
+
+        @Override
+        public void write(char[] line, int length) throws IOException {
+            if (position + length > buffer.length) {
+                flush();
+                if (length > buffer.length) {
+                    // A line longer than the buffer is written in pieces.
+                    for (int start = 0; start < length; start += buffer.length) {
+                        int end = Math.min(length, start + buffer.length);
+                        for (int i = start; i < end; i++)
+                            buffer[position++] = toAscii(line[i]);
+                        flush();
+                    }
+                    return;
+                }
+            }
+            for (int i = 0; i < length; i++)
+                buffer[position++] = toAscii(line[i]);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            flush();
+        }
+
+        private void flush() throws IOException {
+            if (position > 0)
+                writeBuffer(position);
+            position = 0;
+        }
+
+        abstract void writeBuffer(int length) throws IOException;
+    }
+
+    private static byte toAscii(char c) {
+        return c < 0x80 ? (byte) c : (byte) '?';
+    }
+
+    private final class OutputStreamSink extends ByteSink {
+        private final OutputStream out;
+
+        OutputStreamSink(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        void writeBuffer(int length) throws IOException {
+            out.write(buffer, 0, length);
+        }
+    }
+
+    private final class ChannelSink extends ByteSink {
+        private final WritableByteChannel channel;
+
+        ChannelSink(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        void writeBuffer(int length) throws IOException {
+            ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, length);
+            while (byteBuffer.hasRemaining())
+                channel.write(byteBuffer);
+        }
+    }
+}
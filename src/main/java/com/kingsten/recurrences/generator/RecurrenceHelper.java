@@ -1,9 +1,122 @@
 package com.kingsten.recurrences.generator;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
 
 public class RecurrenceHelper {
 
+    private static volatile RecurrenceRuleCache ruleCache = new RecurrenceRuleCache();
+    private static volatile RecurrenceMetrics metrics = RecurrenceMetrics.NONE;
+
+    /// <summary>
+    ///     Get the cache of compiled rules used by the RecurrenceHelper methods.
+    ///     The hit and miss counts are available from it.
+    /// </summary>
+    public static RecurrenceRuleCache getRuleCache() {
+        return ruleCache;
+    }
+
+    /// <summary>
+    ///     Replace the cache of compiled rules, for instance with one of a different size.
+    ///     A cache with a maximum size of zero turns caching off.
+    /// </summary>
+    /// <param name="cache"></param>
+    public static void setRuleCache(RecurrenceRuleCache cache) {
+        if (cache == null)
+            throw new IllegalArgumentException("cache must not be null");
+        ruleCache = cache;
+    }
+
+    /// <summary>
+    ///     Get where call times, counts and exceptions are reported. RecurrenceMetrics.NONE unless set.
+    /// </summary>
+    public static RecurrenceMetrics getMetrics() {
+        return metrics;
+    }
+
+    /// <summary>
+    ///     Report call times, counts, rule cache hits and exceptions to an adapter for the
+    ///     application's metrics registry. Set RecurrenceMetrics.NONE to stop reporting.
+    /// </summary>
+    /// <param name="metrics"></param>
+    public static void setMetrics(RecurrenceMetrics metrics) {
+        if (metrics == null)
+            throw new IllegalArgumentException("metrics must not be null");
+        RecurrenceHelper.metrics = metrics;
+    }
+
+    /// <summary>
+    ///     Get the compiled rule for a Series Info value. Each distinct value is parsed once
+    ///     while it stays in the rule cache.
+    /// </summary>
+    /// <param name="seriesInfo" type="string">
+    ///     <para>
+    ///         The recurrence pattern series information.
+    ///     </para>
+    /// </param>
+    /// <returns>
+    ///     An immutable RecurrenceRule that can be shared between threads.
+    /// </returns>
+    public static RecurrenceRule getRecurrenceRule(String seriesInfo) throws Exception {
+        return ruleCache.getRule(seriesInfo);
+    }
+
+    /// <summary>
+    ///     Get the compiled rule for a Series Info held in binary form, as written by
+    ///     SeriesInfoBinaryCodec.
+    /// </summary>
+    /// <param name="binarySeriesInfo" type="byte[]">
+    ///     <para>
+    ///         The recurrence pattern series information in binary form.
+    ///     </para>
+    /// </param>
+    /// <returns>
+    ///     An immutable RecurrenceRule that can be shared between threads.
+    /// </returns>
+    public static RecurrenceRule getRecurrenceRule(byte[] binarySeriesInfo) throws Exception {
+        return ruleCache.getRule(SeriesInfoBinaryCodec.toSeriesInfo(binarySeriesInfo));
+    }
+
+    /// <summary>
+    ///     Get the compiled rule for a Series Info value with dates taken out of the series.
+    ///     See RecurrenceRule.withExclusions.
+    /// </summary>
+    /// <param name="seriesInfo" type="string">
+    ///     <para>
+    ///         The recurrence pattern series information.
+    ///     </para>
+    /// </param>
+    /// <param name="exclusions">The dates taken out, stored alongside the Series Info.</param>
+    /// <returns>
+    ///     An immutable RecurrenceRule that can be shared between threads.
+    /// </returns>
+    public static RecurrenceRule getRecurrenceRule(String seriesInfo, RecurrenceExclusions exclusions) throws Exception {
+        return ruleCache.getRule(seriesInfo).withExclusions(exclusions);
+    }
+
+    /// <summary>
+    ///     Get the compiled rule for a Series Info value on a business calendar.
+    ///     See RecurrenceRule.withBusinessCalendar.
+    /// </summary>
+    /// <param name="seriesInfo" type="string">
+    ///     <para>
+    ///         The recurrence pattern series information.
+    ///     </para>
+    /// </param>
+    /// <param name="calendar">The business days, such as a calendar loaded with BusinessCalendar.load.</param>
+    /// <param name="businessDayAdjustment">How dates that aren't business days are moved.</param>
+    /// <returns>
+    ///     An immutable RecurrenceRule that can be shared between threads.
+    /// </returns>
+    public static RecurrenceRule getRecurrenceRule(String seriesInfo, BusinessCalendar calendar,
+                                                   BusinessCalendar.BusinessDayAdjustment businessDayAdjustment) throws Exception {
+        return ruleCache.getRule(seriesInfo).withBusinessCalendar(calendar, businessDayAdjustment);
+    }
 
     /// <summary>
     ///     Get the Series Info in a user-friendly object that can be used as a means to 
@@ -18,6 +131,14 @@ public class RecurrenceHelper {
     ///     A RecurrenceGenerator.RecurrenceInfo value...
     /// </returns>
     public static RecurrenceInfo getFriendlySeriesInfo(String seriesInfo) {
+        return measure("RecurrenceHelper.getFriendlySeriesInfo", seriesInfo, () -> readFriendlySeriesInfo(seriesInfo), null);
+    }
+
+    /// <summary>
+    ///     getFriendlySeriesInfo without reporting to the metrics, for parsing a rule
+    ///     that is already reported as a rule cache miss.
+    /// </summary>
+    static RecurrenceInfo readFriendlySeriesInfo(String seriesInfo) {
         RecurrenceInfo returnValue = null;
 
         switch (seriesInfo.substring(0, 1)) {
@@ -61,29 +182,46 @@ public class RecurrenceHelper {
     ///     information string.
     /// </returns>
     public static LocalDateTime getNextDate(LocalDateTime currentDate, String seriesInfo) throws Exception {
-        RecurrenceSettings returnValues = null;
-
-        switch (seriesInfo.substring(0, 1)) {
-            case "Y":   // Yearly
-                returnValues = YearlyRecurrenceSettings.getRecurrenceSettings(seriesInfo);
-                break;
-
-            case "M":   // Monthly
-                returnValues = MonthlyRecurrenceSettings.getRecurrenceSettings(seriesInfo);
-                break;
-
-            case "W":   // Weekly
-                returnValues = WeeklyRecurrenceSettings.getRecurrenceSettings(seriesInfo);
-                break;
+        // Return just the next date. The rule is compiled once per Series Info
+        // and located arithmetically from then on.
+        return measure("RecurrenceHelper.getNextDate", seriesInfo, () -> getRecurrenceRule(seriesInfo).getNextDate(currentDate), RecurrenceHelper::countDate);
+    }
 
-            case "D":   // Daily
-                returnValues = DailyRecurrenceSettings.getRecurrenceSettings(seriesInfo);
-                break;
+    /// <summary>
+    ///     Get the next date in the series that isn't excluded.
+    /// </summary>
+    /// <param name="currentDate">The current date in the recurrence dates.</param>
+    /// <param name="seriesInfo">The recurrence pattern series information.</param>
+    /// <param name="exclusions">The dates taken out of the series.</param>
+    /// <returns>
+    ///     The next date in the recurrence pattern that isn't one of the exclusions.
+    /// </returns>
+    public static LocalDateTime getNextDate(LocalDateTime currentDate, String seriesInfo, RecurrenceExclusions exclusions) throws Exception {
+        return measure("RecurrenceHelper.getNextDate", seriesInfo, () -> getRecurrenceRule(seriesInfo, exclusions).getNextDate(currentDate), RecurrenceHelper::countDate);
+    }
 
-        }
-        // Return just the next date. The function "getNextDate" is an abstract 
-        // method overriden in each of the RecurrenceSettings classes.
-        return returnValues.getNextDate(currentDate);
+    /// <summary>
+    ///     Get the previous date in the series given the current date in the series
+    ///     and the series information. The date is located directly, just as the next
+    ///     date is.
+    /// </summary>
+    /// <param name="currentDate" type="System.DateTime">
+    ///     <para>
+    ///         The current date in the recurrence dates. This is the date just after
+    ///         the one you're trying to locate.
+    ///     </para>
+    /// </param>
+    /// <param name="seriesInfo" type="string">
+    ///     <para>
+    ///         The recurrence pattern series information.
+    ///     </para>
+    /// </param>
+    /// <returns>
+    ///     The previous date in the recurrence pattern, the last date if the current date
+    ///     is past the end of the series, or LocalDateTime.MIN if it is before the start.
+    /// </returns>
+    public static LocalDateTime getPreviousDate(LocalDateTime currentDate, String seriesInfo) throws Exception {
+        return measure("RecurrenceHelper.getPreviousDate", seriesInfo, () -> getRecurrenceRule(seriesInfo).getPreviousDate(currentDate), RecurrenceHelper::countDate);
     }
 
     /// <summary>
@@ -99,28 +237,11 @@ public class RecurrenceHelper {
     ///     A BOCA.RecurrenceGenerator.RecurrenceValues value...
     /// </returns>
     public static RecurrenceValues getRecurrenceValues(String seriesInfo) throws Exception {
-        RecurrenceSettings settings = null;
-
-        switch (seriesInfo.substring(0, 1)) {
-            case "Y":   // Yearly
-                settings = YearlyRecurrenceSettings.getRecurrenceSettings(seriesInfo);
-                break;
-
-            case "M":   // Monthly
-                settings = MonthlyRecurrenceSettings.getRecurrenceSettings(seriesInfo);
-                break;
-
-            case "W":   // Weekly
-                settings = WeeklyRecurrenceSettings.getRecurrenceSettings(seriesInfo);
-                break;
-
-            case "D":   // Daily
-                settings = DailyRecurrenceSettings.getRecurrenceSettings(seriesInfo);
-                break;
-
-        }
-        // Return the RecurrenceValues
-        return settings.getValues();
+        return measureValues("RecurrenceHelper.getRecurrenceValues", seriesInfo, () -> {
+            RecurrenceSettings settings = getRecurrenceRule(seriesInfo).getRecurrenceSettings();
+            // Return the RecurrenceValues
+            return settings.getValues();
+        });
     }
 
     /// <summary>
@@ -130,28 +251,12 @@ public class RecurrenceHelper {
     /// <param name="seriesInfo"></param>
     /// <returns></returns>
     public static RecurrenceValues getRecurrenceValues(LocalDateTime modifiedStartDateValue, String seriesInfo) throws Exception {
-        RecurrenceSettings settings = null;
-
-        switch (seriesInfo.substring(0, 1)) {
-            case "Y":   // Yearly
-                settings = YearlyRecurrenceSettings.getRecurrenceSettings(modifiedStartDateValue, seriesInfo);
-                break;
-
-            case "M":   // Monthly
-                settings = MonthlyRecurrenceSettings.getRecurrenceSettings(modifiedStartDateValue, seriesInfo);
-                break;
-
-            case "W":   // Weekly
-                settings = WeeklyRecurrenceSettings.getRecurrenceSettings(modifiedStartDateValue, seriesInfo);
-                break;
-
-            case "D":   // Daily
-                settings = DailyRecurrenceSettings.getRecurrenceSettings(modifiedStartDateValue, seriesInfo);
-                break;
-
-        }
-        // Return the RecurrenceValues
-        return settings.getValues();
+        return measureValues("RecurrenceHelper.getRecurrenceValues", seriesInfo, () -> {
+            RecurrenceRule rule = getRecurrenceRule(seriesInfo);
+            RecurrenceSettings settings = rule.getRecurrenceSettings(-1, modifiedStartDateValue, LocalDateTime.MIN);
+            // Return the RecurrenceValues
+            return settings.getValues();
+        });
     }
 
     /// <summary>
@@ -172,29 +277,13 @@ public class RecurrenceHelper {
     ///     A RecurrenceGenerator.RecurrenceValues value...
     /// </returns>
     public static RecurrenceValues getRecurrenceValues(String seriesInfo, int modifiedOccurrencesValue) throws Exception {
-        RecurrenceSettings settings = null;
-
-        switch (seriesInfo.substring(0, 1)) {
-            case "Y":   // Yearly
-                settings = YearlyRecurrenceSettings.getRecurrenceSettings(seriesInfo, modifiedOccurrencesValue);
-                break;
-
-            case "M":   // Monthly
-                settings = MonthlyRecurrenceSettings.getRecurrenceSettings(seriesInfo, modifiedOccurrencesValue);
-                break;
-
-            case "W":   // Weekly
-                settings = WeeklyRecurrenceSettings.getRecurrenceSettings(seriesInfo, modifiedOccurrencesValue);
-                break;
-
-            case "D":   // Daily
-                settings = DailyRecurrenceSettings.getRecurrenceSettings(seriesInfo, modifiedOccurrencesValue);
-                break;
-
-        }
+        return measureValues("RecurrenceHelper.getRecurrenceValues", seriesInfo, () -> {
+            RecurrenceRule rule = getRecurrenceRule(seriesInfo);
+            RecurrenceSettings settings = rule.getRecurrenceSettings(modifiedOccurrencesValue, rule.getStartDate(), LocalDateTime.MIN);
 
-        // Return the RecurrenceValues
-        return settings.getValues();
+            // Return the RecurrenceValues
+            return settings.getValues();
+        });
     }
 
     /// <summary>
@@ -205,29 +294,13 @@ public class RecurrenceHelper {
     /// <param name="modifiedOccurrencesValue">Modified number of occurrences</param>
     /// <returns></returns>
     public static RecurrenceValues getRecurrenceValues(String seriesInfo, LocalDateTime modifiedStartDateValue, int modifiedOccurrencesValue) throws Exception {
-        RecurrenceSettings settings = null;
-
-        switch (seriesInfo.substring(0, 1)) {
-            case "Y":   // Yearly
-                settings = YearlyRecurrenceSettings.getRecurrenceSettings(seriesInfo, modifiedStartDateValue, modifiedOccurrencesValue);
-                break;
-
-            case "M":   // Monthly
-                settings = MonthlyRecurrenceSettings.getRecurrenceSettings(seriesInfo, modifiedStartDateValue, modifiedOccurrencesValue);
-                break;
-
-            case "W":   // Weekly
-                settings = WeeklyRecurrenceSettings.getRecurrenceSettings(seriesInfo, modifiedStartDateValue, modifiedOccurrencesValue);
-                break;
-
-            case "D":   // Daily
-                settings = DailyRecurrenceSettings.getRecurrenceSettings(seriesInfo, modifiedStartDateValue, modifiedOccurrencesValue);
-                break;
+        return measureValues("RecurrenceHelper.getRecurrenceValues", seriesInfo, () -> {
+            RecurrenceRule rule = getRecurrenceRule(seriesInfo);
+            RecurrenceSettings settings = rule.getRecurrenceSettings(modifiedOccurrencesValue, modifiedStartDateValue, LocalDateTime.MIN);
 
-        }
-
-        // Return the RecurrenceValues
-        return settings.getValues();
+            // Return the RecurrenceValues
+            return settings.getValues();
+        });
     }
 
 
@@ -249,55 +322,185 @@ public class RecurrenceHelper {
     ///     A RecurrenceGenerator.RecurrenceValues value...
     /// </returns>
     public static RecurrenceValues getRecurrenceValues(String seriesInfo, LocalDateTime modifiedEndDateValue) throws Exception {
-        RecurrenceSettings settings = null;
+        return measureValues("RecurrenceHelper.getRecurrenceValues", seriesInfo, () -> {
+            RecurrenceRule rule = getRecurrenceRule(seriesInfo);
+            RecurrenceSettings settings = rule.getRecurrenceSettings(-1, rule.getStartDate(), modifiedEndDateValue);
 
-        switch (seriesInfo.substring(0, 1)) {
-            case "Y":   // Yearly
-                settings = YearlyRecurrenceSettings.getRecurrenceSettings(seriesInfo, modifiedEndDateValue);
-                break;
+            // Return the RecurrenceValues
+            return settings.getValues();
+        });
+    }
 
-            case "M":   // Monthly
-                settings = MonthlyRecurrenceSettings.getRecurrenceSettings(seriesInfo, modifiedEndDateValue);
-                break;
+    public static RecurrenceValues getRecurrenceValues(String seriesInfo, LocalDateTime modifiedStartDateValue, LocalDateTime modifiedEndDateValue) throws Exception {
+        return measureValues("RecurrenceHelper.getRecurrenceValues", seriesInfo, () -> {
+            RecurrenceRule rule = getRecurrenceRule(seriesInfo);
+            RecurrenceSettings settings = rule.getRecurrenceSettings(-1, modifiedStartDateValue, modifiedEndDateValue);
 
-            case "W":   // Weekly
-                settings = WeeklyRecurrenceSettings.getRecurrenceSettings(seriesInfo, modifiedEndDateValue);
-                break;
+            // Return the RecurrenceValues
+            return settings.getValues();
+        });
+    }
 
-            case "D":   // Daily
-                settings = DailyRecurrenceSettings.getRecurrenceSettings(seriesInfo, modifiedEndDateValue);
-                break;
+    /// <summary>
+    ///     Get the recurrence values asked for by a query, such as the dates within a range.
+    ///     The compiled rule for the Series Info isn't changed by the query.
+    /// </summary>
+    /// <param name="seriesInfo" type="string">
+    ///     <para>
+    ///         The recurrence pattern series information.
+    ///     </para>
+    /// </param>
+    /// <param name="query">The dates to get.</param>
+    /// <returns>
+    ///     A RecurrenceGenerator.RecurrenceValues value...
+    /// </returns>
+    public static RecurrenceValues getRecurrenceValues(String seriesInfo, RecurrenceQuery query) throws Exception {
+        return measureValues("RecurrenceHelper.getRecurrenceValues", seriesInfo, () -> getRecurrenceRule(seriesInfo).evaluate(query));
+    }
 
-        }
+    /// <summary>
+    ///     Get the recurrence values asked for by a query, leaving out the excluded dates.
+    ///     A query for a number of dates still gets that many where the series has them.
+    /// </summary>
+    /// <param name="seriesInfo">The recurrence pattern series information.</param>
+    /// <param name="query">The dates to get.</param>
+    /// <param name="exclusions">The dates taken out of the series.</param>
+    /// <returns>
+    ///     A RecurrenceGenerator.RecurrenceValues value...
+    /// </returns>
+    public static RecurrenceValues getRecurrenceValues(String seriesInfo, RecurrenceQuery query, RecurrenceExclusions exclusions) throws Exception {
+        return measureValues("RecurrenceHelper.getRecurrenceValues", seriesInfo, () -> getRecurrenceRule(seriesInfo, exclusions).evaluate(query));
+    }
 
-        // Return the RecurrenceValues
-        return settings.getValues();
+    /// <summary>
+    ///     Get the recurrence values asked for by a query for many Series Info values at once,
+    ///     evaluated in parallel on the common ForkJoinPool. See RecurrenceBatch.
+    /// </summary>
+    /// <param name="seriesInfos">The recurrence pattern series information values.</param>
+    /// <param name="query">The dates to get.</param>
+    /// <returns>
+    ///     One result per Series Info in the same order, holding the values or the exception thrown.
+    /// </returns>
+    public static List<RecurrenceBatchResult> getRecurrenceValues(Collection<String> seriesInfos, RecurrenceQuery query) {
+        return RecurrenceBatch.evaluate(seriesInfos, query);
     }
 
-    public static RecurrenceValues getRecurrenceValues(String seriesInfo, LocalDateTime modifiedStartDateValue, LocalDateTime modifiedEndDateValue) throws Exception {
-        RecurrenceSettings settings = null;
+    /// <summary>
+    ///     Get the recurrence values asked for by a query for many Series Info values at once,
+    ///     evaluated in parallel on the given executor. See RecurrenceBatch.
+    /// </summary>
+    /// <param name="seriesInfos">The recurrence pattern series information values.</param>
+    /// <param name="query">The dates to get.</param>
+    /// <param name="executor">Runs the chunks of the batch, such as a dedicated ForkJoinPool.</param>
+    /// <returns>
+    ///     One result per Series Info in the same order, holding the values or the exception thrown.
+    /// </returns>
+    public static List<RecurrenceBatchResult> getRecurrenceValues(Collection<String> seriesInfos, RecurrenceQuery query, Executor executor) {
+        return RecurrenceBatch.evaluate(seriesInfos, query, executor);
+    }
 
-        switch (seriesInfo.substring(0, 1)) {
-            case "Y":   // Yearly
-                settings = YearlyRecurrenceSettings.getRecurrenceSettings(seriesInfo, modifiedStartDateValue, modifiedEndDateValue);
-                break;
+    /// <summary>
+    ///     Get the dates asked for by a query of many series merged into one stream in date
+    ///     order, each paired with the id of its series. The series are read lazily, only
+    ///     the next date of each is held. See RecurrenceAgenda.
+    /// </summary>
+    /// <param name="seriesInfosById">Series Info of each series by its id.</param>
+    /// <param name="query">The dates to get from each series, such as a window.</param>
+    /// <param name="limit">Most dates to return in total.</param>
+    /// <returns>
+    ///     The dates of all the series in date order, ties in the order of the series.
+    /// </returns>
+    public static Stream<RecurrenceAgendaEntry> getAgenda(Map<String, String> seriesInfosById, RecurrenceQuery query, long limit) throws Exception {
+        return RecurrenceAgenda.stream(seriesInfosById, query, limit);
+    }
 
-            case "M":   // Monthly
-                settings = MonthlyRecurrenceSettings.getRecurrenceSettings(seriesInfo, modifiedStartDateValue, modifiedEndDateValue);
-                break;
+    /// <summary>
+    ///     Get the recurrence values on or after fromDate and before toDate. Unlike the
+    ///     modified start and end date overloads the series keeps its original start date,
+    ///     and the first date in the window is found directly rather than by generating the
+    ///     series from its start.
+    /// </summary>
+    /// <param name="seriesInfo" type="string">
+    ///     <para>
+    ///         The recurrence pattern series information.
+    ///     </para>
+    /// </param>
+    /// <param name="fromDate">First date of the window.</param>
+    /// <param name="toDate">End of the window, not included.</param>
+    /// <returns>
+    ///     A RecurrenceGenerator.RecurrenceValues value...
+    /// </returns>
+    public static RecurrenceValues getRecurrenceValuesInWindow(String seriesInfo, LocalDateTime fromDate, LocalDateTime toDate) throws Exception {
+        return measureValues("RecurrenceHelper.getRecurrenceValuesInWindow", seriesInfo,
+                () -> getRecurrenceRule(seriesInfo).evaluate(RecurrenceQuery.window(fromDate, toDate)));
+    }
 
-            case "W":   // Weekly
-                settings = WeeklyRecurrenceSettings.getRecurrenceSettings(seriesInfo, modifiedStartDateValue, modifiedEndDateValue);
-                break;
+    /// <summary>
+    ///     Count the recurrence values on or after fromDate and on or before toDate. The count
+    ///     is worked out from the pattern, none of the dates are created. The series keeps its
+    ///     original start date and end.
+    /// </summary>
+    /// <param name="seriesInfo" type="string">
+    ///     <para>
+    ///         The recurrence pattern series information.
+    ///     </para>
+    /// </param>
+    /// <param name="fromDate">First date to count from.</param>
+    /// <param name="toDate">Last date to count to.</param>
+    /// <returns>
+    ///     The number of dates in the series between the two dates.
+    /// </returns>
+    public static long count(String seriesInfo, LocalDateTime fromDate, LocalDateTime toDate) throws Exception {
+        return measure("RecurrenceHelper.count", seriesInfo, () -> getRecurrenceRule(seriesInfo).count(RecurrenceQuery.range(fromDate, toDate)), Long::longValue);
+    }
 
-            case "D":   // Daily
-                settings = DailyRecurrenceSettings.getRecurrenceSettings(seriesInfo, modifiedStartDateValue, modifiedEndDateValue);
-                break;
+    /// <summary>
+    ///     Count the recurrence values on or after fromDate and on or before toDate that
+    ///     aren't excluded. Only the exclusions within the two dates are looked at.
+    /// </summary>
+    /// <param name="seriesInfo">The recurrence pattern series information.</param>
+    /// <param name="fromDate">First date to count from.</param>
+    /// <param name="toDate">Last date to count to.</param>
+    /// <param name="exclusions">The dates taken out of the series.</param>
+    /// <returns>
+    ///     The number of dates in the series between the two dates.
+    /// </returns>
+    public static long count(String seriesInfo, LocalDateTime fromDate, LocalDateTime toDate, RecurrenceExclusions exclusions) throws Exception {
+        return measure("RecurrenceHelper.count", seriesInfo,
+                () -> getRecurrenceRule(seriesInfo, exclusions).count(RecurrenceQuery.range(fromDate, toDate)), Long::longValue);
+    }
 
-        }
+    /// <summary>
+    ///     Check if a date is one of the recurrence values of a series, without generating
+    ///     the values. The start and end of the series are taken into account.
+    /// </summary>
+    /// <param name="seriesInfo" type="string">
+    ///     <para>
+    ///         The recurrence pattern series information.
+    ///     </para>
+    /// </param>
+    /// <param name="date">The date to check, including its time of day.</param>
+    /// <returns>
+    ///     True if the series has a value equal to the date.
+    /// </returns>
+    public static boolean isOccurrence(String seriesInfo, LocalDateTime date) throws Exception {
+        return measure("RecurrenceHelper.isOccurrence", seriesInfo, () -> getRecurrenceRule(seriesInfo).isOccurrence(date), found -> found ? 1 : 0);
+    }
 
-        // Return the RecurrenceValues
-        return settings.getValues();
+    /// <summary>
+    ///     Get the dates of a recurrence series lazily. Dates are produced only as the stream
+    ///     is consumed, so series with no end date can be read with limit().
+    /// </summary>
+    /// <param name="seriesInfo" type="string">
+    ///     <para>
+    ///         The recurrence pattern series information.
+    ///     </para>
+    /// </param>
+    /// <returns>
+    ///     An ordered Stream of the recurrence dates.
+    /// </returns>
+    public static Stream<LocalDateTime> getRecurrenceStream(String seriesInfo) throws Exception {
+        return measure("RecurrenceHelper.getRecurrenceStream", seriesInfo, () -> getRecurrenceRule(seriesInfo).stream(), null);
     }
 
     /// <summary>
@@ -320,69 +523,29 @@ public class RecurrenceHelper {
     ///     A RecurrenceGenerator.RecurrenceValues value...
     /// </returns>
     public static RecurrenceValues getPostRecurrenceValues(String seriesInfo, LocalDateTime endDate) throws Exception {
-        RecurrenceSettings settings = null;
-        RecurrenceValues tempValues;
-        LocalDateTime lastDate;
-        switch (seriesInfo.substring(0, 1)) {
-            case "Y":   // Yearly
-                settings = YearlyRecurrenceSettings.getRecurrenceSettings(seriesInfo);
-                break;
-
-            case "M":   // Monthly
-                settings = MonthlyRecurrenceSettings.getRecurrenceSettings(seriesInfo);
-                break;
-
-            case "W":   // Weekly
-                settings = WeeklyRecurrenceSettings.getRecurrenceSettings(seriesInfo);
-                break;
-
-            case "D":   // Daily
-                settings = DailyRecurrenceSettings.getRecurrenceSettings(seriesInfo);
-                break;
-
-        }
-
-        // get the RecurrenceValues
-        tempValues = settings.getValues();
-        // Add one day to the last date so it now becomes the Start date past the last 
-        // date in the series
-        lastDate = tempValues.getLastDate().plusDays(1);
+        return measureValues("RecurrenceHelper.getPostRecurrenceValues", seriesInfo, () -> {
+            RecurrenceSettings settings = getRecurrenceRule(seriesInfo).getRecurrenceSettings();
+            LocalDateTime lastDate;
 
-        return settings.getValues(lastDate, endDate);
+            // Add one day to the last date so it now becomes the Start date past the last 
+            // date in the series. The last date is located without generating the series.
+            lastDate = settings.getLastDate().plusDays(1);
 
+            return settings.getValues(lastDate, endDate);
+        });
     }
 
     public static RecurrenceValues getPostRecurrenceValues(String seriesInfo, int modifiedOccurrencesValue) throws Exception {
-        RecurrenceSettings settings = null;
-        RecurrenceValues tempValues;
-        LocalDateTime lastDate;
-        switch (seriesInfo.substring(0, 1)) {
-            case "Y":   // Yearly
-                settings = YearlyRecurrenceSettings.getRecurrenceSettings(seriesInfo);
-                break;
-
-            case "M":   // Monthly
-                settings = MonthlyRecurrenceSettings.getRecurrenceSettings(seriesInfo);
-                break;
-
-            case "W":   // Weekly
-                settings = WeeklyRecurrenceSettings.getRecurrenceSettings(seriesInfo);
-                break;
-
-            case "D":   // Daily
-                settings = DailyRecurrenceSettings.getRecurrenceSettings(seriesInfo);
-                break;
-
-        }
-
-        // get the RecurrenceValues
-        tempValues = settings.getValues();
-        // Add one day to the last date so it now becomes the Start date past the last 
-        // date in the series
-        lastDate = tempValues.getLastDate().plusDays(1);
+        return measureValues("RecurrenceHelper.getPostRecurrenceValues", seriesInfo, () -> {
+            RecurrenceSettings settings = getRecurrenceRule(seriesInfo).getRecurrenceSettings();
+            LocalDateTime lastDate;
 
-        return settings.getValues(lastDate, modifiedOccurrencesValue);
+            // Add one day to the last date so it now becomes the Start date past the last 
+            // date in the series. The last date is located without generating the series.
+            lastDate = settings.getLastDate().plusDays(1);
 
+            return settings.getValues(lastDate, modifiedOccurrencesValue);
+        });
     }
 
     /// <summary>
@@ -420,5 +583,17 @@ public class RecurrenceHelper {
 
         return value;
     }
-}
 
+    private static <T, E extends Exception> T measure(String entryPoint, String seriesInfo, RecurrenceMetering.Call<T, E> call, ToLongFunction<T> occurrences) throws E {
+        return RecurrenceMetering.measure(entryPoint, RecurrenceMetering.getPatternType(seriesInfo), call, occurrences);
+    }
+
+    private static RecurrenceValues measureValues(String entryPoint, String seriesInfo, RecurrenceMetering.Call<RecurrenceValues, Exception> call) throws Exception {
+        return measure(entryPoint, seriesInfo, call, RecurrenceMetering::size);
+    }
+
+    private static long countDate(LocalDateTime date) {
+        // getPreviousDate returns LocalDateTime.MIN when there isn't one.
+        return date == null || date.equals(LocalDateTime.MIN) ? 0 : 1;
+    }
+}
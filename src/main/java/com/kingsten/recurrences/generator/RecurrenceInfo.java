@@ -38,6 +38,19 @@ public class RecurrenceInfo {
     YearlyRecurrenceSettings.YearlySpecificDatePartTwo yearlySpecificDatePartTwo = YearlyRecurrenceSettings.YearlySpecificDatePartTwo.NotSet;
     YearlyRecurrenceSettings.YearlySpecificDatePartThree yearlySpecificDatePartThree = YearlyRecurrenceSettings.YearlySpecificDatePartThree.NotSet;
 
+    /// <summary>
+    /// Get a copy of this info that can be changed without affecting the original.
+    /// </summary>
+    /// <returns></returns>
+    RecurrenceInfo copy() {
+        return new RecurrenceInfo(endDateType, numberOfOccurrences, adjustmentValue, seriesInfo, startDate, endDate,
+                recurrenceType, dailyRegenType, dailyRegenEveryXDays,
+                selectedDayOfWeekValues == null ? null : selectedDayOfWeekValues.copy(), weeklyRegenType, regenEveryXWeeks,
+                monthlyRegenType, monthlySpecificDatePartOne, monthlySpecificDatePartTwo, monthlyRegenerateOnSpecificDateDayValue,
+                regenEveryXMonths, specificDateDayValue, specificDateMonthValue, yearlyRegenType,
+                yearlySpecificDatePartOne, yearlySpecificDatePartTwo, yearlySpecificDatePartThree);
+    }
+
     public enum RecurrenceType {
         NotSet("-1"), Daily("0"), Weekly("1"), Monthly("2"), Yearly("3");
         private String strVal;
@@ -0,0 +1,77 @@
+package com.kingsten.recurrences.generator;
+
+import com.kingsten.recurrences.generator.RecurrenceInfo.RecurrenceType;
+
+import java.util.function.ToLongFunction;
+
+/// <summary>
+/// Times the entry points of the library and reports them to RecurrenceHelper.getMetrics().
+/// With the default RecurrenceMetrics.NONE the call is made straight away with no clock reads.
+/// </summary>
+final class RecurrenceMetering {
+
+    interface Call<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    private RecurrenceMetering() {
+    }
+
+    /// <summary>
+    /// Make the call, reporting how long it took, the occurrences it returned and anything it threw.
+    /// </summary>
+    /// <param name="entryPoint"></param>
+    /// <param name="patternType"></param>
+    /// <param name="call"></param>
+    /// <param name="occurrences">Count of the occurrences in the result, or null not to record them.</param>
+    /// <returns>The result of the call.</returns>
+    static <T, E extends Exception> T measure(String entryPoint, RecurrenceType patternType, Call<T, E> call, ToLongFunction<T> occurrences) throws E {
+        RecurrenceMetrics metrics = RecurrenceHelper.getMetrics();
+        if (metrics == RecurrenceMetrics.NONE)
+            return call.call();
+
+        long start = System.nanoTime();
+        try {
+            T result = call.call();
+            if (occurrences != null)
+                metrics.recordOccurrences(entryPoint, patternType, occurrences.applyAsLong(result));
+            return result;
+        } catch (Exception e) {
+            metrics.recordException(entryPoint, e instanceof RecurrenceException
+                    ? ((RecurrenceException) e).getDcpStatusCode() : e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            metrics.recordCall(entryPoint, patternType, System.nanoTime() - start);
+        }
+    }
+
+    static void recordIterations(String entryPoint, RecurrenceType patternType, long iterations) {
+        RecurrenceMetrics metrics = RecurrenceHelper.getMetrics();
+        if (metrics != RecurrenceMetrics.NONE)
+            metrics.recordIterations(entryPoint, patternType, iterations);
+    }
+
+    /// <summary>
+    /// Pattern type from the first character of a Series Info value, without parsing the rest.
+    /// </summary>
+    static RecurrenceType getPatternType(String seriesInfo) {
+        if (seriesInfo == null || seriesInfo.isEmpty())
+            return RecurrenceType.NotSet;
+        switch (seriesInfo.charAt(0)) {
+            case 'D':
+                return RecurrenceType.Daily;
+            case 'W':
+                return RecurrenceType.Weekly;
+            case 'M':
+                return RecurrenceType.Monthly;
+            case 'Y':
+                return RecurrenceType.Yearly;
+            default:
+                return RecurrenceType.NotSet;
+        }
+    }
+
+    static long size(RecurrenceValues values) {
+        return values == null ? 0 : values.values.size();
+    }
+}
@@ -0,0 +1,64 @@
+package com.kingsten.recurrences.generator;
+
+import com.kingsten.recurrences.generator.RecurrenceInfo.RecurrenceType;
+
+/// <summary>
+/// Receives measurements from the library, to be passed on to whatever metrics registry the
+/// application uses. Set one with RecurrenceHelper.setMetrics; by default nothing is recorded.
+/// Every method does nothing unless overridden, so an adapter only implements the ones it
+/// wants. Methods are called on the thread doing the work and must be thread safe and quick.
+///
+/// Entry points are named after the class and method, such as "RecurrenceHelper.getNextDate",
+/// "RecurrenceRule.getNextDate" or "MonthlyRecurrenceSettings.getValues".
+/// </summary>
+public interface RecurrenceMetrics {
+
+    /// <summary>
+    /// Records nothing. Measurements aren't taken at all while this is set.
+    /// </summary>
+    RecurrenceMetrics NONE = new RecurrenceMetrics() {
+    };
+
+    /// <summary>
+    /// A call to an entry point returned or threw after the given time.
+    /// </summary>
+    /// <param name="entryPoint"></param>
+    /// <param name="patternType">Daily, Weekly, Monthly or Yearly, or NotSet if the Series Info couldn't be read.</param>
+    /// <param name="nanos">Elapsed time from System.nanoTime().</param>
+    default void recordCall(String entryPoint, RecurrenceType patternType, long nanos) {
+    }
+
+    /// <summary>
+    /// The work done by one call: the days walked by the settings' generation loops, or the
+    /// sequence lookups made by a rule, which is more than one when excluded dates are skipped.
+    /// </summary>
+    default void recordIterations(String entryPoint, RecurrenceType patternType, long iterations) {
+    }
+
+    /// <summary>
+    /// The dates returned by one call, or counted by it for RecurrenceHelper.count.
+    /// Calls that return a stream don't record this.
+    /// </summary>
+    default void recordOccurrences(String entryPoint, RecurrenceType patternType, long occurrences) {
+    }
+
+    /// <summary>
+    /// A compiled rule was found in the rule cache.
+    /// </summary>
+    default void recordCacheHit() {
+    }
+
+    /// <summary>
+    /// A Series Info value wasn't in the rule cache and was parsed.
+    /// </summary>
+    default void recordCacheMiss() {
+    }
+
+    /// <summary>
+    /// A call to an entry point threw.
+    /// </summary>
+    /// <param name="entryPoint"></param>
+    /// <param name="code">The status code of a RecurrenceException, otherwise the simple name of the exception class.</param>
+    default void recordException(String entryPoint, String code) {
+    }
+}
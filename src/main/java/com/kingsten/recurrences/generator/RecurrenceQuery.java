@@ -0,0 +1,89 @@
+package com.kingsten.recurrences.generator;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/// <summary>
+/// The dates to read from a RecurrenceRule: those within a range or window, a number of them from a
+/// date on, or the next one after a date. Queries are immutable values kept apart from the
+/// rule, so one shared rule can answer any number of queries at the same time.
+/// </summary>
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class RecurrenceQuery {
+
+    private final QueryType queryType;
+    private final LocalDateTime fromDate;
+    private final LocalDateTime toDate;
+    private final int count;
+
+    private RecurrenceQuery(QueryType queryType, LocalDateTime fromDate, LocalDateTime toDate, int count) {
+        this.queryType = queryType;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.count = count;
+    }
+
+    /// <summary>
+    /// Dates of the series on or after fromDate and on or before toDate.
+    /// </summary>
+    /// <param name="fromDate"></param>
+    /// <param name="toDate"></param>
+    /// <returns></returns>
+    public static RecurrenceQuery range(LocalDateTime fromDate, LocalDateTime toDate) {
+        if (fromDate == null || toDate == null)
+            throw new IllegalArgumentException("fromDate and toDate must be set.");
+        if (fromDate.isAfter(toDate))
+            throw new IllegalArgumentException("fromDate is after toDate.");
+        return new RecurrenceQuery(QueryType.Range, fromDate, toDate, 0);
+    }
+
+    /// <summary>
+    /// Dates of the series on or after fromDate and before toDate, such as the dates shown
+    /// in a calendar view. The series keeps its own start date, so every-X-days, weeks or
+    /// months patterns stay in phase however far into the series the window is.
+    /// </summary>
+    /// <param name="fromDate"></param>
+    /// <param name="toDate">Not included in the window.</param>
+    /// <returns></returns>
+    public static RecurrenceQuery window(LocalDateTime fromDate, LocalDateTime toDate) {
+        if (fromDate == null || toDate == null)
+            throw new IllegalArgumentException("fromDate and toDate must be set.");
+        if (fromDate.isAfter(toDate))
+            throw new IllegalArgumentException("fromDate is after toDate.");
+        return new RecurrenceQuery(QueryType.Window, fromDate, toDate, 0);
+    }
+
+    /// <summary>
+    /// Up to count dates of the series on or after fromDate.
+    /// </summary>
+    /// <param name="fromDate"></param>
+    /// <param name="count"></param>
+    /// <returns></returns>
+    public static RecurrenceQuery count(LocalDateTime fromDate, int count) {
+        if (fromDate == null)
+            throw new IllegalArgumentException("fromDate must be set.");
+        if (count < 0)
+            throw new IllegalArgumentException("Invalid count: " + count);
+        return new RecurrenceQuery(QueryType.Count, fromDate, null, count);
+    }
+
+    /// <summary>
+    /// The first date of the series after the given date, if there is one.
+    /// </summary>
+    /// <param name="date"></param>
+    /// <returns></returns>
+    public static RecurrenceQuery nextAfter(LocalDateTime date) {
+        if (date == null)
+            throw new IllegalArgumentException("date must be set.");
+        return new RecurrenceQuery(QueryType.NextAfter, date, null, 1);
+    }
+
+    public enum QueryType {
+        Range, Window, Count, NextAfter
+    }
+}
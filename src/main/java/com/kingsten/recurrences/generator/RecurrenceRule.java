@@ -0,0 +1,510 @@
+package com.kingsten.recurrences.generator;
+
+import com.kingsten.recurrences.generator.BusinessCalendar.BusinessDayAdjustment;
+
+import java.time.LocalDate;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.kingsten.recurrences.generator.RecurrenceException.GENERIC_EXCEPTION_CODE;
+
+/// <summary>
+/// A Series Info value that has been parsed once. Rules are immutable and can be shared
+/// between threads, so the same rule answers any number of date queries without parsing
+/// the Series Info again. RecurrenceRuleCache keeps the rules of recently used values.
+/// </summary>
+public final class RecurrenceRule {
+
+    private final String seriesInfo;
+    private final RecurrenceInfo info;
+    private final RecurrenceExclusions exclusions;
+    private final BusinessCalendar calendar;
+    private final BusinessDayAdjustment businessDayAdjustment;
+    private final ZoneId zone;
+    private final LocalTime timeOfDay;
+    private volatile Compiled compiled;
+
+    private RecurrenceRule(String seriesInfo, RecurrenceInfo info, RecurrenceExclusions exclusions,
+                           BusinessCalendar calendar, BusinessDayAdjustment businessDayAdjustment,
+                           ZoneId zone, LocalTime timeOfDay) {
+        this.seriesInfo = seriesInfo;
+        this.info = info;
+        this.exclusions = exclusions;
+        this.calendar = calendar;
+        this.businessDayAdjustment = businessDayAdjustment;
+        this.zone = zone;
+        this.timeOfDay = timeOfDay;
+    }
+
+    /// <summary>
+    /// Parse a Series Info value into a rule.
+    /// </summary>
+    /// <param name="seriesInfo">Series Info generated by one of the RecurrenceSettings classes.</param>
+    /// <returns></returns>
+    public static RecurrenceRule compile(String seriesInfo) throws Exception {
+        if (Objects.isNull(seriesInfo) || seriesInfo.isEmpty())
+            throw new RecurrenceException(GENERIC_EXCEPTION_CODE, "failed to parse recurrence info");
+        RecurrenceInfo info = RecurrenceHelper.readFriendlySeriesInfo(seriesInfo);
+        if (Objects.isNull(info))
+            throw new RecurrenceException(GENERIC_EXCEPTION_CODE, "failed to parse recurrence info");
+        return new RecurrenceRule(seriesInfo, info, RecurrenceExclusions.NONE, null, BusinessDayAdjustment.None, null, null);
+    }
+
+    /// <summary>
+    /// Get the rule with dates taken out of the series. The excluded dates are skipped by
+    /// every query, count and next or previous date, but still count towards the number of
+    /// occurrences of the series. The compiled pattern is shared with this rule.
+    /// </summary>
+    /// <param name="exclusions"></param>
+    /// <returns></returns>
+    public RecurrenceRule withExclusions(RecurrenceExclusions exclusions) {
+        if (Objects.isNull(exclusions))
+            throw new IllegalArgumentException("exclusions must be set.");
+        if (exclusions.equals(this.exclusions))
+            return this;
+        RecurrenceRule rule = new RecurrenceRule(seriesInfo, info, exclusions, calendar, businessDayAdjustment, zone, timeOfDay);
+        rule.compiled = compiled;
+        return rule;
+    }
+
+    public RecurrenceExclusions getExclusions() {
+        return exclusions;
+    }
+
+    /// <summary>
+    /// Get the rule on a business calendar. The weekdays of the pattern are the business
+    /// days of the calendar: daily patterns count business days, so every weekday is every
+    /// business day and every x-days is every x-th business day, and the custom Weekday
+    /// dates of monthly and yearly patterns, such as the last weekday of the month, are
+    /// business days. The adjustment then moves any other date that isn't a business day.
+    /// The series keeps the occurrences of the pattern, a date is rolled but never dropped.
+    /// </summary>
+    /// <param name="calendar"></param>
+    /// <param name="businessDayAdjustment">How dates that aren't business days are moved.</param>
+    /// <returns></returns>
+    public RecurrenceRule withBusinessCalendar(BusinessCalendar calendar, BusinessDayAdjustment businessDayAdjustment) {
+        if (Objects.isNull(calendar))
+            throw new IllegalArgumentException("calendar must be set.");
+        if (Objects.isNull(businessDayAdjustment))
+            throw new IllegalArgumentException("businessDayAdjustment must be set.");
+        if (calendar == this.calendar && businessDayAdjustment == this.businessDayAdjustment)
+            return this;
+        return new RecurrenceRule(seriesInfo, info, exclusions, calendar, businessDayAdjustment, zone, timeOfDay);
+    }
+
+    /// <summary>
+    /// The business calendar of the rule, or null if it doesn't have one.
+    /// </summary>
+    public BusinessCalendar getBusinessCalendar() {
+        return calendar;
+    }
+
+    public BusinessDayAdjustment getBusinessDayAdjustment() {
+        return businessDayAdjustment;
+    }
+
+    /// <summary>
+    /// Get the rule with its dates at a time of day in a time zone. The dates of the rule,
+    /// those of the queries included, are then local dates in the zone at that time of day,
+    /// whatever the pattern, and getNextInstant, instants and epochMillis give the moments
+    /// they happen. A time in a gap, when the clocks go forward, happens the length of the
+    /// gap later and a time in an overlap happens the first time round, as with
+    /// ZonedDateTime.of. The offsets of the zone are looked up in a table built once per zone.
+    /// </summary>
+    /// <param name="zone"></param>
+    /// <param name="timeOfDay"></param>
+    /// <returns></returns>
+    public RecurrenceRule withTimeZone(ZoneId zone, LocalTime timeOfDay) {
+        if (Objects.isNull(zone))
+            throw new IllegalArgumentException("zone must be set.");
+        if (Objects.isNull(timeOfDay))
+            throw new IllegalArgumentException("timeOfDay must be set.");
+        if (zone.equals(this.zone) && timeOfDay.equals(this.timeOfDay))
+            return this;
+        return new RecurrenceRule(seriesInfo, info, exclusions, calendar, businessDayAdjustment, zone, timeOfDay);
+    }
+
+    /// <summary>
+    /// The time zone of the rule, or null if it doesn't have one.
+    /// </summary>
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /// <summary>
+    /// The time of day of the rule, or null if the dates keep the time of the pattern.
+    /// </summary>
+    public LocalTime getTimeOfDay() {
+        return timeOfDay;
+    }
+
+    /// <summary>
+    /// Get the first occurrence that happens after the instant. The rule needs a time zone,
+    /// see withTimeZone.
+    /// </summary>
+    /// <param name="instant"></param>
+    /// <returns></returns>
+    public Instant getNextInstant(Instant instant) throws Exception {
+        ZoneTransitions transitions = getZoneTransitions();
+        // Start a day back, the clocks going forward can move an occurrence past the instant.
+        LocalDateTime nextDate = getNextDate(transitions.toLocalDateTime(instant).minusDays(1));
+        Instant nextInstant = transitions.toInstant(nextDate);
+        while (!nextInstant.isAfter(instant)) {
+            nextDate = getNextDate(nextDate);
+            nextInstant = transitions.toInstant(nextDate);
+        }
+        return nextInstant;
+    }
+
+    /// <summary>
+    /// Get the moments the dates asked for by the query happen, lazily as with
+    /// stream(RecurrenceQuery). The query dates are local dates and times in the zone of the
+    /// rule, see withTimeZone.
+    /// </summary>
+    /// <param name="query"></param>
+    /// <returns></returns>
+    public Stream<Instant> instants(RecurrenceQuery query) throws Exception {
+        ZoneTransitions transitions = getZoneTransitions();
+        return stream(query).map(transitions::toInstant);
+    }
+
+    /// <summary>
+    /// instants(RecurrenceQuery) as milliseconds since the epoch, without creating an Instant
+    /// for each date.
+    /// </summary>
+    /// <param name="query"></param>
+    /// <returns></returns>
+    public LongStream epochMillis(RecurrenceQuery query) throws Exception {
+        ZoneTransitions transitions = getZoneTransitions();
+        return stream(query).mapToLong(transitions::toEpochMilli);
+    }
+
+    private ZoneTransitions getZoneTransitions() {
+        if (zone == null)
+            throw new IllegalStateException("The rule has no time zone, see withTimeZone.");
+        return ZoneTransitions.of(zone);
+    }
+
+    public String getSeriesInfo() {
+        return seriesInfo;
+    }
+
+    public LocalDateTime getStartDate() {
+        return info.startDate;
+    }
+
+    /// <summary>
+    /// Get the Series Info in a user-friendly object. Each call returns a new copy.
+    /// </summary>
+    /// <returns></returns>
+    public RecurrenceInfo getFriendlyInfo() {
+        return info.copy();
+    }
+
+    /// <summary>
+    /// Get the next date in the series after the current date.
+    /// </summary>
+    /// <param name="currentDate"></param>
+    /// <returns></returns>
+    public LocalDateTime getNextDate(LocalDateTime currentDate) throws Exception {
+        int adjustmentValue = info.adjustmentValue;
+        RecurrenceSequence sequence = getSequence();
+        LocalDateTime nextDate = sequence.getNextDate(currentDate.minusDays(adjustmentValue)).plusDays(adjustmentValue);
+        int lookups = 1;
+        while (exclusions.contains(nextDate.toLocalDate())) {
+            nextDate = sequence.getNextDate(nextDate.minusDays(adjustmentValue)).plusDays(adjustmentValue);
+            lookups++;
+        }
+        RecurrenceMetering.recordIterations("RecurrenceRule.getNextDate", info.recurrenceType, lookups);
+        return nextDate;
+    }
+
+    /// <summary>
+    /// Get the dates of the series asked for by the query lazily, one at a time as the
+    /// stream is consumed. See evaluate(RecurrenceQuery).
+    /// </summary>
+    /// <param name="query"></param>
+    /// <returns></returns>
+    public Stream<LocalDateTime> stream(RecurrenceQuery query) throws Exception {
+        return StreamSupport.stream(spliterator(query), false);
+    }
+
+    Spliterator<LocalDateTime> spliterator(RecurrenceQuery query) throws Exception {
+        Compiled compiled = getCompiled();
+        long[] indexes = getIndexes(compiled, query);
+        return exclusions.filter(compiled.sequence.spliterator(indexes[0], indexes[1], info.adjustmentValue));
+    }
+
+    /// <summary>
+    /// Get the date in the series before the current date, see RecurrenceSettings.getPreviousDate().
+    /// </summary>
+    /// <param name="currentDate"></param>
+    /// <returns></returns>
+    public LocalDateTime getPreviousDate(LocalDateTime currentDate) throws Exception {
+        Compiled compiled = getCompiled();
+        int adjustmentValue = info.adjustmentValue;
+        LocalDateTime previousDate = compiled.sequence.getPreviousDate(currentDate.minusDays(adjustmentValue), compiled.endIndex);
+        int lookups = 1;
+        while (!previousDate.equals(LocalDateTime.MIN) && exclusions.contains(previousDate.plusDays(adjustmentValue).toLocalDate())) {
+            previousDate = compiled.sequence.getPreviousDate(previousDate, compiled.endIndex);
+            lookups++;
+        }
+        RecurrenceMetering.recordIterations("RecurrenceRule.getPreviousDate", info.recurrenceType, lookups);
+        return previousDate.equals(LocalDateTime.MIN) ? previousDate : previousDate.plusDays(adjustmentValue);
+    }
+
+    /// <summary>
+    /// Get the dates of the series lazily, the same dates as RecurrenceSettings.getValues().
+    /// </summary>
+    /// <returns></returns>
+    public Stream<LocalDateTime> stream() throws Exception {
+        Compiled compiled = getCompiled();
+        return StreamSupport.stream(exclusions.filter(compiled.sequence.spliterator(0, compiled.endIndex, info.adjustmentValue)), false);
+    }
+
+    /// <summary>
+    /// Get the dates of the series asked for by the query. Nothing about the rule changes,
+    /// so any number of threads can evaluate queries against the same rule.
+    /// </summary>
+    /// <param name="query"></param>
+    /// <returns>
+    ///     The dates found, with the first and last of them as the start and end date.
+    /// </returns>
+    public RecurrenceValues evaluate(RecurrenceQuery query) throws Exception {
+        Compiled compiled = getCompiled();
+        long[] indexes = getIndexes(compiled, query);
+
+        RecurrenceValues values = new RecurrenceValues();
+        exclusions.filter(compiled.sequence.spliterator(indexes[0], indexes[1], info.adjustmentValue))
+                .forEachRemaining(values::AddDateValue);
+        if (!values.values.isEmpty()) {
+            values.setStartDate(values.values.get(0));
+            values.setEndDate(values.values.get(values.values.size() - 1));
+        }
+        values.setSeriesInfo(seriesInfo);
+        return values;
+    }
+
+    /// <summary>
+    /// Get the number of dates evaluate would return for the query, worked out from the
+    /// pattern without creating any of the dates.
+    /// </summary>
+    /// <param name="query"></param>
+    /// <returns></returns>
+    public long count(RecurrenceQuery query) throws Exception {
+        Compiled compiled = getCompiled();
+        long[] indexes = getIndexes(compiled, query);
+        return Math.max(0, indexes[1] - indexes[0] - countExcluded(compiled, indexes[0], indexes[1]));
+    }
+
+    /// <summary>
+    /// Check if the date is one of the dates of the series, time of day included. The date is
+    /// located in the pattern directly, so the cost doesn't depend on where in the series it is.
+    /// </summary>
+    /// <param name="date"></param>
+    /// <returns></returns>
+    public boolean isOccurrence(LocalDateTime date) throws Exception {
+        Compiled compiled = getCompiled();
+        RecurrenceSequence sequence = compiled.sequence;
+        LocalDateTime unadjustedDate = date.minusDays(info.adjustmentValue);
+        // The first occurrence that isn't before the date has to be the date itself.
+        long index = sequence.countBefore(unadjustedDate);
+        return index < compiled.endIndex && sequence.dateAt(index).atTime(sequence.timeOfDay).equals(unadjustedDate)
+                && !exclusions.contains(date.toLocalDate());
+    }
+
+    /// <summary>
+    /// Number of occurrences with an index from fromIndex up to but not including toIndex
+    /// that are excluded. Only the exclusions from the first of those dates on are looked at,
+    /// each located in the pattern directly, until one is past the last of them. Dates rolled
+    /// to business days can put more than one occurrence on an excluded day, and all of them
+    /// are taken out.
+    /// </summary>
+    private long countExcluded(Compiled compiled, long fromIndex, long toIndex) {
+        if (exclusions.isEmpty() || fromIndex >= toIndex)
+            return 0;
+        RecurrenceSequence sequence = compiled.sequence;
+        int adjustmentValue = info.adjustmentValue;
+        long count = 0;
+        for (int i = exclusions.countBefore(sequence.dateAt(fromIndex).toEpochDay() + adjustmentValue); i < exclusions.size(); i++) {
+            LocalDate date = LocalDate.ofEpochDay((long) exclusions.getEpochDay(i) - adjustmentValue);
+            long index = Math.max(sequence.countBefore(date), fromIndex);
+            if (index >= toIndex)
+                break;
+            count += Math.max(0, Math.min(sequence.countBefore(date.plusDays(1)), toIndex) - index);
+        }
+        return count;
+    }
+
+    /// <summary>
+    /// The range of occurrence indexes the query covers, from the first index up to but not
+    /// including the second, within the end of the series.
+    /// </summary>
+    private long[] getIndexes(Compiled compiled, RecurrenceQuery query) {
+        RecurrenceSequence sequence = compiled.sequence;
+        int adjustmentValue = info.adjustmentValue;
+        long fromIndex;
+        long toIndex;
+
+        // The query dates are adjusted dates, so take the adjustment off before locating them.
+        switch (query.getQueryType()) {
+            case Range:
+                fromIndex = sequence.countBefore(query.getFromDate().minusDays(adjustmentValue));
+                toIndex = sequence.countAtOrBefore(query.getToDate().minusDays(adjustmentValue));
+                break;
+
+            case Window:
+                fromIndex = sequence.countBefore(query.getFromDate().minusDays(adjustmentValue));
+                toIndex = sequence.countBefore(query.getToDate().minusDays(adjustmentValue));
+                break;
+
+            case Count:
+                fromIndex = sequence.countBefore(query.getFromDate().minusDays(adjustmentValue));
+                toIndex = fromIndex + query.getCount();
+                break;
+
+            case NextAfter:
+                fromIndex = sequence.countAtOrBefore(query.getFromDate().minusDays(adjustmentValue));
+                toIndex = fromIndex + 1;
+                break;
+
+            default:
+                throw new IllegalArgumentException("Invalid QueryType: " + query.getQueryType());
+        }
+        if (query.getQueryType() == RecurrenceQuery.QueryType.Count || query.getQueryType() == RecurrenceQuery.QueryType.NextAfter)
+            toIndex = skipExcluded(compiled, fromIndex, toIndex);
+        return new long[]{Math.min(fromIndex, compiled.endIndex), Math.min(toIndex, compiled.endIndex)};
+    }
+
+    /// <summary>
+    /// Move toIndex on past as many occurrences as are excluded, so that a query for a number
+    /// of dates still gets that many when some of them are excluded.
+    /// </summary>
+    private long skipExcluded(Compiled compiled, long fromIndex, long toIndex) {
+        if (exclusions.isEmpty() || fromIndex >= compiled.endIndex)
+            return toIndex;
+        long wanted = toIndex - fromIndex;
+        long index = Math.min(toIndex, compiled.endIndex);
+        while (true) {
+            long next = Math.min(fromIndex + wanted + countExcluded(compiled, fromIndex, index), compiled.endIndex);
+            if (next == index)
+                return index;
+            index = next;
+        }
+    }
+
+    /// <summary>
+    /// Get new settings for the Series Info as it was stored.
+    /// </summary>
+    /// <returns></returns>
+    RecurrenceSettings getRecurrenceSettings() throws Exception {
+        return getRecurrenceSettings(-1, info.startDate, LocalDateTime.MIN);
+    }
+
+    /// <summary>
+    /// Get new settings for the Series Info with a modified start date, number of occurrences
+    /// or end date. Use -1 and LocalDateTime.MIN for the values that aren't modified.
+    /// The settings belong to the caller and can be changed freely.
+    /// </summary>
+    /// <param name="modifiedOccurrencesValue"></param>
+    /// <param name="modifiedStartDate"></param>
+    /// <param name="modifiedEndDate"></param>
+    /// <returns></returns>
+    RecurrenceSettings getRecurrenceSettings(int modifiedOccurrencesValue, LocalDateTime modifiedStartDate, LocalDateTime modifiedEndDate) throws Exception {
+        RecurrenceInfo infoCopy = info.copy();
+
+        switch (info.recurrenceType) {
+            case Yearly:
+                return YearlyRecurrenceSettings.getRecurrenceSettings(infoCopy, modifiedOccurrencesValue, modifiedStartDate, modifiedEndDate);
+
+            case Monthly:
+                return MonthlyRecurrenceSettings.getRecurrenceSettings(infoCopy, modifiedOccurrencesValue, modifiedStartDate, modifiedEndDate);
+
+            case Weekly:
+                return WeeklyRecurrenceSettings.getRecurrenceSettings(infoCopy, modifiedOccurrencesValue, modifiedStartDate, modifiedEndDate);
+
+            case Daily:
+                return DailyRecurrenceSettings.getRecurrenceSettings(infoCopy, modifiedOccurrencesValue, modifiedStartDate, modifiedEndDate);
+
+            default:
+                throw new RecurrenceException(GENERIC_EXCEPTION_CODE, "Invalid RecurrenceType: " + info.recurrenceType);
+        }
+    }
+
+    RecurrenceSequence getSequence() throws Exception {
+        return getCompiled().sequence;
+    }
+
+    int getAdjustmentValue() {
+        return info.adjustmentValue;
+    }
+
+    /// <summary>
+    /// The sequence is worked out on first use. It's immutable, so if two threads race
+    /// to set it they end up with equivalent values.
+    /// </summary>
+    private Compiled getCompiled() throws Exception {
+        Compiled result = compiled;
+        if (result == null) {
+            RecurrenceSettings settings = getRecurrenceSettings();
+            RecurrenceSequence sequence = calendar == null ? settings.getSequence() : settings.getSequence(calendar);
+            // The end of the series is the end of the pattern, whichever way its dates are rolled.
+            // It's just past the last date getValues() generates, so counts and lookups agree with it.
+            long endIndex = settings.getLastIndex(sequence) + 1;
+            if (businessDayAdjustment != BusinessDayAdjustment.None)
+                sequence = RecurrenceSequence.rolled(sequence, calendar, businessDayAdjustment == BusinessDayAdjustment.RollForward, info.adjustmentValue);
+            if (timeOfDay != null)
+                sequence = RecurrenceSequence.atTime(sequence, timeOfDay);
+            result = new Compiled(sequence, endIndex);
+            compiled = result;
+        }
+        return result;
+    }
+
+    /// <summary>
+    /// The sequence of the series along with the index just past its last occurrence.
+    /// </summary>
+    private static final class Compiled {
+        final RecurrenceSequence sequence;
+        final long endIndex;
+
+        Compiled(RecurrenceSequence sequence, long endIndex) {
+            this.sequence = sequence;
+            this.endIndex = endIndex;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof RecurrenceRule && seriesInfo.equals(((RecurrenceRule) o).seriesInfo)
+                && exclusions.equals(((RecurrenceRule) o).exclusions)
+                && calendar == ((RecurrenceRule) o).calendar
+                && businessDayAdjustment == ((RecurrenceRule) o).businessDayAdjustment
+                && Objects.equals(zone, ((RecurrenceRule) o).zone)
+                && Objects.equals(timeOfDay, ((RecurrenceRule) o).timeOfDay);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(seriesInfo, exclusions, calendar, zone, timeOfDay);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("RecurrenceRule(").append(seriesInfo);
+        if (!exclusions.isEmpty())
+            builder.append(", ").append(exclusions);
+        if (calendar != null)
+            builder.append(", ").append(calendar).append(", ").append(businessDayAdjustment);
+        if (zone != null)
+            builder.append(", ").append(timeOfDay).append(' ').append(zone);
+        return builder.append(")").toString();
+    }
+}
@@ -0,0 +1,106 @@
+package com.kingsten.recurrences.generator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/// <summary>
+/// Bounded cache of compiled RecurrenceRule objects keyed by Series Info. When the cache is
+/// full the least recently used rule is dropped. A maximum size of zero turns caching off.
+/// </summary>
+public class RecurrenceRuleCache {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+    private final int maximumSize;
+    private final RuleMap rules;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    public RecurrenceRuleCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public RecurrenceRuleCache(int maximumSize) {
+        if (maximumSize < 0)
+            throw new IllegalArgumentException("Invalid maximumSize: " + maximumSize);
+        this.maximumSize = maximumSize;
+        this.rules = new RuleMap(maximumSize);
+    }
+
+    /// <summary>
+    /// Get the rule for the Series Info, compiling it if it isn't in the cache.
+    /// </summary>
+    /// <param name="seriesInfo"></param>
+    /// <returns></returns>
+    public RecurrenceRule getRule(String seriesInfo) throws Exception {
+        RecurrenceRule rule;
+        synchronized (rules) {
+            rule = rules.get(seriesInfo);
+        }
+        if (rule != null) {
+            hitCount.increment();
+            RecurrenceHelper.getMetrics().recordCacheHit();
+            return rule;
+        }
+
+        missCount.increment();
+        RecurrenceHelper.getMetrics().recordCacheMiss();
+        // Compile outside of the lock. Two threads missing on the same value both compile
+        // it and the last one in wins, which is harmless as the rules are equal.
+        rule = RecurrenceRule.compile(seriesInfo);
+        if (maximumSize > 0) {
+            synchronized (rules) {
+                rules.put(seriesInfo, rule);
+            }
+        }
+        return rule;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public int size() {
+        synchronized (rules) {
+            return rules.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /// <summary>
+    /// Remove all rules and reset the hit and miss counts.
+    /// </summary>
+    public void clear() {
+        synchronized (rules) {
+            rules.clear();
+        }
+        hitCount.reset();
+        missCount.reset();
+    }
+
+    /// <summary>
+    /// Access ordered map that drops its eldest entry once it grows past the maximum size.
+    /// </summary>
+    private static final class RuleMap extends LinkedHashMap<String, RecurrenceRule> {
+        private static final long serialVersionUID = 1L;
+        private final int maximumSize;
+
+        RuleMap(int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RecurrenceRule> eldest) {
+            return size() > maximumSize;
+        }
+    }
+}
@@ -0,0 +1,609 @@
+package com.kingsten.recurrences.generator;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import static com.kingsten.recurrences.generator.RecurrenceException.GENERIC_EXCEPTION_CODE;
+
+/// <summary>
+/// Arithmetic view of the dates produced by a recurrence pattern. Occurrences are numbered
+/// from zero and can be located directly by index or by date, so looking up a date costs
+/// the same no matter how long ago the series started.
+/// </summary>
+abstract class RecurrenceSequence {
+
+    final LocalTime timeOfDay;
+
+    RecurrenceSequence(LocalTime timeOfDay) {
+        this.timeOfDay = timeOfDay;
+    }
+
+    /// <summary>
+    /// Number of occurrences that fall strictly before the given date.
+    /// </summary>
+    abstract long countBefore(LocalDate date);
+
+    /// <summary>
+    /// Date of the occurrence at the given zero based index.
+    /// </summary>
+    abstract LocalDate dateAt(long index);
+
+    /// <summary>
+    /// Sequences in the same index group fall on their days in the same way, apart from where
+    /// they start. RecurrenceDateIndex keeps one bucket of sequences per group and index key.
+    /// </summary>
+    abstract Object getIndexGroup();
+
+    /// <summary>
+    /// Index keys, within the group, of the days the occurrences can fall on.
+    /// </summary>
+    abstract long[] getIndexKeys();
+
+    /// <summary>
+    /// Index key of a date within the group of this sequence, or NO_INDEX_KEY if no sequence
+    /// of the group can have an occurrence on it.
+    /// </summary>
+    abstract long getIndexKey(LocalDate date);
+
+    static final long NO_INDEX_KEY = -1;
+
+    /// <summary>
+    /// Number of occurrences that are on or before the given date and time.
+    /// </summary>
+    long countAtOrBefore(LocalDateTime dateTime) {
+        LocalDate date = dateTime.toLocalDate();
+        // An occurrence on the same day only counts if its time isn't later.
+        if (!timeOfDay.isAfter(dateTime.toLocalTime()))
+            date = date.plusDays(1);
+        return countBefore(date);
+    }
+
+    /// <summary>
+    /// Number of occurrences that are strictly before the given date and time.
+    /// </summary>
+    long countBefore(LocalDateTime dateTime) {
+        LocalDate date = dateTime.toLocalDate();
+        // An occurrence on the same day only counts if its time is earlier.
+        if (timeOfDay.isBefore(dateTime.toLocalTime()))
+            date = date.plusDays(1);
+        return countBefore(date);
+    }
+
+    /// <summary>
+    /// Get the first occurrence that is after the current date.
+    /// </summary>
+    /// <param name="currentDate"></param>
+    /// <returns></returns>
+    LocalDateTime getNextDate(LocalDateTime currentDate) {
+        return dateAt(countAtOrBefore(currentDate)).atTime(timeOfDay);
+    }
+
+    /// <summary>
+    /// Get the last occurrence that is before the current date and has an index below
+    /// endIndex, or LocalDateTime.MIN if there isn't one.
+    /// </summary>
+    /// <param name="currentDate"></param>
+    /// <param name="endIndex">Index just past the last occurrence of the series.</param>
+    /// <returns></returns>
+    LocalDateTime getPreviousDate(LocalDateTime currentDate, long endIndex) {
+        long index = Math.min(countBefore(currentDate), endIndex);
+        if (index == 0)
+            return LocalDateTime.MIN;
+        return dateAt(index - 1).atTime(timeOfDay);
+    }
+
+    /// <summary>
+    /// False when two occurrences can fall on the same date.
+    /// </summary>
+    boolean isDistinct() {
+        return true;
+    }
+
+    /// <summary>
+    /// Get a spliterator over the occurrences with an index from fromIndex up to but not including
+    /// toIndex. Long.MAX_VALUE as toIndex is for series with no end date.
+    /// </summary>
+    /// <param name="fromIndex"></param>
+    /// <param name="toIndex"></param>
+    /// <param name="adjustmentValue">Plus/minus x-days applied to each date.</param>
+    /// <returns></returns>
+    Spliterator<LocalDateTime> spliterator(long fromIndex, long toIndex, int adjustmentValue) {
+        return new OccurrenceSpliterator(fromIndex, toIndex, adjustmentValue);
+    }
+
+    static RecurrenceSequence everyXDays(LocalDateTime startDate, int regenEveryXDays) throws RecurrenceException {
+        if (regenEveryXDays < 1)
+            throw new RecurrenceException(GENERIC_EXCEPTION_CODE, "Invalid regenEveryXDays: " + regenEveryXDays);
+        return new EveryXDays(startDate, regenEveryXDays);
+    }
+
+    static RecurrenceSequence everyWeekday(LocalDateTime startDate) {
+        return new EveryWeekday(startDate);
+    }
+
+    static RecurrenceSequence everyXWeeks(LocalDateTime startDate, int dayMask, int regenEveryXWeeks) throws RecurrenceException {
+        if ((dayMask & 0x7F) == 0)
+            throw new RecurrenceException(GENERIC_EXCEPTION_CODE, "No day of the week has been selected.");
+        return new EveryXWeeks(startDate, dayMask & 0x7F, regenEveryXWeeks);
+    }
+
+    /// <param name="resolverKey">Equal for resolvers that always give the same day.</param>
+    static RecurrenceSequence everyXMonths(LocalDate firstDate, int regenEveryXMonths, Object resolverKey, DayOfMonthResolver resolver) throws RecurrenceException {
+        if (regenEveryXMonths < 1)
+            throw new RecurrenceException(GENERIC_EXCEPTION_CODE, "Invalid regenEveryXMonths: " + regenEveryXMonths);
+        return new EveryXMonths(firstDate, regenEveryXMonths, resolverKey, resolver);
+    }
+
+    static RecurrenceSequence everyXBusinessDays(LocalDateTime startDate, BusinessCalendar calendar, int regenEveryXDays) throws RecurrenceException {
+        if (regenEveryXDays < 1)
+            throw new RecurrenceException(GENERIC_EXCEPTION_CODE, "Invalid regenEveryXDays: " + regenEveryXDays);
+        return new EveryXBusinessDays(startDate, calendar, regenEveryXDays);
+    }
+
+    /// <param name="forward">Roll forward to the next business day rather than back to the previous one.</param>
+    /// <param name="adjustmentValue">Plus/minus x-days applied to each date, the adjusted date is rolled.</param>
+    static RecurrenceSequence rolled(RecurrenceSequence sequence, BusinessCalendar calendar, boolean forward, int adjustmentValue) {
+        return new Rolled(sequence, calendar, forward, adjustmentValue);
+    }
+
+    static RecurrenceSequence atTime(RecurrenceSequence sequence, LocalTime timeOfDay) {
+        return new AtTime(sequence, timeOfDay);
+    }
+
+    /// <summary>
+    /// Produces occurrences on demand by index. Being random access, a bounded range is split
+    /// in halves for parallel streams without generating anything.
+    /// </summary>
+    final class OccurrenceSpliterator implements Spliterator<LocalDateTime> {
+        private long index;
+        private final long endIndex;
+        private final int adjustmentValue;
+
+        OccurrenceSpliterator(long fromIndex, long toIndex, int adjustmentValue) {
+            this.index = fromIndex;
+            this.endIndex = toIndex;
+            this.adjustmentValue = adjustmentValue;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super LocalDateTime> action) {
+            if (index >= endIndex)
+                return false;
+            action.accept(dateAt(index++).atTime(timeOfDay).plusDays(adjustmentValue));
+            return true;
+        }
+
+        @Override
+        public Spliterator<LocalDateTime> trySplit() {
+            if (endIndex == Long.MAX_VALUE || endIndex - index < 2)
+                return null;
+            long middle = index + (endIndex - index) / 2;
+            Spliterator<LocalDateTime> prefix = new OccurrenceSpliterator(index, middle, adjustmentValue);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return endIndex == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(0, endIndex - index);
+        }
+
+        @Override
+        public int characteristics() {
+            int characteristics = ORDERED | SORTED | NONNULL | IMMUTABLE;
+            if (isDistinct())
+                characteristics |= DISTINCT;
+            return endIndex == Long.MAX_VALUE ? characteristics : characteristics | SIZED | SUBSIZED;
+        }
+
+        @Override
+        public Comparator<? super LocalDateTime> getComparator() {
+            // Natural order
+            return null;
+        }
+    }
+
+    /// <summary>
+    /// Resolves the day of the month an occurrence falls on for a given year and month.
+    /// </summary>
+    interface DayOfMonthResolver {
+        int getDayOfMonth(int year, int month);
+    }
+
+    /// <summary>
+    /// Start date plus a multiple of x-days.
+    /// </summary>
+    static final class EveryXDays extends RecurrenceSequence {
+        private final long firstDay;
+        private final int interval;
+
+        EveryXDays(LocalDateTime startDate, int interval) {
+            super(startDate.toLocalTime());
+            this.firstDay = startDate.toLocalDate().toEpochDay();
+            this.interval = interval;
+        }
+
+        @Override
+        long countBefore(LocalDate date) {
+            long days = date.toEpochDay() - firstDay;
+            return days <= 0 ? 0 : (days + interval - 1) / interval;
+        }
+
+        @Override
+        LocalDate dateAt(long index) {
+            return LocalDate.ofEpochDay(firstDay + index * interval);
+        }
+
+        @Override
+        Object getIndexGroup() {
+            return Arrays.asList("EveryXDays", interval);
+        }
+
+        @Override
+        long[] getIndexKeys() {
+            return new long[]{Math.floorMod(firstDay, interval)};
+        }
+
+        @Override
+        long getIndexKey(LocalDate date) {
+            return Math.floorMod(date.toEpochDay(), interval);
+        }
+    }
+
+    /// <summary>
+    /// Every Monday to Friday on or after the start date. Weekdays are numbered by their
+    /// ordinal since Monday 29 Dec 1969 so both directions are a division.
+    /// </summary>
+    static final class EveryWeekday extends RecurrenceSequence {
+        private final long firstOrdinal;
+
+        EveryWeekday(LocalDateTime startDate) {
+            super(startDate.toLocalTime());
+            this.firstOrdinal = weekdaysBefore(startDate.toLocalDate().toEpochDay());
+        }
+
+        @Override
+        long countBefore(LocalDate date) {
+            return Math.max(0, weekdaysBefore(date.toEpochDay()) - firstOrdinal);
+        }
+
+        @Override
+        LocalDate dateAt(long index) {
+            long ordinal = firstOrdinal + index;
+            long weeks = Math.floorDiv(ordinal, 5);
+            return LocalDate.ofEpochDay(weeks * 7 + (ordinal - weeks * 5) - 3);
+        }
+
+        @Override
+        Object getIndexGroup() {
+            return "EveryWeekday";
+        }
+
+        @Override
+        long[] getIndexKeys() {
+            return new long[]{0};
+        }
+
+        @Override
+        long getIndexKey(LocalDate date) {
+            return date.getDayOfWeek().getValue() <= 5 ? 0 : NO_INDEX_KEY;
+        }
+
+        static long weekdaysBefore(long epochDay) {
+            // 1 Jan 1970 is a Thursday, so shift the count to start on a Monday.
+            long days = epochDay + 3;
+            long weeks = Math.floorDiv(days, 7);
+            return weeks * 5 + Math.min(days - weeks * 7, 5);
+        }
+    }
+
+    /// <summary>
+    /// Every x-th business day of a calendar from the first business day on or after the
+    /// start date. Business days are numbered by their rank in the calendar, so as with
+    /// EveryXDays both directions are a division.
+    /// </summary>
+    static final class EveryXBusinessDays extends RecurrenceSequence {
+        private final BusinessCalendar calendar;
+        private final long firstRank;
+        private final int interval;
+
+        EveryXBusinessDays(LocalDateTime startDate, BusinessCalendar calendar, int interval) {
+            super(startDate.toLocalTime());
+            this.calendar = calendar;
+            this.firstRank = calendar.rank(startDate.toLocalDate().toEpochDay());
+            this.interval = interval;
+        }
+
+        @Override
+        long countBefore(LocalDate date) {
+            long businessDays = calendar.rank(date.toEpochDay()) - firstRank;
+            return businessDays <= 0 ? 0 : (businessDays + interval - 1) / interval;
+        }
+
+        @Override
+        LocalDate dateAt(long index) {
+            return LocalDate.ofEpochDay(calendar.select(firstRank + index * interval));
+        }
+
+        @Override
+        Object getIndexGroup() {
+            return Arrays.asList("EveryXBusinessDays", interval, calendar);
+        }
+
+        @Override
+        long[] getIndexKeys() {
+            return new long[]{Math.floorMod(firstRank, interval)};
+        }
+
+        @Override
+        long getIndexKey(LocalDate date) {
+            long epochDay = date.toEpochDay();
+            return calendar.isBusinessDay(epochDay) ? Math.floorMod(calendar.rank(epochDay), interval) : NO_INDEX_KEY;
+        }
+    }
+
+    /// <summary>
+    /// Selected days of the week repeated every x-weeks. Weeks run Sunday to Saturday and
+    /// the first week only holds the selected days on or after the start date.
+    /// As with WeeklyRecurrenceSettings.getNextDay, weeks are only skipped when
+    /// Saturday isn't one of the selected days.
+    /// </summary>
+    static final class EveryXWeeks extends RecurrenceSequence {
+        private final long firstWeek;
+        private final int firstDayOfWeek;
+        private final int dayMask;
+        private final int firstWeekMask;
+        private final int firstWeekCount;
+        private final int daysPerWeek;
+        private final int period;
+
+        EveryXWeeks(LocalDateTime startDate, int dayMask, int regenEveryXWeeks) {
+            super(startDate.toLocalTime());
+            LocalDate start = startDate.toLocalDate();
+            this.firstDayOfWeek = start.getDayOfWeek().getValue() % 7;
+            this.firstWeek = start.toEpochDay() - firstDayOfWeek;
+            this.dayMask = dayMask;
+            this.firstWeekMask = dayMask >> firstDayOfWeek << firstDayOfWeek;
+            this.firstWeekCount = Integer.bitCount(firstWeekMask);
+            this.daysPerWeek = Integer.bitCount(dayMask);
+            this.period = (dayMask & 0x40) != 0 || regenEveryXWeeks <= 1 ? 1 : regenEveryXWeeks;
+        }
+
+        @Override
+        long countBefore(LocalDate date) {
+            long days = date.toEpochDay() - firstWeek;
+            if (days <= firstDayOfWeek)
+                return 0;
+            long week = days / 7;
+            int daysBefore = (1 << (int) (days % 7)) - 1;
+            if (week == 0)
+                return Integer.bitCount(firstWeekMask & daysBefore);
+
+            // Whole active weeks between the first week and the week of the date.
+            long count = firstWeekCount + ((week + period - 1) / period - 1) * daysPerWeek;
+            if (week % period == 0)
+                count += Integer.bitCount(dayMask & daysBefore);
+            return count;
+        }
+
+        @Override
+        LocalDate dateAt(long index) {
+            if (index < firstWeekCount)
+                return LocalDate.ofEpochDay(firstWeek + nthDay(firstWeekMask, (int) index));
+            long remaining = index - firstWeekCount;
+            long week = (remaining / daysPerWeek + 1) * period;
+            return LocalDate.ofEpochDay(firstWeek + week * 7 + nthDay(dayMask, (int) (remaining % daysPerWeek)));
+        }
+
+        /// <summary>
+        /// The key is the week, counted in periods from any Sunday, and the day of the week.
+        /// </summary>
+        @Override
+        Object getIndexGroup() {
+            return Arrays.asList("EveryXWeeks", period);
+        }
+
+        @Override
+        long[] getIndexKeys() {
+            long week = Math.floorMod(Math.floorDiv(firstWeek, 7), period);
+            long[] keys = new long[daysPerWeek];
+            for (int i = 0; i < daysPerWeek; i++)
+                keys[i] = week * 7 + nthDay(dayMask, i);
+            return keys;
+        }
+
+        @Override
+        long getIndexKey(LocalDate date) {
+            int dayOfWeek = date.getDayOfWeek().getValue() % 7;
+            long week = Math.floorDiv(date.toEpochDay() - dayOfWeek, 7);
+            return Math.floorMod(week, period) * 7 + dayOfWeek;
+        }
+
+        static int nthDay(int mask, int n) {
+            int day = 0;
+            while (true) {
+                if ((mask & (1 << day)) != 0 && n-- == 0)
+                    return day;
+                day++;
+            }
+        }
+    }
+
+    /// <summary>
+    /// One occurrence every x-months, on the day given by the resolver. The first
+    /// occurrence is kept as is since the generators don't correct it.
+    /// Yearly patterns use this with a twelve month interval.
+    /// </summary>
+    static final class EveryXMonths extends RecurrenceSequence {
+        private final LocalDate firstDate;
+        private final long firstMonth;
+        private final int interval;
+        private final Object resolverKey;
+        private final DayOfMonthResolver resolver;
+
+        EveryXMonths(LocalDate firstDate, int interval, Object resolverKey, DayOfMonthResolver resolver) {
+            super(LocalTime.MIDNIGHT);
+            this.firstDate = firstDate;
+            this.firstMonth = monthIndex(firstDate);
+            this.interval = interval;
+            this.resolverKey = resolverKey;
+            this.resolver = resolver;
+        }
+
+        @Override
+        long countBefore(LocalDate date) {
+            if (!date.isAfter(firstDate))
+                return 0;
+            long months = monthIndex(date) - firstMonth;
+            long count = 1 + Math.max(0, Math.floorDiv(months - 1, interval));
+            // An occurrence in the same month as the date only counts when it's earlier.
+            if (months > 0 && months % interval == 0 && dateInMonth(firstMonth + months).isBefore(date))
+                count++;
+            return count;
+        }
+
+        @Override
+        LocalDate dateAt(long index) {
+            return index == 0 ? firstDate : dateInMonth(firstMonth + index * interval);
+        }
+
+        /// <summary>
+        /// The key is the month, counted in intervals, when the date is the resolved day of it.
+        /// The first occurrence isn't corrected, so it may not be under any of the keys.
+        /// </summary>
+        @Override
+        Object getIndexGroup() {
+            return Arrays.asList("EveryXMonths", interval, resolverKey);
+        }
+
+        @Override
+        long[] getIndexKeys() {
+            return new long[]{Math.floorMod(firstMonth, interval)};
+        }
+
+        @Override
+        long getIndexKey(LocalDate date) {
+            if (resolver.getDayOfMonth(date.getYear(), date.getMonthValue()) != date.getDayOfMonth())
+                return NO_INDEX_KEY;
+            return Math.floorMod(monthIndex(date), interval);
+        }
+
+        private LocalDate dateInMonth(long monthIndex) {
+            int year = (int) Math.floorDiv(monthIndex, 12);
+            int month = (int) Math.floorMod(monthIndex, 12) + 1;
+            return LocalDate.of(year, month, resolver.getDayOfMonth(year, month));
+        }
+
+        static long monthIndex(LocalDate date) {
+            return date.getYear() * 12L + date.getMonthValue() - 1;
+        }
+    }
+
+    /// <summary>
+    /// The occurrences of another sequence, each moved to a business day. Rolling keeps the
+    /// order of the dates, so the count before a date is the count of the other sequence
+    /// before the first date that doesn't roll to before it. Two occurrences can roll onto
+    /// the same business day, both are kept as they're still separate occurrences.
+    /// </summary>
+    static final class Rolled extends RecurrenceSequence {
+        private final RecurrenceSequence sequence;
+        private final BusinessCalendar calendar;
+        private final boolean forward;
+        private final int adjustmentValue;
+
+        Rolled(RecurrenceSequence sequence, BusinessCalendar calendar, boolean forward, int adjustmentValue) {
+            super(sequence.timeOfDay);
+            this.sequence = sequence;
+            this.calendar = calendar;
+            this.forward = forward;
+            this.adjustmentValue = adjustmentValue;
+        }
+
+        @Override
+        long countBefore(LocalDate date) {
+            long epochDay = date.toEpochDay() + adjustmentValue;
+            // Rolling forward lands before the date from anything up to the last business day
+            // before it, rolling back from anything before the first business day from it on.
+            long firstNotBefore = forward ? calendar.rollBack(epochDay - 1) + 1 : calendar.rollForward(epochDay);
+            return sequence.countBefore(LocalDate.ofEpochDay(firstNotBefore - adjustmentValue));
+        }
+
+        @Override
+        LocalDate dateAt(long index) {
+            long epochDay = sequence.dateAt(index).toEpochDay() + adjustmentValue;
+            epochDay = forward ? calendar.rollForward(epochDay) : calendar.rollBack(epochDay);
+            return LocalDate.ofEpochDay(epochDay - adjustmentValue);
+        }
+
+        @Override
+        boolean isDistinct() {
+            return false;
+        }
+
+        /// <summary>
+        /// Rolled dates don't follow the pattern of the days, so every date is under the one
+        /// key of a group of its own and is checked against the sequence.
+        /// </summary>
+        @Override
+        Object getIndexGroup() {
+            return this;
+        }
+
+        @Override
+        long[] getIndexKeys() {
+            return new long[]{0};
+        }
+
+        @Override
+        long getIndexKey(LocalDate date) {
+            return 0;
+        }
+    }
+
+    /// <summary>
+    /// The occurrences of another sequence at a different time of day.
+    /// </summary>
+    static final class AtTime extends RecurrenceSequence {
+        private final RecurrenceSequence sequence;
+
+        AtTime(RecurrenceSequence sequence, LocalTime timeOfDay) {
+            super(timeOfDay);
+            this.sequence = sequence;
+        }
+
+        @Override
+        long countBefore(LocalDate date) {
+            return sequence.countBefore(date);
+        }
+
+        @Override
+        LocalDate dateAt(long index) {
+            return sequence.dateAt(index);
+        }
+
+        @Override
+        boolean isDistinct() {
+            return sequence.isDistinct();
+        }
+
+        @Override
+        Object getIndexGroup() {
+            return sequence.getIndexGroup();
+        }
+
+        @Override
+        long[] getIndexKeys() {
+            return sequence.getIndexKeys();
+        }
+
+        @Override
+        long getIndexKey(LocalDate date) {
+            return sequence.getIndexKey(date);
+        }
+    }
+}
@@ -4,10 +4,16 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @NoArgsConstructor
 @Data
-public abstract class RecurrenceSettings {
+public abstract class RecurrenceSettings implements Cloneable {
 
     protected EndDateType endDateType = EndDateType.NotDefined;
     LocalDateTime startDate;
@@ -33,13 +39,200 @@ public abstract class RecurrenceSettings {
         endDateType = EndDateType.NumberOfOccurrences;
     }
 
-    abstract LocalDateTime getNextDate(LocalDateTime currentDate) throws Exception;
+    /// <summary>
+    /// Get the next date in the series after the current date. The date is located
+    /// arithmetically from the pattern so the cost doesn't depend on the age of the series.
+    /// </summary>
+    /// <param name="currentDate"></param>
+    /// <returns></returns>
+    LocalDateTime getNextDate(LocalDateTime currentDate) throws Exception {
+        int adjustmentValue = getAdjustmentValue();
+        return getSequence().getNextDate(currentDate.minusDays(adjustmentValue)).plusDays(adjustmentValue);
+    }
+
+    /// <summary>
+    /// Get the date in the series before the current date, the last date of the series if
+    /// the current date is past its end, or LocalDateTime.MIN if the series hasn't started.
+    /// The last date is the one getLastDate() returns.
+    /// </summary>
+    /// <param name="currentDate"></param>
+    /// <returns></returns>
+    LocalDateTime getPreviousDate(LocalDateTime currentDate) throws Exception {
+        int adjustmentValue = getAdjustmentValue();
+        RecurrenceSequence sequence = getSequence();
+        LocalDateTime previousDate = sequence.getPreviousDate(currentDate.minusDays(adjustmentValue), getLastIndex(sequence) + 1);
+        return previousDate.equals(LocalDateTime.MIN) ? previousDate : previousDate.plusDays(adjustmentValue);
+    }
+
+    /// <summary>
+    /// Get the dates of the series one at a time as they are needed, without building up
+    /// RecurrenceValues. This also works for series with no end date, which can be consumed
+    /// with a limit. A series ending on a specific date stops at the last date on or before it.
+    /// </summary>
+    /// <returns></returns>
+    public Iterator<LocalDateTime> iterator() throws Exception {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /// <summary>
+    /// Spliterator version of iterator(). Series with an end are SIZED and split without
+    /// generating any dates.
+    /// </summary>
+    /// <returns></returns>
+    public Spliterator<LocalDateTime> spliterator() throws Exception {
+        RecurrenceSequence sequence = getSequence();
+        return sequence.spliterator(0, getEndIndex(sequence), getAdjustmentValue());
+    }
+
+    /// <summary>
+    /// Index of the occurrence just past the end of the series, or Long.MAX_VALUE
+    /// when there is no end date.
+    /// </summary>
+    /// <param name="sequence">The sequence returned by getSequence().</param>
+    /// <returns></returns>
+    long getEndIndex(RecurrenceSequence sequence) {
+        switch (endDateType) {
+            case NumberOfOccurrences:
+                return Math.max(0, numberOfOccurrences);
+
+            case SpecificDate:
+                return sequence.countAtOrBefore(endDate);
+
+            case NoEndDate:
+                return Long.MAX_VALUE;
+
+            default:
+                throw new IllegalArgumentException("The TypeOfEndDate property has not been set.");
+        }
+    }
+
+    /// <summary>
+    /// Last date getValues() would return, worked out from the sequence without generating
+    /// the values before it. LocalDateTime.MAX if there are no values, as with
+    /// RecurrenceValues.getLastDate().
+    /// </summary>
+    /// <returns></returns>
+    LocalDateTime getLastDate() throws Exception {
+        // Series with no end can't be generated, let getValues fail as it always has.
+        if (endDateType != EndDateType.NumberOfOccurrences && endDateType != EndDateType.SpecificDate)
+            return getValues().getLastDate();
+
+        RecurrenceSequence sequence = getSequence();
+        long lastIndex = getLastIndex(sequence);
+        if (lastIndex < 0)
+            return LocalDateTime.MAX;
+        return sequence.dateAt(lastIndex).atTime(sequence.timeOfDay).plusDays(getAdjustmentValue());
+    }
+
+    /// <summary>
+    /// Index of the last date getValues() generates, or -1 if it generates none. Most of the
+    /// generators for a series ending on a specific date add the first date whatever the end
+    /// date is, then each following date that isn't past the end date.
+    /// </summary>
+    /// <param name="sequence">The sequence returned by getSequence().</param>
+    /// <returns></returns>
+    long getLastIndex(RecurrenceSequence sequence) {
+        if (endDateType == EndDateType.SpecificDate)
+            return Math.max(1, sequence.countAtOrBefore(endDate)) - 1;
+        return getEndIndex(sequence) - 1;
+    }
+
+    /// <summary>
+    /// Stream of the dates of the series, see iterator().
+    /// </summary>
+    /// <returns></returns>
+    public Stream<LocalDateTime> stream() throws Exception {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /// <summary>
+    /// Get the arithmetic sequence of (unadjusted) dates defined by the pattern.
+    /// </summary>
+    abstract RecurrenceSequence getSequence() throws Exception;
+
+    /// <summary>
+    /// Get the sequence of (unadjusted) dates with the business days of the calendar in
+    /// place of Monday to Friday. Patterns that don't depend on weekdays are unchanged.
+    /// </summary>
+    /// <param name="calendar"></param>
+    RecurrenceSequence getSequence(BusinessCalendar calendar) throws Exception {
+        return getSequence();
+    }
+
+    /// <summary>
+    /// Plus/minus x-days applied to every date. Only the monthly and yearly settings
+    /// have an adjustment value and override this.
+    /// </summary>
+    int getAdjustmentValue() {
+        return 0;
+    }
 
     abstract RecurrenceValues getValues() throws Exception;
 
-    abstract RecurrenceValues getValues(LocalDateTime startDate, int numberOfOccurrences) throws Exception;
+    /// <summary>
+    /// Generate the values with the loops of the settings and report the call, the days
+    /// walked from the start date and the dates produced to RecurrenceHelper.getMetrics().
+    /// </summary>
+    /// <param name="entryPoint"></param>
+    /// <param name="patternType"></param>
+    /// <param name="generate"></param>
+    /// <returns></returns>
+    RecurrenceValues measureValues(String entryPoint, RecurrenceInfo.RecurrenceType patternType,
+                                   RecurrenceMetering.Call<RecurrenceValues, Exception> generate) throws Exception {
+        RecurrenceValues values = RecurrenceMetering.measure(entryPoint, patternType, generate, RecurrenceMetering::size);
+        if (RecurrenceHelper.getMetrics() != RecurrenceMetrics.NONE && !values.values.isEmpty()) {
+            LocalDateTime lastDate = values.values.get(values.values.size() - 1);
+            RecurrenceMetering.recordIterations(entryPoint, patternType, ChronoUnit.DAYS.between(startDate.toLocalDate(), lastDate.toLocalDate()) + 1);
+        }
+        return values;
+    }
+
+    /// <summary>
+    /// Get the values for a number of occurrences from a different start date. The
+    /// settings are left as they are, so they can be shared between threads.
+    /// </summary>
+    /// <param name="startDate"></param>
+    /// <param name="numberOfOccurrences"></param>
+    /// <returns></returns>
+    RecurrenceValues getValues(LocalDateTime startDate, int numberOfOccurrences) throws Exception {
+        RecurrenceSettings settings = copy();
+        settings.startDate = startDate;
+        settings.numberOfOccurrences = numberOfOccurrences;
+        // Change the end type to number of occurrences.
+        // This must be set because the original starting Series Info may
+        // be set to have an End Date type.
+        settings.endDateType = EndDateType.NumberOfOccurrences;
+        return settings.getValues();
+    }
 
-    abstract RecurrenceValues getValues(LocalDateTime startDate, LocalDateTime endDate) throws Exception;
+    /// <summary>
+    /// Get the values between a different start and end date. The settings are
+    /// left as they are, so they can be shared between threads.
+    /// </summary>
+    /// <param name="startDate"></param>
+    /// <param name="endDate"></param>
+    /// <returns></returns>
+    RecurrenceValues getValues(LocalDateTime startDate, LocalDateTime endDate) throws Exception {
+        RecurrenceSettings settings = copy();
+        settings.startDate = startDate;
+        settings.endDate = endDate;
+        // Change the end type to End Date as this original series info
+        // may have been set to number of occurrences.
+        settings.endDateType = EndDateType.SpecificDate;
+        return settings.getValues();
+    }
+
+    /// <summary>
+    /// Shallow copy of the settings. All of the fields changed by getValues are immutable values.
+    /// </summary>
+    /// <returns></returns>
+    RecurrenceSettings copy() {
+        try {
+            return (RecurrenceSettings) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
     public boolean hasEndDate() {
         return endDate != null;
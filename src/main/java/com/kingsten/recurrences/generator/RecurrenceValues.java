@@ -3,13 +3,13 @@ package com.kingsten.recurrences.generator;
 import lombok.Data;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 
 @Data
 public class RecurrenceValues {
 
-    List<LocalDateTime> values = new ArrayList<>();
+    // Held as epoch days, see EpochDayList. Any List can still be set in its place.
+    List<LocalDateTime> values = new EpochDayList();
     LocalDateTime endDate;
     LocalDateTime startDate;
     String seriesInfo;
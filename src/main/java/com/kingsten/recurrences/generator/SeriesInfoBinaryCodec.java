@@ -0,0 +1,352 @@
+package com.kingsten.recurrences.generator;
+
+import java.nio.CharBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/// <summary>
+/// Versioned binary form of a Series Info, 12 to 16 bytes rather than 26 to 33 chars, for
+/// caches and wire payloads. It holds exactly the fields of the text layout, so a Series Info
+/// converts to binary and back to the same string, and the binary form is read at fixed
+/// offsets without any parsing. Only Series Info values whose fields all fit their width
+/// can be converted, which is every value the settings classes write with a regen type and
+/// end date type set, other than a negative adjustment value of one digit as that is written
+/// a char short.
+/// </summary>
+/// <remarks>
+/// BINARY LAYOUT (version 1, numbers are big-endian and signed unless noted)
+///  [0]      version
+///  [1]      bits 0-1 pattern (D, W, M, Y), bits 2-3 end date type, bits 4-5 regen type,
+///           bit 6 set when there is an end date
+///  [2-4]    start date as unsigned days since 0000-01-01
+///  [5-7]    end date as unsigned days since 0000-01-01, zero when there is none
+///  [8-9]    occurrences
+///  D [10-11] regen every x days
+///  W [10] selected days, bit 0 Sunday to bit 6 Saturday, [11-12] regen every x weeks
+///  M [10] specific DAY value, [11] custom part one and two (high and low four bits),
+///    [12-13] adjustment value, [14-15] regen every x months
+///  Y [10] specific DAY value, [11] specific MONTH value, [12] custom part one and two
+///    (high and low four bits), [13] custom part three, [14-15] adjustment value
+/// A custom part is stored as its letter less 'A', or 0xF for Z.
+/// </remarks>
+public final class SeriesInfoBinaryCodec {
+
+    public static final byte VERSION = 1;
+
+    /// <summary>
+    /// No binary Series Info is longer than this.
+    /// </summary>
+    public static final int MAX_LENGTH = 16;
+
+    private static final String PATTERNS = "DWMY";
+    private static final int[] LENGTHS = {12, 13, 16, 16};
+    private static final int[] TEXT_LENGTHS = {26, 33, 33, 33};
+    private static final int[] MAX_REGEN_TYPES = {1, 0, 2, 2};
+
+    private static final int HAS_END_DATE = 0x40;
+    private static final int NOT_SET_PART = 0xF;
+    private static final int NO_END_DATE = 0;
+    // Epoch day of 0000-01-01, so dates of four digit years fit in three unsigned bytes.
+    private static final long DAY_ZERO = LocalDate.of(0, 1, 1).toEpochDay();
+    private static final long LAST_DAY = LocalDate.of(9999, 12, 31).toEpochDay() - DAY_ZERO;
+
+    private SeriesInfoBinaryCodec() {
+    }
+
+    //#region Encoding
+
+    /// <summary>
+    /// Get the binary form of a Series Info.
+    /// </summary>
+    /// <param name="seriesInfo"></param>
+    /// <returns></returns>
+    public static byte[] encode(CharSequence seriesInfo) {
+        byte[] buffer = new byte[MAX_LENGTH];
+        int length = encode(seriesInfo, buffer, 0);
+        if (length == MAX_LENGTH)
+            return buffer;
+        byte[] bytes = new byte[length];
+        System.arraycopy(buffer, 0, bytes, 0, length);
+        return bytes;
+    }
+
+    /// <summary>
+    /// Get the binary form of the Series Info of the settings.
+    /// </summary>
+    /// <param name="settings"></param>
+    /// <returns></returns>
+    public static byte[] encode(RecurrenceSettings settings) {
+        char[] chars = new char[SeriesInfoCodec.MAX_LENGTH];
+        int length = SeriesInfoCodec.encode(settings, chars, 0);
+        return encode(CharBuffer.wrap(chars, 0, length));
+    }
+
+    /// <summary>
+    /// Write the binary form of a Series Info into a byte buffer.
+    /// </summary>
+    /// <param name="seriesInfo"></param>
+    /// <param name="buffer"></param>
+    /// <param name="offset">Index to start writing at.</param>
+    /// <returns>The number of bytes written.</returns>
+    public static int encode(CharSequence seriesInfo, byte[] buffer, int offset) {
+        int pattern = seriesInfo.length() == 0 ? -1 : PATTERNS.indexOf(seriesInfo.charAt(0));
+        if (pattern < 0 || seriesInfo.length() != TEXT_LENGTHS[pattern])
+            throw cannotEncode(seriesInfo);
+
+        boolean hasEndDate = !isZ(seriesInfo, 9, 17);
+        int header = pattern
+                | readDigit(seriesInfo, 22, 2) << 2
+                | readDigit(seriesInfo, 21, MAX_REGEN_TYPES[pattern]) << 4
+                | (hasEndDate ? HAS_END_DATE : 0);
+        buffer[offset] = VERSION;
+        buffer[offset + 1] = (byte) header;
+        putUnsigned24(readDay(seriesInfo, 1), buffer, offset + 2);
+        putUnsigned24(hasEndDate ? readDay(seriesInfo, 9) : NO_END_DATE, buffer, offset + 5);
+        putShort(readNumber(seriesInfo, 17, 4), buffer, offset + 8);
+
+        switch (pattern) {
+            case 0:
+                putShort(readNumber(seriesInfo, 23, 3), buffer, offset + 10);
+                break;
+
+            case 1:
+                int dayMask = 0;
+                for (int i = 0; i < 7; i++) {
+                    char c = seriesInfo.charAt(23 + i);
+                    if (c == 'Y')
+                        dayMask |= 1 << i;
+                    else if (c != 'N')
+                        throw cannotEncode(seriesInfo);
+                }
+                buffer[offset + 10] = (byte) dayMask;
+                putShort(readNumber(seriesInfo, 30, 3), buffer, offset + 11);
+                break;
+
+            case 2:
+                buffer[offset + 10] = (byte) readNumber(seriesInfo, 23, 2);
+                buffer[offset + 11] = (byte) (readPart(seriesInfo, 25, 'E') << 4 | readPart(seriesInfo, 26, 'K'));
+                putShort(readNumber(seriesInfo, 27, 3), buffer, offset + 12);
+                putShort(readNumber(seriesInfo, 30, 3), buffer, offset + 14);
+                break;
+
+            default:
+                buffer[offset + 10] = (byte) readNumber(seriesInfo, 23, 2);
+                buffer[offset + 11] = (byte) readNumber(seriesInfo, 25, 2);
+                buffer[offset + 12] = (byte) (readPart(seriesInfo, 27, 'E') << 4 | readPart(seriesInfo, 28, 'J'));
+                buffer[offset + 13] = (byte) readPart(seriesInfo, 29, 'L');
+                putShort(readNumber(seriesInfo, 30, 3), buffer, offset + 14);
+                break;
+        }
+        return LENGTHS[pattern];
+    }
+
+    private static boolean isZ(CharSequence seriesInfo, int start, int end) {
+        for (int i = start; i < end; i++)
+            if (seriesInfo.charAt(i) != 'Z')
+                return false;
+        return true;
+    }
+
+    private static int readDigit(CharSequence seriesInfo, int index, int max) {
+        int digit = seriesInfo.charAt(index) - '0';
+        if (digit < 0 || digit > max)
+            throw cannotEncode(seriesInfo);
+        return digit;
+    }
+
+    private static int readDay(CharSequence seriesInfo, int start) {
+        int year = readNumber(seriesInfo, start, 4);
+        int month = readNumber(seriesInfo, start + 4, 2);
+        int day = readNumber(seriesInfo, start + 6, 2);
+        if (year < 0 || month < 0 || day < 0)
+            throw cannotEncode(seriesInfo);
+        try {
+            return (int) (LocalDate.of(year, month, day).toEpochDay() - DAY_ZERO);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid date in Series Info: " + seriesInfo, e);
+        }
+    }
+
+    /// <summary>
+    /// Read a number written like String.format("%0" + width + "d", value) into exactly width
+    /// chars, so that writing it back gives the same chars.
+    /// </summary>
+    private static int readNumber(CharSequence seriesInfo, int start, int width) {
+        int i = start;
+        boolean negative = seriesInfo.charAt(i) == '-';
+        if (negative)
+            i++;
+        int value = 0;
+        for (; i < start + width; i++) {
+            char c = seriesInfo.charAt(i);
+            if (c < '0' || c > '9')
+                throw cannotEncode(seriesInfo);
+            value = value * 10 + c - '0';
+        }
+        // "-0" and "-00" can't be written back.
+        if (negative && value == 0)
+            throw cannotEncode(seriesInfo);
+        return negative ? -value : value;
+    }
+
+    private static int readPart(CharSequence seriesInfo, int index, char last) {
+        char c = seriesInfo.charAt(index);
+        if (c == 'Z')
+            return NOT_SET_PART;
+        if (c < 'A' || c > last)
+            throw cannotEncode(seriesInfo);
+        return c - 'A';
+    }
+
+    private static void putUnsigned24(int value, byte[] buffer, int offset) {
+        buffer[offset] = (byte) (value >>> 16);
+        buffer[offset + 1] = (byte) (value >>> 8);
+        buffer[offset + 2] = (byte) value;
+    }
+
+    private static void putShort(int value, byte[] buffer, int offset) {
+        buffer[offset] = (byte) (value >> 8);
+        buffer[offset + 1] = (byte) value;
+    }
+
+    private static IllegalArgumentException cannotEncode(CharSequence seriesInfo) {
+        return new IllegalArgumentException("Series Info can't be converted to binary: " + seriesInfo);
+    }
+
+    //#endregion
+
+    //#region Decoding
+
+    /// <summary>
+    /// Get the Series Info held in binary form.
+    /// </summary>
+    /// <param name="bytes"></param>
+    /// <returns></returns>
+    public static String toSeriesInfo(byte[] bytes) {
+        return toSeriesInfo(bytes, 0, bytes.length);
+    }
+
+    /// <summary>
+    /// Get the Series Info held in binary form in a byte buffer.
+    /// </summary>
+    /// <param name="buffer"></param>
+    /// <param name="offset"></param>
+    /// <param name="length"></param>
+    /// <returns></returns>
+    public static String toSeriesInfo(byte[] buffer, int offset, int length) {
+        char[] chars = new char[SeriesInfoCodec.MAX_LENGTH];
+        return new String(chars, 0, toSeriesInfo(buffer, offset, length, chars, 0));
+    }
+
+    /// <summary>
+    /// Write the Series Info held in binary form in a byte buffer into a char buffer.
+    /// </summary>
+    /// <param name="buffer"></param>
+    /// <param name="offset"></param>
+    /// <param name="length"></param>
+    /// <param name="chars"></param>
+    /// <param name="charOffset">Index to start writing at.</param>
+    /// <returns>The number of chars written.</returns>
+    public static int toSeriesInfo(byte[] buffer, int offset, int length, char[] chars, int charOffset) {
+        if (length < 2)
+            throw new IllegalArgumentException("Binary Series Info is too short: " + length + " bytes");
+        if (buffer[offset] != VERSION)
+            throw new IllegalArgumentException("Unsupported binary Series Info version: " + buffer[offset]);
+        int header = buffer[offset + 1] & 0xFF;
+        int pattern = header & 0x03;
+        if (length != LENGTHS[pattern] || (header & 0x80) != 0)
+            throw new IllegalArgumentException("Invalid binary Series Info");
+
+        int endDateType = header >>> 2 & 0x03;
+        int regenType = header >>> 4 & 0x03;
+        if (endDateType > 2 || regenType > MAX_REGEN_TYPES[pattern])
+            throw new IllegalArgumentException("Invalid binary Series Info");
+
+        chars[charOffset] = PATTERNS.charAt(pattern);
+        writeDay(getUnsigned24(buffer, offset + 2), chars, charOffset + 1);
+        if ((header & HAS_END_DATE) != 0)
+            writeDay(getUnsigned24(buffer, offset + 5), chars, charOffset + 9);
+        else
+            "ZZZZZZZZ".getChars(0, 8, chars, charOffset + 9);
+        writeNumber(getShort(buffer, offset + 8), 4, chars, charOffset + 17);
+        chars[charOffset + 21] = (char) ('0' + regenType);
+        chars[charOffset + 22] = (char) ('0' + endDateType);
+
+        switch (pattern) {
+            case 0:
+                writeNumber(getShort(buffer, offset + 10), 3, chars, charOffset + 23);
+                break;
+
+            case 1:
+                int dayMask = buffer[offset + 10];
+                if ((dayMask & 0x80) != 0)
+                    throw new IllegalArgumentException("Invalid binary Series Info");
+                for (int i = 0; i < 7; i++)
+                    chars[charOffset + 23 + i] = (dayMask & 1 << i) != 0 ? 'Y' : 'N';
+                writeNumber(getShort(buffer, offset + 11), 3, chars, charOffset + 30);
+                break;
+
+            case 2:
+                writeNumber(buffer[offset + 10], 2, chars, charOffset + 23);
+                chars[charOffset + 25] = writePart(buffer[offset + 11] >>> 4 & 0x0F, 'E');
+                chars[charOffset + 26] = writePart(buffer[offset + 11] & 0x0F, 'K');
+                writeNumber(getShort(buffer, offset + 12), 3, chars, charOffset + 27);
+                writeNumber(getShort(buffer, offset + 14), 3, chars, charOffset + 30);
+                break;
+
+            default:
+                writeNumber(buffer[offset + 10], 2, chars, charOffset + 23);
+                writeNumber(buffer[offset + 11], 2, chars, charOffset + 25);
+                chars[charOffset + 27] = writePart(buffer[offset + 12] >>> 4 & 0x0F, 'E');
+                chars[charOffset + 28] = writePart(buffer[offset + 12] & 0x0F, 'J');
+                chars[charOffset + 29] = writePart(buffer[offset + 13], 'L');
+                writeNumber(getShort(buffer, offset + 14), 3, chars, charOffset + 30);
+                break;
+        }
+        return TEXT_LENGTHS[pattern];
+    }
+
+    private static int getUnsigned24(byte[] buffer, int offset) {
+        return (buffer[offset] & 0xFF) << 16 | (buffer[offset + 1] & 0xFF) << 8 | buffer[offset + 2] & 0xFF;
+    }
+
+    private static int getShort(byte[] buffer, int offset) {
+        return (short) ((buffer[offset] & 0xFF) << 8 | buffer[offset + 1] & 0xFF);
+    }
+
+    private static void writeDay(int day, char[] chars, int offset) {
+        if (day > LAST_DAY)
+            throw new IllegalArgumentException("Invalid date in binary Series Info");
+        LocalDate date = LocalDate.ofEpochDay(day + DAY_ZERO);
+        writeNumber(date.getYear(), 4, chars, offset);
+        writeNumber(date.getMonthValue(), 2, chars, offset + 4);
+        writeNumber(date.getDayOfMonth(), 2, chars, offset + 6);
+    }
+
+    /// <summary>
+    /// Same as String.format("%0" + width + "d", value) for a value that fits the width.
+    /// </summary>
+    private static void writeNumber(int value, int width, char[] chars, int offset) {
+        int end = offset + width;
+        if (value < 0) {
+            chars[offset++] = '-';
+            value = -value;
+        }
+        for (int i = end - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        if (value != 0)
+            throw new IllegalArgumentException("Invalid binary Series Info");
+    }
+
+    private static char writePart(int part, char last) {
+        if (part == NOT_SET_PART)
+            return 'Z';
+        if (part < 0 || part > last - 'A')
+            throw new IllegalArgumentException("Invalid binary Series Info");
+        return (char) ('A' + part);
+    }
+
+    //#endregion
+}
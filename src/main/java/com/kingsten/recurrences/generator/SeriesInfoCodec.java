@@ -0,0 +1,612 @@
+package com.kingsten.recurrences.generator;
+
+import com.kingsten.recurrences.generator.DailyRecurrenceSettings.DailyRegenType;
+import com.kingsten.recurrences.generator.MonthlyRecurrenceSettings.MonthlyRegenType;
+import com.kingsten.recurrences.generator.MonthlyRecurrenceSettings.MonthlySpecificDatePartOne;
+import com.kingsten.recurrences.generator.MonthlyRecurrenceSettings.MonthlySpecificDatePartTwo;
+import com.kingsten.recurrences.generator.RecurrenceSettings.EndDateType;
+import com.kingsten.recurrences.generator.WeeklyRecurrenceSettings.SelectedDayOfWeekValues;
+import com.kingsten.recurrences.generator.WeeklyRecurrenceSettings.WeeklyRegenType;
+import com.kingsten.recurrences.generator.YearlyRecurrenceSettings.YearlyRegenType;
+import com.kingsten.recurrences.generator.YearlyRecurrenceSettings.YearlySpecificDatePartOne;
+import com.kingsten.recurrences.generator.YearlyRecurrenceSettings.YearlySpecificDatePartThree;
+import com.kingsten.recurrences.generator.YearlyRecurrenceSettings.YearlySpecificDatePartTwo;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/// <summary>
+/// Writes and reads the fixed width Series Info layouts of the four settings classes
+/// straight to and from characters, without String.format, substring or a date formatter.
+/// The output is the same, character for character, as the format that has always been
+/// stored, including its quirks:
+///     - numbers are zero padded like %0nd, so a negative or oversized value takes more room;
+///     - a negative adjustment value is written like %02d, e.g. "-5".
+/// </summary>
+/// <remarks>
+/// FORMATTING DEFINITIONS
+///  D   [1-8] start date, [9-16] end date or ZZZZZZZZ, [17-20] occurrences, [21] regen type,
+///      [22] end date type, [23-25] regen every x days
+///  W   [1-22] as daily, [23-29] Y/N for Sunday to Saturday, [30-32] regen every x weeks
+///  M   [1-22] as daily, [23-24] specific DAY value, [25] custom part one, [26] custom part two,
+///      [27-29] adjustment value, [30-32] regen every x months
+///  Y   [1-22] as daily, [23-24] specific DAY value, [25-26] specific MONTH value,
+///      [27] custom part one, [28] custom part two, [29] custom part three, [30-32] adjustment value
+/// </remarks>
+public final class SeriesInfoCodec {
+
+    /// <summary>
+    /// No Series Info is longer than this, even with every number at its widest.
+    /// </summary>
+    public static final int MAX_LENGTH = 96;
+
+    private static final MonthlySpecificDatePartOne[] MONTHLY_PART_ONE = MonthlySpecificDatePartOne.values();
+    private static final MonthlySpecificDatePartTwo[] MONTHLY_PART_TWO = MonthlySpecificDatePartTwo.values();
+    private static final YearlySpecificDatePartOne[] YEARLY_PART_ONE = YearlySpecificDatePartOne.values();
+    private static final YearlySpecificDatePartTwo[] YEARLY_PART_TWO = YearlySpecificDatePartTwo.values();
+    private static final YearlySpecificDatePartThree[] YEARLY_PART_THREE = YearlySpecificDatePartThree.values();
+
+    private SeriesInfoCodec() {
+    }
+
+    //#region Encoding
+
+    /// <summary>
+    /// Get the Series Info of the settings.
+    /// </summary>
+    /// <param name="settings"></param>
+    /// <returns></returns>
+    public static String encode(RecurrenceSettings settings) {
+        char[] buffer = new char[MAX_LENGTH];
+        return new String(buffer, 0, encode(settings, buffer, 0));
+    }
+
+    /// <summary>
+    /// Write the Series Info of the settings into a char buffer.
+    /// </summary>
+    /// <param name="settings"></param>
+    /// <param name="buffer"></param>
+    /// <param name="offset">Index to start writing at.</param>
+    /// <returns>The number of chars written.</returns>
+    public static int encode(RecurrenceSettings settings, char[] buffer, int offset) {
+        CharArrayOutput output = new CharArrayOutput(buffer, offset);
+        write(settings, output);
+        return output.position - offset;
+    }
+
+    /// <summary>
+    /// Write the Series Info of the settings into a byte buffer as ASCII.
+    /// </summary>
+    /// <param name="settings"></param>
+    /// <param name="buffer"></param>
+    /// <param name="offset">Index to start writing at.</param>
+    /// <returns>The number of bytes written.</returns>
+    public static int encode(RecurrenceSettings settings, byte[] buffer, int offset) {
+        ByteArrayOutput output = new ByteArrayOutput(buffer, offset);
+        write(settings, output);
+        return output.position - offset;
+    }
+
+    /// <summary>
+    /// Append the Series Info of the settings to a StringBuilder.
+    /// </summary>
+    /// <param name="settings"></param>
+    /// <param name="builder"></param>
+    public static void encode(RecurrenceSettings settings, StringBuilder builder) {
+        write(settings, new StringBuilderOutput(builder));
+    }
+
+    private static void write(RecurrenceSettings settings, Output output) {
+        if (settings instanceof DailyRecurrenceSettings)
+            writeDaily((DailyRecurrenceSettings) settings, output);
+        else if (settings instanceof WeeklyRecurrenceSettings)
+            writeWeekly((WeeklyRecurrenceSettings) settings, output);
+        else if (settings instanceof MonthlyRecurrenceSettings)
+            writeMonthly((MonthlyRecurrenceSettings) settings, output);
+        else if (settings instanceof YearlyRecurrenceSettings)
+            writeYearly((YearlyRecurrenceSettings) settings, output);
+        else
+            throw new IllegalArgumentException("Unknown RecurrenceSettings: " + settings);
+    }
+
+    private static void writeDaily(DailyRecurrenceSettings settings, Output output) {
+        output.put('D');
+        writeCommon(settings, settings.getRegenType().strVal, output);
+        writeNumber(settings.getRegenEveryXDays(), 3, output);
+    }
+
+    private static void writeWeekly(WeeklyRecurrenceSettings settings, Output output) {
+        SelectedDayOfWeekValues selectedDays = settings.getSelectedDays();
+        output.put('W');
+        writeCommon(settings, settings.getRegenType().strVal, output);
+        output.put(selectedDays.Sunday ? 'Y' : 'N');
+        output.put(selectedDays.Monday ? 'Y' : 'N');
+        output.put(selectedDays.Tuesday ? 'Y' : 'N');
+        output.put(selectedDays.Wednesday ? 'Y' : 'N');
+        output.put(selectedDays.Thursday ? 'Y' : 'N');
+        output.put(selectedDays.Friday ? 'Y' : 'N');
+        output.put(selectedDays.Saturday ? 'Y' : 'N');
+        writeNumber(settings.getRegenEveryXWeeks(), 3, output);
+    }
+
+    private static void writeMonthly(MonthlyRecurrenceSettings settings, Output output) {
+        output.put('M');
+        writeCommon(settings, settings.getRegenType().intVal, output);
+        writeNumber(settings.getRegenerateOnSpecificDateDayValue(), 2, output);
+        output.put(settings.getSpecificDatePartOne() == MonthlySpecificDatePartOne.NotSet ? 'Z' : (char) (settings.getSpecificDatePartOne().intVal + 65));
+        output.put(settings.getSpecificDatePartTwo() == MonthlySpecificDatePartTwo.NotSet ? 'Z' : (char) (settings.getSpecificDatePartTwo().intVal + 65));
+        writeAdjustmentValue(settings.getAdjustmentValue(), output);
+        writeNumber(settings.getRegenEveryXMonths(), 3, output);
+    }
+
+    private static void writeYearly(YearlyRecurrenceSettings settings, Output output) {
+        output.put('Y');
+        writeCommon(settings, settings.getRegenType().intVal, output);
+        writeNumber(settings.getRegenerateOnSpecificDateDayValue(), 2, output);
+        writeNumber(settings.getRegenerateOnSpecificDateMonthValue(), 2, output);
+        output.put(settings.getSpecificDatePartOne() == YearlySpecificDatePartOne.NotSet ? 'Z' : (char) (settings.getSpecificDatePartOne().intVal + 65));
+        output.put(settings.getSpecificDatePartTwo() == YearlySpecificDatePartTwo.NotSet ? 'Z' : (char) (settings.getSpecificDatePartTwo().intVal + 65));
+        output.put(settings.getSpecificDatePartThree() == YearlySpecificDatePartThree.NotSet ? 'Z' : (char) (settings.getSpecificDatePartThree().intVal + 64));
+        writeAdjustmentValue(settings.getAdjustmentValue(), output);
+    }
+
+    /// <summary>
+    /// Start date, end date, occurrences, regen type and end date type, shared by all layouts.
+    /// </summary>
+    private static void writeCommon(RecurrenceSettings settings, String regenType, Output output) {
+        writeDate(settings.startDate, output);
+        if (settings.hasEndDate())
+            writeDate(settings.endDate, output);
+        else
+            writeText("ZZZZZZZZ", output);
+        writeNumber(settings.numberOfOccurrences, 4, output);
+        writeText(regenType, output);
+        writeText(settings.endDateType.strVal, output);
+    }
+
+    private static void writeCommon(RecurrenceSettings settings, int regenType, Output output) {
+        writeDate(settings.startDate, output);
+        if (settings.hasEndDate())
+            writeDate(settings.endDate, output);
+        else
+            writeText("ZZZZZZZZ", output);
+        writeNumber(settings.numberOfOccurrences, 4, output);
+        writeNumber(regenType, 1, output);
+        writeText(settings.endDateType.strVal, output);
+    }
+
+    private static void writeAdjustmentValue(int adjustmentValue, Output output) {
+        // If the Adjustment value is less than Zero then account for the "-"
+        writeNumber(adjustmentValue, adjustmentValue < 0 ? 2 : 3, output);
+    }
+
+    /// <summary>
+    /// Same as DateTimeFormatter.BASIC_ISO_DATE, which only handles four digit years.
+    /// </summary>
+    private static void writeDate(LocalDateTime date, Output output) {
+        int year = date.getYear();
+        if (year < 0 || year > 9999)
+            throw new DateTimeException("Year " + year + " can't be written to a Series Info");
+        writeNumber(year, 4, output);
+        writeNumber(date.getMonthValue(), 2, output);
+        writeNumber(date.getDayOfMonth(), 2, output);
+    }
+
+    /// <summary>
+    /// Same as String.format("%0" + width + "d", value).
+    /// </summary>
+    private static void writeNumber(int value, int width, Output output) {
+        long magnitude = value;
+        if (value < 0) {
+            output.put('-');
+            magnitude = -magnitude;
+            width--;
+        }
+        int digits = 1;
+        for (long limit = 10; limit <= magnitude; limit *= 10)
+            digits++;
+        for (int i = digits; i < width; i++)
+            output.put('0');
+        for (long divisor = pow10(digits - 1); divisor > 0; divisor /= 10)
+            output.put((char) ('0' + magnitude / divisor % 10));
+    }
+
+    private static long pow10(int exponent) {
+        long value = 1;
+        for (int i = 0; i < exponent; i++)
+            value *= 10;
+        return value;
+    }
+
+    private static void writeText(String text, Output output) {
+        for (int i = 0; i < text.length(); i++)
+            output.put(text.charAt(i));
+    }
+
+    //#endregion
+
+    //#region Decoding
+
+    /// <summary>
+    /// Read a Series Info into a user-friendly RecurrenceInfo.
+    /// </summary>
+    /// <param name="seriesInfo"></param>
+    /// <returns>The info, or null if the designator isn't D, W, M or Y.</returns>
+    public static RecurrenceInfo decode(CharSequence seriesInfo) {
+        if (seriesInfo.length() == 0)
+            return null;
+        switch (seriesInfo.charAt(0)) {
+            case 'D':
+                return readDaily(seriesInfo);
+
+            case 'W':
+                return readWeekly(seriesInfo);
+
+            case 'M':
+                return readMonthly(seriesInfo);
+
+            case 'Y':
+                return readYearly(seriesInfo);
+
+            default:
+                return null;
+        }
+    }
+
+    /// <summary>
+    /// Read a Series Info held as ASCII in a byte buffer.
+    /// </summary>
+    /// <param name="buffer"></param>
+    /// <param name="offset"></param>
+    /// <param name="length"></param>
+    /// <returns>The info, or null if the designator isn't D, W, M or Y.</returns>
+    public static RecurrenceInfo decode(byte[] buffer, int offset, int length) {
+        return decode(new AsciiSequence(buffer, offset, length));
+    }
+
+    private static RecurrenceInfo readDaily(CharSequence seriesInfo) {
+        LocalDateTime startDate = parseDate(seriesInfo, 1).atStartOfDay();
+        int regenXDays = parseInt(seriesInfo, 23, 26);
+        RecurrenceInfo info = readCommon(seriesInfo, RecurrenceInfo.RecurrenceType.Daily, startDate);
+
+        info.setDailyRegenType(dailyRegenType(seriesInfo.charAt(21)));
+        // Determine the Type of dates to get, specific, custom, etc.
+        switch (info.dailyRegenType) {
+            case ON_EVERY_X_DAYS:
+                info.setDailyRegenEveryXDays(regenXDays);
+                break;
+
+            case ON_EVERY_WEEKDAY:
+                // This is default. Nothing to set
+                break;
+
+            case NOTSET:
+
+                break;
+        }
+        return info;
+    }
+
+    private static RecurrenceInfo readWeekly(CharSequence seriesInfo) {
+        LocalDateTime startDate = parseDate(seriesInfo, 1).atStartOfDay();
+        int regenXWeeks = parseInt(seriesInfo, 30, 33);
+        RecurrenceInfo info = readCommon(seriesInfo, RecurrenceInfo.RecurrenceType.Weekly, startDate);
+        SelectedDayOfWeekValues selectedDays = new SelectedDayOfWeekValues();
+
+        selectedDays.Sunday = isYes(seriesInfo.charAt(23));
+        selectedDays.Monday = isYes(seriesInfo.charAt(24));
+        selectedDays.Tuesday = isYes(seriesInfo.charAt(25));
+        selectedDays.Wednesday = isYes(seriesInfo.charAt(26));
+        selectedDays.Thursday = isYes(seriesInfo.charAt(27));
+        selectedDays.Friday = isYes(seriesInfo.charAt(28));
+        selectedDays.Saturday = isYes(seriesInfo.charAt(29));
+
+        info.setWeeklyRegenType(seriesInfo.charAt(21) == '0' ? WeeklyRegenType.OnEveryXWeeks : null);
+        // Determine the Type of dates to get, specific, custom, etc.
+        switch (info.weeklyRegenType) {
+            case OnEveryXWeeks:
+                info.setSelectedDayOfWeekValues(selectedDays);
+                info.setRegenEveryXWeeks(regenXWeeks);
+                break;
+
+            case NotSet:
+
+                break;
+        }
+        return info;
+    }
+
+    private static RecurrenceInfo readMonthly(CharSequence seriesInfo) {
+        LocalDateTime startDate = parseDate(seriesInfo, 1).atStartOfDay();
+        int regenXMonths = parseInt(seriesInfo, 30, 33);
+        RecurrenceInfo info = readCommon(seriesInfo, RecurrenceInfo.RecurrenceType.Monthly, startDate);
+        // Z means not set, but like the original parser it doesn't map to a value.
+        MonthlySpecificDatePartOne partOne = null;
+        for (MonthlySpecificDatePartOne e : MONTHLY_PART_ONE)
+            if (e.intVal == seriesInfo.charAt(25) - 65) partOne = e;
+        MonthlySpecificDatePartTwo partTwo = null;
+        for (MonthlySpecificDatePartTwo e : MONTHLY_PART_TWO)
+            if (e.intVal == seriesInfo.charAt(26) - 65) partTwo = e;
+
+        // Set the adjusted values
+        info.setAdjustmentValue(parseInt(seriesInfo, 27, 30));
+        info.setMonthlyRegenType(monthlyRegenType(parseInt(seriesInfo, 21, 22)));
+
+        // Determine the Type of dates to get, specific, custom, etc.
+        switch (info.monthlyRegenType) {
+            case OnSpecificDayOfMonth:
+                info.setMonthlyRegenerateOnSpecificDateDayValue(parseInt(seriesInfo, 23, 25));
+                info.setRegenEveryXMonths(regenXMonths);
+                break;
+
+            case OnCustomDateFormat:
+                info.setMonthlySpecificDatePartOne(partOne);
+                info.setMonthlySpecificDatePartTwo(partTwo);
+                info.setRegenEveryXMonths(regenXMonths);
+                break;
+
+            case AfterOccurrenceCompleted:
+
+                break;
+        }
+        return info;
+    }
+
+    private static RecurrenceInfo readYearly(CharSequence seriesInfo) {
+        RecurrenceInfo info = readCommon(seriesInfo, RecurrenceInfo.RecurrenceType.Yearly, parseDate(seriesInfo, 1).atStartOfDay());
+        // Z means not set, but like the original parser it doesn't map to a value.
+        YearlySpecificDatePartOne partOne = null;
+        for (YearlySpecificDatePartOne e : YEARLY_PART_ONE)
+            if (e.intVal == seriesInfo.charAt(27) - 65) partOne = e;
+        YearlySpecificDatePartTwo partTwo = null;
+        for (YearlySpecificDatePartTwo e : YEARLY_PART_TWO)
+            if (e.intVal == seriesInfo.charAt(28) - 65) partTwo = e;
+        YearlySpecificDatePartThree partThree = null;
+        for (YearlySpecificDatePartThree e : YEARLY_PART_THREE)
+            if (e.intVal == seriesInfo.charAt(29) - 64) partThree = e;
+
+        // Set the adjusted values
+        info.setAdjustmentValue(parseInt(seriesInfo, 30, 33));
+        info.setYearlyRegenType(yearlyRegenType(parseInt(seriesInfo, 21, 22)));
+
+        // Determine the Type of dates to get, specific, custom, etc.
+        switch (info.yearlyRegenType) {
+            case OnSpecificDayOfYear:
+                info.setSpecificDateDayValue(parseInt(seriesInfo, 23, 25));
+                info.setSpecificDateMonthValue(parseInt(seriesInfo, 25, 27));
+                break;
+
+            case OnCustomDateFormat:
+                info.setYearlySpecificDatePartOne(partOne);
+                info.setYearlySpecificDatePartTwo(partTwo);
+                info.setYearlySpecificDatePartThree(partThree);
+                break;
+
+            case AfterOccurrenceCompleted:
+
+                break;
+        }
+        return info;
+    }
+
+    /// <summary>
+    /// Read the end date, occurrences and end date type shared by all layouts. The fields are
+    /// read in the same order as the original parsers, so bad input fails the same way.
+    /// </summary>
+    private static RecurrenceInfo readCommon(CharSequence seriesInfo, RecurrenceInfo.RecurrenceType recurrenceType, LocalDateTime startDate) {
+        RecurrenceInfo info = new RecurrenceInfo();
+        info.setSeriesInfo(seriesInfo.toString());
+        info.setRecurrenceType(recurrenceType);
+
+        int occurrences = parseInt(seriesInfo, 17, 21);
+        EndDateType endType = endDateType(seriesInfo.charAt(22));
+
+        info.setEndDateType(endType);
+        // All end date types start with a Start date at a minimum.
+        switch (endType) {
+            case NumberOfOccurrences:
+                info.setStartDate(startDate);
+                info.setNumberOfOccurrences(occurrences);
+                break;
+
+            case SpecificDate:
+                info.setStartDate(startDate);
+                info.setEndDate(parseDate(seriesInfo, 9).atStartOfDay());
+                break;
+
+            case NoEndDate:
+                info.setStartDate(startDate);
+                break;
+        }
+        return info;
+    }
+
+    /// <summary>
+    /// Same as LocalDate.parse with DateTimeFormatter.BASIC_ISO_DATE on eight chars.
+    /// </summary>
+    private static LocalDate parseDate(CharSequence seriesInfo, int start) {
+        int value = 0;
+        for (int i = start; i < start + 8; i++) {
+            char c = seriesInfo.charAt(i);
+            if (c < '0' || c > '9')
+                throw new DateTimeParseException("Text '" + seriesInfo.subSequence(start, start + 8) + "' could not be parsed at index " + (i - start),
+                        seriesInfo.subSequence(start, start + 8), i - start);
+            value = value * 10 + c - '0';
+        }
+        return LocalDate.of(value / 10000, value / 100 % 100, value % 100);
+    }
+
+    /// <summary>
+    /// Same as Integer.parseInt(seriesInfo.substring(start, end)).
+    /// </summary>
+    private static int parseInt(CharSequence seriesInfo, int start, int end) {
+        if (end > seriesInfo.length())
+            throw new StringIndexOutOfBoundsException(end);
+        int i = start;
+        boolean negative = false;
+        if (i < end && (seriesInfo.charAt(i) == '-' || seriesInfo.charAt(i) == '+')) {
+            negative = seriesInfo.charAt(i) == '-';
+            i++;
+        }
+        if (i == end)
+            throw new NumberFormatException("For input string: \"" + seriesInfo.subSequence(start, end) + "\"");
+        int value = 0;
+        for (; i < end; i++) {
+            int digit = Character.digit(seriesInfo.charAt(i), 10);
+            if (digit < 0)
+                throw new NumberFormatException("For input string: \"" + seriesInfo.subSequence(start, end) + "\"");
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    private static boolean isYes(char c) {
+        return c == 'Y' || c == 'y';
+    }
+
+    private static EndDateType endDateType(char c) {
+        switch (c) {
+            case '0':
+                return EndDateType.NoEndDate;
+            case '1':
+                return EndDateType.SpecificDate;
+            case '2':
+                return EndDateType.NumberOfOccurrences;
+            default:
+                return null;
+        }
+    }
+
+    private static DailyRegenType dailyRegenType(char c) {
+        switch (c) {
+            case '0':
+                return DailyRegenType.ON_EVERY_X_DAYS;
+            case '1':
+                return DailyRegenType.ON_EVERY_WEEKDAY;
+            default:
+                return null;
+        }
+    }
+
+    private static MonthlyRegenType monthlyRegenType(int value) {
+        switch (value) {
+            case 0:
+                return MonthlyRegenType.OnSpecificDayOfMonth;
+            case 1:
+                return MonthlyRegenType.OnCustomDateFormat;
+            case 2:
+                return MonthlyRegenType.AfterOccurrenceCompleted;
+            default:
+                return null;
+        }
+    }
+
+    private static YearlyRegenType yearlyRegenType(int value) {
+        switch (value) {
+            case 0:
+                return YearlyRegenType.OnSpecificDayOfYear;
+            case 1:
+                return YearlyRegenType.OnCustomDateFormat;
+            case 2:
+                return YearlyRegenType.AfterOccurrenceCompleted;
+            default:
+                return null;
+        }
+    }
+
+    //#endregion
+
+    /// <summary>
+    /// Where encoded chars are written to.
+    /// </summary>
+    private abstract static class Output {
+        abstract void put(char c);
+    }
+
+    private static final class CharArrayOutput extends Output {
+        private final char[] buffer;
+        private int position;
+
+        CharArrayOutput(char[] buffer, int offset) {
+            this.buffer = buffer;
+            this.position = offset;
+        }
+
+        @Override
+        void put(char c) {
+            buffer[position++] = c;
+        }
+    }
+
+    private static final class ByteArrayOutput extends Output {
+        private final byte[] buffer;
+        private int position;
+
+        ByteArrayOutput(byte[] buffer, int offset) {
+            this.buffer = buffer;
+            this.position = offset;
+        }
+
+        @Override
+        void put(char c) {
+            buffer[position++] = (byte) c;
+        }
+    }
+
+    private static final class StringBuilderOutput extends Output {
+        private final StringBuilder builder;
+
+        StringBuilderOutput(StringBuilder builder) {
+            this.builder = builder;
+        }
+
+        @Override
+        void put(char c) {
+            builder.append(c);
+        }
+    }
+
+    /// <summary>
+    /// Read only view of ASCII bytes as chars.
+    /// </summary>
+    private static final class AsciiSequence implements CharSequence {
+        private final byte[] buffer;
+        private final int offset;
+        private final int length;
+
+        AsciiSequence(byte[] buffer, int offset, int length) {
+            if (offset < 0 || length < 0 || offset + length > buffer.length)
+                throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", buffer " + buffer.length);
+            this.buffer = buffer;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length)
+                throw new StringIndexOutOfBoundsException(index);
+            return (char) (buffer[offset + index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new AsciiSequence(buffer, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++)
+                chars[i] = (char) (buffer[offset + i] & 0xFF);
+            return new String(chars);
+        }
+    }
+}
@@ -4,9 +4,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 
 @NoArgsConstructor
@@ -17,8 +15,6 @@ public class WeeklyRecurrenceSettings extends RecurrenceSettings {
     private WeeklyRegenType regenType = WeeklyRegenType.OnEveryXWeeks;
     private SelectedDayOfWeekValues selectedDays;
     private int regenEveryXWeeks;
-    private boolean getNextDateValue;
-    private LocalDateTime nextDateValue;
 
     /// <summary>
     /// Get dates by Start date only. This is for no ending date values.
@@ -47,102 +43,11 @@ public class WeeklyRecurrenceSettings extends RecurrenceSettings {
     }
 
     static RecurrenceInfo getFriendlyRecurrenceInfo(String seriesInfo) {
-        RecurrenceInfo info = new RecurrenceInfo();
-        EndDateType endType = EndDateType.NotDefined;
-        LocalDateTime endDateValue = LocalDateTime.MIN;
-        int noOccurrences;
-
         // Exit if not a Weekly seriesInfo type
         if (!seriesInfo.startsWith("W"))
             return null;
 
-        info.setSeriesInfo(seriesInfo);
-        info.setRecurrenceType(RecurrenceInfo.RecurrenceType.Weekly);
-
-        // FORMATTING DEFINITIONS
-        //  W = Weekly Designator
-        //  |       0 = Start Date (8 chars)
-        //  |       |        1 = End Date (8 chars)
-        //  |       |        |        2 = Number of occurrences (4 chars)
-        //  |       |        |        |      3 = Regeneration Type (1 char)
-        //  |       |        |        |      |    4 = End date type (1 char)
-        //  |       |        |        |      |    |      5 = Regenerate on Sunday
-        //  |       |        |        |      |    |      |       6 = Regenerate on Monday
-        //  |       |        |        |      |    |      |       |       7 = Regenerate on Tuesday
-        //  |       |        |        |      |    |      |       |       |       8 = Regenerate on Wednesday
-        //  |       |        |        |      |    |      |       |       |       |      9 = Regenerate on Thursday
-        //  |       |        |        |      |    |      |       |       |       |      |      10 = Regenerate on Friday
-        //  |       |        |        |      |    |      |       |       |       |      |       |      11 = Regenerate on Saturday
-        //  |       |        |        |      |    |      |       |       |       |      |       |      |        12  Regen Every x weeks
-        //  |       |        |        |      |    |      |       |       |       |      |       |      |         |
-        // [0]    [1-8]    [9-16]  [17-20]  [21] [22]  [23]    [24]    [25]    [26]   [27]     [28]   [29]      [30-32]
-        //  W   20071231  20171231   0000    1     1     T       T      F        F      F       F      F        000
-        String startDate = seriesInfo.substring(1, 9);
-
-        LocalDate date = LocalDate.parse(startDate, DateTimeFormatter.BASIC_ISO_DATE);
-        LocalDateTime dtStartDate = date.atStartOfDay();
-
-        String endDate = seriesInfo.substring(9, 17);
-        SelectedDayOfWeekValues selectedDays = new SelectedDayOfWeekValues();
-        String occurrences = seriesInfo.substring(17, 21);
-        String weeklyRegenType = seriesInfo.substring(21, 22);
-        String endDateType = seriesInfo.substring(22, 23);
-        int regenXWeeks = Integer.valueOf(seriesInfo.substring(30, 33));
-
-        endType = EndDateType.fromValue(endDateType);
-        noOccurrences = Integer.valueOf(occurrences);
-
-        selectedDays.Sunday = seriesInfo.substring(23, 24).equalsIgnoreCase("Y") ? true : false;
-        selectedDays.Monday = seriesInfo.substring(24, 25).equalsIgnoreCase("Y") ? true : false;
-        selectedDays.Tuesday = seriesInfo.substring(25, 26).equalsIgnoreCase("Y") ? true : false;
-        selectedDays.Wednesday = seriesInfo.substring(26, 27).equalsIgnoreCase("Y") ? true : false;
-        selectedDays.Thursday = seriesInfo.substring(27, 28).equalsIgnoreCase("Y") ? true : false;
-        selectedDays.Friday = seriesInfo.substring(28, 29).equalsIgnoreCase("Y") ? true : false;
-        selectedDays.Saturday = seriesInfo.substring(29, 30).equalsIgnoreCase("Y") ? true : false;
-
-        // Get the EndDate before any modifications on it are performed
-        if (endType == EndDateType.SpecificDate) {
-            date = LocalDate.parse(endDate, DateTimeFormatter.BASIC_ISO_DATE);
-            endDateValue = date.atStartOfDay();
-        }
-
-        info.setEndDateType(endType);
-        // Determine the Constructor by the type of End Date.
-        // All constructors start with a Start date at a minimum.
-        // Determine the Constructor by the type of End Date.
-        // All constructors start with a Start date at a minimum.
-        switch (endType) {
-            case NumberOfOccurrences:
-                info.setStartDate(dtStartDate);
-                info.setNumberOfOccurrences(noOccurrences);
-                break;
-
-            case SpecificDate:
-                info.setStartDate(dtStartDate);
-                info.setEndDate(endDateValue);
-                break;
-
-            case NoEndDate:
-                info.setStartDate(dtStartDate);
-                break;
-        }
-
-        info.setWeeklyRegenType(WeeklyRegenType.fromValue(weeklyRegenType));
-        // Determine the Type of dates to get, specific, custom, etc.
-        switch (info.weeklyRegenType) {
-            case OnEveryXWeeks:
-                info.setSelectedDayOfWeekValues(selectedDays);
-                info.setRegenEveryXWeeks(regenXWeeks);
-                break;
-
-            case NotSet:
-
-                break;
-        }
-
-        return info;
-
-
+        return SeriesInfoCodec.decode(seriesInfo);
     }
 
     static WeeklyRecurrenceSettings getRecurrenceSettings(String seriesInfo) {
@@ -170,8 +75,17 @@ public class WeeklyRecurrenceSettings extends RecurrenceSettings {
     }
 
     static WeeklyRecurrenceSettings getRecurrenceSettings(String seriesInfo, int modifiedOccurrencesValue, LocalDateTime modifiedStartDate, LocalDateTime modifiedEndDate) {
-        WeeklyRecurrenceSettings settings = null;
+        // Get the Recurrence Info object. This makes it easy to work with existing series of date patterns.
         RecurrenceInfo info = WeeklyRecurrenceSettings.getFriendlyRecurrenceInfo(seriesInfo);
+        return getRecurrenceSettings(info, modifiedOccurrencesValue, modifiedStartDate, modifiedEndDate);
+    }
+
+    /// <summary>
+    /// Get the settings from Series Info that has already been parsed. The info is updated
+    /// with any modified values, so pass in a copy of info that is being kept.
+    /// </summary>
+    static WeeklyRecurrenceSettings getRecurrenceSettings(RecurrenceInfo info, int modifiedOccurrencesValue, LocalDateTime modifiedStartDate, LocalDateTime modifiedEndDate) {
+        WeeklyRecurrenceSettings settings = null;
 
         // Check to see if this is to modify the SeriesInfo and run as endtype for occurrences
         if (modifiedOccurrencesValue != -1) {
@@ -218,7 +132,7 @@ public class WeeklyRecurrenceSettings extends RecurrenceSettings {
     static WeeklyRecurrenceSettings getRecurrenceSettings(String seriesInfo, int modifiedOccurrencesValue, LocalDateTime modifiedEndDate) {
         RecurrenceInfo info = WeeklyRecurrenceSettings.getFriendlyRecurrenceInfo(seriesInfo);
 
-        return getRecurrenceSettings(seriesInfo, modifiedOccurrencesValue, info.startDate, modifiedEndDate);
+        return getRecurrenceSettings(info, modifiedOccurrencesValue, info.startDate, modifiedEndDate);
     }
 
     static String getPatternDefinition(String seriesInfo) {
@@ -268,26 +182,7 @@ public class WeeklyRecurrenceSettings extends RecurrenceSettings {
     ///     A RecurrenceGenerator.RecurrenceValues value...
     /// </returns>
     RecurrenceValues getValues() throws Exception {
-        return getRecurrenceValues();
-    }
-
-    RecurrenceValues getValues(LocalDateTime startDate, LocalDateTime endDate) throws Exception {
-        this.startDate = startDate;
-        this.endDate = endDate;
-        // Change the end type to End Date as this original series info
-        // may have been set to number of occurrences.
-        this.endDateType = EndDateType.SpecificDate;
-        return getRecurrenceValues();
-    }
-
-    RecurrenceValues getValues(LocalDateTime startDate, int numberOfOccurrences) throws Exception {
-        this.numberOfOccurrences = numberOfOccurrences;
-        this.startDate = startDate;
-        // Change the end type to number of occurrences.
-        // This must be set because the original starting Series Info may
-        // be set to have an End Date type.
-        this.endDateType = EndDateType.NumberOfOccurrences;
-        return getRecurrenceValues();
+        return measureValues("WeeklyRecurrenceSettings.getValues", RecurrenceInfo.RecurrenceType.Weekly, this::getRecurrenceValues);
     }
 
     RecurrenceValues getRecurrenceValues() throws Exception {
@@ -315,94 +210,88 @@ public class WeeklyRecurrenceSettings extends RecurrenceSettings {
     RecurrenceValues getEveryXWeeksValues() throws Exception {
         RecurrenceValues values = new RecurrenceValues();
         LocalDateTime dt = this.startDate.plusDays(-1); // Backup a day so the first instance of GetNextDay will increment to the next day.
+        int dayMask = selectedDays.getDayMask();
 
-        if (getNextDateValue) {
-            do {
-                dt = getNextDay(dt);
-                values.AddDateValue(dt);
-                if (values.values.get(values.values.size() - 1).compareTo(nextDateValue) > 0)
-                    break;
-            } while (dt.compareTo(nextDateValue.plusDays((regenEveryXWeeks * 7) + 7)) <= 0); // Ensure the last date if greater than what's needed for the next date in the cycle
-        } else {
-            switch (this.endDateType) {
-                case NoEndDate:
-                    throw new Exception("The ability to create recurring dates with no End date is not currently available.");
-
-                case NumberOfOccurrences:
-
-                    for (int i = 0; i < this.numberOfOccurrences; i++) {
-                        dt = getNextDay(dt);
-                        values.AddDateValue(dt);
-                    }
-                    break;
-
-                case SpecificDate:
-                    do {
-                        dt = getNextDay(dt);
-                        // Handle for dates past the end date
-                        if (dt.compareTo(this.endDate) > 0)
-                            break;
-
-                        values.AddDateValue(dt);
-                    } while (dt.compareTo(this.endDate) <= 0);
-                    break;
-
-                default:
-                    throw new IllegalArgumentException("The TypeOfEndDate property has not been set.");
-            }
+        switch (this.endDateType) {
+            case NoEndDate:
+                throw new Exception("The ability to create recurring dates with no End date is not currently available.");
+
+            case NumberOfOccurrences:
+
+                for (int i = 0; i < this.numberOfOccurrences; i++) {
+                    dt = getNextDay(dt, dayMask);
+                    values.AddDateValue(dt);
+                }
+                break;
+
+            case SpecificDate:
+                do {
+                    dt = getNextDay(dt, dayMask);
+                    // Handle for dates past the end date
+                    if (dt.compareTo(this.endDate) > 0)
+                        break;
+
+                    values.AddDateValue(dt);
+                } while (dt.compareTo(this.endDate) <= 0);
+                break;
+
+            default:
+                throw new IllegalArgumentException("The TypeOfEndDate property has not been set.");
         }
 
         return values;
     }
 
+    /// <summary>
+    /// Get the next selected day after the input date. Passing an unselected Saturday
+    /// jumps the weeks between regenerations.
+    /// </summary>
+    /// <param name="input"></param>
+    /// <returns></returns>
     LocalDateTime getNextDay(LocalDateTime input) {
-        LocalDateTime returnDate = null;
-
-        // Get the return date by incrementing the date
-        // and checking the value against the selected days
-        // of the week.
-        do {
-            input = input.plusDays(1);
-            switch (input.getDayOfWeek()) {
-                case SUNDAY:
-                    if (selectedDays.Sunday)
-                        returnDate = input;
-                    break;
-                case MONDAY:
-                    if (selectedDays.Monday)
-                        returnDate = input;
-                    break;
-                case TUESDAY:
-                    if (selectedDays.Tuesday)
-                        returnDate = input;
-                    break;
-                case WEDNESDAY:
-                    if (selectedDays.Wednesday)
-                        returnDate = input;
-                    break;
-                case THURSDAY:
-                    if (selectedDays.Thursday)
-                        returnDate = input;
-                    break;
-                case FRIDAY:
-                    if (selectedDays.Friday)
-                        returnDate = input;
-                    break;
-                case SATURDAY:
-                    if (selectedDays.Saturday)
-                        returnDate = input;
-                    else {
-                        // Increment by weeks if regenXWeeks has a value
-                        // greater than 1 which is default.
-                        // But only increment if we've gone over
-                        // at least 7 days already.
-                        if (regenEveryXWeeks > 1)
-                            input = input.plusDays((regenEveryXWeeks - 1) * 7);
-                    }
-                    break;
+        return getNextDay(input, selectedDays.getDayMask());
+    }
+
+    LocalDateTime getNextDay(LocalDateTime input, int dayMask) {
+        if (dayMask == 0)
+            throw new IllegalArgumentException("No day of the week has been selected.");
+
+        int step = NEXT_DAY_STEPS[dayMask * 7 + input.getDayOfWeek().getValue() % 7];
+        long days = step & STEP_DAYS;
+        // Increment by weeks if regenXWeeks has a value
+        // greater than 1 which is default.
+        if ((step & STEP_SKIPS_WEEKS) != 0 && regenEveryXWeeks > 1)
+            days += (regenEveryXWeeks - 1) * 7L;
+        return input.plusDays(days);
+    }
+
+    private static final int STEP_DAYS = 0x0F;
+    private static final int STEP_SKIPS_WEEKS = 0x10;
+
+    /// <summary>
+    /// For each day mask and day of the week (Sunday = 0) the number of days to the next
+    /// selected day, flagged with STEP_SKIPS_WEEKS when an unselected Saturday is passed on
+    /// the way. The weekly dates have always skipped weeks there rather than at week ends.
+    /// </summary>
+    private static final byte[] NEXT_DAY_STEPS = getNextDaySteps();
+
+    private static byte[] getNextDaySteps() {
+        byte[] steps = new byte[128 * 7];
+        for (int dayMask = 1; dayMask < 128; dayMask++) {
+            for (int dayOfWeek = 0; dayOfWeek < 7; dayOfWeek++) {
+                int days = 0;
+                int flags = 0;
+                int day;
+                do {
+                    days++;
+                    day = (dayOfWeek + days) % 7;
+                    if (day == 6 && (dayMask & (1 << day)) == 0)
+                        flags = STEP_SKIPS_WEEKS;
+                } while ((dayMask & (1 << day)) == 0);
+                steps[dayMask * 7 + dayOfWeek] = (byte) (days | flags);
             }
-        } while (returnDate == null);
-        return returnDate;
+        }
+        return steps;
     }
 
     /// <summary>
@@ -412,63 +301,19 @@ public class WeeklyRecurrenceSettings extends RecurrenceSettings {
     /// </summary>
     /// <returns></returns>
     String getSeriesInfo() {
-        String info = "";
-        String endDate = "ZZZZZZZZ"; // Default for no ending date.
-        String occurrences = String.format("%04d", this.numberOfOccurrences);
-        String weeklyRegenType = this.regenType.toString();
-        String endDateType = this.endDateType.toString();
-        String regenXWeeks = String.format("%03d", this.regenEveryXWeeks);
-        String daySelectedSunday = selectedDays.Sunday ? "Y" : "N";
-        String daySelectedMonday = selectedDays.Monday ? "Y" : "N";
-        String daySelectedTuesday = selectedDays.Tuesday ? "Y" : "N";
-        String daySelectedWednesday = selectedDays.Wednesday ? "Y" : "N";
-        String daySelectedThursday = selectedDays.Thursday ? "Y" : "N";
-        String daySelectedFriday = selectedDays.Friday ? "Y" : "N";
-        String daySelectedSaturday = selectedDays.Saturday ? "Y" : "N";
-
-        // End Date may be null if no ending date.
-        if (this.hasEndDate())
-            endDate = DateTimeFormatter.BASIC_ISO_DATE.format(this.endDate);
-
-        // FORMATTING DEFINITIONS
-        //  Y = Yearly Designator
-        //  |       0 = Start Date (8 chars)
-        //  |       |        1 = End Date (8 chars)
-        //  |       |        |        2 = Number of occurrences (4 chars)
-        //  |       |        |        |      3 = Regeneration Type (1 char)
-        //  |       |        |        |      |    4 = End date type (1 char)
-        //  |       |        |        |      |    |      5 = Regenerate on Sunday
-        //  |       |        |        |      |    |      |       6 = Regenerate on Monday
-        //  |       |        |        |      |    |      |       |       7 = Regenerate on Tuesday
-        //  |       |        |        |      |    |      |       |       |       8 = Regenerate on Wednesday
-        //  |       |        |        |      |    |      |       |       |       |      9 = Regenerate on Thursday
-        //  |       |        |        |      |    |      |       |       |       |      |      10 = Regenerate on Friday
-        //  |       |        |        |      |    |      |       |       |       |      |       |      11 = Regenerate on Saturday
-        //  |       |        |        |      |    |      |       |       |       |      |       |      |        12  Regen Every x weeks
-        //  |       |        |        |      |    |      |       |       |       |      |       |      |         |
-        // [0]    [1-8]    [9-16]  [17-20]  [21] [22]  [23]    [24]    [25]    [26]   [27]     [28]   [29]      [30]
-        //  W   20071231  01082017   0000    1     1     T       T      F        F      F       F      F        000
-        info = String.format("W%s%s%s%s%s%s%s%s%s%s%s%s%s", DateTimeFormatter.BASIC_ISO_DATE.format(this.startDate), endDate, occurrences, weeklyRegenType, endDateType, daySelectedSunday, daySelectedMonday, daySelectedTuesday, daySelectedWednesday, daySelectedThursday, daySelectedFriday, daySelectedSaturday, regenXWeeks);
-        return info;
+        // FORMATTING DEFINITIONS are in SeriesInfoCodec
+        return SeriesInfoCodec.encode(this);
     }
 
-    /// <summary>
-    ///     Get the next date
-    /// </summary>
-    /// <param name="currentDate" type="System.DateTime">
-    ///     <para>
-    ///
-    ///     </para>
-    /// </param>
-    /// <returns>
-    ///     A System.DateTime value...
-    /// </returns>
-    LocalDateTime getNextDate(LocalDateTime currentDate) throws Exception {
-        getNextDateValue = true;
-        nextDateValue = currentDate;
-        // Now get the values and return the last date found.
-        RecurrenceValues values = getValues();
-        return values.endDate;
+    @Override
+    RecurrenceSequence getSequence() throws RecurrenceException {
+        return RecurrenceSequence.everyXWeeks(startDate, selectedDays.getDayMask(), regenEveryXWeeks);
+    }
+
+    @Override
+    long getLastIndex(RecurrenceSequence sequence) {
+        // The weekly dates stop at the end date without adding a first date past it.
+        return getEndIndex(sequence) - 1;
     }
 
     /// <summary>
@@ -512,5 +357,25 @@ public class WeeklyRecurrenceSettings extends RecurrenceSettings {
         public boolean Thursday;
         public boolean Friday;
         public boolean Saturday;
+
+        /// <summary>
+        /// The selected days as a bit mask, Sunday being bit 0 through to Saturday as bit 6.
+        /// </summary>
+        int getDayMask() {
+            return (Sunday ? 1 : 0) | (Monday ? 1 << 1 : 0) | (Tuesday ? 1 << 2 : 0) | (Wednesday ? 1 << 3 : 0)
+                    | (Thursday ? 1 << 4 : 0) | (Friday ? 1 << 5 : 0) | (Saturday ? 1 << 6 : 0);
+        }
+
+        SelectedDayOfWeekValues copy() {
+            SelectedDayOfWeekValues values = new SelectedDayOfWeekValues();
+            values.Sunday = Sunday;
+            values.Monday = Monday;
+            values.Tuesday = Tuesday;
+            values.Wednesday = Wednesday;
+            values.Thursday = Thursday;
+            values.Friday = Friday;
+            values.Saturday = Saturday;
+            return values;
+        }
     }
 }
@@ -7,8 +7,7 @@ import lombok.ToString;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 
 
 @NoArgsConstructor
@@ -23,9 +22,6 @@ public class YearlyRecurrenceSettings extends RecurrenceSettings {
 
     private int adjustmentValue;
 
-    boolean getNextDateValue;
-
-    private LocalDateTime nextDateValue;
     private YearlyRegenType regenType = YearlyRegenType.NotSet;
     private YearlySpecificDatePartOne specificDatePartOne = YearlySpecificDatePartOne.NotSet;
     //#endregion
@@ -71,117 +67,11 @@ public class YearlyRecurrenceSettings extends RecurrenceSettings {
     ///     A RecurrenceGenerator.RecurrenceInfo value...
     /// </returns>
     static RecurrenceInfo getFriendlyRecurrenceInfo(String seriesInfo) {
-        RecurrenceInfo info = new RecurrenceInfo();
-        EndDateType endType = EndDateType.NotDefined;
-        LocalDateTime endDateValue = LocalDateTime.MIN;
-        int noOccurrences;
-
         // Exit if not a Yearly seriesInfo type
         if (!seriesInfo.startsWith("Y"))
             return null;
 
-        info.setSeriesInfo(seriesInfo);
-        info.setRecurrenceType(RecurrenceInfo.RecurrenceType.Yearly);
-        // FORMATTING DEFINITIONS
-        //  Y = Yearly Designator
-        //  |       0 = Start Date (8 chars)
-        //  |       |        1 = End Date (8 chars)
-        //  |       |        |        2 = Number of occurrences (4 chars)
-        //  |       |        |        |      3 = Regeneration Type (1 char)
-        //  |       |        |        |      |    4 = End date type (1 char)
-        //  |       |        |        |      |    |      5 = Regenerate on specific date DAY value (2 chars)
-        //  |       |        |        |      |    |      |       6 = Regenerate on specific date MONTH value (2 chars)
-        //  |       |        |        |      |    |      |       |       7 = Custom Date Part One (1 char)
-        //  |       |        |        |      |    |      |       |       |       8 = Custom Date Part Two (1 char)
-        //  |       |        |        |      |    |      |       |       |       |       9 = Custom Date Part Three (1 char)
-        //  |       |        |        |      |    |      |       |       |       |       |       10 = Adjustment Value (3 chars)
-        //  |       |        |        |      |    |      |       |       |       |       |       |
-        // [0]    [1-8]    [9-16]  [17-20]  [21] [22] [23-24] [25-26]  [27]    [28]    [29] [31-33]
-        //  Y   20071231  20171231   0000    1     1     00      00      A      A        A      000
-        String startDate = seriesInfo.substring(1, 9);
-
-        LocalDate date = LocalDate.parse(startDate, DateTimeFormatter.BASIC_ISO_DATE);
-        LocalDateTime dtStartDate = date.atStartOfDay();
-        String endDate = seriesInfo.substring(9, 17);
-
-        String occurrences = seriesInfo.substring(17, 21);
-        String yearlyRegenType = seriesInfo.substring(21, 22);
-        String endDateType = seriesInfo.substring(22, 23);
-        String regenOnSpecificDateDayValue = seriesInfo.substring(23, 25);
-        String regenOnSpecificDateMonthValue = seriesInfo.substring(25, 27);
-        String specDatePartOne = seriesInfo.substring(27, 28);
-        String specDatePartTwo = seriesInfo.substring(28, 29);
-        String specDatePartThree = seriesInfo.substring(29, 30);
-        String adjustValue = seriesInfo.substring(30, 33);
-        endType = EndDateType.fromValue(endDateType);
-        noOccurrences = Integer.valueOf(occurrences);
-        YearlySpecificDatePartOne partOne = YearlySpecificDatePartOne.NotSet;
-        YearlySpecificDatePartTwo partTwo = YearlySpecificDatePartTwo.NotSet;
-        YearlySpecificDatePartThree partThree = YearlySpecificDatePartThree.NotSet;
-
-        if (specDatePartOne == "Z")
-            partOne = YearlySpecificDatePartOne.NotSet;
-        else
-            partOne = YearlySpecificDatePartOne.fromValue(specDatePartOne.charAt(0) - 65);
-
-        if (specDatePartTwo == "Z")
-            partTwo = YearlySpecificDatePartTwo.NotSet;
-        else
-            partTwo = YearlySpecificDatePartTwo.fromValue(specDatePartTwo.charAt(0) - 65);
-
-        if (specDatePartThree == "Z")
-            partThree = YearlySpecificDatePartThree.NotSet;
-        else
-            partThree = YearlySpecificDatePartThree.fromValue(specDatePartThree.charAt(0) - 64);
-
-        // Get the EndDate before any modifications on it are performed
-        if (endType == EndDateType.SpecificDate) {
-            date = LocalDate.parse(endDate, DateTimeFormatter.BASIC_ISO_DATE);
-            endDateValue = date.atStartOfDay();
-        }
-
-        info.setEndDateType(endType);
-        // Determine the Constructor by the type of End Date.
-        // All constructors start with a Start date at a minimum.
-        switch (endType) {
-            case NumberOfOccurrences:
-                info.setStartDate(dtStartDate);
-                info.setNumberOfOccurrences(noOccurrences);
-                break;
-
-            case SpecificDate:
-                info.setStartDate(dtStartDate);
-                info.setEndDate(endDateValue);
-                break;
-
-            case NoEndDate:
-                info.setStartDate(dtStartDate);
-                break;
-        }
-
-        // Set the adjusted values
-        info.setAdjustmentValue(Integer.valueOf(adjustValue));
-
-        info.setYearlyRegenType(YearlyRegenType.fromValue(Integer.valueOf(yearlyRegenType)));
-        // Determine the Type of dates to get, specific, custom, etc.
-        switch (info.yearlyRegenType) {
-            case OnSpecificDayOfYear:
-                info.setSpecificDateDayValue(Integer.valueOf(regenOnSpecificDateDayValue));
-                info.setSpecificDateMonthValue(Integer.valueOf(regenOnSpecificDateMonthValue));
-                break;
-
-            case OnCustomDateFormat:
-                info.setYearlySpecificDatePartOne(partOne);
-                info.setYearlySpecificDatePartTwo(partTwo);
-                info.setYearlySpecificDatePartThree(partThree);
-                break;
-
-            case AfterOccurrenceCompleted:
-
-                break;
-        }
-
-        return info;
+        return SeriesInfoCodec.decode(seriesInfo);
     }
 
     //#region Internal Procedures
@@ -250,6 +140,14 @@ public class YearlyRecurrenceSettings extends RecurrenceSettings {
     static YearlyRecurrenceSettings getRecurrenceSettings(String seriesInfo, int modifiedOccurrencesValue, LocalDateTime modifiedStartDate, LocalDateTime modifiedEndDate) {
         // Get the Recurrence Info object. This makes it easy to work with existing series of date patterns.
         RecurrenceInfo info = YearlyRecurrenceSettings.getFriendlyRecurrenceInfo(seriesInfo);
+        return getRecurrenceSettings(info, modifiedOccurrencesValue, modifiedStartDate, modifiedEndDate);
+    }
+
+    /// <summary>
+    /// Get the settings from Series Info that has already been parsed. The info is updated
+    /// with any modified values, so pass in a copy of info that is being kept.
+    /// </summary>
+    static YearlyRecurrenceSettings getRecurrenceSettings(RecurrenceInfo info, int modifiedOccurrencesValue, LocalDateTime modifiedStartDate, LocalDateTime modifiedEndDate) {
         YearlyRecurrenceSettings settings = null;
 
         // Check to see if this is to modify the SeriesInfo and run as endtype for occurrences
@@ -302,7 +200,7 @@ public class YearlyRecurrenceSettings extends RecurrenceSettings {
     static YearlyRecurrenceSettings getRecurrenceSettings(String seriesInfo, int modifiedOccurrencesValue, LocalDateTime modifiedEndDate) {
         // Get the Recurrence Info object. This makes it easy to work with existing series of date patterns.
         RecurrenceInfo info = YearlyRecurrenceSettings.getFriendlyRecurrenceInfo(seriesInfo);
-        return getRecurrenceSettings(seriesInfo, modifiedOccurrencesValue, info.startDate, modifiedEndDate);
+        return getRecurrenceSettings(info, modifiedOccurrencesValue, info.startDate, modifiedEndDate);
     }
 
     //#region Public GetValues
@@ -343,26 +241,7 @@ public class YearlyRecurrenceSettings extends RecurrenceSettings {
     ///     A RecurrenceGenerator.RecurrenceValues value...
     /// </returns>
     RecurrenceValues getValues() throws Exception {
-        return getRecurrenceValues();
-    }
-
-    RecurrenceValues getValues(LocalDateTime startDate, LocalDateTime endDate) throws Exception {
-        this.startDate = startDate;
-        this.endDate = endDate;
-        // Change the end type to End Date as this original series info
-        // may have been set to number of occurrences.
-        this.endDateType = EndDateType.SpecificDate;
-        return getRecurrenceValues();
-    }
-
-    RecurrenceValues getValues(LocalDateTime startDate, int numberOfOccurrences) throws Exception {
-        this.numberOfOccurrences = numberOfOccurrences;
-        this.startDate = startDate;
-        // Change the end type to number of occurrences.
-        // This must be set because the original starting Series Info may
-        // be set to have an End Date type.
-        this.endDateType = EndDateType.NumberOfOccurrences;
-        return getRecurrenceValues();
+        return measureValues("YearlyRecurrenceSettings.getValues", RecurrenceInfo.RecurrenceType.Yearly, this::getRecurrenceValues);
     }
 
     RecurrenceValues getRecurrenceValues() throws Exception {
@@ -408,12 +287,64 @@ public class YearlyRecurrenceSettings extends RecurrenceSettings {
         regenType = YearlyRegenType.OnCustomDateFormat;
     }
 
-    LocalDateTime getNextDate(LocalDateTime currentDate) throws Exception {
-        getNextDateValue = true;
-        nextDateValue = currentDate;
-        // Now get the values and return the last date found.
-        RecurrenceValues values = getValues();
-        return values.endDate;
+    @Override
+    RecurrenceSequence getSequence() throws Exception {
+        int dayValue = regenerateOnSpecificDateDayValue;
+        YearlySpecificDatePartOne partOne = specificDatePartOne;
+        YearlySpecificDatePartTwo partTwo = specificDatePartTwo;
+        YearlySpecificDatePartThree partThree = specificDatePartThree;
+
+        switch (regenType) {
+            case OnSpecificDayOfYear:
+                return RecurrenceSequence.everyXMonths(getFirstSpecificDayOfYearDate().toLocalDate(), 12,
+                        Arrays.asList("Day", dayValue), (year, month) -> Math.min(dayValue, GregorianMonths.lengthOfMonth(year, month)));
+
+            case OnCustomDateFormat:
+                checkCustomDateParts();
+                int year = this.startDate.getYear();
+                LocalDateTime dt = getCustomDate(year);
+                // If the date returned is less than the start date
+                // then the first date is next year's.
+                if (dt.compareTo(this.startDate) < 0)
+                    dt = getCustomDate(year + 1);
+                return RecurrenceSequence.everyXMonths(dt.toLocalDate(), 12,
+                        Arrays.asList(partOne, partTwo, partThree), (y, month) -> getCustomDate(y, partOne, partTwo, partThree).getDayOfMonth());
+
+            default:
+                throw new RecurrenceException(RecurrenceException.GENERIC_EXCEPTION_CODE, "unknown regenType");
+        }
+    }
+
+    /// <summary>
+    /// On a business calendar the custom Weekday dates, such as the first weekday of
+    /// January, are business days of the calendar.
+    /// </summary>
+    @Override
+    RecurrenceSequence getSequence(BusinessCalendar calendar) throws Exception {
+        YearlySpecificDatePartOne partOne = specificDatePartOne;
+        YearlySpecificDatePartThree partThree = specificDatePartThree;
+        if (regenType != YearlyRegenType.OnCustomDateFormat || specificDatePartTwo != YearlySpecificDatePartTwo.Weekday)
+            return getSequence();
+        checkCustomDateParts();
+
+        int n = partOne == YearlySpecificDatePartOne.Last ? 0 : partOne.getValue() + 1;
+        int month = partThree.getValue();
+        int year = this.startDate.getYear();
+        LocalDate dt = LocalDate.of(year, month, calendar.getDayOfMonth(year, month, n));
+        // If the date is before the start date then the first date is next year's.
+        if (dt.atStartOfDay().compareTo(this.startDate) < 0)
+            dt = LocalDate.of(year + 1, month, calendar.getDayOfMonth(year + 1, month, n));
+        return RecurrenceSequence.everyXMonths(dt, 12,
+                Arrays.asList(partOne, "BusinessDay", partThree, calendar), (y, m) -> calendar.getDayOfMonth(y, m, n));
+    }
+
+    @Override
+    long getLastIndex(RecurrenceSequence sequence) {
+        // The custom dates are added before they're checked against the end date,
+        // so the first date past the end date is the last one.
+        if (regenType == YearlyRegenType.OnCustomDateFormat && endDateType == EndDateType.SpecificDate)
+            return sequence.countAtOrBefore(endDate);
+        return super.getLastIndex(sequence);
     }
 
     //#region Private Procedures
@@ -424,54 +355,8 @@ public class YearlyRecurrenceSettings extends RecurrenceSettings {
     /// </summary>
     /// <returns></returns>
     String getSeriesInfo() {
-        String info;
-        String endDate = "ZZZZZZZZ"; // Default for no ending date.
-        String occurrences = String.format("%04d", this.numberOfOccurrences);
-        String yearlyRegenType = this.regenType.toString();
-        String endDateType = this.endDateType.toString();
-        String regenOnSpecificDateDayValue = String.format("%02d", this.regenerateOnSpecificDateDayValue);
-        String regenOnSpecificDateMonthValue = String.format("%02d", this.regenerateOnSpecificDateMonthValue);
-        String specDatePartOne = "Z";
-        String specDatePartTwo = "Z";
-        String specDatePartThree = "Z";
-
-        if (specificDatePartOne != YearlySpecificDatePartOne.NotSet)
-            specDatePartOne = specificDatePartOne.toString();
-
-        if (specificDatePartTwo != YearlySpecificDatePartTwo.NotSet)
-            specDatePartTwo = specificDatePartTwo.toString();
-
-        if (specificDatePartThree != YearlySpecificDatePartThree.NotSet)
-            specDatePartThree = specificDatePartThree.toString();
-
-        String adjustValue = String.format("%03d", this.adjustmentValue);
-
-        // If the Adjustment value is less than Zero then account for the "-"
-        if (adjustmentValue < 0)
-            adjustValue = String.format("%02d", this.adjustmentValue);
-
-        // End Date may be null if no ending date.
-        if (this.hasEndDate())
-            endDate = DateTimeFormatter.BASIC_ISO_DATE.format(this.endDate);
-
-        // FORMATTING DEFINITIONS
-        //  Y = Yearly Designator
-        //  |       0 = Start Date (8 chars)
-        //  |       |        1 = End Date (8 chars)
-        //  |       |        |        2 = Number of occurrences (4 chars)
-        //  |       |        |        |      3 = Regeneration Type (1 char)
-        //  |       |        |        |      |    4 = End date type (1 char)
-        //  |       |        |        |      |    |      5 = Regenerate on specific date DAY value (2 chars)
-        //  |       |        |        |      |    |      |       6 = Regenerate on specific date MONTH value (2 chars)
-        //  |       |        |        |      |    |      |       |       7 = Custom Date Part One (1 char)
-        //  |       |        |        |      |    |      |       |       |       8 = Custom Date Part Two (1 char)
-        //  |       |        |        |      |    |      |       |       |       |       9 = Custom Date Part Three (1 char)
-        //  |       |        |        |      |    |      |       |       |       |       |       10 = Adjustment Value (3 chars)
-        //  |       |        |        |      |    |      |       |       |       |       |       |
-        // [0]    [1-8]    [9-16]  [17-20]  [21] [22] [23-24] [25-26]  [27]    [28]    [29] [31-33]
-        //  Y   20071237  20171231   0000    1     1     00      00      A      A        A      000
-        info = String.format("Y%s%s%s%s%s%s%s%s%s%s%s", DateTimeFormatter.BASIC_ISO_DATE.format(this.startDate), endDate, occurrences, yearlyRegenType, endDateType, regenOnSpecificDateDayValue, regenOnSpecificDateMonthValue, specDatePartOne, specDatePartTwo, specDatePartThree, adjustValue);
-        return info;
+        // FORMATTING DEFINITIONS are in SeriesInfoCodec
+        return SeriesInfoCodec.encode(this);
     }
 
     /// <summary>
@@ -480,9 +365,41 @@ public class YearlyRecurrenceSettings extends RecurrenceSettings {
     /// <returns></returns>
     RecurrenceValues getSpecificDayOfYearDates() throws Exception {
         RecurrenceValues values = new RecurrenceValues();
+        LocalDateTime dt = getFirstSpecificDayOfYearDate();
+
+        switch (this.endDateType) {
+            case NoEndDate:
+                throw new Exception("The ability to create recurring dates with no End date is not currently available.");
+
+            case NumberOfOccurrences:
+                for (int i = 0; i < this.numberOfOccurrences; i++) {
+                    values.AddDateValue(GetCorrectedDate(dt.plusYears(i)), adjustmentValue);
+                }
+                break;
+
+            case SpecificDate:
+                do {
+                    values.AddDateValue(dt, adjustmentValue);
+                    dt = dt.plusYears(1);
+                    dt = GetCorrectedDate(dt);
+                } while (dt.compareTo(this.endDate) <= 0);
+                break;
+
+            default:
+                throw new IllegalArgumentException("The TypeOfEndDate property has not been set.");
+        }
+
+        return values;
+    }
+
+    /// <summary>
+    /// Get the first specific day of the year that isn't before the start date.
+    /// </summary>
+    /// <returns></returns>
+    LocalDateTime getFirstSpecificDayOfYearDate() {
         LocalDateTime dt = this.startDate;
         int dayValue = regenerateOnSpecificDateDayValue;
-        int daysOfMonth = YearMonth.of(dt.getYear(), regenerateOnSpecificDateMonthValue).lengthOfMonth();
+        int daysOfMonth = GregorianMonths.lengthOfMonth(dt.getYear(), regenerateOnSpecificDateMonthValue);
         // Get the max days of the month and make sure it's not
         // less than the specified day value trying to be set.
         if (daysOfMonth < regenerateOnSpecificDateDayValue)
@@ -497,40 +414,7 @@ public class YearlyRecurrenceSettings extends RecurrenceSettings {
             dt = newDate.plusYears(1);
         else
             dt = newDate;
-
-        if (getNextDateValue) {
-            do {
-                values.AddDateValue(dt, adjustmentValue);
-                if (values.values.get(values.values.size() - 1).compareTo(nextDateValue) > 0)
-                    break;
-                dt = dt.plusYears(1);
-                dt = GetCorrectedDate(dt);
-            } while (dt.compareTo(nextDateValue.plusYears(1)) <= 0); // Ensure the last date if greater than what's needed for the next date in the cycle
-        } else {
-            switch (this.endDateType) {
-                case NoEndDate:
-                    throw new Exception("The ability to create recurring dates with no End date is not currently available.");
-
-                case NumberOfOccurrences:
-                    for (int i = 0; i < this.numberOfOccurrences; i++) {
-                        values.AddDateValue(GetCorrectedDate(dt.plusYears(i)), adjustmentValue);
-                    }
-                    break;
-
-                case SpecificDate:
-                    do {
-                        values.AddDateValue(dt, adjustmentValue);
-                        dt = dt.plusYears(1);
-                        dt = GetCorrectedDate(dt);
-                    } while (dt.compareTo(this.endDate) <= 0);
-                    break;
-
-                default:
-                    throw new IllegalArgumentException("The TypeOfEndDate property has not been set.");
-            }
-        }
-
-        return values;
+        return dt;
     }
 
     /// <summary>
@@ -543,10 +427,11 @@ public class YearlyRecurrenceSettings extends RecurrenceSettings {
         // Ensure the day value hasn't changed.
         // This will occurr if the month is Feb. All
         // dates after that will have the same day.
-        if (dt.getDayOfMonth() < this.regenerateOnSpecificDateDayValue && YearMonth.of(dt.getYear(), dt.getMonth()).lengthOfMonth() > dt.getDayOfMonth()) {
+        int daysOfMonth = GregorianMonths.lengthOfMonth(dt.getYear(), dt.getMonthValue());
+        if (dt.getDayOfMonth() < this.regenerateOnSpecificDateDayValue && daysOfMonth > dt.getDayOfMonth()) {
             // The Specified day is greater than the number of days in the month.
-            if (this.regenerateOnSpecificDateDayValue > YearMonth.of(dt.getYear(), dt.getMonth()).lengthOfMonth())
-                dt = LocalDateTime.of(dt.getYear(), dt.getMonth(), YearMonth.of(dt.getYear(), dt.getMonth()).lengthOfMonth(), 0, 0);
+            if (this.regenerateOnSpecificDateDayValue > daysOfMonth)
+                dt = LocalDateTime.of(dt.getYear(), dt.getMonth(), daysOfMonth, 0, 0);
             else
                 // The specified date is less than number of days in month.
                 dt = LocalDateTime.of(dt.getYear(), dt.getMonth(), this.regenerateOnSpecificDateDayValue, 0, 0);
@@ -559,71 +444,59 @@ public class YearlyRecurrenceSettings extends RecurrenceSettings {
     /// </summary>
     /// <returns></returns>
     RecurrenceValues getCustomDayOfYearDates() throws Exception {
-        if (this.specificDatePartOne == YearlySpecificDatePartOne.NotSet)
-            throw new Exception("The First part of the custom date has not been set.");
-        if (this.specificDatePartTwo == YearlySpecificDatePartTwo.NotSet)
-            throw new Exception("The Second part of the custom date has not been set.");
-        if (this.specificDatePartThree == YearlySpecificDatePartThree.NotSet)
-            throw new Exception("The Third part of the custom date has not been set.");
+        checkCustomDateParts();
 
         RecurrenceValues values = new RecurrenceValues();
         LocalDateTime dt = this.startDate;
         int year = dt.getYear();
 
-        if (getNextDateValue) {
-            do {
-                dt = getCustomDate(year);
-                // If the date returned is less than the start date
-                // then do it again to increment past the start date
-                if (dt.compareTo(this.startDate) < 0) {
-                    year++;
+        switch (this.endDateType) {
+            case NoEndDate:
+                throw new Exception("The ability to create recurring dates with no End date is not currently available.");
+
+            case NumberOfOccurrences:
+                for (int i = 0; i < this.numberOfOccurrences; i++) {
                     dt = getCustomDate(year);
-                }
-                year++;
-                values.AddDateValue(dt, adjustmentValue);
-                if (values.values.get(values.values.size() - 1).compareTo(nextDateValue) > 0)
-                    break;
-            } while (dt.compareTo(nextDateValue.plusYears(1)) <= 0); // Ensure the last date if greater than what's needed for the next date in the cycle
-        } else {
-            switch (this.endDateType) {
-                case NoEndDate:
-                    throw new Exception("The ability to create recurring dates with no End date is not currently available.");
-
-                case NumberOfOccurrences:
-                    for (int i = 0; i < this.numberOfOccurrences; i++) {
-                        dt = getCustomDate(year);
-                        // If the date returned is less than the start date
-                        // then do it again to increment past the start date
-                        if (dt.compareTo(this.startDate) < 0) {
-                            year++;
-                            dt = getCustomDate(year);
-                        }
+                    // If the date returned is less than the start date
+                    // then do it again to increment past the start date
+                    if (dt.compareTo(this.startDate) < 0) {
                         year++;
-                        values.AddDateValue(dt, adjustmentValue);
+                        dt = getCustomDate(year);
                     }
-                    break;
+                    year++;
+                    values.AddDateValue(dt, adjustmentValue);
+                }
+                break;
 
-                case SpecificDate:
-                    do {
-                        dt = getCustomDate(year);
-                        // If the date returned is less than the start date
-                        // then do it again to increment past the start date
-                        if (dt.compareTo(this.startDate) < 0) {
-                            year++;
-                            dt = getCustomDate(year);
-                        }
+            case SpecificDate:
+                do {
+                    dt = getCustomDate(year);
+                    // If the date returned is less than the start date
+                    // then do it again to increment past the start date
+                    if (dt.compareTo(this.startDate) < 0) {
                         year++;
-                        values.AddDateValue(dt, adjustmentValue);
-                    } while (dt.compareTo(this.endDate) <= 0);
-                    break;
+                        dt = getCustomDate(year);
+                    }
+                    year++;
+                    values.AddDateValue(dt, adjustmentValue);
+                } while (dt.compareTo(this.endDate) <= 0);
+                break;
 
-                default:
-                    throw new IllegalArgumentException("The TypeOfEndDate property has not been set.");
-            }
+            default:
+                throw new IllegalArgumentException("The TypeOfEndDate property has not been set.");
         }
         return values;
 
     }
+
+    void checkCustomDateParts() throws Exception {
+        if (this.specificDatePartOne == YearlySpecificDatePartOne.NotSet)
+            throw new Exception("The First part of the custom date has not been set.");
+        if (this.specificDatePartTwo == YearlySpecificDatePartTwo.NotSet)
+            throw new Exception("The Second part of the custom date has not been set.");
+        if (this.specificDatePartThree == YearlySpecificDatePartThree.NotSet)
+            throw new Exception("The Third part of the custom date has not been set.");
+    }
 //#endregion //Internal Procedures
 
     /// <summary>
@@ -632,142 +505,75 @@ public class YearlyRecurrenceSettings extends RecurrenceSettings {
     /// <param name="year"></param>
     /// <returns></returns>
     LocalDateTime getCustomDate(int year) {
+        return getCustomDate(year, specificDatePartOne, specificDatePartTwo, specificDatePartThree);
+    }
+
+    static LocalDateTime getCustomDate(int year, YearlySpecificDatePartOne specificDatePartOne, YearlySpecificDatePartTwo specificDatePartTwo, YearlySpecificDatePartThree specificDatePartThree) {
         LocalDateTime dt = LocalDateTime.of(year, specificDatePartThree.getValue(), 1, 0, 0); //new LocalDateTime(year, (int) SpecificDatePartThree, 1);
-        int day = 1;
         int firstPart = specificDatePartOne.getValue() + 1;
-        int daysOfMonth = YearMonth.of(year, dt.getMonth()).lengthOfMonth();
+        int daysOfMonth = GregorianMonths.lengthOfMonth(year, dt.getMonthValue());
+        int firstDayOfWeek = GregorianMonths.firstDayOfWeek(year, dt.getMonthValue());
 
         switch (specificDatePartTwo) {
             case Day:
                 // If only getting the Last day of the month
                 if (specificDatePartOne == YearlySpecificDatePartOne.Last)
-                    dt = LocalDateTime.of(year, dt.getMonth(), YearMonth.of(year, dt.getMonth()).lengthOfMonth(), 0, 0);
+                    dt = LocalDateTime.of(year, dt.getMonth(), daysOfMonth, 0, 0);
                 else
                     // Get a specific day of the month such as First, Second, Third, Fourth
                     dt = LocalDateTime.of(year, dt.getMonth(), firstPart, 0, 0);
                 break;
 
             case Weekday:
-                int weekDayCount = 0;
-                LocalDateTime lastWeekday = dt;
-                do {
-                    // Check for anything other than Saturday and Sunday
-//                    if (dt.DayOfWeek != DayOfWeek.Saturday && dt.DayOfWeek != DayOfWeek.Sunday) {
-                    if (dt.getDayOfWeek() != DayOfWeek.SATURDAY && dt.getDayOfWeek() != DayOfWeek.SUNDAY) {
-                        // Get a specific Weekday of the Month
-                        if (specificDatePartOne != YearlySpecificDatePartOne.Last) {
-                            // Add up the weekday count
-                            weekDayCount++;
-                            // If the current weekday count matches then exit
-                            if (weekDayCount == firstPart)
-                                break;
-                        } else {
-                            // Get the last weekday of the month
-                            lastWeekday = dt;
-                        }
-                    }
-                    dt = dt.plusDays(1);
-                    day++;
-                } while (day <= daysOfMonth);
-
-                // If getting the last weekday of the month then
-                // set the returning value to the last weekday found.
                 if (specificDatePartOne == YearlySpecificDatePartOne.Last)
-                    dt = lastWeekday;
-
+                    dt = dt.plusDays(CustomDayOfMonth.getLastWeekday(firstDayOfWeek, daysOfMonth) - 1);
+                else
+                    dt = dt.plusDays(CustomDayOfMonth.getNthWeekday(firstDayOfWeek, daysOfMonth, firstPart) - 1);
                 break;
 
             case WeekendDay:
-                int weekendDayCount = 0;
-                LocalDateTime lastWeekendday = dt;
-                do {
-                    // Check for anything other than Saturday and Sunday
-                    if (dt.getDayOfWeek() == DayOfWeek.SATURDAY || dt.getDayOfWeek() == DayOfWeek.SUNDAY) {
-                        // Get a specific Weekday of the Month
-                        if (specificDatePartOne != YearlySpecificDatePartOne.Last) {
-                            // Add up the weekday count
-                            weekendDayCount++;
-                            // If the current weekday count matches then exit
-                            if (weekendDayCount == firstPart)
-                                break;
-                        } else {
-                            // Get the last weekday of the month
-                            lastWeekendday = dt;
-                        }
-                    }
-                    dt = dt.plusDays(1);
-                    day++;
-                } while (day <= daysOfMonth);
-
-                // If getting the last weekday of the month then
-                // set the returning value to the last weekday found.
                 if (specificDatePartOne == YearlySpecificDatePartOne.Last)
-                    dt = lastWeekendday;
-
+                    dt = dt.plusDays(CustomDayOfMonth.getLastWeekendDay(firstDayOfWeek, daysOfMonth) - 1);
+                else
+                    dt = dt.plusDays(CustomDayOfMonth.getNthWeekendDay(firstDayOfWeek, daysOfMonth, firstPart) - 1);
                 break;
 
             case Monday:
-                dt = getCustomWeekday(dt, DayOfWeek.MONDAY, daysOfMonth, firstPart);
+                dt = getCustomWeekday(dt, DayOfWeek.MONDAY, daysOfMonth, firstPart, specificDatePartOne);
                 break;
 
             case Tuesday:
-                dt = getCustomWeekday(dt, DayOfWeek.TUESDAY, daysOfMonth, firstPart);
+                dt = getCustomWeekday(dt, DayOfWeek.TUESDAY, daysOfMonth, firstPart, specificDatePartOne);
                 break;
 
             case Wednesday:
-                dt = getCustomWeekday(dt, DayOfWeek.WEDNESDAY, daysOfMonth, firstPart);
+                dt = getCustomWeekday(dt, DayOfWeek.WEDNESDAY, daysOfMonth, firstPart, specificDatePartOne);
                 break;
 
             case Thursday:
-                dt = getCustomWeekday(dt, DayOfWeek.THURSDAY, daysOfMonth, firstPart);
+                dt = getCustomWeekday(dt, DayOfWeek.THURSDAY, daysOfMonth, firstPart, specificDatePartOne);
                 break;
 
             case Friday:
-                dt = getCustomWeekday(dt, DayOfWeek.FRIDAY, daysOfMonth, firstPart);
+                dt = getCustomWeekday(dt, DayOfWeek.FRIDAY, daysOfMonth, firstPart, specificDatePartOne);
                 break;
 
             case Saturday:
-                dt = getCustomWeekday(dt, DayOfWeek.SATURDAY, daysOfMonth, firstPart);
+                dt = getCustomWeekday(dt, DayOfWeek.SATURDAY, daysOfMonth, firstPart, specificDatePartOne);
                 break;
 
             case Sunday:
-                dt = getCustomWeekday(dt, DayOfWeek.SUNDAY, daysOfMonth, firstPart);
+                dt = getCustomWeekday(dt, DayOfWeek.SUNDAY, daysOfMonth, firstPart, specificDatePartOne);
                 break;
         }
         return dt;
     }
 
-    LocalDateTime getCustomWeekday(LocalDateTime startDate, DayOfWeek weekDay, int daysOfMonth, int firstDatePart) {
-        int day = 1;
-        int dayCount = 0;
-        LocalDateTime lastDOW = startDate;
-        LocalDateTime returnDate = startDate;
-        do {
-            // Check for day of the week
-            if (returnDate.getDayOfWeek() == weekDay) {
-                // Get a specific Weekday of the Month
-                if (specificDatePartOne != YearlySpecificDatePartOne.Last) {
-                    // Add up the days found count
-                    dayCount++;
-                    // If the current weekday count matches then exit
-                    if (dayCount == firstDatePart) {
-                        break;
-                    }
-                } else {
-                    // Get the current date value
-                    lastDOW = returnDate;
-                }
-            }
-            returnDate = returnDate.plusDays(1);
-            day++;
-        } while (day <= daysOfMonth);
-
-        // If getting the last weekday of the month then
-        // set the returning value to the last weekday found.
+    static LocalDateTime getCustomWeekday(LocalDateTime startDate, DayOfWeek weekDay, int daysOfMonth, int firstDatePart, YearlySpecificDatePartOne specificDatePartOne) {
+        int firstDayOfWeek = startDate.getDayOfWeek().getValue();
         if (specificDatePartOne == YearlySpecificDatePartOne.Last)
-            returnDate = lastDOW;
-
-        return returnDate;
+            return startDate.plusDays(CustomDayOfMonth.getLastDayOfWeek(firstDayOfWeek, daysOfMonth, weekDay.getValue()) - 1);
+        return startDate.plusDays(CustomDayOfMonth.getNthDayOfWeek(firstDayOfWeek, daysOfMonth, weekDay.getValue(), firstDatePart) - 1);
     }
 
     int getDatePartOneValue() {
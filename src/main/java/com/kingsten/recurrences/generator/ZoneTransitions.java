@@ -0,0 +1,116 @@
+package com.kingsten.recurrences.generator;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/// <summary>
+/// Offset transitions of a time zone from 1900 to 2200 held in sorted arrays, so converting
+/// a local date and time to an instant is a binary search of the transitions instead of a
+/// trip through ZoneRules for every value. Local times in a gap are moved on by the length
+/// of the gap and local times in an overlap take the earlier offset, as with
+/// ZonedDateTime.of. Times outside the years of the table go to ZoneRules.
+/// One table is built per zone and kept for the life of the class.
+/// </summary>
+final class ZoneTransitions {
+
+    private static final ConcurrentMap<ZoneId, ZoneTransitions> CACHE = new ConcurrentHashMap<>();
+
+    private static final long FIRST_SECOND = LocalDateTime.of(1900, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+    private static final long END_SECOND = LocalDateTime.of(2200, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+    // Keep a day clear of the ends so any offset stays inside the table.
+    private static final long MARGIN = 86400;
+
+    private final ZoneId zone;
+    // offsets[0] is the offset before the first transition, offsets[i + 1] the offset after transition i.
+    private final int[] offsets;
+    // Local time, as epoch seconds at UTC, from which the offset after each transition applies.
+    private final long[] localSeconds;
+    private final long[] instantSeconds;
+
+    private ZoneTransitions(ZoneId zone) {
+        this.zone = zone;
+        ZoneRules rules = zone.getRules();
+        Instant first = Instant.ofEpochSecond(FIRST_SECOND);
+        List<ZoneOffsetTransition> transitions = new ArrayList<>();
+        ZoneOffsetTransition transition = rules.nextTransition(first);
+        while (transition != null && transition.getInstant().getEpochSecond() < END_SECOND) {
+            transitions.add(transition);
+            transition = rules.nextTransition(transition.getInstant());
+        }
+
+        offsets = new int[transitions.size() + 1];
+        localSeconds = new long[transitions.size()];
+        instantSeconds = new long[transitions.size()];
+        offsets[0] = rules.getOffset(first).getTotalSeconds();
+        for (int i = 0; i < transitions.size(); i++) {
+            transition = transitions.get(i);
+            offsets[i + 1] = transition.getOffsetAfter().getTotalSeconds();
+            // Up to the end of a gap or an overlap the offset before still applies.
+            localSeconds[i] = Math.max(transition.getDateTimeBefore().toEpochSecond(ZoneOffset.UTC),
+                    transition.getDateTimeAfter().toEpochSecond(ZoneOffset.UTC));
+            instantSeconds[i] = transition.getInstant().getEpochSecond();
+        }
+    }
+
+    static ZoneTransitions of(ZoneId zone) {
+        return CACHE.computeIfAbsent(zone, ZoneTransitions::new);
+    }
+
+    ZoneId getZone() {
+        return zone;
+    }
+
+    /// <summary>
+    /// Epoch seconds of the local date and time in the zone.
+    /// </summary>
+    long toEpochSecond(LocalDateTime dateTime) {
+        long local = dateTime.toEpochSecond(ZoneOffset.UTC);
+        if (local < FIRST_SECOND + MARGIN || local >= END_SECOND - MARGIN)
+            return ZonedDateTime.of(dateTime, zone).toEpochSecond();
+        return local - offsets[countAtOrBefore(localSeconds, local)];
+    }
+
+    long toEpochMilli(LocalDateTime dateTime) {
+        return Math.addExact(Math.multiplyExact(toEpochSecond(dateTime), 1000L), dateTime.getNano() / 1000000);
+    }
+
+    Instant toInstant(LocalDateTime dateTime) {
+        return Instant.ofEpochSecond(toEpochSecond(dateTime), dateTime.getNano());
+    }
+
+    /// <summary>
+    /// Local date and time in the zone of the instant.
+    /// </summary>
+    LocalDateTime toLocalDateTime(Instant instant) {
+        long second = instant.getEpochSecond();
+        if (second < FIRST_SECOND + MARGIN || second >= END_SECOND - MARGIN)
+            return LocalDateTime.ofInstant(instant, zone);
+        int offset = offsets[countAtOrBefore(instantSeconds, second)];
+        return LocalDateTime.ofEpochSecond(second, instant.getNano(), ZoneOffset.ofTotalSeconds(offset));
+    }
+
+    /// <summary>
+    /// Number of values in the sorted array that are less than or equal to the key.
+    /// </summary>
+    private static int countAtOrBefore(long[] values, long key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] <= key)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,167 @@
+package com.kingsten.recurrences.generator;
+
+import com.kingsten.recurrences.generator.BusinessCalendar.BusinessDayAdjustment;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BusinessCalendarTest {
+
+    private static final List<LocalDate> HOLIDAYS = Arrays.asList(
+            LocalDate.of(2021, 1, 1), LocalDate.of(2021, 4, 2), LocalDate.of(2021, 4, 5),
+            LocalDate.of(2021, 12, 27), LocalDate.of(2021, 12, 28), LocalDate.of(2021, 12, 31),
+            LocalDate.of(2022, 1, 3));
+
+    private static BusinessCalendar loadCalendar() throws Exception {
+        Path file = Files.createTempFile("holidays", ".txt");
+        try {
+            List<String> lines = new ArrayList<>(Arrays.asList("# Test holidays", "weekend SATURDAY SUNDAY", "years 2021 2022"));
+            for (LocalDate holiday : HOLIDAYS)
+                lines.add(holiday + " Holiday");
+            Files.write(file, lines, StandardCharsets.UTF_8);
+            return BusinessCalendar.load(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void BusinessCalendar_RankSelect_MatchesDayLoop_Success_Test() throws Exception {
+        BusinessCalendar calendar = loadCalendar();
+        assertEquals(EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY), calendar.getWeekend());
+
+        // Run from before the years of the calendar to after them.
+        LocalDate from = LocalDate.of(2020, 10, 1);
+        List<LocalDate> businessDays = new ArrayList<>();
+        for (LocalDate date = from; date.isBefore(LocalDate.of(2023, 4, 1)); date = date.plusDays(1)) {
+            boolean expected = date.getDayOfWeek().getValue() <= 5 && !HOLIDAYS.contains(date);
+            assertEquals(date.toString(), expected, calendar.isBusinessDay(date));
+            assertEquals(date.toString(), businessDays.size(), calendar.countBusinessDays(from, date));
+            if (expected)
+                businessDays.add(date);
+        }
+
+        for (int i = 0; i < businessDays.size(); i++) {
+            LocalDate day = businessDays.get(i);
+            assertEquals(day, calendar.addBusinessDays(from.minusDays(1), i + 1));
+            assertEquals(day, calendar.rollForward(day));
+            assertEquals(day, calendar.rollBack(day));
+            if (i > 0) {
+                assertEquals(businessDays.get(i - 1), calendar.addBusinessDays(day, -1));
+                assertEquals(day, calendar.rollForward(businessDays.get(i - 1).plusDays(1)));
+                assertEquals(businessDays.get(i - 1), calendar.rollBack(day.minusDays(1)));
+            }
+        }
+        assertEquals(LocalDate.of(2021, 4, 6), calendar.addBusinessDays(LocalDate.of(2021, 4, 3), 1));
+        assertEquals(LocalDate.of(2021, 12, 29), calendar.getBusinessDay(2021, 12, 19));
+        assertEquals(LocalDate.of(2021, 12, 30), calendar.getLastBusinessDay(2021, 12));
+        assertEquals(LocalDate.of(2022, 1, 4), calendar.getBusinessDay(2022, 1, 1));
+        assertNull(calendar.getBusinessDay(2021, 12, 21));
+
+        // Friday and Saturday weekends, with no holidays.
+        BusinessCalendar friSat = BusinessCalendar.of(EnumSet.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY), HOLIDAYS.subList(0, 0));
+        assertEquals(LocalDate.of(2021, 1, 3), friSat.rollForward(LocalDate.of(2021, 1, 1)));
+        assertEquals(LocalDate.of(2021, 1, 7), friSat.rollBack(LocalDate.of(2021, 1, 9)));
+        assertEquals(5, friSat.countBusinessDays(LocalDate.of(2021, 1, 1), LocalDate.of(2021, 1, 8)));
+    }
+
+    @Test
+    public void BusinessCalendar_Invalid_Failure_Test() throws Exception {
+        for (String text : Arrays.asList("2021-02-30", "weekend SOMEDAY", "years 2021",
+                "weekend MONDAY TUESDAY WEDNESDAY THURSDAY FRIDAY SATURDAY SUNDAY")) {
+            try {
+                BusinessCalendar.load(new StringReader(text));
+                fail("Expected an exception for " + text);
+            } catch (IllegalArgumentException expected) {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void BusinessCalendar_Rules_Success_Test() throws Exception {
+        BusinessCalendar calendar = loadCalendar();
+
+        // Every 3rd business day.
+        DailyRecurrenceSettings da = new DailyRecurrenceSettings(LocalDateTime.of(2021, 12, 22, 0, 0), 4);
+        da.setValues(3);
+        RecurrenceRule daily = RecurrenceHelper.getRecurrenceRule(da.getSeriesInfo(), calendar, BusinessDayAdjustment.None);
+        assertEquals(Arrays.asList(LocalDateTime.of(2021, 12, 22, 0, 0), LocalDateTime.of(2021, 12, 29, 0, 0),
+                LocalDateTime.of(2022, 1, 5, 0, 0), LocalDateTime.of(2022, 1, 10, 0, 0)),
+                daily.stream().collect(Collectors.toList()));
+        assertTrue(daily.isOccurrence(LocalDateTime.of(2022, 1, 5, 0, 0)));
+        assertFalse(daily.isOccurrence(LocalDateTime.of(2022, 1, 4, 0, 0)));
+
+        // Last business day of the month.
+        MonthlyRecurrenceSettings last = new MonthlyRecurrenceSettings(LocalDateTime.of(2021, 1, 1, 0, 0));
+        last.setValues(MonthlyRecurrenceSettings.MonthlySpecificDatePartOne.Last, MonthlyRecurrenceSettings.MonthlySpecificDatePartTwo.Weekday, 1);
+        RecurrenceRule lastRule = RecurrenceHelper.getRecurrenceRule(last.getSeriesInfo(), calendar, BusinessDayAdjustment.None);
+        List<LocalDateTime> lastDates = lastRule.stream().limit(24).collect(Collectors.toList());
+        for (int i = 0; i < 24; i++)
+            assertEquals(calendar.getLastBusinessDay(2021 + i / 12, i % 12 + 1).atStartOfDay(), lastDates.get(i));
+
+        // The 25th of the month, rolled either way.
+        MonthlyRecurrenceSettings mo = new MonthlyRecurrenceSettings(LocalDateTime.of(2021, 1, 1, 0, 0));
+        mo.setValues(25, 1);
+        mo.setAdjustmentValue(2);
+        String seriesInfo = mo.getSeriesInfo();
+        List<LocalDateTime> dates = RecurrenceHelper.getRecurrenceRule(seriesInfo).stream().limit(36).collect(Collectors.toList());
+        for (BusinessDayAdjustment adjustment : Arrays.asList(BusinessDayAdjustment.RollForward, BusinessDayAdjustment.RollBack)) {
+            RecurrenceRule rule = RecurrenceHelper.getRecurrenceRule(seriesInfo, calendar, adjustment);
+            List<LocalDateTime> expected = dates.stream()
+                    .map(d -> (adjustment == BusinessDayAdjustment.RollForward ? calendar.rollForward(d.toLocalDate()) : calendar.rollBack(d.toLocalDate())).atStartOfDay())
+                    .collect(Collectors.toList());
+            assertEquals(expected, rule.stream().limit(36).collect(Collectors.toList()));
+            for (LocalDateTime date : expected) {
+                assertTrue(calendar.isBusinessDay(date.toLocalDate()));
+                assertTrue(rule.isOccurrence(date));
+                assertEquals(date, rule.getNextDate(date.minusDays(1)));
+            }
+            assertEquals(12, rule.count(RecurrenceQuery.range(LocalDateTime.of(2022, 1, 1, 0, 0), LocalDateTime.of(2022, 12, 31, 0, 0))));
+        }
+        assertEquals(LocalDateTime.of(2021, 12, 29, 0, 0),
+                RecurrenceHelper.getRecurrenceRule(seriesInfo, calendar, BusinessDayAdjustment.RollForward).getNextDate(LocalDateTime.of(2021, 12, 1, 0, 0)));
+        assertEquals(LocalDateTime.of(2021, 12, 24, 0, 0),
+                RecurrenceHelper.getRecurrenceRule(seriesInfo, calendar, BusinessDayAdjustment.RollBack).getNextDate(LocalDateTime.of(2021, 12, 1, 0, 0)));
+    }
+
+    @Test
+    public void BusinessCalendar_RolledExclusions_Success_Test() throws Exception {
+        // Saturday and Sunday both roll forward to Monday, so each Monday has two occurrences.
+        WeeklyRecurrenceSettings.SelectedDayOfWeekValues days = new WeeklyRecurrenceSettings.SelectedDayOfWeekValues();
+        days.Saturday = true;
+        days.Sunday = true;
+        WeeklyRecurrenceSettings we = new WeeklyRecurrenceSettings(LocalDateTime.of(2021, 1, 2, 0, 0), 10);
+        we.setValues(1, days);
+        RecurrenceRule rule = RecurrenceHelper.getRecurrenceRule(we.getSeriesInfo())
+                .withBusinessCalendar(BusinessCalendar.WEEKENDS_ONLY, BusinessDayAdjustment.RollForward)
+                .withExclusions(RecurrenceExclusions.of(Collections.singletonList(LocalDate.of(2021, 1, 4))));
+
+        RecurrenceQuery range = RecurrenceQuery.range(LocalDateTime.of(2021, 1, 1, 0, 0), LocalDateTime.of(2021, 3, 31, 0, 0));
+        List<LocalDateTime> dates = rule.evaluate(range).getValues();
+        assertEquals(8, dates.size());
+        assertEquals(LocalDateTime.of(2021, 1, 11, 0, 0), dates.get(0));
+        assertEquals(8, rule.count(range));
+        assertEquals(dates.subList(0, 3), rule.evaluate(RecurrenceQuery.count(LocalDateTime.of(2021, 1, 1, 0, 0), 3)).getValues());
+        assertEquals(dates.subList(0, 1), rule.evaluate(RecurrenceQuery.nextAfter(LocalDateTime.of(2021, 1, 1, 0, 0))).getValues());
+        assertEquals(2, rule.count(RecurrenceQuery.range(LocalDateTime.of(2021, 1, 4, 0, 0), LocalDateTime.of(2021, 1, 11, 0, 0))));
+    }
+}
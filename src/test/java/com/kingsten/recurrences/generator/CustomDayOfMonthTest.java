@@ -0,0 +1,88 @@
+package com.kingsten.recurrences.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import static org.junit.Assert.assertEquals;
+
+public class CustomDayOfMonthTest {
+
+    @Test
+    public void CustomDate_MatchesDayByDay_GregorianCycle_Success_Test() {
+        // Every month of a full 400 year cycle, so every month length and starting day.
+        for (int year = 2000; year < 2400; year++) {
+            for (int month = 1; month <= 12; month++) {
+                for (MonthlyRecurrenceSettings.MonthlySpecificDatePartOne partOne : MonthlyRecurrenceSettings.MonthlySpecificDatePartOne.values()) {
+                    for (MonthlyRecurrenceSettings.MonthlySpecificDatePartTwo partTwo : MonthlyRecurrenceSettings.MonthlySpecificDatePartTwo.values()) {
+                        int y = year;
+                        int m = month;
+                        assertEquals(year + "-" + month + " " + partOne + " " + partTwo,
+                                describe(() -> getCustomDateDayByDay(y, m, partOne.getValue() + 1, partOne == MonthlyRecurrenceSettings.MonthlySpecificDatePartOne.Last, partTwo.name())),
+                                describe(() -> MonthlyRecurrenceSettings.getCustomDate(y, m, partOne, partTwo)));
+                    }
+                }
+
+                YearlyRecurrenceSettings.YearlySpecificDatePartThree partThree = YearlyRecurrenceSettings.YearlySpecificDatePartThree.values()[month];
+                for (YearlyRecurrenceSettings.YearlySpecificDatePartOne partOne : YearlyRecurrenceSettings.YearlySpecificDatePartOne.values()) {
+                    for (YearlyRecurrenceSettings.YearlySpecificDatePartTwo partTwo : YearlyRecurrenceSettings.YearlySpecificDatePartTwo.values()) {
+                        int y = year;
+                        int m = month;
+                        assertEquals(year + "-" + month + " " + partOne + " " + partTwo,
+                                describe(() -> getCustomDateDayByDay(y, m, partOne.getValue() + 1, partOne == YearlyRecurrenceSettings.YearlySpecificDatePartOne.Last, partTwo.name())),
+                                describe(() -> YearlyRecurrenceSettings.getCustomDate(y, partOne, partTwo, partThree)));
+                    }
+                }
+            }
+        }
+    }
+
+    /// <summary>
+    /// The custom date found by stepping through the month a day at a time, as the monthly
+    /// and yearly settings did before CustomDayOfMonth.
+    /// </summary>
+    private static LocalDateTime getCustomDateDayByDay(int year, int month, int nth, boolean last, String partTwo) {
+        LocalDateTime dt = LocalDateTime.of(year, month, 1, 0, 0);
+        int daysOfMonth = YearMonth.of(year, month).lengthOfMonth();
+        switch (partTwo) {
+            case "NotSet":
+                return dt;
+
+            case "Day":
+                return last ? dt.withDayOfMonth(daysOfMonth) : LocalDateTime.of(year, month, nth, 0, 0);
+
+            default:
+                LocalDateTime lastFound = dt;
+                int count = 0;
+                for (int day = 1; day <= daysOfMonth; day++, dt = dt.plusDays(1)) {
+                    DayOfWeek dayOfWeek = dt.getDayOfWeek();
+                    boolean weekend = dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
+                    boolean matches = partTwo.equals("Weekday") ? !weekend
+                            : partTwo.equals("WeekendDay") ? weekend
+                            : dayOfWeek.name().equalsIgnoreCase(partTwo);
+                    if (!matches)
+                        continue;
+                    if (last)
+                        lastFound = dt;
+                    else if (++count == nth)
+                        return dt;
+                }
+                // Not found runs on to the first of the next month.
+                return last ? lastFound : dt;
+        }
+    }
+
+    private static String describe(DateSupplier supplier) {
+        try {
+            return String.valueOf(supplier.get());
+        } catch (RuntimeException e) {
+            return e.getClass().getName();
+        }
+    }
+
+    private interface DateSupplier {
+        LocalDateTime get();
+    }
+}
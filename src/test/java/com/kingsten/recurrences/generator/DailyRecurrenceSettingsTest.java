@@ -2,10 +2,14 @@ package com.kingsten.recurrences.generator;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
 
 public class DailyRecurrenceSettingsTest {
 
@@ -36,4 +40,20 @@ public class DailyRecurrenceSettingsTest {
 
         System.out.println(DailyRecurrenceSettings.getPatternDefinition(values.seriesInfo));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void DailyRecurrenceSettingsNextDateMatchesValuesTest() throws Exception {
+        for (int startDay = 0; startDay < 7; startDay++) {
+            LocalDateTime startDate = LocalDateTime.of(2019, 12, 29, 0, 0).plusDays(startDay);
+            for (int regenEveryXDays = 0; regenEveryXDays <= 5; regenEveryXDays++) {
+                DailyRecurrenceSettings da = new DailyRecurrenceSettings(startDate, 200);
+                // Zero is used to check the every weekday pattern.
+                List<LocalDateTime> values = regenEveryXDays == 0
+                        ? da.getValues(1, DailyRecurrenceSettings.DailyRegenType.ON_EVERY_WEEKDAY).getValues()
+                        : da.getValues(regenEveryXDays).getValues();
+
+                RecurrenceAssert.assertNextDates(da, values, startDate.minusDays(3), Duration.ofHours(12));
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.kingsten.recurrences.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class EpochDayListTest {
+
+    @Test
+    public void EpochDayList_MatchesArrayList_Success_Test() {
+        List<LocalDateTime> expected = new ArrayList<>();
+        EpochDayList list = new EpochDayList();
+        LocalDateTime date = LocalDateTime.of(2021, 1, 31, 9, 30);
+        for (int i = 0; i < 25; i++) {
+            expected.add(date.plusDays(i * 3));
+            list.add(date.plusDays(i * 3));
+        }
+        assertEquals(expected, list);
+        assertEquals(date.toLocalDate().toEpochDay() + 3, list.getEpochDay(1));
+
+        // A date with another time of day is kept as it was given.
+        expected.add(5, date.withHour(17));
+        list.add(5, date.withHour(17));
+        expected.set(0, LocalDateTime.of(1900, 2, 28, 0, 0));
+        list.set(0, LocalDateTime.of(1900, 2, 28, 0, 0));
+        expected.remove(3);
+        list.remove(3);
+        assertEquals(expected, list);
+        assertEquals(expected.size(), list.toEpochDays().length);
+
+        list.clear();
+        list.add(date);
+        assertArrayEquals(new int[]{(int) date.toLocalDate().toEpochDay()}, list.toEpochDays());
+        assertEquals(date, list.get(0));
+    }
+}
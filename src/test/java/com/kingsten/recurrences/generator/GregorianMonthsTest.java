@@ -0,0 +1,37 @@
+package com.kingsten.recurrences.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DateTimeException;
+import java.time.YearMonth;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GregorianMonthsTest {
+
+    @Test
+    public void GregorianMonths_MatchesYearMonth_Success_Test() {
+        // Cover more than two cycles, including years before zero.
+        for (int year = -450; year <= 450; year++) {
+            for (int month = 1; month <= 12; month++) {
+                YearMonth yearMonth = YearMonth.of(year, month);
+                assertEquals(yearMonth.lengthOfMonth(), GregorianMonths.lengthOfMonth(year, month));
+                assertEquals(yearMonth.atDay(1).getDayOfWeek().getValue(), GregorianMonths.firstDayOfWeek(year, month));
+            }
+        }
+        assertEquals(29, GregorianMonths.lengthOfMonth(2000, 2));
+        assertEquals(28, GregorianMonths.lengthOfMonth(2100, 2));
+    }
+
+    @Test
+    public void GregorianMonths_InvalidMonth_Exception_Test() {
+        try {
+            GregorianMonths.lengthOfMonth(2021, 13);
+        } catch (Exception e) {
+            assertTrue(e instanceof DateTimeException);
+            return;
+        }
+        throw new AssertionError("Expected a DateTimeException");
+    }
+}
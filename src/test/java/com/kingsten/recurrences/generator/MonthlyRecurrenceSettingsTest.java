@@ -2,10 +2,14 @@ package com.kingsten.recurrences.generator;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
 
 public class MonthlyRecurrenceSettingsTest {
 
@@ -48,4 +52,36 @@ public class MonthlyRecurrenceSettingsTest {
         values = RecurrenceHelper.getRecurrenceValues(values.seriesInfo);
         System.out.println(values);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void MonthlyRecurrenceSettingsNextDateMatchesValuesTest() throws Exception {
+        int[] adjustmentValues = {0, -2, 5};
+        for (int startDay = 0; startDay < 40; startDay += 7) {
+            LocalDateTime startDate = LocalDateTime.of(2019, 12, 20, 0, 0).plusDays(startDay);
+            for (int regenEveryXMonths = 1; regenEveryXMonths <= 3; regenEveryXMonths++) {
+                for (int adjustmentValue : adjustmentValues) {
+                    for (int dayValue = 1; dayValue <= 31; dayValue += 6) {
+                        MonthlyRecurrenceSettings mo = new MonthlyRecurrenceSettings(startDate, 30);
+                        mo.setAdjustmentValue(adjustmentValue);
+                        assertNextDates(mo, mo.getValues(dayValue, regenEveryXMonths).getValues());
+                    }
+                    for (MonthlyRecurrenceSettings.MonthlySpecificDatePartOne partOne : MonthlyRecurrenceSettings.MonthlySpecificDatePartOne.values()) {
+                        if (partOne == MonthlyRecurrenceSettings.MonthlySpecificDatePartOne.NotSet)
+                            continue;
+                        for (MonthlyRecurrenceSettings.MonthlySpecificDatePartTwo partTwo : MonthlyRecurrenceSettings.MonthlySpecificDatePartTwo.values()) {
+                            if (partTwo == MonthlyRecurrenceSettings.MonthlySpecificDatePartTwo.NotSet)
+                                continue;
+                            MonthlyRecurrenceSettings mo = new MonthlyRecurrenceSettings(startDate, 30);
+                            mo.setAdjustmentValue(adjustmentValue);
+                            assertNextDates(mo, mo.getValues(partOne, partTwo, regenEveryXMonths).getValues());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void assertNextDates(RecurrenceSettings settings, List<LocalDateTime> values) throws Exception {
+        RecurrenceAssert.assertNextDates(settings, values, values.get(0).minusDays(10), Duration.ofDays(5));
+    }
+}
@@ -0,0 +1,175 @@
+package com.kingsten.recurrences.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class RRuleCodecTest {
+
+    private static List<LocalDateTime> getDates(String rrule, LocalDateTime startDate) throws Exception {
+        return RecurrenceHelper.getRecurrenceRule(RRuleCodec.toSeriesInfo(rrule, startDate)).stream().limit(20).collect(Collectors.toList());
+    }
+
+    private static List<LocalDateTime> dates(int... values) {
+        LocalDateTime[] dates = new LocalDateTime[values.length / 3];
+        for (int i = 0; i < dates.length; i++)
+            dates[i] = LocalDateTime.of(values[i * 3], values[i * 3 + 1], values[i * 3 + 2], 0, 0);
+        return Arrays.asList(dates);
+    }
+
+    @Test
+    public void RRuleCodec_Import_Success_Test() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2021, 1, 1, 0, 0);
+        assertEquals(dates(2021, 1, 1, 2021, 1, 4, 2021, 1, 7, 2021, 1, 10),
+                getDates("FREQ=DAILY;INTERVAL=3;COUNT=4", start));
+        assertEquals(dates(2021, 1, 1, 2021, 1, 4, 2021, 1, 5, 2021, 1, 6, 2021, 1, 7, 2021, 1, 8),
+                getDates("FREQ=DAILY;BYDAY=MO,TU,WE,TH,FR;UNTIL=20210108T120000Z", start));
+        assertEquals(dates(2021, 1, 4, 2021, 1, 6, 2021, 1, 18, 2021, 1, 20),
+                getDates("RRULE:FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE;WKST=SU;COUNT=4", LocalDateTime.of(2021, 1, 4, 0, 0)));
+        assertEquals(dates(2021, 1, 31, 2021, 2, 28, 2021, 3, 31),
+                getDates("FREQ=MONTHLY;BYMONTHDAY=28,29,30,31;BYSETPOS=-1;COUNT=3", LocalDateTime.of(2021, 1, 31, 0, 0)));
+        assertEquals(dates(2021, 1, 29, 2021, 2, 26, 2021, 3, 31),
+                getDates("freq=monthly;byday=MO,TU,WE,TH,FR;bysetpos=-1;count=3", start));
+        assertEquals(dates(2021, 1, 29, 2021, 2, 26, 2021, 3, 26),
+                getDates("FREQ=MONTHLY;BYDAY=-1FR;COUNT=3", start));
+        assertEquals(dates(2021, 7, 12, 2022, 7, 11),
+                getDates("FREQ=YEARLY;BYMONTH=7;BYDAY=2MO;COUNT=2", start));
+        // Every 12 months from the 31st only lands on months with 31 days.
+        assertEquals(dates(2021, 1, 31, 2022, 1, 31),
+                getDates("FREQ=MONTHLY;INTERVAL=12;COUNT=2", LocalDateTime.of(2021, 1, 31, 0, 0)));
+        // A bare yearly rule is on the month and day of DTSTART.
+        assertEquals(dates(2021, 7, 12, 2022, 7, 12),
+                getDates("FREQ=YEARLY;COUNT=2", LocalDateTime.of(2021, 7, 12, 0, 0)));
+    }
+
+    @Test
+    public void RRuleCodec_RoundTrip_Success_Test() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2021, 1, 31, 0, 0);
+        DailyRecurrenceSettings everyTwoDays = new DailyRecurrenceSettings(start, 10);
+        everyTwoDays.setValues(2);
+        WeeklyRecurrenceSettings.SelectedDayOfWeekValues days = new WeeklyRecurrenceSettings.SelectedDayOfWeekValues();
+        days.Monday = true;
+        days.Thursday = true;
+        WeeklyRecurrenceSettings weekly = new WeeklyRecurrenceSettings(start, LocalDateTime.of(2021, 9, 30, 0, 0));
+        weekly.setValues(3, days);
+        MonthlyRecurrenceSettings monthly = new MonthlyRecurrenceSettings(start);
+        monthly.setValues(31, 2);
+        MonthlyRecurrenceSettings secondTuesday = new MonthlyRecurrenceSettings(start, 12);
+        secondTuesday.setValues(MonthlyRecurrenceSettings.MonthlySpecificDatePartOne.Second, MonthlyRecurrenceSettings.MonthlySpecificDatePartTwo.Tuesday, 1);
+        MonthlyRecurrenceSettings weekendDay = new MonthlyRecurrenceSettings(start);
+        weekendDay.setValues(MonthlyRecurrenceSettings.MonthlySpecificDatePartOne.First, MonthlyRecurrenceSettings.MonthlySpecificDatePartTwo.WeekendDay, 3);
+        YearlyRecurrenceSettings leapDay = new YearlyRecurrenceSettings(start);
+        leapDay.setValues(29, 2);
+        YearlyRecurrenceSettings lastFriday = new YearlyRecurrenceSettings(start, 5);
+        lastFriday.setValues(YearlyRecurrenceSettings.YearlySpecificDatePartOne.Last, YearlyRecurrenceSettings.YearlySpecificDatePartTwo.Friday,
+                YearlyRecurrenceSettings.YearlySpecificDatePartThree.November);
+
+        List<RecurrenceSettings> settingsList = Arrays.asList(everyTwoDays, new DailyRecurrenceSettings(start), weekly,
+                monthly, secondTuesday, weekendDay, leapDay, lastFriday);
+        for (RecurrenceSettings settings : settingsList) {
+            String seriesInfo = SeriesInfoCodec.encode(settings);
+            String rrule = RRuleCodec.toRRule(seriesInfo);
+            String imported = RRuleCodec.toSeriesInfo(rrule, start);
+            assertEquals(rrule, RRuleCodec.toRRule(imported));
+            assertEquals(rrule, RecurrenceHelper.getRecurrenceRule(seriesInfo).stream().limit(40).collect(Collectors.toList()),
+                    RecurrenceHelper.getRecurrenceRule(imported).stream().limit(40).collect(Collectors.toList()));
+        }
+        assertEquals("FREQ=YEARLY;BYMONTH=2;BYMONTHDAY=28,29;BYSETPOS=-1", RRuleCodec.toRRule(leapDay));
+        assertEquals("FREQ=WEEKLY;INTERVAL=3;BYDAY=MO,TH;WKST=SU;UNTIL=20210930", RRuleCodec.toRRule(weekly));
+        assertEquals("FREQ=MONTHLY;BYDAY=2TU;COUNT=12", RRuleCodec.toRRule(secondTuesday));
+    }
+
+    @Test
+    public void RRuleCodec_CustomDateUntil_Success_Test() throws Exception {
+        // UNTIL on a custom date is read as the number of dates up to it.
+        String seriesInfo = RRuleCodec.toSeriesInfo("FREQ=MONTHLY;BYDAY=1WE;UNTIL=20080505", LocalDateTime.of(2004, 11, 3, 0, 0));
+        List<LocalDateTime> values = RecurrenceHelper.getRecurrenceValues(seriesInfo).getValues();
+        assertEquals(42, values.size());
+        assertEquals(LocalDateTime.of(2008, 4, 2, 0, 0), values.get(values.size() - 1));
+        assertEquals("FREQ=MONTHLY;BYDAY=1WE;COUNT=42", RRuleCodec.toRRule(seriesInfo));
+
+        values = RecurrenceHelper.getRecurrenceValues(RRuleCodec.toSeriesInfo("FREQ=MONTHLY;BYDAY=1WE;UNTIL=20200103",
+                LocalDateTime.of(2017, 6, 7, 0, 0))).getValues();
+        assertEquals(32, values.size());
+        assertEquals(LocalDateTime.of(2020, 1, 1, 0, 0), values.get(values.size() - 1));
+        assertEquals(dates(2016, 5, 2), RecurrenceHelper.getRecurrenceValues(RRuleCodec.toSeriesInfo("FREQ=YEARLY;BYMONTH=5;BYDAY=1MO;UNTIL=20160713",
+                LocalDateTime.of(2016, 5, 2, 0, 0))).getValues());
+
+        // A custom date series ending on a specific date is written as the dates it generates.
+        for (LocalDateTime endDate : Arrays.asList(LocalDateTime.of(2008, 5, 5, 0, 0), LocalDateTime.of(2008, 5, 10, 0, 0))) {
+            MonthlyRecurrenceSettings mo = new MonthlyRecurrenceSettings(LocalDateTime.of(2004, 11, 3, 0, 0), endDate);
+            mo.setValues(MonthlyRecurrenceSettings.MonthlySpecificDatePartOne.First, MonthlyRecurrenceSettings.MonthlySpecificDatePartTwo.Wednesday, 1);
+            String rrule = RRuleCodec.toRRule(mo);
+            assertEquals("FREQ=MONTHLY;BYDAY=1WE;COUNT=" + mo.getValues().getValues().size(), rrule);
+            assertEquals(mo.getValues().getValues(), RecurrenceHelper.getRecurrenceValues(RRuleCodec.toSeriesInfo(rrule, mo.getStartDate())).getValues());
+        }
+        YearlyRecurrenceSettings yr = new YearlyRecurrenceSettings(LocalDateTime.of(2016, 5, 2, 0, 0), LocalDateTime.of(2016, 7, 13, 0, 0));
+        yr.setValues(YearlyRecurrenceSettings.YearlySpecificDatePartOne.First, YearlyRecurrenceSettings.YearlySpecificDatePartTwo.Monday,
+                YearlyRecurrenceSettings.YearlySpecificDatePartThree.May);
+        assertEquals("FREQ=YEARLY;BYMONTH=5;BYDAY=1MO;COUNT=" + yr.getValues().getValues().size(), RRuleCodec.toRRule(yr));
+    }
+
+    @Test
+    public void RRuleCodec_Unsupported_Failure_Test() {
+        List<String> rrules = Arrays.asList(
+                "",
+                "INTERVAL=2",
+                "FREQ=HOURLY",
+                "FREQ=DAILY;FREQ=DAILY",
+                "FREQ=DAILY;INTERVAL=x",
+                "FREQ=DAILY;COUNT=2;UNTIL=20210101",
+                "FREQ=DAILY;BYHOUR=9",
+                "FREQ=DAILY;BYDAY=MO,WE",
+                "FREQ=WEEKLY;INTERVAL=2;BYDAY=SA",
+                "FREQ=WEEKLY;INTERVAL=2;BYDAY=SU,MO",
+                "FREQ=MONTHLY;BYMONTHDAY=31",
+                "FREQ=MONTHLY;BYDAY=5MO",
+                "FREQ=MONTHLY;BYDAY=MO,TU;BYSETPOS=1",
+                "FREQ=YEARLY;INTERVAL=2",
+                "FREQ=YEARLY;BYMONTH=1,7",
+                "FREQ=YEARLY;BYMONTHDAY=15",
+                "FREQ=YEARLY;BYDAY=2MO",
+                "FREQ=YEARLY;BYDAY=MO;BYSETPOS=-1",
+                "FREQ=YEARLY;BYSETPOS=1");
+        for (String rrule : rrules) {
+            try {
+                RRuleCodec.toSeriesInfo(rrule, LocalDateTime.of(2021, 1, 1, 0, 0));
+                fail("Expected an exception for " + rrule);
+            } catch (IllegalArgumentException expected) {
+                // Expected
+            }
+        }
+
+        // An RRULE skips the months that don't have the day of DTSTART, the generators don't.
+        for (String rrule : Arrays.asList("FREQ=MONTHLY;COUNT=5", "FREQ=MONTHLY;INTERVAL=2;COUNT=5")) {
+            try {
+                RRuleCodec.toSeriesInfo(rrule, LocalDateTime.of(2021, 1, 31, 0, 0));
+                fail("Expected an exception for " + rrule + " from 31 Jan");
+            } catch (IllegalArgumentException expected) {
+                // Expected
+            }
+        }
+        try {
+            RRuleCodec.toSeriesInfo("FREQ=YEARLY;BYMONTH=2;COUNT=7", LocalDateTime.of(2016, 2, 29, 0, 0));
+            fail("Expected an exception for a yearly rule from 29 Feb");
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+
+        MonthlyRecurrenceSettings adjusted = new MonthlyRecurrenceSettings(LocalDateTime.of(2021, 1, 1, 0, 0));
+        adjusted.setValues(15, 1);
+        adjusted.setAdjustmentValue(2);
+        try {
+            RRuleCodec.toRRule(adjusted);
+            fail("Expected an exception for an adjustment value");
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.kingsten.recurrences.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class RecurrenceAgendaTest {
+
+    @Test
+    public void RecurrenceAgenda_MatchesSortedValues_Success_Test() throws Exception {
+        String[] patterns = {
+                "D20210101ZZZZZZZZ002002001",
+                "W20210101ZZZZZZZZ003002NYNYNYN002",
+                "Y20210101ZZZZZZZZ0010022902ZZZ000",
+                "M20210131ZZZZZZZZ00300231ZZ-10001",
+                "D20210101ZZZZZZZZ000000001",
+                "D2021010120210301000001003"
+        };
+        Map<String, String> seriesInfosById = new LinkedHashMap<>();
+        for (int i = 0; i < 60; i++)
+            seriesInfosById.put("series-" + i, patterns[i % patterns.length]);
+        RecurrenceQuery query = RecurrenceQuery.window(LocalDateTime.of(2021, 2, 1, 0, 0), LocalDateTime.of(2021, 5, 1, 0, 0));
+
+        // Expand, concatenate and sort, as the agenda was built before.
+        List<RecurrenceAgendaEntry> expected = new ArrayList<>();
+        for (Map.Entry<String, String> series : seriesInfosById.entrySet())
+            for (LocalDateTime date : RecurrenceHelper.getRecurrenceRule(series.getValue()).evaluate(query).getValues())
+                expected.add(new RecurrenceAgendaEntry(series.getKey(), date));
+        expected.sort(Comparator.comparing(RecurrenceAgendaEntry::getDate));
+
+        assertEquals(expected, RecurrenceAgenda.stream(seriesInfosById, query).collect(Collectors.toList()));
+        assertEquals(expected.subList(0, 25), RecurrenceHelper.getAgenda(seriesInfosById, query, 25).collect(Collectors.toList()));
+        assertEquals(0, RecurrenceHelper.getAgenda(seriesInfosById, query, 0).count());
+    }
+}
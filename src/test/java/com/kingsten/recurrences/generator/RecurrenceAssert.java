@@ -0,0 +1,34 @@
+package com.kingsten.recurrences.generator;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/// <summary>
+/// Checks shared by the tests of the four settings classes.
+/// </summary>
+final class RecurrenceAssert {
+
+    private RecurrenceAssert() {
+    }
+
+    /// <summary>
+    /// Check getNextDate against the first of the generated values after each date, stepping
+    /// from the first date given until the last value.
+    /// </summary>
+    static void assertNextDates(RecurrenceSettings settings, List<LocalDateTime> values, LocalDateTime fromDate, Duration step) throws Exception {
+        LocalDateTime lastDate = values.get(values.size() - 1);
+        for (LocalDateTime currentDate = fromDate; currentDate.isBefore(lastDate); currentDate = currentDate.plus(step)) {
+            LocalDateTime expected = null;
+            for (LocalDateTime value : values) {
+                if (value.isAfter(currentDate)) {
+                    expected = value;
+                    break;
+                }
+            }
+            assertEquals(expected, settings.getNextDate(currentDate));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.kingsten.recurrences.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RecurrenceBatchTest {
+
+    @Test
+    public void RecurrenceBatch_InputOrderAndErrors_Success_Test() throws Exception {
+        String[] patterns = {
+                "D20210101ZZZZZZZZ002002001",
+                "W20210101ZZZZZZZZ003002NYNYNYN002",
+                "Y20210101ZZZZZZZZ0010022902ZZZ000",
+                "M20210131ZZZZZZZZ00300231ZZ-10001",
+                "X20210101ZZZZZZZZ002002001",
+                null
+        };
+        List<String> seriesInfos = new ArrayList<>();
+        for (int i = 0; i < 2000; i++)
+            seriesInfos.add(patterns[i * 7 % patterns.length]);
+
+        RecurrenceQuery query = RecurrenceQuery.window(LocalDateTime.of(2021, 3, 1, 0, 0), LocalDateTime.of(2021, 6, 1, 0, 0));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        List<RecurrenceBatchResult> results;
+        try {
+            results = RecurrenceHelper.getRecurrenceValues(seriesInfos, query, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(seriesInfos.size(), results.size());
+        for (int i = 0; i < seriesInfos.size(); i++) {
+            String seriesInfo = seriesInfos.get(i);
+            RecurrenceBatchResult result = results.get(i);
+            assertEquals(seriesInfo, result.getSeriesInfo());
+            if (seriesInfo == null || seriesInfo.startsWith("X")) {
+                assertFalse(result.isSuccess());
+                assertNull(result.getValues());
+                assertTrue(result.getException() instanceof RecurrenceException);
+            } else {
+                assertTrue(result.isSuccess());
+                assertEquals(RecurrenceHelper.getRecurrenceValues(seriesInfo, query).getValues(), result.getValues().getValues());
+            }
+        }
+    }
+}
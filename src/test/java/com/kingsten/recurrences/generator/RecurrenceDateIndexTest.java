@@ -0,0 +1,63 @@
+package com.kingsten.recurrences.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RecurrenceDateIndexTest {
+
+    @Test
+    public void RecurrenceDateIndex_MatchesIsOccurrence_Success_Test() throws Exception {
+        String[] seriesInfos = {
+                "D20210101ZZZZZZZZ002002001",
+                "D20210101ZZZZZZZZ000000003",
+                "D2021010120210301000001003",
+                "D20210105ZZZZZZZZ000010001",
+                "W20210101ZZZZZZZZ003002NYNYNYN002",
+                "W20210106ZZZZZZZZ000000NNYNNYN003",
+                "W20210106ZZZZZZZZ000000YNNNNNY002",
+                "M20210131ZZZZZZZZ00300231ZZ-10001",
+                "M20210101ZZZZZZZZ00301200EJ-10002",
+                "M20210115ZZZZZZZZ00000031ZZ000002",
+                "M20210115ZZZZZZZZ00001000BB002003",
+                "Y20210101ZZZZZZZZ0010022902ZZZ000",
+                "Y20210101ZZZZZZZZ0012120000BFC000",
+                "Y20210101ZZZZZZZZ0000100000ABL-05"
+        };
+        RecurrenceDateIndex index = new RecurrenceDateIndex();
+        for (int i = 0; i < seriesInfos.length; i++)
+            index.add("series-" + i, seriesInfos[i]);
+        // Replacing a series keeps one entry for its id.
+        index.add("series-0", seriesInfos[0]);
+        assertEquals(seriesInfos.length, index.size());
+        assertMatches(index, seriesInfos);
+
+        assertTrue(index.remove("series-4"));
+        assertTrue(index.remove("series-8"));
+        assertFalse(index.remove("series-8"));
+        seriesInfos[4] = null;
+        seriesInfos[8] = null;
+        assertEquals(seriesInfos.length - 2, index.size());
+        assertMatches(index, seriesInfos);
+    }
+
+    private static void assertMatches(RecurrenceDateIndex index, String[] seriesInfos) throws Exception {
+        for (LocalDate date = LocalDate.of(2020, 12, 1); date.isBefore(LocalDate.of(2024, 1, 1)); date = date.plusDays(1)) {
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < seriesInfos.length; i++)
+                if (seriesInfos[i] != null && RecurrenceHelper.isOccurrence(seriesInfos[i], date.atStartOfDay()))
+                    expected.add("series-" + i);
+            List<String> actual = index.getSeriesIds(date);
+            Collections.sort(expected);
+            Collections.sort(actual);
+            assertEquals(date.toString(), expected, actual);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.kingsten.recurrences.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RecurrenceExclusionsTest {
+
+    @Test
+    public void RecurrenceExclusions_Text_Success_Test() {
+        RecurrenceExclusions exclusions = RecurrenceExclusions.of(Arrays.asList(
+                LocalDate.of(2021, 1, 12), LocalDate.of(2021, 1, 5), LocalDate.of(2021, 1, 12)));
+        assertEquals("20210105,20210112", exclusions.toString());
+        assertEquals(exclusions, RecurrenceExclusions.parse("20210105,20210112"));
+        assertEquals(RecurrenceExclusions.NONE, RecurrenceExclusions.parse(""));
+
+        RecurrenceExclusions added = exclusions.with(LocalDate.of(2021, 1, 8));
+        assertEquals("20210105,20210108,20210112", added.toString());
+        assertTrue(added.contains(LocalDate.of(2021, 1, 8)));
+        assertEquals(exclusions, added.without(LocalDate.of(2021, 1, 8)));
+        assertEquals(2, exclusions.size());
+    }
+
+    @Test
+    public void RecurrenceExclusions_SkippedEverywhere_Success_Test() throws Exception {
+        List<String> seriesInfos = Arrays.asList(
+                "D20210101ZZZZZZZZ002002001",
+                "D2021010120210301000001003",
+                "W20210101ZZZZZZZZ003002NYNYNYN002",
+                "M20210131ZZZZZZZZ00300231ZZ-10001",
+                "Y20210101ZZZZZZZZ0010022902ZZZ000");
+        for (String seriesInfo : seriesInfos) {
+            List<LocalDateTime> values = RecurrenceHelper.getRecurrenceValues(seriesInfo).getValues();
+            // Exclude every third date and the last one.
+            List<LocalDate> excluded = new ArrayList<>();
+            for (int i = 0; i < values.size(); i += 3)
+                excluded.add(values.get(i).toLocalDate());
+            excluded.add(values.get(values.size() - 1).toLocalDate());
+            RecurrenceExclusions exclusions = RecurrenceExclusions.of(excluded);
+            List<LocalDateTime> expected = values.stream()
+                    .filter(date -> !exclusions.contains(date.toLocalDate()))
+                    .collect(Collectors.toList());
+
+            RecurrenceRule rule = RecurrenceHelper.getRecurrenceRule(seriesInfo, exclusions);
+            LocalDateTime first = values.get(0);
+            LocalDateTime last = values.get(values.size() - 1);
+            assertEquals(seriesInfo, expected, rule.stream().collect(Collectors.toList()));
+            assertEquals(seriesInfo, expected, rule.stream().parallel().collect(Collectors.toList()));
+            assertEquals(seriesInfo, expected, RecurrenceHelper.getRecurrenceValues(seriesInfo, RecurrenceQuery.range(first, last), exclusions).getValues());
+            assertEquals(seriesInfo, expected.size(), RecurrenceHelper.count(seriesInfo, first, last, exclusions));
+            // A number of dates skips the excluded ones, and excluded dates still end the series.
+            assertEquals(seriesInfo, expected.subList(0, 4), rule.evaluate(RecurrenceQuery.count(first, 4)).getValues());
+            assertEquals(seriesInfo, expected, rule.evaluate(RecurrenceQuery.count(first, 10000)).getValues());
+            assertEquals(seriesInfo, expected.get(0), RecurrenceHelper.getNextDate(first, seriesInfo, exclusions));
+            assertEquals(seriesInfo, expected.get(1), rule.evaluate(RecurrenceQuery.nextAfter(expected.get(0))).getValues().get(0));
+            assertEquals(seriesInfo, expected.get(expected.size() - 1), rule.getPreviousDate(last.plusDays(1)));
+            assertFalse(seriesInfo, rule.isOccurrence(first));
+            assertTrue(seriesInfo, rule.isOccurrence(expected.get(0)));
+        }
+    }
+}
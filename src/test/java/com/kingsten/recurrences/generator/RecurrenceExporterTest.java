@@ -0,0 +1,49 @@
+package com.kingsten.recurrences.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.Assert.assertEquals;
+
+public class RecurrenceExporterTest {
+
+    @Test
+    public void RecurrenceExporter_MatchesValues_Success_Test() throws Exception {
+        String seriesInfo = "M20210131ZZZZZZZZ00300231ZZ-10001";
+        RecurrenceQuery query = RecurrenceQuery.window(LocalDateTime.of(2021, 1, 1, 0, 0), LocalDateTime.of(2023, 1, 1, 0, 0));
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+        StringBuilder csv = new StringBuilder();
+        StringBuilder json = new StringBuilder();
+        RecurrenceValues values = RecurrenceHelper.getRecurrenceValues(seriesInfo, query);
+        for (LocalDateTime date : values.getValues()) {
+            csv.append(seriesInfo).append(',').append(date.format(formatter)).append('\n');
+            json.append("{\"seriesInfo\":\"").append(seriesInfo).append("\",\"date\":\"").append(date.format(formatter)).append("\"}\n");
+        }
+
+        StringWriter writer = new StringWriter();
+        RecurrenceExporter exporter = new RecurrenceExporter(RecurrenceExporter.ExportFormat.Csv);
+        assertEquals(values.getValues().size(), exporter.write(seriesInfo, query, writer));
+        assertEquals(csv.toString(), writer.toString());
+
+        exporter = new RecurrenceExporter(RecurrenceExporter.ExportFormat.NdJson);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.write(seriesInfo, query, out);
+        assertEquals(json.toString(), new String(out.toByteArray(), StandardCharsets.US_ASCII));
+
+        // Enough dates to fill the byte buffer a number of times.
+        out.reset();
+        RecurrenceQuery manyDates = RecurrenceQuery.count(LocalDateTime.of(2021, 1, 1, 0, 0), 5000);
+        long count = exporter.write("D20210101ZZZZZZZZ000000001", manyDates, Channels.newChannel(out));
+        assertEquals(count, RecurrenceHelper.getRecurrenceValues("D20210101ZZZZZZZZ000000001", manyDates).getValues().size());
+        String[] lines = new String(out.toByteArray(), StandardCharsets.US_ASCII).split("\n");
+        assertEquals(count, lines.length);
+        assertEquals("{\"seriesInfo\":\"D20210101ZZZZZZZZ000000001\",\"date\":\"2021-01-01T00:00:00\"}", lines[0]);
+    }
+}
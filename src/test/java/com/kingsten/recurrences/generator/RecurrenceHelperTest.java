@@ -5,8 +5,14 @@ import org.junit.jupiter.api.Test;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class RecurrenceHelperTest {
 
@@ -87,4 +93,198 @@ public class RecurrenceHelperTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void RecurrenceStream_NoEndDate_Success_Test() throws Exception {
+        //every 3 days with no end date
+        List<LocalDateTime> dates = RecurrenceHelper.getRecurrenceStream("D20210101ZZZZZZZZ000000003")
+                .limit(4)
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList(LocalDateTime.of(2021, 1, 1, 0, 0), LocalDateTime.of(2021, 1, 4, 0, 0),
+                LocalDateTime.of(2021, 1, 7, 0, 0), LocalDateTime.of(2021, 1, 10, 0, 0)), dates);
+
+        //weekly on monday and friday with no end date, far into the future
+        WeeklyRecurrenceSettings.SelectedDayOfWeekValues selectedValues = new WeeklyRecurrenceSettings.SelectedDayOfWeekValues();
+        selectedValues.Monday = true;
+        selectedValues.Friday = true;
+        WeeklyRecurrenceSettings we = new WeeklyRecurrenceSettings(LocalDateTime.of(2021, 1, 1, 0, 0));
+        we.setValues(2, selectedValues);
+        assertEquals(we.getNextDate(LocalDateTime.of(2030, 12, 31, 0, 0)),
+                RecurrenceHelper.getRecurrenceStream(we.getSeriesInfo())
+                        .filter(date -> date.getYear() > 2030)
+                        .findFirst().get());
+    }
+
+    @Test
+    public void RecurrenceStream_MatchesRecurrenceValues_Success_Test() throws Exception {
+        List<String> seriesInfos = Arrays.asList(
+                "D20210101ZZZZZZZZ002012001",
+                "D2021010120210301000001003",
+                "W20210101ZZZZZZZZ003002NYNYNYN002",
+                "W2021010120210401000001NNNNNNY003",
+                "M20210131ZZZZZZZZ00300231ZZ000001",
+                "M202101312022013100000131ZZ000001",
+                "M20210101ZZZZZZZZ00301200EJ003002",
+                "Y20210101ZZZZZZZZ0010022902ZZZ000",
+                "Y20210101204001010000011506ZZZ000",
+                "Y20210101ZZZZZZZZ0012120000BFC000");
+        for (String seriesInfo : seriesInfos) {
+            List<LocalDateTime> values = RecurrenceHelper.getRecurrenceValues(seriesInfo).getValues();
+            List<LocalDateTime> streamed = RecurrenceHelper.getRecurrenceStream(seriesInfo).collect(Collectors.toList());
+            assertEquals(seriesInfo, values, streamed);
+            assertEquals(seriesInfo, values, RecurrenceHelper.getRecurrenceStream(seriesInfo).parallel().collect(Collectors.toList()));
+        }
+
+        Iterator<LocalDateTime> iterator = DailyRecurrenceSettings.getRecurrenceSettings("D20210101ZZZZZZZZ000202001").iterator();
+        assertEquals(LocalDateTime.of(2021, 1, 1, 0, 0), iterator.next());
+        assertEquals(LocalDateTime.of(2021, 1, 2, 0, 0), iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void RecurrenceQuery_MatchesRecurrenceValues_Success_Test() throws Exception {
+        String seriesInfo = "M20210131ZZZZZZZZ00300231ZZ-10001";
+        List<LocalDateTime> values = RecurrenceHelper.getRecurrenceValues(seriesInfo).getValues();
+
+        RecurrenceValues range = RecurrenceHelper.getRecurrenceValues(seriesInfo,
+                RecurrenceQuery.range(values.get(3), values.get(9)));
+        assertEquals(values.subList(3, 10), range.getValues());
+        assertEquals(values.get(3), range.getStartDate());
+        assertEquals(values.get(9), range.getEndDate());
+
+        assertEquals(values.subList(4, 9), RecurrenceHelper.getRecurrenceValues(seriesInfo,
+                RecurrenceQuery.count(values.get(3).plusHours(1), 5)).getValues());
+        assertEquals(values.subList(25, 30), RecurrenceHelper.getRecurrenceValues(seriesInfo,
+                RecurrenceQuery.count(values.get(25), 10)).getValues());
+        assertEquals(values.subList(4, 5), RecurrenceHelper.getRecurrenceValues(seriesInfo,
+                RecurrenceQuery.nextAfter(values.get(3))).getValues());
+        assertEquals(0, RecurrenceHelper.getRecurrenceValues(seriesInfo,
+                RecurrenceQuery.nextAfter(values.get(29))).getValues().size());
+
+        // Getting values from another start date leaves the settings as they were.
+        RecurrenceSettings settings = RecurrenceHelper.getRecurrenceRule(seriesInfo).getRecurrenceSettings();
+        assertEquals(3, settings.getValues(LocalDateTime.of(2022, 1, 1, 0, 0), 3).getValues().size());
+        assertEquals(RecurrenceSettings.EndDateType.NumberOfOccurrences, settings.getEndDateType());
+        assertEquals(30, settings.getNumberOfOccurrences());
+        assertEquals(LocalDateTime.of(2021, 1, 31, 0, 0), settings.getStartDate());
+    }
+
+    @Test
+    public void RecurrenceWindow_KeepsSeriesPhase_Success_Test() throws Exception {
+        DailyRecurrenceSettings da = new DailyRecurrenceSettings(LocalDateTime.of(2021, 1, 1, 9, 0));
+        da.setValues(3);
+        String seriesInfo = da.getSeriesInfo();
+        LocalDateTime from = LocalDateTime.of(2024, 3, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 4, 1, 0, 0);
+
+        List<LocalDateTime> expected = RecurrenceHelper.getRecurrenceStream(seriesInfo)
+                .filter(d -> !d.isBefore(from))
+                .limit(20)
+                .filter(d -> d.isBefore(to))
+                .collect(Collectors.toList());
+        RecurrenceValues window = RecurrenceHelper.getRecurrenceValuesInWindow(seriesInfo, from, to);
+        assertEquals(expected, window.getValues());
+        assertEquals(expected.get(0), window.getStartDate());
+
+        // The end of the window isn't included.
+        LocalDateTime last = expected.get(expected.size() - 1);
+        assertEquals(expected.subList(0, expected.size() - 1),
+                RecurrenceHelper.getRecurrenceValuesInWindow(seriesInfo, from, last).getValues());
+        assertEquals(0, RecurrenceHelper.getRecurrenceValuesInWindow(seriesInfo, last, last).getValues().size());
+    }
+
+    @Test
+    public void RecurrenceLastDate_MatchesValues_Success_Test() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2021, 1, 31, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2023, 3, 29, 0, 0);
+
+        MonthlyRecurrenceSettings mo = new MonthlyRecurrenceSettings(start, end);
+        mo.setValues(MonthlyRecurrenceSettings.MonthlySpecificDatePartOne.Last, MonthlyRecurrenceSettings.MonthlySpecificDatePartTwo.Friday, 2);
+        mo.setAdjustmentValue(3);
+        YearlyRecurrenceSettings yr = new YearlyRecurrenceSettings(start, end);
+        yr.setValues(YearlyRecurrenceSettings.YearlySpecificDatePartOne.Second, YearlyRecurrenceSettings.YearlySpecificDatePartTwo.Monday,
+                YearlyRecurrenceSettings.YearlySpecificDatePartThree.July);
+        WeeklyRecurrenceSettings we = new WeeklyRecurrenceSettings(start, end);
+        WeeklyRecurrenceSettings.SelectedDayOfWeekValues days = new WeeklyRecurrenceSettings.SelectedDayOfWeekValues();
+        days.Thursday = true;
+        we.setValues(3, days);
+        DailyRecurrenceSettings da = new DailyRecurrenceSettings(start, end.minusYears(3));
+        da.setValues(4);
+
+        for (RecurrenceSettings settings : Arrays.asList(mo, yr, we, da, new DailyRecurrenceSettings(start, 0)))
+            assertEquals(settings.getValues().getLastDate(), settings.getLastDate());
+
+        String seriesInfo = mo.getValues().getSeriesInfo();
+        LocalDateTime lastDate = mo.getValues().getLastDate();
+        assertEquals(mo.getValues(lastDate.plusDays(1), 4).getValues(),
+                RecurrenceHelper.getPostRecurrenceValues(seriesInfo, 4).getValues());
+    }
+
+    @Test
+    public void RecurrenceCount_MatchesValues_Success_Test() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2021, 3, 5, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2022, 7, 31, 0, 0);
+        for (String seriesInfo : Arrays.asList("D20210101ZZZZZZZZ002002001", "W20210101ZZZZZZZZ003002NYNYNYN002",
+                "M20210131ZZZZZZZZ00300231ZZ-10001", "Y20210101ZZZZZZZZ0010022902ZZZ000")) {
+            long expected = RecurrenceHelper.getRecurrenceStream(seriesInfo)
+                    .filter(d -> !d.isBefore(from) && !d.isAfter(to))
+                    .count();
+            assertEquals(expected, RecurrenceHelper.count(seriesInfo, from, to));
+        }
+
+        // A series with no end date is counted up to the end of the range.
+        DailyRecurrenceSettings da = new DailyRecurrenceSettings(LocalDateTime.of(2021, 1, 1, 0, 0));
+        da.setValues(3);
+        assertEquals(122, RecurrenceHelper.count(da.getSeriesInfo(), LocalDateTime.of(2021, 1, 1, 0, 0), LocalDateTime.of(2021, 12, 31, 0, 0)));
+        assertEquals(121, RecurrenceHelper.count(da.getSeriesInfo(), LocalDateTime.of(2021, 1, 1, 0, 1), LocalDateTime.of(2021, 12, 31, 0, 0)));
+
+        // Series ending on a specific date keep the dates the generators add past the end date.
+        for (String seriesInfo : Arrays.asList("M202010062022011000001100BJ000003", "D2020102720201021000011001",
+                "Y20220415202512130000110000BAH000")) {
+            List<LocalDateTime> values = RecurrenceHelper.getRecurrenceValues(seriesInfo).getValues();
+            assertEquals(seriesInfo, values.size(), RecurrenceHelper.count(seriesInfo, LocalDateTime.of(2000, 1, 1, 0, 0), LocalDateTime.of(2100, 1, 1, 0, 0)));
+            assertEquals(seriesInfo, values, RecurrenceHelper.getRecurrenceStream(seriesInfo).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void RecurrenceIsOccurrence_MatchesValues_Success_Test() throws Exception {
+        for (String seriesInfo : Arrays.asList("D20210101ZZZZZZZZ002002001", "W20210101ZZZZZZZZ003002NYNYNYN002",
+                "M20210131ZZZZZZZZ00300231ZZ-10001", "Y20210101ZZZZZZZZ0010022902ZZZ000")) {
+            List<LocalDateTime> values = RecurrenceHelper.getRecurrenceValues(seriesInfo).getValues();
+            for (LocalDateTime date = LocalDateTime.of(2020, 12, 1, 0, 0); date.getYear() < 2024; date = date.plusDays(1))
+                assertEquals(seriesInfo + " " + date, values.contains(date), RecurrenceHelper.isOccurrence(seriesInfo, date));
+            assertFalse(RecurrenceHelper.isOccurrence(seriesInfo, values.get(0).plusHours(1)));
+        }
+
+        // The custom date past the end date is one of the dates of the series.
+        String seriesInfo = "M202010062022011000001100BJ000003";
+        assertEquals(LocalDateTime.of(2022, 1, 14, 0, 0), RecurrenceHelper.getRecurrenceValues(seriesInfo).getLastDate());
+        assertTrue(RecurrenceHelper.isOccurrence(seriesInfo, LocalDateTime.of(2022, 1, 14, 0, 0)));
+        assertTrue(RecurrenceHelper.isOccurrence("D2020102720201021000011001", LocalDateTime.of(2020, 10, 27, 0, 0)));
+    }
+
+    @Test
+    public void RecurrencePreviousDate_MatchesValues_Success_Test() throws Exception {
+        for (String seriesInfo : Arrays.asList("D20210101ZZZZZZZZ002002001", "W20210101ZZZZZZZZ003002NYNYNYN002",
+                "M20210131ZZZZZZZZ00300231ZZ-10001", "Y20210101ZZZZZZZZ0010022902ZZZ000")) {
+            List<LocalDateTime> values = RecurrenceHelper.getRecurrenceValues(seriesInfo).getValues();
+            LocalDateTime expected = LocalDateTime.MIN;
+            int next = 0;
+            for (LocalDateTime date = LocalDateTime.of(2020, 12, 1, 12, 0); date.getYear() < 2024; date = date.plusDays(1)) {
+                while (next < values.size() && values.get(next).isBefore(date))
+                    expected = values.get(next++);
+                assertEquals(seriesInfo + " " + date, expected, RecurrenceHelper.getPreviousDate(date, seriesInfo));
+            }
+            assertEquals(values.get(0), RecurrenceHelper.getPreviousDate(values.get(1), seriesInfo));
+        }
+
+        // Past the end the last date is the one getLastDate returns, from the rule and the settings.
+        LocalDateTime later = LocalDateTime.of(2030, 1, 1, 0, 0);
+        for (String seriesInfo : Arrays.asList("M202010062022011000001100BJ000003", "D2020102720201021000011001")) {
+            RecurrenceSettings settings = RecurrenceHelper.getRecurrenceRule(seriesInfo).getRecurrenceSettings();
+            assertEquals(seriesInfo, settings.getLastDate(), RecurrenceHelper.getPreviousDate(later, seriesInfo));
+            assertEquals(seriesInfo, settings.getLastDate(), settings.getPreviousDate(later));
+        }
+        assertEquals(LocalDateTime.of(2022, 1, 14, 0, 0), RecurrenceHelper.getPreviousDate(later, "M202010062022011000001100BJ000003"));
+    }
+}
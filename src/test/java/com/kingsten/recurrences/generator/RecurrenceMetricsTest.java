@@ -0,0 +1,167 @@
+package com.kingsten.recurrences.generator;
+
+import com.kingsten.recurrences.generator.RecurrenceInfo.RecurrenceType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RecurrenceMetricsTest {
+
+    /// <summary>
+    /// A registry of named counters, standing in for the application's metrics library.
+    /// </summary>
+    private static class InMemoryRegistry {
+        private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+        void add(String name, long value) {
+            counters.computeIfAbsent(name, key -> new LongAdder()).add(value);
+        }
+
+        long get(String name) {
+            LongAdder counter = counters.get(name);
+            return counter == null ? 0 : counter.sum();
+        }
+    }
+
+    /// <summary>
+    /// Adapter from RecurrenceMetrics to the registry.
+    /// </summary>
+    private static class RegistryMetrics implements RecurrenceMetrics {
+        private final InMemoryRegistry registry;
+
+        RegistryMetrics(InMemoryRegistry registry) {
+            this.registry = registry;
+        }
+
+        @Override
+        public void recordCall(String entryPoint, RecurrenceType patternType, long nanos) {
+            registry.add(entryPoint + ".calls." + patternType.name(), 1);
+            registry.add(entryPoint + ".nanos." + patternType.name(), nanos);
+        }
+
+        @Override
+        public void recordIterations(String entryPoint, RecurrenceType patternType, long iterations) {
+            registry.add(entryPoint + ".iterations." + patternType.name(), iterations);
+        }
+
+        @Override
+        public void recordOccurrences(String entryPoint, RecurrenceType patternType, long occurrences) {
+            registry.add(entryPoint + ".occurrences." + patternType.name(), occurrences);
+        }
+
+        @Override
+        public void recordCacheHit() {
+            registry.add("cache.hits", 1);
+        }
+
+        @Override
+        public void recordCacheMiss() {
+            registry.add("cache.misses", 1);
+        }
+
+        @Override
+        public void recordException(String entryPoint, String code) {
+            registry.add(entryPoint + ".exceptions." + code, 1);
+        }
+    }
+
+    @Test
+    public void RecurrenceMetrics_Registry_Success_Test() throws Exception {
+        InMemoryRegistry registry = new InMemoryRegistry();
+        RecurrenceRuleCache previousCache = RecurrenceHelper.getRuleCache();
+        RecurrenceHelper.setRuleCache(new RecurrenceRuleCache());
+        MonthlyRecurrenceSettings mo = new MonthlyRecurrenceSettings(LocalDateTime.of(2021, 1, 15, 0, 0), 6);
+        mo.setValues(15, 1);
+        String seriesInfo = mo.getSeriesInfo();
+        RecurrenceHelper.setMetrics(new RegistryMetrics(registry));
+        try {
+            RecurrenceValues values = RecurrenceHelper.getRecurrenceValues(seriesInfo);
+            assertEquals(6, values.getValues().size());
+            assertEquals(1, registry.get("RecurrenceHelper.getRecurrenceValues.calls.Monthly"));
+            assertEquals(6, registry.get("RecurrenceHelper.getRecurrenceValues.occurrences.Monthly"));
+            assertTrue(registry.get("RecurrenceHelper.getRecurrenceValues.nanos.Monthly") > 0);
+            // The settings report the loop underneath, 15 Jan to 15 Jun.
+            assertEquals(1, registry.get("MonthlyRecurrenceSettings.getValues.calls.Monthly"));
+            assertEquals(6, registry.get("MonthlyRecurrenceSettings.getValues.occurrences.Monthly"));
+            assertEquals(152, registry.get("MonthlyRecurrenceSettings.getValues.iterations.Monthly"));
+
+            assertEquals(LocalDateTime.of(2021, 2, 15, 0, 0), RecurrenceHelper.getNextDate(LocalDateTime.of(2021, 1, 15, 0, 0), seriesInfo));
+            assertEquals(LocalDateTime.MIN, RecurrenceHelper.getPreviousDate(LocalDateTime.of(2021, 1, 1, 0, 0), seriesInfo));
+            assertEquals(1, registry.get("RecurrenceHelper.getNextDate.occurrences.Monthly"));
+            assertEquals(0, registry.get("RecurrenceHelper.getPreviousDate.occurrences.Monthly"));
+            assertEquals(1, registry.get("RecurrenceRule.getNextDate.iterations.Monthly"));
+            assertEquals(3, registry.get("cache.hits") + registry.get("cache.misses"));
+            assertEquals(1, registry.get("cache.misses"));
+
+            // Two excluded dates are skipped with two more lookups.
+            RecurrenceExclusions exclusions = RecurrenceExclusions.of(Collections.singletonList(LocalDate.of(2021, 2, 15)))
+                    .with(LocalDate.of(2021, 3, 15));
+            assertEquals(LocalDateTime.of(2021, 4, 15, 0, 0), RecurrenceHelper.getNextDate(LocalDateTime.of(2021, 1, 15, 0, 0), seriesInfo, exclusions));
+            assertEquals(4, registry.get("RecurrenceRule.getNextDate.iterations.Monthly"));
+            assertEquals(2, registry.get("RecurrenceHelper.getNextDate.calls.Monthly"));
+
+            assertEquals(3, RecurrenceHelper.count(seriesInfo, LocalDateTime.of(2021, 1, 1, 0, 0), LocalDateTime.of(2021, 3, 31, 0, 0)));
+            assertEquals(3, registry.get("RecurrenceHelper.count.occurrences.Monthly"));
+
+            // Parsing the Series Info for display is reported, parsing it for a rule is a cache miss only.
+            long misses = registry.get("cache.misses");
+            assertEquals(RecurrenceInfo.RecurrenceType.Monthly, RecurrenceHelper.getFriendlySeriesInfo(seriesInfo).getRecurrenceType());
+            assertEquals(1, registry.get("RecurrenceHelper.getFriendlySeriesInfo.calls.Monthly"));
+            assertEquals(misses, registry.get("cache.misses"));
+            try {
+                RecurrenceHelper.getFriendlySeriesInfo("");
+                fail("Expected an exception for an empty Series Info");
+            } catch (StringIndexOutOfBoundsException expected) {
+                // Expected
+            }
+            assertEquals(1, registry.get("RecurrenceHelper.getFriendlySeriesInfo.exceptions.StringIndexOutOfBoundsException"));
+            assertEquals(1, registry.get("RecurrenceHelper.getFriendlySeriesInfo.calls.NotSet"));
+            RecurrenceHelper.getRuleCache().clear();
+            RecurrenceHelper.getNextDate(LocalDateTime.of(2021, 1, 15, 0, 0), seriesInfo);
+            assertEquals(misses + 1, registry.get("cache.misses"));
+            assertEquals(1, registry.get("RecurrenceHelper.getFriendlySeriesInfo.calls.Monthly"));
+
+            // A daily series with no end date can't be generated.
+            DailyRecurrenceSettings da = new DailyRecurrenceSettings(LocalDateTime.of(2021, 1, 1, 0, 0));
+            da.setValues(1);
+            try {
+                RecurrenceHelper.getRecurrenceValues(da.getSeriesInfo());
+                fail("Expected an exception for a series with no end date");
+            } catch (RecurrenceException expected) {
+                // Expected
+            }
+            assertEquals(1, registry.get("RecurrenceHelper.getRecurrenceValues.exceptions." + RecurrenceException.GENERIC_EXCEPTION_CODE));
+            assertEquals(1, registry.get("DailyRecurrenceSettings.getValues.exceptions." + RecurrenceException.GENERIC_EXCEPTION_CODE));
+            assertEquals(1, registry.get("RecurrenceHelper.getRecurrenceValues.calls.Daily"));
+        } finally {
+            RecurrenceHelper.setMetrics(RecurrenceMetrics.NONE);
+            RecurrenceHelper.setRuleCache(previousCache);
+        }
+
+        // Nothing more is recorded once the metrics are switched off.
+        long calls = registry.get("RecurrenceHelper.count.calls.Monthly");
+        RecurrenceHelper.count(seriesInfo, LocalDateTime.of(2021, 1, 1, 0, 0), LocalDateTime.of(2021, 3, 31, 0, 0));
+        assertEquals(calls, registry.get("RecurrenceHelper.count.calls.Monthly"));
+        assertSame(RecurrenceMetrics.NONE, RecurrenceHelper.getMetrics());
+    }
+
+    @Test
+    public void RecurrenceMetrics_Null_Failure_Test() {
+        try {
+            RecurrenceHelper.setMetrics(null);
+            fail("Expected an exception for null metrics");
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+    }
+}
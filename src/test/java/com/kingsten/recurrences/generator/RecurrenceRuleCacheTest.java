@@ -0,0 +1,75 @@
+package com.kingsten.recurrences.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RecurrenceRuleCacheTest {
+
+    @Test
+    public void RuleCache_HitsAndMisses_Success_Test() throws Exception {
+        RecurrenceRuleCache cache = new RecurrenceRuleCache(2);
+
+        RecurrenceRule daily = cache.getRule("D20210101ZZZZZZZZ002002001");
+        assertSame(daily, cache.getRule("D20210101ZZZZZZZZ002002001"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        // The weekly rule is the least recently used once daily is read again.
+        cache.getRule("W20210101ZZZZZZZZ003002NYNYNYN002");
+        cache.getRule("D20210101ZZZZZZZZ002002001");
+        cache.getRule("Y20210101ZZZZZZZZ0010022902ZZZ000");
+        assertEquals(2, cache.size());
+        assertSame(daily, cache.getRule("D20210101ZZZZZZZZ002002001"));
+        cache.getRule("W20210101ZZZZZZZZ003002NYNYNYN002");
+        assertEquals(3, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void RuleCache_Disabled_Success_Test() throws Exception {
+        RecurrenceRuleCache cache = new RecurrenceRuleCache(0);
+
+        RecurrenceRule rule = cache.getRule("D20210101ZZZZZZZZ002002001");
+        assertNotSame(rule, cache.getRule("D20210101ZZZZZZZZ002002001"));
+        assertEquals(rule, cache.getRule("D20210101ZZZZZZZZ002002001"));
+        assertEquals(0, cache.size());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void RecurrenceRule_MatchesSettings_Success_Test() throws Exception {
+        MonthlyRecurrenceSettings mo = new MonthlyRecurrenceSettings(LocalDateTime.of(2021, 1, 31, 0, 0), 30);
+        mo.setValues(31, 2);
+        mo.setAdjustmentValue(-10);
+        RecurrenceRule rule = RecurrenceRule.compile(mo.getSeriesInfo());
+
+        LocalDateTime current = LocalDateTime.of(2021, 4, 1, 0, 0);
+        assertEquals(mo.getNextDate(current), rule.getNextDate(current));
+        assertEquals(mo.getValues().getValues().size(), rule.stream().count());
+
+        // Changing a copy of the info doesn't change the rule.
+        rule.getFriendlyInfo().setNumberOfOccurrences(5);
+        assertEquals(30, rule.getFriendlyInfo().getNumberOfOccurrences());
+    }
+
+    @Test
+    public void RecurrenceRule_InvalidSeriesInfo_Exception_Test() {
+        try {
+            RecurrenceRule.compile("X20210101ZZZZZZZZ002002001");
+        } catch (Exception e) {
+            assertTrue(e instanceof RecurrenceException);
+            return;
+        }
+        throw new AssertionError("Expected a RecurrenceException");
+    }
+}
@@ -0,0 +1,84 @@
+package com.kingsten.recurrences.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SeriesInfoBinaryCodecTest {
+
+    @Test
+    public void SeriesInfoBinaryCodec_RoundTrip_Success_Test() throws Exception {
+        List<String> seriesInfos = Arrays.asList(
+                "D20210101ZZZZZZZZ002012001",
+                "D2021010120210301000001003",
+                "D00000101ZZZZZZZZ999900999",
+                "W20210101ZZZZZZZZ003002NYNYNYN002",
+                "W2021010199991231000001NNNNNNY003",
+                "W09991231ZZZZZZZZ-00302NNNNNNN999",
+                "M20210131ZZZZZZZZ00300231ZZ000001",
+                "M20210101ZZZZZZZZ00301200EJ-10002",
+                "M20210101ZZZZZZZZ00301200AK999999",
+                "Y20210101ZZZZZZZZ0010022902ZZZ000",
+                "Y20210101204001010000011506ZZZ-15",
+                "Y20210101ZZZZZZZZ0012120000BFC000",
+                "Y20210101ZZZZZZZZ0012120000EJL-99");
+        for (String seriesInfo : seriesInfos) {
+            byte[] bytes = SeriesInfoBinaryCodec.encode(seriesInfo);
+            assertTrue(bytes.length <= SeriesInfoBinaryCodec.MAX_LENGTH);
+            assertEquals(SeriesInfoBinaryCodec.VERSION, bytes[0]);
+            assertEquals(seriesInfo, SeriesInfoBinaryCodec.toSeriesInfo(bytes));
+
+            byte[] buffer = new byte[SeriesInfoBinaryCodec.MAX_LENGTH + 3];
+            int length = SeriesInfoBinaryCodec.encode(seriesInfo, buffer, 3);
+            assertEquals(bytes.length, length);
+            assertEquals(seriesInfo, SeriesInfoBinaryCodec.toSeriesInfo(buffer, 3, length));
+        }
+
+        String seriesInfo = "W20210101ZZZZZZZZ003002NYNYNYN002";
+        RecurrenceRule rule = RecurrenceHelper.getRecurrenceRule(seriesInfo);
+        assertArrayEquals(SeriesInfoBinaryCodec.encode(seriesInfo), SeriesInfoBinaryCodec.encode(rule.getRecurrenceSettings()));
+        assertEquals(rule.getNextDate(LocalDateTime.of(2021, 1, 1, 0, 0)),
+                RecurrenceHelper.getRecurrenceRule(SeriesInfoBinaryCodec.encode(seriesInfo)).getNextDate(LocalDateTime.of(2021, 1, 1, 0, 0)));
+    }
+
+    @Test
+    public void SeriesInfoBinaryCodec_Invalid_Failure_Test() {
+        // Values that wouldn't come back as the same string are refused rather than changed.
+        List<String> seriesInfos = Arrays.asList(
+                "",
+                "X20210101ZZZZZZZZ002012001",
+                "D20210101ZZZZZZZZ00201200",
+                "D20210230ZZZZZZZZ002012001",
+                "D20210101ZZZZ0101002012001",
+                "D20210101ZZZZZZZZ002022001",
+                "D20210101ZZZZZZZZ-00012001",
+                "W20210101ZZZZZZZZ003002NYNYNYn002",
+                "M20210101ZZZZZZZZ00301200FJ000002",
+                "M20210101ZZZZZZZZ00301200EJ-5002",
+                "Y20210101ZZZZZZZZ0012120000BFM000");
+        for (String seriesInfo : seriesInfos) {
+            try {
+                SeriesInfoBinaryCodec.encode(seriesInfo);
+                fail("Expected an exception for " + seriesInfo);
+            } catch (IllegalArgumentException expected) {
+                // Expected
+            }
+        }
+
+        byte[] bytes = SeriesInfoBinaryCodec.encode("D20210101ZZZZZZZZ002012001");
+        bytes[0] = 2;
+        try {
+            SeriesInfoBinaryCodec.toSeriesInfo(bytes);
+            fail("Expected an exception for an unknown version");
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.kingsten.recurrences.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class SeriesInfoCodecTest {
+
+    @Test
+    public void SeriesInfoCodec_RoundTrip_Success_Test() throws Exception {
+        List<String> seriesInfos = Arrays.asList(
+                "D20210101ZZZZZZZZ002012001",
+                "D2021010120210301000001003",
+                "W20210101ZZZZZZZZ003002NYNYNYN002",
+                "W2021010120210401000001NNNNNNY003",
+                "M20210131ZZZZZZZZ00300231ZZ000001",
+                "M20210101ZZZZZZZZ00301200EJ-10002",
+                "Y20210101ZZZZZZZZ0010022902ZZZ000",
+                "Y20210101204001010000011506ZZZ-15",
+                "Y20210101ZZZZZZZZ0012120000BFC000");
+        for (String seriesInfo : seriesInfos) {
+            RecurrenceSettings settings = RecurrenceHelper.getRecurrenceRule(seriesInfo).getRecurrenceSettings();
+            assertEquals(seriesInfo, SeriesInfoCodec.encode(settings));
+
+            byte[] bytes = new byte[SeriesInfoCodec.MAX_LENGTH];
+            int length = SeriesInfoCodec.encode(settings, bytes, 2);
+            assertEquals(seriesInfo, new String(bytes, 2, length, StandardCharsets.US_ASCII));
+            assertEquals(describe(SeriesInfoCodec.decode(seriesInfo)), describe(SeriesInfoCodec.decode(bytes, 2, length)));
+        }
+        assertNull(SeriesInfoCodec.decode("X20210101ZZZZZZZZ002012001"));
+    }
+
+    private static String describe(RecurrenceInfo info) {
+        // SelectedDayOfWeekValues has no equals, so compare its day mask instead.
+        WeeklyRecurrenceSettings.SelectedDayOfWeekValues selectedDays = info.getSelectedDayOfWeekValues();
+        info.setSelectedDayOfWeekValues(null);
+        return info + (selectedDays == null ? "" : " " + selectedDays.getDayMask());
+    }
+
+    @Test
+    public void SeriesInfoCodec_MatchesStringFormat_Success_Test() {
+        // Numbers are padded like String.format("%0nd") and a negative adjustment like "%02d".
+        MonthlyRecurrenceSettings mo = new MonthlyRecurrenceSettings(LocalDateTime.of(2021, 1, 31, 10, 30), 12345);
+        mo.setValues(7, 1);
+        for (int adjustmentValue : new int[]{0, 5, 99, 100, 1000, -1, -5, -10, -100}) {
+            mo.setAdjustmentValue(adjustmentValue);
+            String expected = String.format("M%s%s%04d%s%s%02d%s%s%s%03d", "20210131", "ZZZZZZZZ", 12345, "0", "2", 7, "Z", "Z",
+                    adjustmentValue < 0 ? String.format("%02d", adjustmentValue) : String.format("%03d", adjustmentValue), 1);
+            assertEquals(expected, mo.getSeriesInfo());
+        }
+
+        WeeklyRecurrenceSettings we = new WeeklyRecurrenceSettings(LocalDateTime.of(999, 12, 31, 0, 0), -3);
+        we.setValues(1000, new WeeklyRecurrenceSettings.SelectedDayOfWeekValues());
+        assertEquals("W09991231ZZZZZZZZ-00302NNNNNNN1000", we.getSeriesInfo());
+    }
+}
@@ -2,10 +2,15 @@ package com.kingsten.recurrences.generator;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
 
 public class WeeklyRecurrenceSettingsTest {
 
@@ -42,4 +47,61 @@ public class WeeklyRecurrenceSettingsTest {
         System.out.println(WeeklyRecurrenceSettings.getPatternDefinition(values.seriesInfo));
 
     }
-}
\ No newline at end of file
+
+    /// <summary>
+    /// The selected days of a mask with Sunday as bit 0, as SelectedDayOfWeekValues.getDayMask() returns.
+    /// </summary>
+    private static WeeklyRecurrenceSettings.SelectedDayOfWeekValues getSelectedDays(int dayMask) {
+        WeeklyRecurrenceSettings.SelectedDayOfWeekValues selectedValues = new WeeklyRecurrenceSettings.SelectedDayOfWeekValues();
+        selectedValues.Sunday = (dayMask & 1) != 0;
+        selectedValues.Monday = (dayMask & 2) != 0;
+        selectedValues.Tuesday = (dayMask & 4) != 0;
+        selectedValues.Wednesday = (dayMask & 8) != 0;
+        selectedValues.Thursday = (dayMask & 16) != 0;
+        selectedValues.Friday = (dayMask & 32) != 0;
+        selectedValues.Saturday = (dayMask & 64) != 0;
+        return selectedValues;
+    }
+
+    @Test
+    public void WeeklyRecurrenceSettingsNextDateMatchesValuesTest() throws Exception {
+        for (int dayMask = 1; dayMask < 128; dayMask += 9) {
+            WeeklyRecurrenceSettings.SelectedDayOfWeekValues selectedValues = getSelectedDays(dayMask);
+
+            for (int startDay = 0; startDay < 7; startDay++) {
+                LocalDateTime startDate = LocalDateTime.of(2021, 3, 14, 0, 0).plusDays(startDay);
+                for (int regenEveryXWeeks = 0; regenEveryXWeeks <= 3; regenEveryXWeeks++) {
+                    WeeklyRecurrenceSettings we = new WeeklyRecurrenceSettings(startDate, 60);
+                    List<LocalDateTime> values = we.getValues(regenEveryXWeeks, selectedValues).getValues();
+
+                    RecurrenceAssert.assertNextDates(we, values, startDate.minusDays(8), Duration.ofDays(1));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void WeeklyRecurrenceSettingsNextDayMatchesDayByDayTest() {
+        LocalDateTime start = LocalDateTime.of(2021, 1, 3, 8, 15);
+        for (int dayMask = 1; dayMask < 128; dayMask++) {
+            WeeklyRecurrenceSettings.SelectedDayOfWeekValues selectedValues = getSelectedDays(dayMask);
+
+            for (int regenEveryXWeeks = 0; regenEveryXWeeks <= 3; regenEveryXWeeks++) {
+                WeeklyRecurrenceSettings we = new WeeklyRecurrenceSettings(start, 10);
+                we.setValues(regenEveryXWeeks, selectedValues);
+                for (int i = 0; i < 7; i++) {
+                    // Step a day at a time as the weekly dates were first written.
+                    LocalDateTime expected = start.plusDays(i);
+                    while (true) {
+                        expected = expected.plusDays(1);
+                        if ((dayMask & (1 << expected.getDayOfWeek().getValue() % 7)) != 0)
+                            break;
+                        if (expected.getDayOfWeek() == DayOfWeek.SATURDAY && regenEveryXWeeks > 1)
+                            expected = expected.plusDays((regenEveryXWeeks - 1) * 7);
+                    }
+                    assertEquals(expected, we.getNextDay(start.plusDays(i)));
+                }
+            }
+        }
+    }
+}
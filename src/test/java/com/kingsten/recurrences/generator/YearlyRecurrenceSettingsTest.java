@@ -2,10 +2,14 @@ package com.kingsten.recurrences.generator;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
 
 public class YearlyRecurrenceSettingsTest {
 
@@ -44,4 +48,35 @@ public class YearlyRecurrenceSettingsTest {
 
         System.out.println(YearlyRecurrenceSettings.getPatternDefinition(values.seriesInfo));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void YearlyRecurrenceSettingsNextDateMatchesValuesTest() throws Exception {
+        // Compare with series ending on a date, which like getNextDate keep the first date as found.
+        int[] adjustmentValues = {0, -2, 5};
+        for (int startDay = 0; startDay < 400; startDay += 53) {
+            LocalDateTime startDate = LocalDateTime.of(2019, 12, 20, 0, 0).plusDays(startDay);
+            for (int adjustmentValue : adjustmentValues) {
+                for (int monthValue = 1; monthValue <= 12; monthValue++) {
+                    for (int dayValue = 1; dayValue <= 31; dayValue += 7) {
+                        YearlyRecurrenceSettings yr = new YearlyRecurrenceSettings(startDate, startDate.plusYears(12));
+                        yr.setAdjustmentValue(adjustmentValue);
+                        assertNextDates(yr, yr.getValues(dayValue, monthValue).getValues());
+                    }
+                }
+                for (YearlyRecurrenceSettings.YearlySpecificDatePartOne partOne : YearlyRecurrenceSettings.YearlySpecificDatePartOne.values()) {
+                    for (YearlyRecurrenceSettings.YearlySpecificDatePartTwo partTwo : YearlyRecurrenceSettings.YearlySpecificDatePartTwo.values()) {
+                        if (partOne == YearlyRecurrenceSettings.YearlySpecificDatePartOne.NotSet || partTwo == YearlyRecurrenceSettings.YearlySpecificDatePartTwo.NotSet)
+                            continue;
+                        YearlyRecurrenceSettings yr = new YearlyRecurrenceSettings(startDate, startDate.plusYears(12));
+                        yr.setAdjustmentValue(adjustmentValue);
+                        assertNextDates(yr, yr.getValues(partOne, partTwo, YearlyRecurrenceSettings.YearlySpecificDatePartThree.February).getValues());
+                    }
+                }
+            }
+        }
+    }
+
+    private static void assertNextDates(RecurrenceSettings settings, List<LocalDateTime> values) throws Exception {
+        RecurrenceAssert.assertNextDates(settings, values, values.get(0).minusDays(10), Duration.ofDays(23));
+    }
+}
@@ -0,0 +1,71 @@
+package com.kingsten.recurrences.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ZoneTransitionsTest {
+
+    @Test
+    public void ZoneTransitions_MatchesZoneRules_Success_Test() {
+        // Lord Howe moves half an hour, Apia skipped 30 Dec 2011.
+        for (String zoneId : Arrays.asList("America/New_York", "Europe/London", "Australia/Lord_Howe",
+                "America/Santiago", "Pacific/Apia", "Asia/Kolkata", "UTC")) {
+            ZoneId zone = ZoneId.of(zoneId);
+            ZoneTransitions transitions = ZoneTransitions.of(zone);
+            for (LocalDateTime dateTime = LocalDateTime.of(2011, 1, 1, 0, 0); dateTime.getYear() < 2013; dateTime = dateTime.plusMinutes(15)) {
+                Instant expected = ZonedDateTime.of(dateTime, zone).toInstant();
+                assertEquals(zoneId + " " + dateTime, expected, transitions.toInstant(dateTime));
+                assertEquals(expected.toEpochMilli(), transitions.toEpochMilli(dateTime));
+
+                Instant instant = dateTime.toInstant(ZoneOffset.UTC);
+                assertEquals(zoneId + " " + instant, LocalDateTime.ofInstant(instant, zone), transitions.toLocalDateTime(instant));
+            }
+
+            // Outside the table ZoneRules is used.
+            LocalDateTime early = LocalDateTime.of(1850, 6, 1, 12, 0);
+            assertEquals(ZonedDateTime.of(early, zone).toInstant(), transitions.toInstant(early));
+        }
+    }
+
+    @Test
+    public void ZoneTransitions_RuleInstants_Success_Test() throws Exception {
+        ZoneId zone = ZoneId.of("America/New_York");
+        DailyRecurrenceSettings da = new DailyRecurrenceSettings(LocalDateTime.of(2021, 3, 10, 0, 0), 10);
+        da.setValues(1);
+        RecurrenceRule rule = RecurrenceHelper.getRecurrenceRule(da.getSeriesInfo()).withTimeZone(zone, LocalTime.of(2, 30));
+
+        // 2:30 on 14 Mar 2021 doesn't exist and happens at 3:30.
+        List<Instant> expected = rule.stream().map(d -> ZonedDateTime.of(d, zone).toInstant()).collect(Collectors.toList());
+        assertEquals(LocalDateTime.of(2021, 3, 14, 2, 30), rule.stream().skip(4).findFirst().get());
+        assertEquals(Instant.parse("2021-03-14T07:30:00Z"), expected.get(4));
+        RecurrenceQuery query = RecurrenceQuery.range(LocalDateTime.of(2021, 3, 10, 0, 0), LocalDateTime.of(2021, 3, 31, 0, 0));
+        assertEquals(expected, rule.instants(query).collect(Collectors.toList()));
+        assertEquals(expected.stream().map(Instant::toEpochMilli).collect(Collectors.toList()),
+                rule.epochMillis(query).boxed().collect(Collectors.toList()));
+
+        assertEquals(expected.get(0), rule.getNextInstant(Instant.parse("2021-03-01T00:00:00Z")));
+        for (int i = 1; i < expected.size(); i++) {
+            assertEquals(expected.get(i), rule.getNextInstant(expected.get(i - 1)));
+            assertEquals(expected.get(i), rule.getNextInstant(expected.get(i).minusSeconds(1)));
+        }
+
+        try {
+            RecurrenceHelper.getRecurrenceRule(da.getSeriesInfo()).instants(query);
+            fail("Expected an exception for a rule with no time zone");
+        } catch (IllegalStateException expectedException) {
+            // Expected
+        }
+    }
+}